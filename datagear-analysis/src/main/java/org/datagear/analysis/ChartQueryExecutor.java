@@ -0,0 +1,307 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.datagear.analysis;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图表查询并发执行器。
+ * <p>
+ * 它使用{@linkplain #getExecutorService()}并发执行看板内的多个图表查询，使得看板查询耗时取决于最慢的图表，而非所有图表耗时之和。
+ * </p>
+ * <p>
+ * {@linkplain #getParallelism()}限定单个看板查询最多同时占用的线程数，避免单个看板占满线程池；
+ * {@linkplain #getChartTimeout()}限定单个图表查询的最长等待时间，超时的图表查询将被取消，并以{@linkplain ChartQueryTimeoutException}作为其错误。
+ * </p>
+ * <p>
+ * 当线程池拒绝执行时（比如队列已满），图表查询将在调用线程中直接执行。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ChartQueryExecutor
+{
+	private ExecutorService executorService;
+
+	/** 单个看板查询的最大并行数，小于等于{@code 0}表示不限定 */
+	private int parallelism = 0;
+
+	/** 单个图表查询的超时毫秒数，小于等于{@code 0}表示不限定 */
+	private long chartTimeout = 0;
+
+	public ChartQueryExecutor()
+	{
+		super();
+	}
+
+	public ChartQueryExecutor(ExecutorService executorService)
+	{
+		super();
+		this.executorService = executorService;
+	}
+
+	public ExecutorService getExecutorService()
+	{
+		return executorService;
+	}
+
+	public void setExecutorService(ExecutorService executorService)
+	{
+		this.executorService = executorService;
+	}
+
+	public int getParallelism()
+	{
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism)
+	{
+		this.parallelism = parallelism;
+	}
+
+	public long getChartTimeout()
+	{
+		return chartTimeout;
+	}
+
+	public void setChartTimeout(long chartTimeout)
+	{
+		this.chartTimeout = chartTimeout;
+	}
+
+	/**
+	 * 执行图表查询。
+	 * 
+	 * @param tasks
+	 * @param suppressChartError
+	 *            是否不抛出图表查询异常，而仅将其写入{@code chartResultErrors}
+	 * @param chartResults
+	 *            用于写入图表结果
+	 * @param chartResultErrors
+	 *            用于写入图表结果错误
+	 * @throws DataSetException
+	 */
+	public void execute(List<ChartQueryTask> tasks, boolean suppressChartError, Map<String, ChartResult> chartResults,
+			Map<String, ChartResultError> chartResultErrors) throws DataSetException
+	{
+		int maxParallelism = (this.parallelism > 0 ? Math.min(this.parallelism, tasks.size()) : tasks.size());
+
+		CompletionService<ChartResult> completionService = new ExecutorCompletionService<ChartResult>(
+				this.executorService);
+
+		// 按提交顺序排列，首个元素即是最早超时的
+		Map<Future<ChartResult>, ChartQueryTask> runnings = new LinkedHashMap<Future<ChartResult>, ChartQueryTask>();
+		Map<Future<ChartResult>, Long> deadlines = new LinkedHashMap<Future<ChartResult>, Long>();
+
+		Iterator<ChartQueryTask> taskIt = tasks.iterator();
+
+		try
+		{
+			while (runnings.size() < maxParallelism && taskIt.hasNext())
+				submit(completionService, taskIt.next(), suppressChartError, chartResults, chartResultErrors,
+						runnings, deadlines);
+
+			while (!runnings.isEmpty())
+			{
+				Future<ChartResult> future = null;
+
+				if (this.chartTimeout > 0)
+				{
+					Map.Entry<Future<ChartResult>, Long> earliest = deadlines.entrySet().iterator().next();
+					long waitNanos = earliest.getValue() - System.nanoTime();
+
+					future = (waitNanos > 0 ? completionService.poll(waitNanos, TimeUnit.NANOSECONDS) : null);
+
+					if (future == null)
+					{
+						future = earliest.getKey();
+
+						// 可能恰好在此时执行完成
+						if (!future.isDone())
+						{
+							future.cancel(true);
+							ChartQueryTask task = runnings.remove(future);
+							deadlines.remove(future);
+
+							handleError(task, new ChartQueryTimeoutException(this.chartTimeout), suppressChartError,
+									chartResultErrors);
+
+							if (taskIt.hasNext())
+								submit(completionService, taskIt.next(), suppressChartError, chartResults,
+										chartResultErrors, runnings, deadlines);
+
+							continue;
+						}
+					}
+				}
+				else
+					future = completionService.take();
+
+				ChartQueryTask task = runnings.remove(future);
+				deadlines.remove(future);
+
+				// 已超时取消的
+				if (task == null)
+					continue;
+
+				try
+				{
+					chartResults.put(task.getChartId(), future.get());
+				}
+				catch (ExecutionException e)
+				{
+					handleError(task, e.getCause(), suppressChartError, chartResultErrors);
+				}
+
+				if (taskIt.hasNext())
+					submit(completionService, taskIt.next(), suppressChartError, chartResults, chartResultErrors,
+							runnings, deadlines);
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new DataSetException(e);
+		}
+		finally
+		{
+			for (Future<ChartResult> future : runnings.keySet())
+				future.cancel(true);
+		}
+	}
+
+	/**
+	 * 关闭。
+	 */
+	public void shutdown()
+	{
+		if (this.executorService != null)
+			this.executorService.shutdown();
+	}
+
+	protected void submit(CompletionService<ChartResult> completionService, ChartQueryTask task,
+			boolean suppressChartError, Map<String, ChartResult> chartResults,
+			Map<String, ChartResultError> chartResultErrors, Map<Future<ChartResult>, ChartQueryTask> runnings,
+			Map<Future<ChartResult>, Long> deadlines) throws DataSetException
+	{
+		Future<ChartResult> future = null;
+
+		try
+		{
+			future = completionService.submit(task);
+		}
+		catch (RejectedExecutionException e)
+		{
+			future = null;
+		}
+
+		if (future != null)
+		{
+			runnings.put(future, task);
+			deadlines.put(future, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.chartTimeout));
+		}
+		// 线程池已满，在调用线程中执行
+		else
+		{
+			try
+			{
+				chartResults.put(task.getChartId(), task.call());
+			}
+			catch (Throwable t)
+			{
+				handleError(task, t, suppressChartError, chartResultErrors);
+			}
+		}
+	}
+
+	protected void handleError(ChartQueryTask task, Throwable t, boolean suppressChartError,
+			Map<String, ChartResultError> chartResultErrors) throws DataSetException
+	{
+		if (suppressChartError)
+		{
+			chartResultErrors.put(task.getChartId(), new ChartResultError(t));
+		}
+		else
+		{
+			if (t instanceof RuntimeException)
+				throw (RuntimeException) t;
+			else if (t instanceof Error)
+				throw (Error) t;
+			else
+				throw new DataSetException(t);
+		}
+	}
+
+	/**
+	 * 图表查询任务。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class ChartQueryTask implements Callable<ChartResult>
+	{
+		private final String chartId;
+
+		private final ChartDefinition chart;
+
+		private final ChartQuery chartQuery;
+
+		public ChartQueryTask(String chartId, ChartDefinition chart, ChartQuery chartQuery)
+		{
+			super();
+			this.chartId = chartId;
+			this.chart = chart;
+			this.chartQuery = chartQuery;
+		}
+
+		public String getChartId()
+		{
+			return chartId;
+		}
+
+		public ChartDefinition getChart()
+		{
+			return chart;
+		}
+
+		public ChartQuery getChartQuery()
+		{
+			return chartQuery;
+		}
+
+		@Override
+		public ChartResult call() throws DataSetException
+		{
+			return this.chart.getResult(this.chartQuery);
+		}
+	}
+}
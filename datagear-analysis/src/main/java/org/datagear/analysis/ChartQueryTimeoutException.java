@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.datagear.analysis;
+
+/**
+ * 图表查询超时异常。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ChartQueryTimeoutException extends DataSetException
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 超时毫秒数 */
+	private long timeout;
+
+	public ChartQueryTimeoutException(long timeout)
+	{
+		super("Chart query timeout after " + timeout + "ms");
+		this.timeout = timeout;
+	}
+
+	public long getTimeout()
+	{
+		return timeout;
+	}
+
+	protected void setTimeout(long timeout)
+	{
+		this.timeout = timeout;
+	}
+}
@@ -17,9 +17,13 @@
 
 package org.datagear.analysis;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.datagear.analysis.ChartQueryExecutor.ChartQueryTask;
+
 /**
  * {@linkplain DashboardQuery}处理器。
  * 
@@ -28,13 +32,29 @@ import java.util.Map;
  */
 public abstract class DashboardQueryHandler
 {
+	/** 图表查询并发执行器，为{@code null}或者未设置线程池时将串行执行图表查询 */
+	private ChartQueryExecutor chartQueryExecutor = null;
+
 	public DashboardQueryHandler()
 	{
 		super();
 	}
 
+	public ChartQueryExecutor getChartQueryExecutor()
+	{
+		return chartQueryExecutor;
+	}
+
+	public void setChartQueryExecutor(ChartQueryExecutor chartQueryExecutor)
+	{
+		this.chartQueryExecutor = chartQueryExecutor;
+	}
+
 	/**
 	 * 获取{@linkplain DashboardResult}。
+	 * <p>
+	 * 如果设置了{@linkplain #getChartQueryExecutor()}，图表查询将会并发执行。
+	 * </p>
 	 * 
 	 * @param query
 	 * @return
@@ -45,8 +65,7 @@ public abstract class DashboardQueryHandler
 		Map<String, ChartQuery> chartQueries = query.getChartQueries();
 		boolean suppressChartError = query.isSuppressChartError();
 
-		Map<String, ChartResult> chartResults = new HashMap<String, ChartResult>(chartQueries.size());
-		Map<String, ChartResultError> chartResultErrors = new HashMap<String, ChartResultError>();
+		List<ChartQueryTask> tasks = new ArrayList<ChartQueryTask>(chartQueries.size());
 
 		for (Map.Entry<String, ChartQuery> entry : chartQueries.entrySet())
 		{
@@ -64,25 +83,37 @@ public abstract class DashboardQueryHandler
 				chartQuery.setResultDataFormat(query.getResultDataFormat());
 			}
 
-			ChartResult chartResult = null;
+			tasks.add(new ChartQueryTask(chartId, chart, chartQuery));
+		}
 
-			if (suppressChartError)
+		Map<String, ChartResult> chartResults = new HashMap<String, ChartResult>(chartQueries.size());
+		Map<String, ChartResultError> chartResultErrors = new HashMap<String, ChartResultError>();
+
+		if (this.chartQueryExecutor != null && this.chartQueryExecutor.getExecutorService() != null
+				&& tasks.size() > 1)
+		{
+			this.chartQueryExecutor.execute(tasks, suppressChartError, chartResults, chartResultErrors);
+		}
+		else
+		{
+			for (ChartQueryTask task : tasks)
 			{
-				try
+				if (suppressChartError)
 				{
-					chartResult = chart.getResult(chartQuery);
-					chartResults.put(chartId, chartResult);
+					try
+					{
+						chartResults.put(task.getChartId(), task.call());
+					}
+					catch (Throwable t)
+					{
+						chartResultErrors.put(task.getChartId(), new ChartResultError(t));
+					}
 				}
-				catch (Throwable t)
+				else
 				{
-					chartResultErrors.put(chartId, new ChartResultError(t));
+					chartResults.put(task.getChartId(), task.call());
 				}
 			}
-			else
-			{
-				chartResult = chart.getResult(chartQuery);
-				chartResults.put(chartId, chartResult);
-			}
 		}
 
 		DashboardResult dashboardResult = new DashboardResult(chartResults);
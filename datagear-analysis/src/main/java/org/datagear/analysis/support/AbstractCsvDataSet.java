@@ -20,7 +20,7 @@ package org.datagear.analysis.support;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -30,6 +30,7 @@ import org.apache.commons.csv.CSVRecord;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.ResolvableDataSet;
 import org.datagear.analysis.support.AbstractCsvDataSet.CsvDataSetResource;
+import org.datagear.util.CompactRow;
 import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 
@@ -49,9 +50,17 @@ public abstract class AbstractCsvDataSet<T extends CsvDataSetResource> extends A
 	 */
 	public static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder().setIgnoreSurroundingSpaces(true).build();
 
+	/**
+	 * 默认解析{@linkplain DataSetProperty}时的最多采样数据条数。
+	 */
+	public static final int DEFAULT_PROPERTY_SAMPLE_SIZE = 1000;
+
 	/** 作为名称行的行号 */
 	private int nameRow = -1;
 
+	/** 解析属性时的最多采样数据条数 */
+	private int propertySampleSize = DEFAULT_PROPERTY_SAMPLE_SIZE;
+
 	public AbstractCsvDataSet()
 	{
 		super();
@@ -98,8 +107,40 @@ public abstract class AbstractCsvDataSet<T extends CsvDataSetResource> extends A
 		this.nameRow = nameRow;
 	}
 
+	/**
+	 * 获取解析{@linkplain DataSetProperty}时的最多采样数据条数。
+	 *
+	 * @return
+	 */
+	public int getPropertySampleSize()
+	{
+		return propertySampleSize;
+	}
+
+	/**
+	 * 设置解析{@linkplain DataSetProperty}时的最多采样数据条数。
+	 *
+	 * @param propertySampleSize
+	 *            小于等于{@code 0}表示采样全部数据
+	 */
+	public void setPropertySampleSize(int propertySampleSize)
+	{
+		this.propertySampleSize = propertySampleSize;
+	}
+
 	@Override
 	protected ResourceData resolveResourceData(T resource, boolean resolveProperties) throws Throwable
+	{
+		return resolveResourceData(resource, resolveProperties, -1);
+	}
+
+	/**
+	 * 逐行流式读取CSV记录，而不是一次性读取全部{@linkplain CSVRecord}，
+	 * 数据行直接存储为共享属性名的{@linkplain CompactRow}，且最多读取{@code maxDataSize}条。
+	 */
+	@Override
+	protected ResourceData resolveResourceData(T resource, boolean resolveProperties, int maxDataSize)
+			throws Throwable
 	{
 		Reader reader = null;
 
@@ -108,17 +149,72 @@ public abstract class AbstractCsvDataSet<T extends CsvDataSetResource> extends A
 			reader = resource.getReader();
 
 			CSVParser csvParser = buildCSVParser(reader);
-			List<CSVRecord> csvRecords = csvParser.getRecords();
+			Iterator<CSVRecord> csvRecords = csvParser.iterator();
+
+			// 名称行及其之前的记录，用于解析属性名
+			List<CSVRecord> headRecords = new ArrayList<>(Math.max(resource.getNameRow(), 1));
+			CSVRecord firstAfterNameRow = null;
+
+			while (csvRecords.hasNext())
+			{
+				CSVRecord csvRecord = csvRecords.next();
 
-			List<String> propertyNames = resolvePropertyNames(resource, csvRecords);
-			List<Map<String, String>> data = resolveData(resource, propertyNames, csvRecords);
+				if (resource.isAfterNameRow(headRecords.size()))
+				{
+					firstAfterNameRow = csvRecord;
+					break;
+				}
+
+				headRecords.add(csvRecord);
+			}
+
+			List<String> propertyNames = resolvePropertyNames(resource,
+					(headRecords.isEmpty() && firstAfterNameRow != null ? Collections.singletonList(firstAfterNameRow)
+							: headRecords));
+
+			String[] names = propertyNames.toArray(new String[propertyNames.size()]);
+			CompactRow.Schema schema = CompactRow.Schema.valueOf(names);
+			int[] slots = CompactRow.Schema.slotsOf(schema, names);
+
+			List<Map<String, Object>> data = new ArrayList<>();
+			boolean truncated = false;
+
+			for (int i = 0, len = headRecords.size(); i < len && !truncated; i++)
+			{
+				if (resource.isNameRow(i))
+					continue;
+
+				if (maxDataSize > 0 && data.size() >= maxDataSize)
+					truncated = true;
+				else
+					data.add(toCompactRow(schema, slots, headRecords.get(i)));
+			}
+
+			// 名称行之前的记录已不再需要
+			headRecords = null;
+
+			CSVRecord csvRecord = firstAfterNameRow;
+
+			while (csvRecord != null && !truncated)
+			{
+				if (maxDataSize > 0 && data.size() >= maxDataSize)
+					truncated = true;
+				else
+				{
+					data.add(toCompactRow(schema, slots, csvRecord));
+					csvRecord = (csvRecords.hasNext() ? csvRecords.next() : null);
+				}
+			}
 
 			List<DataSetProperty> properties = null;
 
 			if (resolveProperties)
 				properties = resolveProperties(propertyNames, data);
 
-			return new ResourceData(data, properties);
+			ResourceData resourceData = new ResourceData(data, properties);
+			resourceData.setTruncated(truncated);
+
+			return resourceData;
 		}
 		finally
 		{
@@ -126,6 +222,25 @@ public abstract class AbstractCsvDataSet<T extends CsvDataSetResource> extends A
 		}
 	}
 
+	/**
+	 * 将{@linkplain CSVRecord}转换为{@linkplain CompactRow}，超出属性名个数的列将被忽略。
+	 *
+	 * @param schema
+	 * @param slots
+	 *            {@linkplain CompactRow.Schema#slotsOf(CompactRow.Schema, String...)}
+	 * @param csvRecord
+	 * @return
+	 */
+	protected CompactRow toCompactRow(CompactRow.Schema schema, int[] slots, CSVRecord csvRecord)
+	{
+		Object[] values = new Object[schema.size()];
+
+		for (int j = 0, jlen = Math.min(csvRecord.size(), slots.length); j < jlen; j++)
+			values[slots[j]] = csvRecord.get(j);
+
+		return new CompactRow(schema, values);
+	}
+
 	/**
 	 * 解析属性名。
 	 * 
@@ -175,52 +290,19 @@ public abstract class AbstractCsvDataSet<T extends CsvDataSetResource> extends A
 		return propertyNames;
 	}
 
-	/**
-	 * 解析数据。
-	 * 
-	 * @param resource
-	 * @param propertyNames
-	 * @param csvRecords
-	 * @return
-	 * @throws Throwable
-	 */
-	protected List<Map<String, String>> resolveData(CsvDataSetResource resource, List<String> propertyNames,
-			List<CSVRecord> csvRecords) throws Throwable
-	{
-		List<Map<String, String>> data = new ArrayList<>();
-
-		for (int i = 0, len = csvRecords.size(); i < len; i++)
-		{
-			if (resource.isNameRow(i))
-				continue;
-
-			Map<String, String> row = new HashMap<>();
-
-			CSVRecord csvRecord = csvRecords.get(i);
-			for (int j = 0, jlen = Math.min(csvRecord.size(), propertyNames.size()); j < jlen; j++)
-			{
-				String name = propertyNames.get(j);
-				String value = csvRecord.get(j);
-
-				row.put(name, value);
-			}
-
-			data.add(row);
-		}
-
-		return data;
-	}
-
 	/**
 	 * 解析{@linkplain DataSetProperty}。
+	 * <p>
+	 * 最多仅采样{@linkplain #getPropertySampleSize()}条数据推断属性类型。
+	 * </p>
 	 * 
 	 * @param propertyNames
 	 * @param data              允许为{@code null}
 	 * @return
 	 * @throws Throwable
 	 */
-	protected List<DataSetProperty> resolveProperties(List<String> propertyNames, List<Map<String, String>> data)
-			throws Throwable
+	protected List<DataSetProperty> resolveProperties(List<String> propertyNames,
+			List<? extends Map<String, ?>> data) throws Throwable
 	{
 		int propertyLen = propertyNames.size();
 		List<DataSetProperty> properties = new ArrayList<>(propertyLen);
@@ -233,20 +315,24 @@ public abstract class AbstractCsvDataSet<T extends CsvDataSetResource> extends A
 		if (data != null && data.size() > 0)
 		{
 			Boolean[] isNumbers = new Boolean[propertyLen];
+			int sampleSize = (this.propertySampleSize > 0 ? Math.min(this.propertySampleSize, data.size())
+					: data.size());
 	
-			for (Map<String, String> row : data)
+			for (int r = 0; r < sampleSize; r++)
 			{
+				Map<String, ?> row = data.get(r);
+
 				for (int i = 0; i < propertyLen; i++)
 				{
 					if (Boolean.FALSE.equals(isNumbers[i]))
 						continue;
 	
-					String value = row.get(propertyNames.get(i));
+					Object value = row.get(propertyNames.get(i));
 
-					if (StringUtil.isEmpty(value))
+					if (value == null || StringUtil.isEmpty(value.toString()))
 						continue;
 
-					isNumbers[i] = isNumberString(value);
+					isNumbers[i] = isNumberString(value.toString());
 				}
 			}
 	
@@ -36,6 +36,7 @@ import org.datagear.analysis.NameAwareUtil;
 import org.datagear.analysis.ResolvedDataSetResult;
 import org.datagear.analysis.ResultDataFormat;
 import org.datagear.analysis.support.DataSetPropertyExpEvaluator.ValueSetter;
+import org.datagear.util.CompactRow;
 
 /**
  * 抽象{@linkplain DataSet}。
@@ -58,6 +59,9 @@ public abstract class AbstractDataSet extends AbstractIdentifiable implements Da
 	/** 底层数据转换格式 */
 	private DataFormat dataFormat = DataFormat.DEFAULT;
 
+	/** 属性表达式计算器，为{@code null}时使用{@linkplain DataSetPropertyExpEvaluator#DEFAULT} */
+	private transient DataSetPropertyExpEvaluator propertyExpEvaluator = null;
+
 	public AbstractDataSet()
 	{
 		super();
@@ -267,6 +271,15 @@ public abstract class AbstractDataSet extends AbstractIdentifiable implements Da
 		List<Map<String, Object>> data = new ArrayList<>(dataSize);
 
 		int plen = properties.size();
+		boolean mutableModel = isMutableModel();
+
+		String[] names = new String[plen];
+		for (int i = 0; i < plen; i++)
+			names[i] = properties.get(i).getName();
+
+		// 非易变模型的结果行只包含属性，所有行共享属性名及位置，避免每行创建HashMap
+		CompactRow.Schema schema = (mutableModel ? null : CompactRow.Schema.valueOf(names));
+		int[] slots = (mutableModel ? null : CompactRow.Schema.slotsOf(schema, names));
 
 		for (Map<String, ?> rowRaw : rawData)
 		{
@@ -274,24 +287,27 @@ public abstract class AbstractDataSet extends AbstractIdentifiable implements Da
 				break;
 
 			// 易变模型应保留所有原始数据
-			Map<String, Object> row = (isMutableModel() ? new HashMap<>(rowRaw) : new HashMap<>());
+			Map<String, Object> row = (mutableModel ? new HashMap<>(rowRaw) : null);
+			Object[] values = (mutableModel ? null : new Object[schema.size()]);
 
 			for (int i = 0; i < plen; i++)
 			{
 				DataSetProperty property = properties.get(i);
 
-				String name = property.getName();
-				Object value = rowRaw.get(name);
+				Object value = rowRaw.get(names[i]);
 				value = convertToPropertyDataType(converter, value, property);
 				
 				//无论是否计算属性，这里都应设置默认值
 				if(value == null)
 					value = defaultValues.get(i);
 
-				row.put(name, value);
+				if (mutableModel)
+					row.put(names[i], value);
+				else
+					values[slots[i]] = value;
 			}
 
-			data.add(row);
+			data.add(mutableModel ? row : new CompactRow(schema, values));
 		}
 		
 		// 计算表达式
@@ -346,9 +362,25 @@ public abstract class AbstractDataSet extends AbstractIdentifiable implements Da
 		}
 	}
 
+	public DataSetPropertyExpEvaluator getPropertyExpEvaluator()
+	{
+		return propertyExpEvaluator;
+	}
+
+	/**
+	 * 设置属性表达式计算器。
+	 * 
+	 * @param propertyExpEvaluator
+	 *            允许为{@code null}，此时使用{@linkplain DataSetPropertyExpEvaluator#DEFAULT}
+	 */
+	public void setPropertyExpEvaluator(DataSetPropertyExpEvaluator propertyExpEvaluator)
+	{
+		this.propertyExpEvaluator = propertyExpEvaluator;
+	}
+
 	protected DataSetPropertyExpEvaluator getDataSetPropertyExpEvaluator()
 	{
-		return DataSetPropertyExpEvaluator.DEFAULT;
+		return (this.propertyExpEvaluator != null ? this.propertyExpEvaluator : DataSetPropertyExpEvaluator.DEFAULT);
 	}
 
 	protected List<Object> getDefaultValues(List<DataSetProperty> properties,
@@ -17,26 +17,59 @@
 
 package org.datagear.analysis.support;
 
+import static org.apache.poi.xssf.usermodel.XSSFRelation.NS_SPREADSHEETML;
+
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.TreeSet;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.EventWorkbookBuilder.SheetRecordCollectingListener;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.model.HSSFFormulaParser;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.RKRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
-import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DateUtil;
-import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellReference;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.DataSetQuery;
 import org.datagear.analysis.support.AbstractExcelDataSet.ExcelDataSetResource;
 import org.datagear.analysis.support.RangeExpResolver.IndexRange;
 import org.datagear.analysis.support.RangeExpResolver.Range;
@@ -44,6 +77,11 @@ import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * 抽象Excel数据集。
@@ -56,6 +94,11 @@ import org.slf4j.LoggerFactory;
  * <p>
  * 通过{@linkplain #setNameRow(int)}可设置名称行。
  * </p>
+ * <p>
+ * 此类采用事件模式流式读取Excel（{@code .xls}使用{@code HSSF}事件模型，{@code .xlsx}使用{@code SAX}解析sheet），
+ * 读取时即应用行、列范围，且在读取到足够的数据（参考{@linkplain DataSetQuery#getResultFetchSize()}）或者已无数据行时提前结束，
+ * 而不会构建完整的{@linkplain Workbook}。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -250,34 +293,50 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 	@Override
 	protected ResourceData resolveResourceData(T resource, boolean resolveProperties) throws Throwable
 	{
+		return resolveResourceData(resource, resolveProperties, -1);
+	}
+
+	@Override
+	protected ResourceData resolveResourceData(T resource, boolean resolveProperties, int maxDataSize)
+			throws Throwable
+	{
+		ExcelSheetDataCollector collector = new ExcelSheetDataCollector(resource, maxDataSize);
+
 		if (resource.isXls())
-			return resolveExcelResourceDataForXls(resource, resolveProperties);
+			readXlsSheet(resource, collector);
 		else
-			return resolveExcelResourceDataForXlsx(resource, resolveProperties);
+			readXlsxSheet(resource, collector);
+
+		return collector.toResourceData(resolveProperties);
 	}
 
 	/**
-	 * 解析{@code ExcelResourceData}。
+	 * 以事件模式读取{@code .xls}数据sheet。
 	 * 
 	 * @param resource
-	 * @return
+	 * @param collector
 	 * @throws DataSetException
 	 */
-	protected ResourceData resolveExcelResourceDataForXls(T resource, boolean resolveProperties)
-			throws DataSetException
+	protected void readXlsSheet(T resource, ExcelSheetDataCollector collector) throws DataSetException
 	{
 		InputStream in = null;
 		POIFSFileSystem poifs = null;
-		HSSFWorkbook wb = null;
 
 		try
 		{
 			in = resource.getInputStream();
 			poifs = new POIFSFileSystem(in);
-			wb = new HSSFWorkbook(poifs.getRoot(), true);
-			Sheet sheet = resource.getDataSheet(wb);
 
-			return resolveExcelResourceDataForSheet(resource, sheet, resolveProperties);
+			XlsSheetListener listener = new XlsSheetListener(resource, collector);
+
+			HSSFRequest request = new HSSFRequest();
+			request.addListenerForAllRecords(listener);
+
+			HSSFEventFactory factory = new HSSFEventFactory();
+			factory.abortableProcessWorkbookEvents(request, poifs);
+
+			if (!listener.isSheetFound())
+				throw new DataSetSourceParseException("No sheet found");
 		}
 		catch (DataSetException e)
 		{
@@ -289,33 +348,47 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 		}
 		finally
 		{
-			IOUtil.close(wb);
 			IOUtil.close(poifs);
 			IOUtil.close(in);
 		}
 	}
 
 	/**
-	 * 解析{@code ExcelResourceData}。
+	 * 以SAX模式读取{@code .xlsx}数据sheet。
 	 * 
 	 * @param resource
-	 * @return
-	 * @throws Throwable
+	 * @param collector
+	 * @throws DataSetException
 	 */
-	protected ResourceData resolveExcelResourceDataForXlsx(T resource, boolean resolveProperties) throws Throwable
+	protected void readXlsxSheet(T resource, ExcelSheetDataCollector collector) throws DataSetException
 	{
 		InputStream in = null;
 		OPCPackage pkg = null;
-		XSSFWorkbook wb = null;
+		InputStream sheetIn = null;
 
 		try
 		{
 			in = resource.getInputStream();
 			pkg = OPCPackage.open(in);
-			wb = new XSSFWorkbook(pkg);
-			Sheet sheet = resource.getDataSheet(wb);
 
-			return resolveExcelResourceDataForSheet(resource, sheet, resolveProperties);
+			XSSFReader xssfReader = new XSSFReader(pkg);
+			sheetIn = getXlsxDataSheet(resource, xssfReader);
+
+			ReadOnlySharedStringsTable sharedStringsTable = new ReadOnlySharedStringsTable(pkg, false);
+			StylesTable stylesTable = xssfReader.getStylesTable();
+			boolean date1904 = isXlsxDate1904(xssfReader);
+
+			XMLReader sheetParser = XMLHelper.newXMLReader();
+			sheetParser.setContentHandler(
+					new XlsxSheetHandler(collector, sharedStringsTable, stylesTable, date1904));
+
+			try
+			{
+				sheetParser.parse(new InputSource(sheetIn));
+			}
+			catch (XlsxSheetReadStopException e)
+			{
+			}
 		}
 		catch (DataSetException e)
 		{
@@ -327,119 +400,92 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 		}
 		finally
 		{
-			IOUtil.close(wb);
-			IOUtil.close(pkg);
+			IOUtil.close(sheetIn);
+
+			// 只读，无需保存
+			if (pkg != null)
+				pkg.revert();
+
 			IOUtil.close(in);
 		}
 	}
-	
+
 	/**
-	 * 解析sheet数据。
+	 * 获取{@code .xlsx}数据sheet的输入流。
 	 * 
 	 * @param resource
-	 * @param sheet
-	 * @param resolveProperties
+	 * @param xssfReader
 	 * @return
 	 * @throws Throwable
 	 */
-	protected ResourceData resolveExcelResourceDataForSheet(T resource, Sheet sheet, boolean resolveProperties)
-			throws Throwable
+	protected InputStream getXlsxDataSheet(T resource, XSSFReader xssfReader) throws Throwable
 	{
-		List<Row> excelRows = new ArrayList<Row>();
+		XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+		int index = 0;
 
-		for (Row row : sheet)
-			excelRows.add(row);
-
-		List<ExcelPropertyInfo> propertyInfos = resolvePropertyInfos(resource, excelRows);
-		List<Map<String, Object>> data = resolveData(resource, propertyInfos, excelRows);
+		while (iter.hasNext())
+		{
+			InputStream in = iter.next();
 
-		List<DataSetProperty> properties = null;
+			if (resource.isDataSheet(iter.getSheetName(), index))
+				return in;
 
-		if (resolveProperties)
-		{
-			List<String> rawDataPropertyNames = toPropertyNames(propertyInfos);
-			properties = resolveProperties(rawDataPropertyNames, data);
+			IOUtil.close(in);
+			index++;
 		}
 
-		return new ResourceData(data, properties);
+		throw new DataSetSourceParseException("No sheet found");
 	}
 
 	/**
-	 * 解析属性信息。
+	 * {@code .xlsx}是否采用1904日期系统。
 	 * 
-	 * @param resource
-	 * @param excelRows
+	 * @param xssfReader
 	 * @return
 	 * @throws Throwable
 	 */
-	protected List<ExcelPropertyInfo> resolvePropertyInfos(T resource, List<Row> excelRows)
-			throws Throwable
+	protected boolean isXlsxDate1904(XSSFReader xssfReader) throws Throwable
 	{
-		List<ExcelPropertyInfo> propertyInfos = null;
+		InputStream in = null;
 
-		for (int i = 0, len = excelRows.size(); i < len; i++)
+		try
 		{
-			Row row = excelRows.get(i);
+			in = xssfReader.getWorkbookData();
 
-			if (resource.isNameRow(i))
-			{
-				propertyInfos = new ArrayList<ExcelPropertyInfo>();
+			boolean[] date1904 = new boolean[] { false };
 
-				short minColIdx = row.getFirstCellNum(), maxColIdx = row.getLastCellNum();
-				for (short colIdx = minColIdx; colIdx < maxColIdx; colIdx++)
+			XMLReader parser = XMLHelper.newXMLReader();
+			parser.setContentHandler(new DefaultHandler()
+			{
+				@Override
+				public void startElement(String uri, String localName, String qName, Attributes attributes)
+						throws SAXException
 				{
-					if (resource.isDataColumn(colIdx))
+					if ("workbookPr".equals(localName))
 					{
-						String name = null;
-
-						Cell cell = row.getCell(colIdx);
-
-						if (cell != null)
-						{
-							try
-							{
-								name = cell.getStringCellValue();
-							}
-							catch(Throwable t)
-							{
-							}
-						}
-
-						if (StringUtil.isEmpty(name))
-							name = CellReference.convertNumToColString(colIdx);
-
-						propertyInfos.add(new ExcelPropertyInfo(name, colIdx));
+						String value = attributes.getValue("date1904");
+						date1904[0] = ("1".equals(value) || "true".equalsIgnoreCase(value));
+						throw new XlsxSheetReadStopException();
 					}
+					else if ("sheets".equals(localName))
+						throw new XlsxSheetReadStopException();
 				}
+			});
 
-				break;
+			try
+			{
+				parser.parse(new InputSource(in));
 			}
-			else if (resource.isDataRow(i))
+			catch (XlsxSheetReadStopException e)
 			{
-				if (propertyInfos == null)
-				{
-					propertyInfos = new ArrayList<ExcelPropertyInfo>();
-
-					short minColIdx = row.getFirstCellNum(), maxColIdx = row.getLastCellNum();
-					for (short colIdx = minColIdx; colIdx < maxColIdx; colIdx++)
-					{
-						if (resource.isDataColumn(colIdx))
-						{
-							String name = CellReference.convertNumToColString(colIdx);
-							propertyInfos.add(new ExcelPropertyInfo(name, colIdx));
-						}
-					}
-				}
-
-				if (resource.isAfterNameRow(i))
-					break;
 			}
-		}
 
-		if (propertyInfos == null)
-			propertyInfos = Collections.emptyList();
-
-		return propertyInfos;
+			return date1904[0];
+		}
+		finally
+		{
+			IOUtil.close(in);
+		}
 	}
 
 	/**
@@ -489,135 +535,903 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 		return properties;
 	}
 
+	protected Map<Short, String> toCellNumPropertyNames(List<ExcelPropertyInfo> propertyInfos)
+	{
+		Map<Short, String> re = new HashMap<Short, String>();
+
+		for (ExcelPropertyInfo epi : propertyInfos)
+			re.put(epi.getCellIdx(), epi.getName());
+
+		return re;
+	}
+
+	protected List<String> toPropertyNames(List<ExcelPropertyInfo> propertyInfos)
+	{
+		List<String> re = new ArrayList<String>(propertyInfos.size());
+
+		for (ExcelPropertyInfo epi : propertyInfos)
+			re.add(epi.getName());
+
+		return re;
+	}
+
 	/**
-	 * 解析数据。
+	 * 解析数值单元格的值。
 	 * 
-	 * @param resource
-	 * @param propertyInfos
-	 * @param excelRows
-	 * @return
-	 * @throws Throwable
+	 * @param value
+	 * @param formatIndex
+	 * @param formatString
+	 *            允许为{@code null}
+	 * @param date1904
+	 * @return {@linkplain Date}、{@linkplain Double}
 	 */
-	protected List<Map<String, Object>> resolveData(T resource,
-			List<ExcelPropertyInfo> propertyInfos, List<Row> excelRows) throws Throwable
+	protected static Object resolveNumericCellValue(double value, int formatIndex, String formatString,
+			boolean date1904)
 	{
-		List<Map<String, Object>> data = new ArrayList<>();
+		if (formatString != null && DateUtil.isValidExcelDate(value) && DateUtil.isADateFormat(formatIndex, formatString))
+			return DateUtil.getJavaDate(value, date1904);
+		else
+			return value;
+	}
 
-		Map<Short, String> cellNumPropertyNames = toCellNumPropertyNames(propertyInfos);
+	/**
+	 * Excel行单元格。
+	 * <p>
+	 * 单元格值已解析为Java对象：空白单元格为{@code null}，数值为{@linkplain Double}、日期格式的数值为{@linkplain Date}，
+	 * 布尔为{@linkplain Boolean}，错误为错误码{@code byte}，公式为公式文本，其他为{@linkplain String}。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ExcelRowCells
+	{
+		private final Map<Short, Object> values = new HashMap<Short, Object>();
+
+		private short firstCellNum = -1;
+
+		private short lastCellNum = -1;
+
+		/** 公式单元格的字符串计算结果 */
+		private Map<Short, String> formulaStringResults = null;
 
-		for (int i = 0, len = excelRows.size(); i < len; i++)
+		public ExcelRowCells()
 		{
-			if (resource.isNameRow(i) || !resource.isDataRow(i))
-				continue;
+			super();
+		}
 
-			Map<String, Object> row = new HashMap<>();
+		/**
+		 * 获取首个单元格索引，没有单元格时返回{@code -1}。
+		 * 
+		 * @return
+		 */
+		public short getFirstCellNum()
+		{
+			return firstCellNum;
+		}
+
+		/**
+		 * 获取末个单元格索引加{@code 1}，没有单元格时返回{@code -1}。
+		 * 
+		 * @return
+		 */
+		public short getLastCellNum()
+		{
+			return lastCellNum;
+		}
+
+		public Object getValue(short cellIdx)
+		{
+			return this.values.get(cellIdx);
+		}
+
+		public void setValue(short cellIdx, Object value)
+		{
+			this.values.put(cellIdx, value);
+
+			if (this.firstCellNum < 0 || cellIdx < this.firstCellNum)
+				this.firstCellNum = cellIdx;
+
+			if (cellIdx + 1 > this.lastCellNum)
+				this.lastCellNum = (short) (cellIdx + 1);
+		}
+
+		/**
+		 * 设置单元格为公式单元格，并设置其字符串计算结果。
+		 * 
+		 * @param cellIdx
+		 * @param result
+		 *            字符串计算结果，为{@code null}表示不是字符串结果
+		 */
+		public void setFormulaStringResult(short cellIdx, String result)
+		{
+			if (this.formulaStringResults == null)
+				this.formulaStringResults = new HashMap<Short, String>();
+
+			this.formulaStringResults.put(cellIdx, result);
+		}
+
+		/**
+		 * 获取单元格的字符串值，与{@code Cell.getStringCellValue()}规则类似：公式单元格返回其字符串计算结果。
+		 * 
+		 * @param cellIdx
+		 * @return {@code null}表示不是字符串值
+		 */
+		public String getStringValue(short cellIdx)
+		{
+			if (this.formulaStringResults != null && this.formulaStringResults.containsKey(cellIdx))
+				return this.formulaStringResults.get(cellIdx);
+
+			Object value = this.values.get(cellIdx);
+
+			return (value instanceof String ? (String) value : null);
+		}
+	}
+
+	/**
+	 * sheet数据收集器。
+	 * <p>
+	 * 它逐行接收sheet中存在的行（空行将被跳过，与{@code Sheet}迭代规则一致），读取时即应用名称行、
+	 * {@linkplain ExcelDataSetResource#isDataRow(int)}、{@linkplain ExcelDataSetResource#isDataColumn(int)}，
+	 * 并在数据条数超过{@code maxDataSize}、或者已无数据行时通知结束读取。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class ExcelSheetDataCollector
+	{
+		private final T resource;
+
+		/** 最多读取的数据条数，小于等于{@code 0}表示全部 */
+		private final int maxDataSize;
+
+		private int rowIndex = 0;
+
+		private List<ExcelPropertyInfo> propertyInfos = null;
+
+		private Map<Short, String> cellNumPropertyNames = null;
+
+		/** 在属性信息确定之前读取的数据行 */
+		private List<ExcelRowCells> pendingRows = new ArrayList<ExcelRowCells>();
+
+		private List<Map<String, Object>> data = new ArrayList<Map<String, Object>>();
+
+		private boolean truncated = false;
+
+		public ExcelSheetDataCollector(T resource, int maxDataSize)
+		{
+			super();
+			this.resource = resource;
+			this.maxDataSize = maxDataSize;
+		}
+
+		/**
+		 * 处理下一行。
+		 * 
+		 * @param row
+		 * @return {@code false}表示无需再读取后续行
+		 */
+		public boolean handleRow(ExcelRowCells row)
+		{
+			int i = this.rowIndex++;
+
+			if (this.cellNumPropertyNames == null)
+			{
+				if (this.resource.isNameRow(i))
+				{
+					this.propertyInfos = resolvePropertyInfos(row, true);
+					flushPendingRows();
+				}
+				else if (this.resource.isDataRow(i))
+				{
+					if (this.propertyInfos == null)
+						this.propertyInfos = resolvePropertyInfos(row, false);
+
+					this.pendingRows.add(row);
+
+					if (this.resource.isAfterNameRow(i))
+						flushPendingRows();
+				}
+			}
+			else if (this.resource.isDataRow(i))
+			{
+				addData(row);
+			}
+
+			if (this.truncated)
+				return false;
+
+			return !(this.cellNumPropertyNames != null && this.resource.isNoMoreDataRow(i));
+		}
+
+		/**
+		 * 结束读取并返回{@linkplain ResourceData}。
+		 * 
+		 * @param resolveProperties
+		 * @return
+		 * @throws Throwable
+		 */
+		public ResourceData toResourceData(boolean resolveProperties) throws Throwable
+		{
+			if (this.cellNumPropertyNames == null)
+				flushPendingRows();
 
-			Row excelRow = excelRows.get(i);
+			List<DataSetProperty> properties = null;
+
+			if (resolveProperties)
+				properties = resolveProperties(toPropertyNames(this.propertyInfos), this.data);
+
+			ResourceData resourceData = new ResourceData(this.data, properties);
+			resourceData.setTruncated(this.truncated);
+
+			return resourceData;
+		}
+
+		protected void flushPendingRows()
+		{
+			if (this.propertyInfos == null)
+				this.propertyInfos = Collections.emptyList();
+
+			this.cellNumPropertyNames = toCellNumPropertyNames(this.propertyInfos);
+
+			for (ExcelRowCells row : this.pendingRows)
+			{
+				if (!addData(row))
+					break;
+			}
+
+			this.pendingRows = null;
+		}
+
+		protected boolean addData(ExcelRowCells excelRow)
+		{
+			if (this.maxDataSize > 0 && this.data.size() >= this.maxDataSize)
+			{
+				this.truncated = true;
+				return false;
+			}
+
+			Map<String, Object> row = new HashMap<>();
 
 			short minColIdx = excelRow.getFirstCellNum(), maxColIdx = excelRow.getLastCellNum();
 			for (short colIdx = minColIdx; colIdx < maxColIdx; colIdx++)
 			{
-				if (resource.isDataColumn(colIdx))
+				if (this.resource.isDataColumn(colIdx))
+					row.put(this.cellNumPropertyNames.get(colIdx), excelRow.getValue(colIdx));
+			}
+
+			this.data.add(row);
+
+			return true;
+		}
+
+		protected List<ExcelPropertyInfo> resolvePropertyInfos(ExcelRowCells row, boolean nameRow)
+		{
+			List<ExcelPropertyInfo> propertyInfos = new ArrayList<ExcelPropertyInfo>();
+
+			short minColIdx = row.getFirstCellNum(), maxColIdx = row.getLastCellNum();
+			for (short colIdx = minColIdx; colIdx < maxColIdx; colIdx++)
+			{
+				if (this.resource.isDataColumn(colIdx))
 				{
-					Cell cell = excelRow.getCell(colIdx);
-					String name = cellNumPropertyNames.get(colIdx);
-					Object value = resolveCellValue(cell);
-					row.put(name, value);
+					String name = null;
+
+					if (nameRow)
+						name = row.getStringValue(colIdx);
+
+					if (StringUtil.isEmpty(name))
+						name = CellReference.convertNumToColString(colIdx);
+
+					propertyInfos.add(new ExcelPropertyInfo(name, colIdx));
 				}
 			}
 
-			data.add(row);
+			return propertyInfos;
 		}
-
-		return data;
 	}
 
-	protected Map<Short, String> toCellNumPropertyNames(List<ExcelPropertyInfo> propertyInfos)
+	/**
+	 * 停止读取{@code .xlsx}的异常。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class XlsxSheetReadStopException extends SAXException
 	{
-		Map<Short, String> re = new HashMap<Short, String>();
-
-		for (ExcelPropertyInfo epi : propertyInfos)
-			re.put(epi.getCellIdx(), epi.getName());
+		private static final long serialVersionUID = 1L;
 
-		return re;
+		public XlsxSheetReadStopException()
+		{
+			super();
+		}
 	}
 
-	protected List<String> toPropertyNames(List<ExcelPropertyInfo> propertyInfos)
+	/**
+	 * {@code .xlsx}格式的sheet处理器。
+	 * <p>
+	 * 注意：对于共享公式的非首个单元格，由于无法获取其公式文本，将使用其缓存的计算结果。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class XlsxSheetHandler extends DefaultHandler
 	{
-		List<String> re = new ArrayList<String>(propertyInfos.size());
+		private final AbstractExcelDataSet<?>.ExcelSheetDataCollector collector;
+
+		private final ReadOnlySharedStringsTable sharedStringsTable;
+
+		private final StylesTable stylesTable;
+
+		private final boolean date1904;
+
+		// 当前行
+		private ExcelRowCells _row = null;
+		// 下一个单元格索引
+		private short _nextCellIndex = 0;
+		// 当前单元格索引
+		private short _cellIndex = 0;
+		// 当前单元格类型
+		private String _cellType = null;
+		// 当前单元格样式索引
+		private int _cellStyleIndex = 0;
+		// 当前单元格是否有公式
+		private boolean _hasFormula = false;
+		// 当前单元格值内容构建器
+		private StringBuilder _valueContents = new StringBuilder();
+		// 当前单元格公式内容构建器
+		private StringBuilder _formulaContents = new StringBuilder();
+
+		private boolean _inValueElement = false;
+		private boolean _inFormulaElement = false;
+		private boolean _inIsElement = false;
+		private boolean _inTElement = false;
+		private boolean _inRPhElement = false;
+
+		public XlsxSheetHandler(AbstractExcelDataSet<?>.ExcelSheetDataCollector collector,
+				ReadOnlySharedStringsTable sharedStringsTable, StylesTable stylesTable, boolean date1904)
+		{
+			super();
+			this.collector = collector;
+			this.sharedStringsTable = sharedStringsTable;
+			this.stylesTable = stylesTable;
+			this.date1904 = date1904;
+		}
 
-		for (ExcelPropertyInfo epi : propertyInfos)
-			re.add(epi.getName());
+		@Override
+		public void startElement(String uri, String localName, String name, Attributes attributes) throws SAXException
+		{
+			if (uri != null && !uri.isEmpty() && !uri.equals(NS_SPREADSHEETML))
+				return;
 
-		return re;
+			if ("row".equals(localName))
+			{
+				this._row = new ExcelRowCells();
+				this._nextCellIndex = 0;
+			}
+			else if ("c".equals(localName))
+			{
+				String cellRef = attributes.getValue("r");
+				String cellStyle = attributes.getValue("s");
+
+				this._cellIndex = (cellRef == null ? this._nextCellIndex : new CellReference(cellRef).getCol());
+				this._cellType = attributes.getValue("t");
+				this._cellStyleIndex = (cellStyle == null ? 0 : Integer.parseInt(cellStyle));
+				this._hasFormula = false;
+				this._valueContents.setLength(0);
+				this._formulaContents.setLength(0);
+			}
+			else if ("v".equals(localName))
+			{
+				this._inValueElement = true;
+			}
+			else if ("f".equals(localName))
+			{
+				this._inFormulaElement = true;
+				this._hasFormula = true;
+			}
+			else if ("is".equals(localName))
+			{
+				this._inIsElement = true;
+			}
+			else if ("t".equals(localName))
+			{
+				this._inTElement = true;
+			}
+			else if ("rPh".equals(localName))
+			{
+				this._inRPhElement = true;
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String name) throws SAXException
+		{
+			if (uri != null && !uri.isEmpty() && !uri.equals(NS_SPREADSHEETML))
+				return;
+
+			if ("v".equals(localName))
+			{
+				this._inValueElement = false;
+			}
+			else if ("f".equals(localName))
+			{
+				this._inFormulaElement = false;
+			}
+			else if ("is".equals(localName))
+			{
+				this._inIsElement = false;
+			}
+			else if ("t".equals(localName))
+			{
+				this._inTElement = false;
+			}
+			else if ("rPh".equals(localName))
+			{
+				this._inRPhElement = false;
+			}
+			else if ("c".equals(localName))
+			{
+				Object value = null;
+
+				boolean formula = (this._hasFormula && this._formulaContents.length() > 0);
+
+				if (formula)
+					value = this._formulaContents.toString();
+				else
+					value = resolveCellValue(this._cellType, this._valueContents.toString());
+
+				this._row.setValue(this._cellIndex, value);
+
+				if (formula)
+					this._row.setFormulaStringResult(this._cellIndex,
+							("str".equals(this._cellType) ? this._valueContents.toString() : null));
+				this._nextCellIndex = (short) (this._cellIndex + 1);
+			}
+			else if ("row".equals(localName))
+			{
+				boolean goon = this.collector.handleRow(this._row);
+				this._row = null;
+
+				if (!goon)
+					throw new XlsxSheetReadStopException();
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) throws SAXException
+		{
+			if (this._inValueElement || (this._inIsElement && this._inTElement && !this._inRPhElement))
+				this._valueContents.append(ch, start, length);
+			else if (this._inFormulaElement)
+				this._formulaContents.append(ch, start, length);
+		}
+
+		protected Object resolveCellValue(String cellType, String content)
+		{
+			if ("inlineStr".equals(cellType) || "str".equals(cellType))
+				return content;
+
+			if (content.isEmpty())
+				return null;
+
+			if ("s".equals(cellType))
+			{
+				return this.sharedStringsTable.getItemAt(Integer.parseInt(content)).getString();
+			}
+			else if ("b".equals(cellType))
+			{
+				return ("1".equals(content) || "true".equalsIgnoreCase(content));
+			}
+			else if ("e".equals(cellType))
+			{
+				try
+				{
+					return FormulaError.forString(content).getCode();
+				}
+				catch (IllegalArgumentException e)
+				{
+					return content;
+				}
+			}
+			else if (cellType == null || "n".equals(cellType))
+			{
+				double value = Double.parseDouble(content);
+
+				XSSFCellStyle style = null;
+
+				if (this.stylesTable != null && this._cellStyleIndex < this.stylesTable.getNumCellStyles())
+					style = this.stylesTable.getStyleAt(this._cellStyleIndex);
+
+				if (style == null)
+					return value;
+
+				return resolveNumericCellValue(value, style.getDataFormat(), style.getDataFormatString(),
+						this.date1904);
+			}
+			else
+				return content;
+		}
 	}
 
 	/**
-	 * 解析单元格属性值。
+	 * {@code .xls}格式的sheet事件处理器。
+	 * <p>
+	 * 注意：xls格式的Record记录事件顺序为：全部BoundSheetRecord -> （每个sheet内）RowRecord块 -> 该块内的cell记录
+	 * </p>
 	 * 
-	 * @param cell 允许为{@code null}
-	 * @return
-	 * @throws DataSetSourceParseException
-	 * @throws DataSetException
+	 * @author datagear@163.com
+	 *
 	 */
-	protected Object resolveCellValue(Cell cell) throws DataSetSourceParseException, DataSetException
+	protected static class XlsSheetListener extends AbortableHSSFListener
 	{
-		if (cell == null)
-			return null;
+		private static final short CONTINUE = 0;
 
-		CellType cellType = cell.getCellType();
+		private static final short ABORT = 1;
 
-		Object cellValue = null;
+		private final ExcelDataSetResource resource;
 
-		try
+		private final AbstractExcelDataSet<?>.ExcelSheetDataCollector collector;
+
+		private final FormatTrackingHSSFListener formatListener = new FormatTrackingHSSFListener(null);
+
+		private final SheetRecordCollectingListener workbookListener = new SheetRecordCollectingListener(null);
+
+		private List<BoundSheetRecord> _boundSheetRecords = new ArrayList<BoundSheetRecord>();
+		private BoundSheetRecord[] _orderedBoundSheetRecords = null;
+		private SSTRecord _sstRecord = null;
+		private boolean _date1904 = false;
+		private HSSFWorkbook _stubWorkbook = null;
+
+		// BOF记录嵌套深度
+		private int _depth = 0;
+		// 当前sheet索引
+		private int _sheetIndex = -1;
+		private boolean _sheetFound = false;
+		private boolean _inDataSheet = false;
+
+		// 数据sheet中由RowRecord声明、尚未处理的行号
+		private TreeSet<Integer> _rowNumbers = new TreeSet<Integer>();
+		private ExcelRowCells _row = null;
+		private int _rowNumber = -1;
+
+		// 等待后续StringRecord的字符串公式单元格索引
+		private short _pendingStringCellIndex = -1;
+		// 等待后续StringRecord的单元格是否已解析出公式文本
+		private boolean _pendingStringFormula = false;
+
+		public XlsSheetListener(ExcelDataSetResource resource,
+				AbstractExcelDataSet<?>.ExcelSheetDataCollector collector)
 		{
-			if (CellType.BLANK.equals(cellType))
+			super();
+			this.resource = resource;
+			this.collector = collector;
+		}
+
+		public boolean isSheetFound()
+		{
+			return _sheetFound;
+		}
+
+		@Override
+		public short abortableProcessRecord(Record record) throws HSSFUserException
+		{
+			try
 			{
-				cellValue = null;
+				return processRecordInternal(record);
 			}
-			else if (CellType.BOOLEAN.equals(cellType))
+			catch (HSSFUserException e)
 			{
-				cellValue = cell.getBooleanCellValue();
+				throw e;
 			}
-			else if (CellType.ERROR.equals(cellType))
+			catch (Throwable t)
 			{
-				cellValue = cell.getErrorCellValue();
+				throw new HSSFUserException(t);
 			}
-			else if (CellType.FORMULA.equals(cellType))
+		}
+
+		protected short processRecordInternal(Record record) throws Throwable
+		{
+			if (!this._inDataSheet)
 			{
-				cellValue = cell.getCellFormula();
+				this.formatListener.processRecordInternally(record);
+				this.workbookListener.processRecordInternally(record);
 			}
-			else if (CellType.NUMERIC.equals(cellType))
+
+			switch (record.getSid())
 			{
-				if (DateUtil.isCellDateFormatted(cell))
-					cellValue = cell.getDateCellValue();
-				else
-					cellValue = cell.getNumericCellValue();
+				case BOFRecord.sid:
+				{
+					BOFRecord bofRecord = (BOFRecord) record;
+
+					if (this._depth == 0 && bofRecord.getType() != BOFRecord.TYPE_WORKBOOK)
+					{
+						this._sheetIndex++;
+
+						if (this._orderedBoundSheetRecords == null)
+							this._orderedBoundSheetRecords = BoundSheetRecord
+									.orderByBofPosition(this._boundSheetRecords);
+
+						String sheetName = (this._sheetIndex < this._orderedBoundSheetRecords.length
+								? this._orderedBoundSheetRecords[this._sheetIndex].getSheetname()
+								: null);
+
+						this._inDataSheet = (bofRecord.getType() == BOFRecord.TYPE_WORKSHEET
+								&& this.resource.isDataSheet(sheetName, this._sheetIndex));
+
+						if (this._inDataSheet)
+							this._sheetFound = true;
+					}
+
+					this._depth++;
+
+					return CONTINUE;
+				}
+				case EOFRecord.sid:
+				{
+					this._depth--;
+
+					// 数据sheet读取完毕，无需再读取其他sheet
+					if (this._depth == 0 && this._inDataSheet)
+					{
+						this._inDataSheet = false;
+
+						if (finishRow())
+							handleEmptyRowsBefore(Integer.MAX_VALUE);
+
+						return ABORT;
+					}
+
+					return CONTINUE;
+				}
+				case BoundSheetRecord.sid:
+				{
+					this._boundSheetRecords.add((BoundSheetRecord) record);
+					return CONTINUE;
+				}
+				case SSTRecord.sid:
+				{
+					this._sstRecord = (SSTRecord) record;
+					return CONTINUE;
+				}
+				case DateWindow1904Record.sid:
+				{
+					this._date1904 = (((DateWindow1904Record) record).getWindowing() == 1);
+					return CONTINUE;
+				}
 			}
-			else if (CellType.STRING.equals(cellType))
+
+			if (!this._inDataSheet || this._depth != 1)
+				return CONTINUE;
+
+			switch (record.getSid())
 			{
-				cellValue = cell.getStringCellValue();
+				case RowRecord.sid:
+				{
+					this._rowNumbers.add(((RowRecord) record).getRowNumber());
+					return CONTINUE;
+				}
+				case BlankRecord.sid:
+				{
+					BlankRecord blankRecord = (BlankRecord) record;
+					return setCellValue(blankRecord.getRow(), blankRecord.getColumn(), null);
+				}
+				case MulBlankRecord.sid:
+				{
+					MulBlankRecord mulBlankRecord = (MulBlankRecord) record;
+
+					for (int col = mulBlankRecord.getFirstColumn(); col <= mulBlankRecord.getLastColumn(); col++)
+					{
+						if (setCellValue(mulBlankRecord.getRow(), (short) col, null) != CONTINUE)
+							return ABORT;
+					}
+
+					return CONTINUE;
+				}
+				case NumberRecord.sid:
+				{
+					NumberRecord numberRecord = (NumberRecord) record;
+					return setCellValue(numberRecord.getRow(), numberRecord.getColumn(),
+							resolveNumericCellValue(numberRecord, numberRecord.getValue()));
+				}
+				case RKRecord.sid:
+				{
+					RKRecord rkRecord = (RKRecord) record;
+					return setCellValue(rkRecord.getRow(), rkRecord.getColumn(),
+							resolveNumericCellValue(rkRecord, rkRecord.getRKNumber()));
+				}
+				case MulRKRecord.sid:
+				{
+					MulRKRecord mulRKRecord = (MulRKRecord) record;
+
+					for (int i = 0, len = mulRKRecord.getNumColumns(); i < len; i++)
+					{
+						NumberRecord numberRecord = new NumberRecord();
+						numberRecord.setRow(mulRKRecord.getRow());
+						numberRecord.setColumn((short) (mulRKRecord.getFirstColumn() + i));
+						numberRecord.setXFIndex(mulRKRecord.getXFAt(i));
+						numberRecord.setValue(mulRKRecord.getRKNumberAt(i));
+
+						if (setCellValue(numberRecord.getRow(), numberRecord.getColumn(),
+								resolveNumericCellValue(numberRecord, numberRecord.getValue())) != CONTINUE)
+							return ABORT;
+					}
+
+					return CONTINUE;
+				}
+				case LabelSSTRecord.sid:
+				{
+					LabelSSTRecord labelSSTRecord = (LabelSSTRecord) record;
+					return setCellValue(labelSSTRecord.getRow(), labelSSTRecord.getColumn(),
+							this._sstRecord.getString(labelSSTRecord.getSSTIndex()).getString());
+				}
+				case LabelRecord.sid:
+				{
+					LabelRecord labelRecord = (LabelRecord) record;
+					return setCellValue(labelRecord.getRow(), labelRecord.getColumn(), labelRecord.getValue());
+				}
+				case BoolErrRecord.sid:
+				{
+					BoolErrRecord boolErrRecord = (BoolErrRecord) record;
+					Object value = (boolErrRecord.isBoolean() ? (Object) boolErrRecord.getBooleanValue()
+							: (Object) boolErrRecord.getErrorValue());
+
+					return setCellValue(boolErrRecord.getRow(), boolErrRecord.getColumn(), value);
+				}
+				case FormulaRecord.sid:
+				{
+					FormulaRecord formulaRecord = (FormulaRecord) record;
+					short column = formulaRecord.getColumn();
+					String formula = resolveFormula(formulaRecord);
+					Object value = (formula != null ? formula : resolveFormulaCachedValue(formulaRecord));
+
+					if (setCellValue(formulaRecord.getRow(), column, value) != CONTINUE)
+						return ABORT;
+
+					if (formula != null)
+						this._row.setFormulaStringResult(column, null);
+
+					// 字符串计算结果位于后续的StringRecord中
+					if (CellType.STRING.equals(CellType.forInt(formulaRecord.getCachedResultType())))
+					{
+						this._pendingStringCellIndex = column;
+						this._pendingStringFormula = (formula != null);
+					}
+
+					return CONTINUE;
+				}
+				case StringRecord.sid:
+				{
+					if (this._pendingStringCellIndex >= 0 && this._row != null)
+					{
+						String value = ((StringRecord) record).getString();
+
+						if (this._pendingStringFormula)
+							this._row.setFormulaStringResult(this._pendingStringCellIndex, value);
+						else
+							this._row.setValue(this._pendingStringCellIndex, value);
+					}
+
+					this._pendingStringCellIndex = -1;
+
+					return CONTINUE;
+				}
 			}
+
+			return CONTINUE;
 		}
-		catch(DataSetException e)
+
+		protected Object resolveNumericCellValue(CellValueRecordInterface record, double value)
 		{
-			throw e;
+			int formatIndex = this.formatListener.getFormatIndex(record);
+			String formatString = this.formatListener.getFormatString(record);
+
+			return AbstractExcelDataSet.resolveNumericCellValue(value, formatIndex, formatString, this._date1904);
 		}
-		catch(Throwable t)
+
+		/**
+		 * 解析公式文本。
+		 * 
+		 * @param record
+		 * @return {@code null}表示无法解析（比如共享公式），此时应使用缓存的计算结果
+		 */
+		protected String resolveFormula(FormulaRecord record)
 		{
-			throw new DataSetSourceParseException(t);
+			try
+			{
+				return HSSFFormulaParser.toFormulaString(getStubWorkbook(), record.getParsedExpression());
+			}
+			catch (Throwable t)
+			{
+				return null;
+			}
+		}
+
+		protected Object resolveFormulaCachedValue(FormulaRecord record)
+		{
+			CellType cachedType = CellType.forInt(record.getCachedResultType());
+
+			if (CellType.NUMERIC.equals(cachedType))
+				return resolveNumericCellValue(record, record.getValue());
+			else if (CellType.BOOLEAN.equals(cachedType))
+				return record.getCachedBooleanValue();
+			else if (CellType.ERROR.equals(cachedType))
+				return (byte) record.getCachedErrorValue();
+			else
+				return null;
+		}
+
+		protected HSSFWorkbook getStubWorkbook()
+		{
+			if (this._stubWorkbook == null)
+				this._stubWorkbook = this.workbookListener.getStubHSSFWorkbook();
+
+			return this._stubWorkbook;
+		}
+
+		protected short setCellValue(int rowNumber, short cellIndex, Object value)
+		{
+			this._pendingStringCellIndex = -1;
+
+			if (rowNumber != this._rowNumber)
+			{
+				if (!finishRow() || !handleEmptyRowsBefore(rowNumber))
+					return ABORT;
+
+				this._row = new ExcelRowCells();
+				this._rowNumber = rowNumber;
+				this._rowNumbers.remove(rowNumber);
+			}
+
+			this._row.setValue(cellIndex, value);
+
+			return CONTINUE;
 		}
 
-		return cellValue;
+		/**
+		 * 结束当前行。
+		 * 
+		 * @return {@code false}表示无需再读取
+		 */
+		protected boolean finishRow()
+		{
+			if (this._row == null)
+				return true;
+
+			ExcelRowCells row = this._row;
+			this._row = null;
+
+			return (handleEmptyRowsBefore(this._rowNumber) && this.collector.handleRow(row));
+		}
+
+		/**
+		 * 处理行号小于{@code rowNumber}的、由RowRecord声明的无单元格行。
+		 * 
+		 * @param rowNumber
+		 * @return {@code false}表示无需再读取
+		 */
+		protected boolean handleEmptyRowsBefore(int rowNumber)
+		{
+			while (!this._rowNumbers.isEmpty() && this._rowNumbers.first() < rowNumber)
+			{
+				this._rowNumbers.pollFirst();
+
+				if (!this.collector.handleRow(new ExcelRowCells()))
+					return false;
+			}
+
+			return true;
+		}
 	}
-	
+
 	protected static class ExcelPropertyInfo
 	{
 		/** 属性名 */
 		private final String name;
 
 		/**
-		 * 单元格序号，介于{@linkplain Row#getFirstCellNum()}和{@linkplain Row#getLastCellNum()}之间
+		 * 单元格序号，介于{@linkplain ExcelRowCells#getFirstCellNum()}和{@linkplain ExcelRowCells#getLastCellNum()}之间
 		 */
 		private final short cellIdx;
 
@@ -740,6 +1554,24 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 			return sheet;
 		}
 		
+		/**
+		 * 是否是数据所在工作表。
+		 * 
+		 * @param sheetName
+		 *            工作表名，允许为{@code null}
+		 * @param sheetIndex
+		 *            工作表索引（以{@code 0}计数）
+		 * @return
+		 */
+		public boolean isDataSheet(String sheetName, int sheetIndex)
+		{
+			// sheet名应优先使用
+			if (!StringUtil.isEmpty(this.sheetName))
+				return this.sheetName.equalsIgnoreCase(sheetName);
+			else
+				return (sheetIndex == (this.sheetIndex < 1 ? 0 : this.sheetIndex - 1));
+		}
+
 		/**
 		 * 获取Excel输入流。
 		 * 
@@ -790,6 +1622,31 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 			return IndexRange.includes(this._dataRowRanges, rowIndex + 1);
 		}
 
+		/**
+		 * 是否在此行之后已无数据行。
+		 * 
+		 * @param rowIndex 行索引（以{@code 0}计数）
+		 * @return
+		 */
+		protected boolean isNoMoreDataRow(int rowIndex)
+		{
+			if (this._dataRowRanges == null || this._dataRowRanges.isEmpty())
+				return false;
+
+			int maxRow = -1;
+
+			for (IndexRange range : this._dataRowRanges)
+			{
+				// 不限定截至行
+				if (range.getTo() < 0)
+					return false;
+
+				maxRow = Math.max(maxRow, range.getTo());
+			}
+
+			return ((rowIndex + 1) >= maxRow);
+		}
+
 		/**
 		 * 是否数据列。
 		 * 
@@ -25,11 +25,14 @@ import java.util.List;
 import java.util.Map;
 
 import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.DataSetQuery;
 import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.ResolvableDataSet;
 import org.datagear.analysis.support.AbstractJsonDataSet.JsonDataSetResource;
 import org.datagear.util.IOUtil;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -38,6 +41,11 @@ import com.fasterxml.jackson.databind.node.ValueNode;
 
 /**
  * 抽象JSON数据集。
+ * <p>
+ * 当{@linkplain #getDataJsonPath()}为空或者是确定路径（参考{@linkplain JsonPathSupport#resolveDefinitePath(String)}）时，
+ * 将采用流式解析，直接定位并仅读取数据JSON路径对应的数据，且在{@linkplain DataSetQuery#getResultFetchSize()}条数据读取完后提前结束，
+ * 避免为大JSON构建完整的文档对象；否则，将读取完整JSON后再解析数据JSON路径。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -92,6 +100,13 @@ public abstract class AbstractJsonDataSet<T extends JsonDataSetResource> extends
 
 	@Override
 	protected ResourceData resolveResourceData(T resource, boolean resolveProperties) throws Throwable
+	{
+		return resolveResourceData(resource, resolveProperties, -1);
+	}
+
+	@Override
+	protected ResourceData resolveResourceData(T resource, boolean resolveProperties, int maxDataSize)
+			throws Throwable
 	{
 		Reader reader = null;
 
@@ -99,13 +114,12 @@ public abstract class AbstractJsonDataSet<T extends JsonDataSetResource> extends
 		{
 			reader = resource.getReader();
 
-			Object data = resolveData(reader, resource.getDataJsonPath());
-			List<DataSetProperty> properties = null;
+			ResourceData resourceData = resolveData(reader, resource.getDataJsonPath(), maxDataSize);
 
 			if (resolveProperties)
-				properties = resolveProperties(data);
+				resourceData.setProperties(resolveProperties(resourceData.getData()));
 
-			return new ResourceData(data, properties);
+			return resourceData;
 		}
 		finally
 		{
@@ -124,6 +138,202 @@ public abstract class AbstractJsonDataSet<T extends JsonDataSetResource> extends
 	 */
 	protected Object resolveData(Reader jsonReader, String dataJsonPath)
 			throws ReadJsonDataPathException, Throwable
+	{
+		return resolveData(jsonReader, dataJsonPath, -1).getData();
+	}
+
+	/**
+	 * 解析数据。
+	 * 
+	 * @param jsonReader
+	 * @param dataJsonPath
+	 * @param maxDataSize
+	 *            当数据是数组时，最多读取的元素数，小于等于{@code 0}表示全部
+	 * @return
+	 * @throws ReadJsonDataPathException
+	 * @throws Throwable
+	 */
+	protected ResourceData resolveData(Reader jsonReader, String dataJsonPath, int maxDataSize)
+			throws ReadJsonDataPathException, Throwable
+	{
+		List<Object> pathSegments = getJsonPathSupport().resolveDefinitePath(dataJsonPath);
+
+		if (pathSegments == null)
+			return new ResourceData(resolveDataByTree(jsonReader, dataJsonPath));
+
+		return resolveDataByStream(jsonReader, dataJsonPath, pathSegments, maxDataSize);
+	}
+
+	/**
+	 * 以流式解析数据，仅读取数据JSON路径对应的数据。
+	 * <p>
+	 * 注意：流式解析仅校验已读取部分的JSON是否合法。
+	 * </p>
+	 * 
+	 * @param jsonReader
+	 * @param dataJsonPath
+	 * @param pathSegments
+	 *            {@linkplain JsonPathSupport#resolveDefinitePath(String)}
+	 * @param maxDataSize
+	 * @return
+	 * @throws ReadJsonDataPathException
+	 * @throws Throwable
+	 */
+	protected ResourceData resolveDataByStream(Reader jsonReader, String dataJsonPath, List<Object> pathSegments,
+			int maxDataSize) throws ReadJsonDataPathException, Throwable
+	{
+		ObjectMapper objectMapper = getObjectMapperNonStardand();
+		JsonParser parser = objectMapper.createParser(jsonReader);
+
+		try
+		{
+			JsonToken token = parser.nextToken();
+
+			if (token == null || token == JsonToken.VALUE_NULL)
+				return new ResourceData(null);
+
+			if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY)
+				throw new UnsupportedJsonResultDataException("Result data must be JSON object or array");
+
+			for (int i = 0, len = pathSegments.size(); i < len; i++)
+			{
+				Object segment = pathSegments.get(i);
+
+				if (segment instanceof Integer)
+					token = moveToArrayElement(parser, token, (Integer) segment, (i == 0), dataJsonPath);
+				else
+					token = moveToObjectField(parser, token, (String) segment, dataJsonPath);
+			}
+
+			if (token == JsonToken.START_ARRAY)
+				return readArray(objectMapper, parser, maxDataSize, pathSegments.isEmpty());
+			else
+				return new ResourceData(objectMapper.readValue(parser, Object.class));
+		}
+		finally
+		{
+			IOUtil.close(parser);
+		}
+	}
+
+	/**
+	 * 将{@linkplain JsonParser}定位至当前JSON对象的指定属性值。
+	 * 
+	 * @param parser
+	 * @param token
+	 *            当前标记
+	 * @param name
+	 * @param dataJsonPath
+	 * @return 属性值的起始标记
+	 * @throws ReadJsonDataPathException
+	 * @throws Throwable
+	 */
+	protected JsonToken moveToObjectField(JsonParser parser, JsonToken token, String name, String dataJsonPath)
+			throws ReadJsonDataPathException, Throwable
+	{
+		if (token != JsonToken.START_OBJECT)
+			throw new ReadJsonDataPathException(dataJsonPath,
+					"Expected to find an object with property [" + name + "]");
+
+		while ((token = parser.nextToken()) == JsonToken.FIELD_NAME)
+		{
+			String fieldName = parser.getCurrentName();
+			token = parser.nextToken();
+
+			if (name.equals(fieldName))
+				return token;
+
+			parser.skipChildren();
+		}
+
+		throw new ReadJsonDataPathException(dataJsonPath, "No property [" + name + "] found");
+	}
+
+	/**
+	 * 将{@linkplain JsonParser}定位至当前JSON数组的指定元素。
+	 * 
+	 * @param parser
+	 * @param token
+	 *            当前标记
+	 * @param index
+	 * @param root
+	 *            当前JSON数组是否是根数组，根数组的元素必须是JSON对象
+	 * @param dataJsonPath
+	 * @return 元素的起始标记
+	 * @throws ReadJsonDataPathException
+	 * @throws Throwable
+	 */
+	protected JsonToken moveToArrayElement(JsonParser parser, JsonToken token, int index, boolean root,
+			String dataJsonPath) throws ReadJsonDataPathException, Throwable
+	{
+		if (token != JsonToken.START_ARRAY)
+			throw new ReadJsonDataPathException(dataJsonPath, "Expected to find an array with index [" + index + "]");
+
+		int i = 0;
+
+		while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null)
+		{
+			if (root && token != JsonToken.START_OBJECT && token != JsonToken.VALUE_NULL)
+				throw new UnsupportedJsonResultDataException("Result data must be JSON object or array");
+
+			if (i == index)
+				return token;
+
+			parser.skipChildren();
+			i++;
+		}
+
+		throw new ReadJsonDataPathException(dataJsonPath, "Index [" + index + "] out of bounds");
+	}
+
+	/**
+	 * 读取当前JSON数组。
+	 * 
+	 * @param objectMapper
+	 * @param parser
+	 * @param maxDataSize
+	 *            最多读取的元素数，小于等于{@code 0}表示全部
+	 * @param root
+	 *            当前JSON数组是否是根数组，根数组的元素必须是JSON对象
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ResourceData readArray(ObjectMapper objectMapper, JsonParser parser, int maxDataSize, boolean root)
+			throws Throwable
+	{
+		List<Object> data = new ArrayList<Object>();
+		ResourceData resourceData = new ResourceData(data);
+
+		JsonToken token = null;
+
+		while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null)
+		{
+			if (root && token != JsonToken.START_OBJECT && token != JsonToken.VALUE_NULL)
+				throw new UnsupportedJsonResultDataException("Result data must be JSON object or array");
+
+			if (maxDataSize > 0 && data.size() >= maxDataSize)
+			{
+				resourceData.setTruncated(true);
+				break;
+			}
+
+			data.add(objectMapper.readValue(parser, Object.class));
+		}
+
+		return resourceData;
+	}
+
+	/**
+	 * 读取完整JSON后解析数据。
+	 * 
+	 * @param jsonReader
+	 * @param dataJsonPath
+	 * @return
+	 * @throws ReadJsonDataPathException
+	 * @throws Throwable
+	 */
+	protected Object resolveDataByTree(Reader jsonReader, String dataJsonPath)
+			throws ReadJsonDataPathException, Throwable
 	{
 		JsonNode jsonNode = getObjectMapperNonStardand().readTree(jsonReader);
 	
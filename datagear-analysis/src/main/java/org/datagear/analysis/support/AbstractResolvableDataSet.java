@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetProperty;
@@ -29,9 +30,19 @@ import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.NameAwareUtil;
 import org.datagear.analysis.ResolvableDataSet;
 import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.analysis.ResultDataFormat;
+import org.datagear.util.cache.CommonCacheKey;
 
 /**
  * 抽象{@linkplain ResolvableDataSet}。
+ * <p>
+ * 如果设置了{@linkplain #getQueryCoalescer()}，相同数据集的相同并发查询将被合并，仅实际执行一次，
+ * 具体参考{@linkplain DataSetQueryCoalescer}。
+ * </p>
+ * <p>
+ * 注意：{@linkplain #resolve(DataSetQuery)}不会被合并，因为它多用于数据集编辑时的预览，
+ * 此时数据集的定义（SQL、资源、属性等）可能尚未保存，与已保存的同ID数据集并不相同。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -40,6 +51,9 @@ public abstract class AbstractResolvableDataSet extends AbstractDataSet implemen
 {
 	private static final long serialVersionUID = 1L;
 
+	/** 查询合并器 */
+	private transient DataSetQueryCoalescer queryCoalescer = null;
+
 	public AbstractResolvableDataSet()
 	{
 		super();
@@ -55,11 +69,21 @@ public abstract class AbstractResolvableDataSet extends AbstractDataSet implemen
 		super(id, name, properties);
 	}
 
+	public DataSetQueryCoalescer getQueryCoalescer()
+	{
+		return queryCoalescer;
+	}
+
+	public void setQueryCoalescer(DataSetQueryCoalescer queryCoalescer)
+	{
+		this.queryCoalescer = queryCoalescer;
+	}
+
 	@Override
 	public DataSetResult getResult(DataSetQuery query) throws DataSetException
 	{
 		checkRequiredParamValues(query);
-		ResolvedDataSetResult result = resolveResult(query, false);
+		ResolvedDataSetResult result = resolveResultCoalesced(query, false);
 		return result.getResult();
 	}
 
@@ -67,7 +91,51 @@ public abstract class AbstractResolvableDataSet extends AbstractDataSet implemen
 	public ResolvedDataSetResult resolve(DataSetQuery query) throws DataSetException
 	{
 		checkRequiredParamValues(query);
-		return resolveResult(query, true);
+		return resolveResultCoalesced(query, true);
+	}
+
+	/**
+	 * 解析结果，如果设置了{@linkplain #getQueryCoalescer()}，相同的并发查询将被合并。
+	 * 
+	 * @param query
+	 * @param resolveProperties
+	 * @return
+	 * @throws DataSetException
+	 */
+	protected ResolvedDataSetResult resolveResultCoalesced(DataSetQuery query, boolean resolveProperties)
+			throws DataSetException
+	{
+		DataSetQueryCoalescer queryCoalescer = getQueryCoalescer();
+		Object key = (queryCoalescer == null ? null : getCoalesceKey(query, resolveProperties));
+
+		if (key == null)
+			return resolveResult(query, resolveProperties);
+
+		return queryCoalescer.execute(key, () -> resolveResult(query, resolveProperties));
+	}
+
+	/**
+	 * 获取查询合并KEY。
+	 * <p>
+	 * 返回{@code null}表示不合并此查询，{@code resolveProperties}为{@code true}时（预览未保存的数据集定义）总是返回{@code null}。
+	 * </p>
+	 * 
+	 * @param query
+	 * @param resolveProperties
+	 * @return
+	 */
+	protected Object getCoalesceKey(DataSetQuery query, boolean resolveProperties)
+	{
+		if (resolveProperties)
+			return null;
+
+		String id = getId();
+
+		if (id == null)
+			return null;
+
+		return new DataSetQueryCoalesceKey(getClass().getName(), id, query.getParamValues(),
+				query.getResultDataFormat(), query.getResultFetchSize());
 	}
 
 	/**
@@ -176,4 +244,125 @@ public abstract class AbstractResolvableDataSet extends AbstractDataSet implemen
 
 		return dps;
 	}
+
+	/**
+	 * 查询合并KEY。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class DataSetQueryCoalesceKey implements CommonCacheKey
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String type;
+
+		private final String dataSetId;
+
+		private final Map<String, ?> paramValues;
+
+		private final ResultDataFormat resultDataFormat;
+
+		private final int resultFetchSize;
+
+		public DataSetQueryCoalesceKey(String type, String dataSetId, Map<String, ?> paramValues,
+				ResultDataFormat resultDataFormat, int resultFetchSize)
+		{
+			super();
+			this.type = type;
+			this.dataSetId = dataSetId;
+			this.paramValues = paramValues;
+			this.resultDataFormat = resultDataFormat;
+			this.resultFetchSize = resultFetchSize;
+		}
+
+		public String getType()
+		{
+			return type;
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public Map<String, ?> getParamValues()
+		{
+			return paramValues;
+		}
+
+		public ResultDataFormat getResultDataFormat()
+		{
+			return resultDataFormat;
+		}
+
+		public int getResultFetchSize()
+		{
+			return resultFetchSize;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((type == null) ? 0 : type.hashCode());
+			result = prime * result + ((dataSetId == null) ? 0 : dataSetId.hashCode());
+			result = prime * result + ((paramValues == null) ? 0 : paramValues.hashCode());
+			result = prime * result + ((resultDataFormat == null) ? 0 : resultDataFormat.hashCode());
+			result = prime * result + resultFetchSize;
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			DataSetQueryCoalesceKey other = (DataSetQueryCoalesceKey) obj;
+			if (type == null)
+			{
+				if (other.type != null)
+					return false;
+			}
+			else if (!type.equals(other.type))
+				return false;
+			if (dataSetId == null)
+			{
+				if (other.dataSetId != null)
+					return false;
+			}
+			else if (!dataSetId.equals(other.dataSetId))
+				return false;
+			if (paramValues == null)
+			{
+				if (other.paramValues != null)
+					return false;
+			}
+			else if (!paramValues.equals(other.paramValues))
+				return false;
+			if (resultDataFormat == null)
+			{
+				if (other.resultDataFormat != null)
+					return false;
+			}
+			else if (!resultDataFormat.equals(other.resultDataFormat))
+				return false;
+			if (resultFetchSize != other.resultFetchSize)
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [type=" + type + ", dataSetId=" + dataSetId + ", paramValues="
+					+ paramValues + ", resultDataFormat=" + resultDataFormat + ", resultFetchSize=" + resultFetchSize
+					+ "]";
+		}
+	}
 }
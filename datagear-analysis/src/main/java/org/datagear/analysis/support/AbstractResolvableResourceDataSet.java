@@ -96,7 +96,7 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 		try
 		{
 			resource = getResource(query);
-			ResourceData resourceData = getResourceData(resource, resolveProperties);
+			ResourceData resourceData = getResourceData(resource, resolveProperties, query.getResultFetchSize());
 
 			ResolvedDataSetResult result = resolveResult(query, resourceData, resolveProperties);
 
@@ -126,16 +126,44 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 	 */
 	protected ResourceData getResourceData(T resource, boolean resolveProperties) throws Throwable
 	{
+		return getResourceData(resource, resolveProperties, -1);
+	}
+
+	/**
+	 * 获取资源数据。
+	 * <p>
+	 * 当{@code resultFetchSize}大于{@code 0}时，支持流式解析的子类可以仅读取部分数据，
+	 * 被截断的资源数据（{@linkplain ResourceData#isTruncated()}）不会被缓存。
+	 * </p>
+	 * 
+	 * @param resource
+	 * @param resolveProperties
+	 * @param resultFetchSize
+	 *            结果数据获取条数，小于等于{@code 0}表示全部
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ResourceData getResourceData(T resource, boolean resolveProperties, int resultFetchSize)
+			throws Throwable
+	{
+		int maxDataSize = (resultFetchSize > 0 ? resultFetchSize : -1);
+
 		if (!resource.isIdempotent() || this.cache == null)
-			return resolveResourceData(resource, resolveProperties);
+			return resolveResourceData(resource, resolveProperties, maxDataSize);
+
+		// 数据条数不超过缓存上限时应完整读取以便缓存，超过上限的数据本就不会被缓存，此时可截断读取
+		if (maxDataSize > 0 && maxDataSize <= this.dataCacheMaxLength)
+			maxDataSize = (this.dataCacheMaxLength == Integer.MAX_VALUE ? -1 : this.dataCacheMaxLength + 1);
 
 		ResourceData rd = null;
 
 		if (resolveProperties)
 		{
-			rd = resolveResourceData(resource, true);
+			rd = resolveResourceData(resource, true, maxDataSize);
+
 			// 缓存中无需存储属性信息
-			setCacheResourceData(resource, new ResourceData(rd.getData(), null));
+			if (!rd.isTruncated())
+				setCacheResourceData(resource, new ResourceData(rd.getData(), null));
 		}
 		else
 		{
@@ -144,8 +172,10 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 
 			if (rd == null)
 			{
-				rd = resolveResourceData(resource, false);
-				setCacheResourceData(resource, rd);
+				rd = resolveResourceData(resource, false, maxDataSize);
+
+				if (!rd.isTruncated())
+					setCacheResourceData(resource, rd);
 			}
 		}
 
@@ -225,6 +255,28 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 	 */
 	protected abstract ResourceData resolveResourceData(T resource, boolean resolveProperties) throws Throwable;
 
+	/**
+	 * 解析资源数据，最多读取{@code maxDataSize}条数据。
+	 * <p>
+	 * 如果数据超过{@code maxDataSize}条而被截断，应设置{@linkplain ResourceData#setTruncated(boolean)}为{@code true}。
+	 * </p>
+	 * <p>
+	 * 此方法默认调用{@linkplain #resolveResourceData(DataSetResource, boolean)}读取全部数据，支持流式解析的子类可重写此方法。
+	 * </p>
+	 * 
+	 * @param resource
+	 * @param resolveProperties
+	 * @param maxDataSize
+	 *            最多读取的数据条数，小于等于{@code 0}表示全部
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ResourceData resolveResourceData(T resource, boolean resolveProperties, int maxDataSize)
+			throws Throwable
+	{
+		return resolveResourceData(resource, resolveProperties);
+	}
+
 	/**
 	 * 数据集资源。
 	 * <p>
@@ -323,6 +375,9 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 
 		private List<DataSetProperty> properties = null;
 
+		/** 数据是否被截断，即仅读取了部分数据 */
+		private boolean truncated = false;
+
 		public ResourceData()
 		{
 			super();
@@ -377,6 +432,16 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 			this.properties = properties;
 		}
 
+		public boolean isTruncated()
+		{
+			return truncated;
+		}
+
+		public void setTruncated(boolean truncated)
+		{
+			this.truncated = truncated;
+		}
+
 		/**
 		 * 获取当{@linkplain #getData()}是数组、集合时的长度。
 		 * 
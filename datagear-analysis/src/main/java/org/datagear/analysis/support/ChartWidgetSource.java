@@ -33,4 +33,19 @@ public interface ChartWidgetSource
 	 * @throws Throwable
 	 */
 	ChartWidget getChartWidget(String id) throws Throwable;
+
+	/**
+	 * 批量获取指定ID的{@linkplain ChartWidget}。
+	 * <p>
+	 * 返回数组与{@code ids}的元素一一对应，没有的则对应元素为{@code null}。
+	 * </p>
+	 * <p>
+	 * 实现类应尽量在一次底层查询中获取全部，以避免逐一获取的开销。
+	 * </p>
+	 * 
+	 * @param ids
+	 * @return
+	 * @throws Throwable
+	 */
+	ChartWidget[] getChartWidgets(String... ids) throws Throwable;
 }
@@ -18,20 +18,25 @@
 package org.datagear.analysis.support;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.datagear.analysis.DataSet;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.util.StringUtil;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParseException;
-import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
+import org.springframework.expression.spel.CompilablePropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.SpelNode;
 import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.ast.Assign;
@@ -132,6 +137,10 @@ import org.springframework.expression.spel.support.SimpleEvaluationContext;
  * {@code "属性名A >= 属性名B ? (属性名C + 属性名D)/2 : (属性名E + 属性名F)*2"}
  * </p>
  * <p>
+ * 已解析并通过安全校验的表达式对象会按表达式文本缓存（参考{@linkplain #setExpressionCacheMaxSize(int)}），
+ * 使得相同的表达式在多次数据集查询之间无需重复解析和校验。
+ * </p>
+ * <p>
  * 此类是线程安全的。
  * </p>
  * 
@@ -140,6 +149,9 @@ import org.springframework.expression.spel.support.SimpleEvaluationContext;
  */
 public class DataSetPropertyExpEvaluator
 {
+	/** 默认表达式缓存最大数目 */
+	public static final int DEFAULT_EXPRESSION_CACHE_MAX_SIZE = 500;
+
 	public static final DataSetPropertyExpEvaluator DEFAULT = new DataSetPropertyExpEvaluator();
 
 	/**
@@ -152,11 +164,39 @@ public class DataSetPropertyExpEvaluator
 	
 	private ConversionService conversionService = null;
 
+	/** 表达式缓存最大数目，小于等于{@code 0}表示不缓存 */
+	private volatile int expressionCacheMaxSize = DEFAULT_EXPRESSION_CACHE_MAX_SIZE;
+
+	/** 表达式文本-已解析且已校验的表达式对象的LRU缓存 */
+	private final Map<String, Expression> expressionCache = new LinkedHashMap<String, Expression>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest)
+		{
+			return size() > expressionCacheMaxSize;
+		}
+	};
+
 	public DataSetPropertyExpEvaluator()
 	{
 		super();
 	}
 
+	/**
+	 * 创建。
+	 * 
+	 * @param compilerMode
+	 *            表达式编译模式，比如：{@linkplain SpelCompilerMode#MIXED}，
+	 *            编译后的表达式在大量数据计算时性能更好，{@linkplain SpelCompilerMode#OFF}表示不编译
+	 */
+	public DataSetPropertyExpEvaluator(SpelCompilerMode compilerMode)
+	{
+		super();
+		setCompilerMode(compilerMode);
+	}
+
 	public ExpressionParser getExpressionParser()
 	{
 		return expressionParser;
@@ -165,6 +205,47 @@ public class DataSetPropertyExpEvaluator
 	public void setExpressionParser(ExpressionParser expressionParser)
 	{
 		this.expressionParser = expressionParser;
+		clearExpressionCache();
+	}
+
+	/**
+	 * 设置表达式编译模式。
+	 * <p>
+	 * 此方法将重建{@linkplain #getExpressionParser()}，并且仍禁用{@code autoGrowNullReferences}、{@code autoGrowCollections}特性，
+	 * 表达式最大长度也仍为{@linkplain SpelParserConfiguration}的默认值。
+	 * </p>
+	 * 
+	 * @param compilerMode
+	 */
+	public void setCompilerMode(SpelCompilerMode compilerMode)
+	{
+		SpelParserConfiguration config = new SpelParserConfiguration(compilerMode,
+				DataSetPropertyExpEvaluator.class.getClassLoader(), false, false, Integer.MAX_VALUE,
+				new SpelParserConfiguration().getMaximumExpressionLength());
+
+		setExpressionParser(new SpelExpressionParser(config));
+	}
+
+	public int getExpressionCacheMaxSize()
+	{
+		return expressionCacheMaxSize;
+	}
+
+	public void setExpressionCacheMaxSize(int expressionCacheMaxSize)
+	{
+		this.expressionCacheMaxSize = expressionCacheMaxSize;
+		clearExpressionCache();
+	}
+
+	/**
+	 * 清空表达式缓存。
+	 */
+	public void clearExpressionCache()
+	{
+		synchronized (this.expressionCache)
+		{
+			this.expressionCache.clear();
+		}
 	}
 
 	public ConversionService getConversionService()
@@ -401,10 +482,34 @@ public class DataSetPropertyExpEvaluator
 
 	protected Expression parseExpression(String expression) throws Throwable
 	{
+		boolean cacheable = (this.expressionCacheMaxSize > 0);
+
+		if (cacheable)
+		{
+			Expression exp = null;
+
+			synchronized (this.expressionCache)
+			{
+				exp = this.expressionCache.get(expression);
+			}
+
+			if (exp != null)
+				return exp;
+		}
+
 		Expression exp = this.expressionParser.parseExpression(expression);
 
 		checkPermission(exp);
 
+		// 只缓存通过校验的表达式，表达式对象是线程安全的，可在多个线程间共用
+		if (cacheable)
+		{
+			synchronized (this.expressionCache)
+			{
+				this.expressionCache.put(expression, exp);
+			}
+		}
+
 		return exp;
 	}
 
@@ -535,11 +640,14 @@ public class DataSetPropertyExpEvaluator
 	 * <p>
 	 * 3. 只允许读操作，不允许写操作。
 	 * </p>
+	 * <p>
+	 * 它也支持{@linkplain SpelCompilerMode}编译，编译后的读取操作等同于{@linkplain Map#get(Object)}。
+	 * </p>
 	 * 
 	 * @author datagear@163.com
 	 *
 	 */
-	protected static class MapAccessor implements PropertyAccessor
+	protected static class MapAccessor implements CompilablePropertyAccessor
 	{
 		public MapAccessor()
 		{
@@ -576,5 +684,35 @@ public class DataSetPropertyExpEvaluator
 		{
 			throw new UnsupportedOperationException();
 		}
+
+		@Override
+		public boolean isCompilable()
+		{
+			return true;
+		}
+
+		@Override
+		public Class<?> getPropertyType()
+		{
+			return Object.class;
+		}
+
+		@Override
+		public void generateCode(String propertyName, MethodVisitor mv, CodeFlow cf)
+		{
+			String descriptor = cf.lastDescriptor();
+
+			if (descriptor == null || !descriptor.equals("Ljava/util/Map"))
+			{
+				if (descriptor == null)
+					cf.loadTarget(mv);
+
+				mv.visitTypeInsn(Opcodes.CHECKCAST, "java/util/Map");
+			}
+
+			mv.visitLdcInsn(propertyName);
+			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;",
+					true);
+		}
 	}
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.datagear.analysis.support;
+
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.datagear.analysis.DataSetException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 数据集查询合并器。
+ * <p>
+ * 对于相同KEY的并发查询，只有首个调用者会真正执行查询，其他调用者将等待并共享它的结果（或异常），
+ * 从而避免大量看板同时刷新时重复访问数据库、HTTP服务等。
+ * </p>
+ * <p>
+ * 它仅合并<i>正在执行</i>的查询，查询执行完毕后即不再保留结果，结果缓存应由其他机制负责。
+ * </p>
+ * <p>
+ * 如果首个调用者因被中断、取消（比如查询超时）而失败，等待者并不会共享此异常，而是由它们之一重新执行查询。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DataSetQueryCoalescer
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(DataSetQueryCoalescer.class);
+
+	/** 执行查询的调用者被中断时，等待者得到的结果标记 */
+	private static final Object ABORTED = new Object();
+
+	/** KEY-正在执行的查询映射表 */
+	private final ConcurrentMap<Object, CompletableFuture<Object>> inFlights = new ConcurrentHashMap<Object, CompletableFuture<Object>>();
+
+	/** 实际执行次数 */
+	private final AtomicLong executionCount = new AtomicLong(0);
+
+	/** 被合并的调用次数 */
+	private final AtomicLong coalescedCount = new AtomicLong(0);
+
+	public DataSetQueryCoalescer()
+	{
+		super();
+	}
+
+	/**
+	 * 获取实际执行查询的次数。
+	 * 
+	 * @return
+	 */
+	public long getExecutionCount()
+	{
+		return this.executionCount.get();
+	}
+
+	/**
+	 * 获取被合并（即未实际执行、而是共享了其他调用结果）的调用次数。
+	 * 
+	 * @return
+	 */
+	public long getCoalescedCount()
+	{
+		return this.coalescedCount.get();
+	}
+
+	/**
+	 * 获取当前正在执行的查询数。
+	 * 
+	 * @return
+	 */
+	public int getInFlightCount()
+	{
+		return this.inFlights.size();
+	}
+
+	/**
+	 * 执行查询。
+	 * <p>
+	 * 如果已有相同{@code key}的查询正在执行，则等待并返回它的结果，否则，执行{@code query}。
+	 * </p>
+	 * <p>
+	 * 如果等待的查询因执行线程被中断、取消而失败，将重新尝试执行。
+	 * </p>
+	 * 
+	 * @param <T>
+	 * @param key
+	 *            查询KEY，应正确实现{@linkplain Object#hashCode()}、{@linkplain Object#equals(Object)}
+	 * @param query
+	 * @return
+	 * @throws DataSetException
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(Object key, Callable<T> query) throws DataSetException
+	{
+		CompletableFuture<Object> future = new CompletableFuture<Object>();
+		CompletableFuture<Object> inFlight = null;
+
+		while ((inFlight = this.inFlights.putIfAbsent(key, future)) != null)
+		{
+			this.coalescedCount.incrementAndGet();
+
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("Coalesced data set query : " + key);
+
+			Object result = await(inFlight);
+
+			if (result != ABORTED)
+				return (T) result;
+
+			// 执行查询的调用者被中断，此次并未合并，重新尝试
+			this.coalescedCount.decrementAndGet();
+
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("Retry aborted data set query : " + key);
+		}
+
+		this.executionCount.incrementAndGet();
+
+		try
+		{
+			T result = query.call();
+			future.complete(result);
+
+			return result;
+		}
+		catch (Throwable t)
+		{
+			if (isInterrupted(t))
+			{
+				// 先移除再通知等待者，使它们重新尝试时不会再次得到此查询
+				this.inFlights.remove(key, future);
+				future.complete(ABORTED);
+			}
+			else
+				future.completeExceptionally(t);
+
+			if (t instanceof DataSetException)
+				throw (DataSetException) t;
+			else if (t instanceof RuntimeException)
+				throw (RuntimeException) t;
+			else if (t instanceof Error)
+				throw (Error) t;
+			else
+				throw new DataSetException(t);
+		}
+		finally
+		{
+			this.inFlights.remove(key, future);
+		}
+	}
+
+	/**
+	 * 判断查询是否因执行线程被中断、取消而失败。
+	 * 
+	 * @param t
+	 * @return
+	 */
+	protected boolean isInterrupted(Throwable t)
+	{
+		if (Thread.currentThread().isInterrupted())
+			return true;
+
+		while (t != null)
+		{
+			if (t instanceof InterruptedException || t instanceof InterruptedIOException
+					|| t instanceof ClosedByInterruptException || t instanceof CancellationException)
+				return true;
+
+			t = (t.getCause() == t ? null : t.getCause());
+		}
+
+		return false;
+	}
+
+	protected Object await(CompletableFuture<Object> future) throws DataSetException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new DataSetException(e);
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+
+			if (cause instanceof DataSetException)
+				throw (DataSetException) cause;
+			else if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			else if (cause instanceof Error)
+				throw (Error) cause;
+			else
+				throw new DataSetException(cause);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [executionCount=" + getExecutionCount() + ", coalescedCount="
+				+ getCoalescedCount() + ", inFlightCount=" + getInFlightCount() + "]";
+	}
+}
@@ -88,6 +88,20 @@ public class FileTplDashboardWidgetResManager extends AbstractTplDashboardWidget
 		return doGetRelativePath(id, name);
 	}
 
+	/**
+	 * 获取资源文件。
+	 * 
+	 * @param id
+	 *            {@linkplain Dashboard#getId()}
+	 * @param name
+	 *            资源名称
+	 * @return 可能不存在
+	 */
+	public File getFile(String id, String name)
+	{
+		return getFile(id, name, false);
+	}
+
 	@Override
 	public boolean exists(String id, String name)
 	{
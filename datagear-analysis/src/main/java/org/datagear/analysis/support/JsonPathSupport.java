@@ -17,6 +17,9 @@
 
 package org.datagear.analysis.support;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.datagear.util.StringUtil;
 
 import com.jayway.jsonpath.Configuration;
@@ -74,14 +77,7 @@ public class JsonPathSupport
 		{
 			Configuration configuration = getConfiguration();
 
-			// 转换"stores[0].books"、"[1].stores"简化模式为规范的JSONPath
-			if (!stdDataJsonPath.startsWith("$"))
-			{
-				if (stdDataJsonPath.startsWith("["))
-					stdDataJsonPath = "$" + stdDataJsonPath;
-				else
-					stdDataJsonPath = "$." + stdDataJsonPath;
-			}
+			stdDataJsonPath = toStdJsonPath(stdDataJsonPath);
 
 			try
 			{
@@ -95,4 +91,115 @@ public class JsonPathSupport
 
 		return data;
 	}
+
+	/**
+	 * 将JSON路径解析为确定路径的路径项列表。
+	 * <p>
+	 * 仅支持由属性名（{@code .name}、{@code ['name']}）、非负数组索引（{@code [0]}）组成的确定路径，
+	 * 比如：{@linkplain "stores[0].books"}、{@linkplain "$['store']['book'][0]"}，
+	 * 对于包含通配符、深度扫描、过滤器、切片等的路径，将返回{@code null}。
+	 * </p>
+	 * 
+	 * @param jsonPath
+	 *            允许{@code null}
+	 * @return 路径项列表，元素为{@linkplain String}（属性名）或者{@linkplain Integer}（数组索引），空列表表示根路径，
+	 *         {@code null}表示不是确定路径
+	 */
+	public List<Object> resolveDefinitePath(String jsonPath)
+	{
+		List<Object> segments = new ArrayList<Object>();
+
+		if (StringUtil.isEmpty(jsonPath))
+			return segments;
+
+		String path = toStdJsonPath(jsonPath.trim());
+		int len = path.length();
+		int i = 1;
+
+		while (i < len)
+		{
+			char c = path.charAt(i);
+
+			if (c == '.')
+			{
+				int start = i + 1;
+				int end = start;
+
+				while (end < len && isDefinitePropertyNameChar(path.charAt(end)))
+					end++;
+
+				if (end == start)
+					return null;
+
+				segments.add(path.substring(start, end));
+				i = end;
+			}
+			else if (c == '[')
+			{
+				int end = path.indexOf(']', i + 1);
+
+				if (end < 0)
+					return null;
+
+				String content = path.substring(i + 1, end).trim();
+				int contentLen = content.length();
+
+				if (contentLen >= 2 && (content.charAt(0) == '\'' || content.charAt(0) == '"')
+						&& content.charAt(contentLen - 1) == content.charAt(0))
+				{
+					String name = content.substring(1, contentLen - 1);
+
+					if (name.isEmpty() || name.indexOf('\'') >= 0 || name.indexOf('"') >= 0
+							|| name.indexOf('\\') >= 0)
+						return null;
+
+					segments.add(name);
+				}
+				else
+				{
+					if (contentLen == 0 || contentLen > 9)
+						return null;
+
+					for (int j = 0; j < contentLen; j++)
+					{
+						if (!Character.isDigit(content.charAt(j)))
+							return null;
+					}
+
+					segments.add(Integer.valueOf(content));
+				}
+
+				i = end + 1;
+			}
+			else
+				return null;
+		}
+
+		return segments;
+	}
+
+	protected boolean isDefinitePropertyNameChar(char c)
+	{
+		return c != '.' && c != '[' && c != ']' && c != '*' && c != '?' && c != '@' && c != '(' && c != ')'
+				&& c != ',' && c != ':' && c != '\'' && c != '"' && c != '\\' && !Character.isWhitespace(c);
+	}
+
+	/**
+	 * 转换"stores[0].books"、"[1].stores"简化模式为规范的JSONPath。
+	 * 
+	 * @param jsonPath
+	 * @return
+	 */
+	protected String toStdJsonPath(String jsonPath)
+	{
+		if (!jsonPath.startsWith("$"))
+		{
+			if (jsonPath.startsWith("["))
+				jsonPath = "$" + jsonPath;
+			else
+				jsonPath = "$." + jsonPath;
+		}
+
+		return jsonPath;
+	}
 }
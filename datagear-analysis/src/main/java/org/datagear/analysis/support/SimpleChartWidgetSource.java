@@ -63,4 +63,15 @@ public class SimpleChartWidgetSource implements ChartWidgetSource
 
 		return null;
 	}
+
+	@Override
+	public ChartWidget[] getChartWidgets(String... ids)
+	{
+		ChartWidget[] re = new ChartWidget[ids.length];
+
+		for (int i = 0; i < ids.length; i++)
+			re[i] = getChartWidget(ids[i]);
+
+		return re;
+	}
 }
@@ -25,7 +25,6 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -34,8 +33,11 @@ import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetProperty.DataType;
 import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.ResolvableDataSet;
 import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.analysis.support.SqlDataSetResultCache.SqlDataSetResultCacheKey;
+import org.datagear.util.CompactRow;
 import org.datagear.util.IOUtil;
 import org.datagear.util.JDBCCompatiblity;
 import org.datagear.util.JdbcSupport;
@@ -54,6 +56,10 @@ import org.slf4j.LoggerFactory;
  * <p>
  * 此类的{@linkplain #getSql()}支持<code>Freemarker</code>模板语言。
  * </p>
+ * <p>
+ * 设置了{@linkplain #getResultCache()}、且{@linkplain #getResultCacheTtl()}大于{@code 0}时，
+ * {@linkplain #getResult(DataSetQuery)}的结果将被缓存。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -72,6 +78,11 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 
 	private SqlValidator sqlValidator = null;
 
+	private transient SqlDataSetResultCache resultCache = null;
+
+	/** 结果缓存有效毫秒数，小于等于{@code 0}表示不缓存 */
+	private long resultCacheTtl = 0;
+
 	public SqlDataSet()
 	{
 		super();
@@ -122,6 +133,26 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 		this.sqlValidator = sqlValidator;
 	}
 
+	public SqlDataSetResultCache getResultCache()
+	{
+		return resultCache;
+	}
+
+	public void setResultCache(SqlDataSetResultCache resultCache)
+	{
+		this.resultCache = resultCache;
+	}
+
+	public long getResultCacheTtl()
+	{
+		return resultCacheTtl;
+	}
+
+	public void setResultCacheTtl(long resultCacheTtl)
+	{
+		this.resultCacheTtl = resultCacheTtl;
+	}
+
 	@Override
 	public TemplateResolvedDataSetResult resolve(DataSetQuery query)
 			throws DataSetException
@@ -135,6 +166,57 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 	{
 		String sql = resolveTemplateSql(getSql(), query);
 
+		// 解析属性时通常是编辑数据集，不应使用缓存
+		boolean useCache = (!resolveProperties && isResultCacheEnabled());
+
+		// 执行SQL前确定缓存KEY（包含缓存代次），使得执行期间数据集失效时，结果不会存入新代次
+		SqlDataSetResultCacheKey cacheKey = (useCache ? this.resultCache.getKey(getId(), sql, query) : null);
+
+		if (useCache)
+		{
+			DataSetResult result = this.resultCache.get(cacheKey, this.resultCacheTtl);
+
+			if (result != null)
+			{
+				List<DataSetProperty> properties = getProperties();
+				if (properties == null)
+					properties = Collections.emptyList();
+
+				return new TemplateResolvedDataSetResult(result, properties, sql);
+			}
+		}
+
+		TemplateResolvedDataSetResult result = resolveResult(query, sql, resolveProperties);
+
+		if (useCache)
+			this.resultCache.put(cacheKey, result.getResult());
+
+		return result;
+	}
+
+	/**
+	 * 是否启用结果缓存。
+	 * 
+	 * @return
+	 */
+	protected boolean isResultCacheEnabled()
+	{
+		return (this.resultCache != null && this.resultCacheTtl > 0);
+	}
+
+	/**
+	 * 执行SQL并解析结果。
+	 * 
+	 * @param query
+	 * @param sql
+	 *            已解析的SQL
+	 * @param resolveProperties
+	 * @return
+	 * @throws DataSetException
+	 */
+	protected TemplateResolvedDataSetResult resolveResult(DataSetQuery query, String sql, boolean resolveProperties)
+			throws DataSetException
+	{
 		Connection cn = null;
 
 		try
@@ -285,29 +367,57 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 			}
 		}
 		
+		// 所有行共享列名及位置，按列号读取，避免每行创建HashMap、以及某些驱动按列名读取时的列名查找开销
+		CompactRow.Schema schema = CompactRow.Schema.valueOf(colNames);
+		int[] slots = CompactRow.Schema.slotsOf(schema, colNames);
+		int[] types = new int[colNames.length];
+
+		// 同名列仅读取第一列，与按列名读取时JDBC返回第一个匹配列的逻辑一致
+		boolean[] duplicates = new boolean[colNames.length];
+		boolean[] filled = new boolean[schema.size()];
+
+		for (int i = 0; i < colNames.length; i++)
+		{
+			types[i] = sqlTypes[i].getType();
+			duplicates[i] = filled[slots[i]];
+			filled[slots[i]] = true;
+		}
+
 		while (rs.next())
 		{
 			if (isReachResultFetchSize(query, data.size()))
 				break;
 
-			Map<String, Object> row = new HashMap<>();
+			Object[] values = new Object[schema.size()];
 
 			for (int i = 0; i < colNames.length; i++)
 			{
-				Object value = getColumnValue(cn, rs, colNames[i], sqlTypes[i].getType(), jdbcSupport);
-				row.put(colNames[i], value);
+				if (!duplicates[i])
+					values[slots[i]] = getColumnValue(cn, rs, i + 1, types[i], jdbcSupport);
 			}
 
-			data.add(row);
+			data.add(new CompactRow(schema, values));
 		}
 
 		return data;
 	}
 
-	protected Object getColumnValue(Connection cn, ResultSet rs, String columnName, int sqlType,
+	/**
+	 * 获取列值。
+	 * 
+	 * @param cn
+	 * @param rs
+	 * @param columnIndex
+	 *            列号，以{@code 1}开始
+	 * @param sqlType
+	 * @param jdbcSupport
+	 * @return
+	 * @throws Throwable
+	 */
+	protected Object getColumnValue(Connection cn, ResultSet rs, int columnIndex, int sqlType,
 			JdbcSupport jdbcSupport) throws Throwable
 	{
-		Object value = jdbcSupport.getColumnValue(cn, rs, columnName, sqlType);
+		Object value = jdbcSupport.getColumnValue(cn, rs, columnIndex, sqlType);
 
 		// 对于大字符串类型，value可能是字符输入流，这里应转成字符串并关闭输入流，便于后续处理
 		if (value instanceof Reader)
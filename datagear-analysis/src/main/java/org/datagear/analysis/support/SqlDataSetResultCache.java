@@ -0,0 +1,445 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.datagear.analysis.support;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetResult;
+import org.datagear.analysis.ResultDataFormat;
+import org.datagear.util.cache.CommonCacheKey;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+
+/**
+ * {@linkplain SqlDataSet}结果缓存。
+ * <p>
+ * 它以{@linkplain SqlDataSet#getId()}、解析后的SQL、{@linkplain DataSetQuery#getParamValues()}、
+ * {@linkplain DataSetQuery#getResultDataFormat()}、{@linkplain DataSetQuery#getResultFetchSize()}作为缓存KEY，
+ * 缓存{@linkplain SqlDataSet#getResult(DataSetQuery)}的结果，使得相同查询无需重复执行SQL。
+ * </p>
+ * <p>
+ * 结果的行数超过{@linkplain #getMaxRows()}、或者估算字节数超过{@linkplain #getMaxBytes()}时，将不会被缓存。
+ * </p>
+ * <p>
+ * {@linkplain SqlDataSet}修改后，应调用{@linkplain #invalidate(String)}使其已缓存的结果失效。
+ * </p>
+ * <p>
+ * 缓存KEY包含数据集当前的缓存代次，调用者应在执行SQL前通过{@linkplain #getKey(String, String, DataSetQuery)}获取KEY，
+ * 并以同一KEY调用{@linkplain #get(SqlDataSetResultCacheKey, long)}、{@linkplain #put(SqlDataSetResultCacheKey, DataSetResult)}，
+ * 这样，执行期间数据集失效时，旧结果将存入旧代次，不会被之后的查询读取。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SqlDataSetResultCache
+{
+	private Cache cache = null;
+
+	/** 单个结果允许缓存的最大行数 */
+	private int maxRows = 10000;
+
+	/** 单个结果允许缓存的最大估算字节数 */
+	private long maxBytes = 1024 * 1024 * 10;
+
+	/** 数据集ID-缓存代次映射表，修改代次即可使得该数据集已缓存的结果失效 */
+	private final ConcurrentMap<String, Long> generations = new ConcurrentHashMap<String, Long>();
+
+	public SqlDataSetResultCache()
+	{
+		super();
+	}
+
+	public SqlDataSetResultCache(Cache cache)
+	{
+		super();
+		this.cache = cache;
+	}
+
+	public Cache getCache()
+	{
+		return cache;
+	}
+
+	public void setCache(Cache cache)
+	{
+		this.cache = cache;
+	}
+
+	public int getMaxRows()
+	{
+		return maxRows;
+	}
+
+	public void setMaxRows(int maxRows)
+	{
+		this.maxRows = maxRows;
+	}
+
+	public long getMaxBytes()
+	{
+		return maxBytes;
+	}
+
+	public void setMaxBytes(long maxBytes)
+	{
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * 获取缓存KEY，它包含数据集当前的缓存代次。
+	 * 
+	 * @param dataSetId
+	 * @param sql
+	 *            解析后的SQL
+	 * @param query
+	 * @return
+	 */
+	public SqlDataSetResultCacheKey getKey(String dataSetId, String sql, DataSetQuery query)
+	{
+		Long generation = this.generations.get(dataSetId);
+
+		return new SqlDataSetResultCacheKey(dataSetId, (generation == null ? 0 : generation), sql,
+				query.getParamValues(), query.getResultDataFormat(), query.getResultFetchSize());
+	}
+
+	/**
+	 * 获取缓存结果。
+	 * 
+	 * @param key
+	 *            {@linkplain #getKey(String, String, DataSetQuery)}
+	 * @param ttl
+	 *            缓存有效毫秒数
+	 * @return {@code null}表示没有缓存或已过期
+	 */
+	public DataSetResult get(SqlDataSetResultCacheKey key, long ttl)
+	{
+		if (this.cache == null || ttl <= 0)
+			return null;
+
+		ValueWrapper vw = this.cache.get(key);
+		SqlDataSetResultCacheValue value = (vw == null ? null : (SqlDataSetResultCacheValue) vw.get());
+
+		if (value == null)
+			return null;
+
+		if (System.currentTimeMillis() - value.getCreateTime() > ttl)
+		{
+			this.cache.evict(key);
+			return null;
+		}
+
+		return value.getResult();
+	}
+
+	/**
+	 * 将结果存入缓存。
+	 * 
+	 * @param key
+	 *            执行查询前获取的{@linkplain #getKey(String, String, DataSetQuery)}，而非执行查询后重新获取的
+	 * @param result
+	 * @return 是否已缓存
+	 */
+	public boolean put(SqlDataSetResultCacheKey key, DataSetResult result)
+	{
+		if (this.cache == null || result == null)
+			return false;
+
+		if (!isCacheable(result.getData()))
+			return false;
+
+		this.cache.put(key, new SqlDataSetResultCacheValue(result, System.currentTimeMillis()));
+
+		return true;
+	}
+
+	/**
+	 * 使指定数据集已缓存的所有结果失效。
+	 * 
+	 * @param dataSetId
+	 */
+	public void invalidate(String dataSetId)
+	{
+		// 底层缓存不支持按前缀清除，这里采用修改代次的方式，旧代次的缓存项将不再被访问，最终由底层缓存自行淘汰
+		this.generations.merge(dataSetId, 1L, Long::sum);
+	}
+
+	/**
+	 * 数据是否可缓存。
+	 * 
+	 * @param data
+	 * @return
+	 */
+	protected boolean isCacheable(Object data)
+	{
+		if (data instanceof Collection<?>)
+		{
+			Collection<?> rows = (Collection<?>) data;
+
+			if (this.maxRows > 0 && rows.size() > this.maxRows)
+				return false;
+		}
+
+		if (this.maxBytes > 0 && estimateBytes(data, this.maxBytes) > this.maxBytes)
+			return false;
+
+		return true;
+	}
+
+	/**
+	 * 估算数据占用的字节数。
+	 * 
+	 * @param data
+	 * @param max
+	 *            当估算值超过此值时可提前返回
+	 * @return
+	 */
+	protected long estimateBytes(Object data, long max)
+	{
+		if (data == null)
+			return 4;
+
+		if (data instanceof CharSequence)
+			return 40 + 2L * ((CharSequence) data).length();
+
+		if (data instanceof Number || data instanceof Boolean || data instanceof java.util.Date)
+			return (data instanceof BigDecimal || data instanceof BigInteger ? 40 : 16);
+
+		if (data instanceof Map<?, ?>)
+		{
+			long bytes = 48;
+
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) data).entrySet())
+			{
+				bytes += 32 + estimateBytes(entry.getKey(), max) + estimateBytes(entry.getValue(), max);
+
+				if (bytes > max)
+					break;
+			}
+
+			return bytes;
+		}
+
+		if (data instanceof Collection<?>)
+		{
+			long bytes = 24;
+
+			for (Object ele : (Collection<?>) data)
+			{
+				bytes += 8 + estimateBytes(ele, max - bytes);
+
+				if (bytes > max)
+					break;
+			}
+
+			return bytes;
+		}
+
+		if (data instanceof Object[])
+		{
+			long bytes = 16;
+
+			for (Object ele : (Object[]) data)
+			{
+				bytes += 8 + estimateBytes(ele, max - bytes);
+
+				if (bytes > max)
+					break;
+			}
+
+			return bytes;
+		}
+
+		return 16;
+	}
+
+	/**
+	 * 缓存KEY。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class SqlDataSetResultCacheKey implements CommonCacheKey
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String dataSetId;
+
+		private final long generation;
+
+		private final String sql;
+
+		private final Map<String, ?> paramValues;
+
+		private final ResultDataFormat resultDataFormat;
+
+		private final int resultFetchSize;
+
+		public SqlDataSetResultCacheKey(String dataSetId, long generation, String sql, Map<String, ?> paramValues,
+				ResultDataFormat resultDataFormat, int resultFetchSize)
+		{
+			super();
+			this.dataSetId = dataSetId;
+			this.generation = generation;
+			this.sql = sql;
+			this.paramValues = paramValues;
+			this.resultDataFormat = resultDataFormat;
+			this.resultFetchSize = resultFetchSize;
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public long getGeneration()
+		{
+			return generation;
+		}
+
+		public String getSql()
+		{
+			return sql;
+		}
+
+		public Map<String, ?> getParamValues()
+		{
+			return paramValues;
+		}
+
+		public ResultDataFormat getResultDataFormat()
+		{
+			return resultDataFormat;
+		}
+
+		public int getResultFetchSize()
+		{
+			return resultFetchSize;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((dataSetId == null) ? 0 : dataSetId.hashCode());
+			result = prime * result + (int) (generation ^ (generation >>> 32));
+			result = prime * result + ((sql == null) ? 0 : sql.hashCode());
+			result = prime * result + ((paramValues == null) ? 0 : paramValues.hashCode());
+			result = prime * result + ((resultDataFormat == null) ? 0 : resultDataFormat.hashCode());
+			result = prime * result + resultFetchSize;
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			SqlDataSetResultCacheKey other = (SqlDataSetResultCacheKey) obj;
+			if (dataSetId == null)
+			{
+				if (other.dataSetId != null)
+					return false;
+			}
+			else if (!dataSetId.equals(other.dataSetId))
+				return false;
+			if (generation != other.generation)
+				return false;
+			if (sql == null)
+			{
+				if (other.sql != null)
+					return false;
+			}
+			else if (!sql.equals(other.sql))
+				return false;
+			if (paramValues == null)
+			{
+				if (other.paramValues != null)
+					return false;
+			}
+			else if (!paramValues.equals(other.paramValues))
+				return false;
+			if (resultDataFormat == null)
+			{
+				if (other.resultDataFormat != null)
+					return false;
+			}
+			else if (!resultDataFormat.equals(other.resultDataFormat))
+				return false;
+			if (resultFetchSize != other.resultFetchSize)
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [dataSetId=" + dataSetId + ", generation=" + generation + ", sql="
+					+ sql + ", paramValues=" + paramValues + ", resultDataFormat=" + resultDataFormat
+					+ ", resultFetchSize=" + resultFetchSize + "]";
+		}
+	}
+
+	/**
+	 * 缓存值。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class SqlDataSetResultCacheValue implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final DataSetResult result;
+
+		private final long createTime;
+
+		public SqlDataSetResultCacheValue(DataSetResult result, long createTime)
+		{
+			super();
+			this.result = result;
+			this.createTime = createTime;
+		}
+
+		public DataSetResult getResult()
+		{
+			return result;
+		}
+
+		public long getCreateTime()
+		{
+			return createTime;
+		}
+	}
+}
@@ -23,6 +23,7 @@ import java.io.Serializable;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -381,6 +382,13 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 
 			if (dashboardMeta != null)
 			{
+				// 首次命中缓存时编译渲染计划，之后的渲染无需再解析模板
+				if (!dashboardMeta.hasRenderPlan())
+				{
+					dashboardMeta.setRenderPlan(compileRenderPlan(dashboardWidget, renderContext, dashboardMeta));
+					setTplDashboardMetaCache(dashboardWidget, renderContext, dashboardMeta);
+				}
+
 				context = doRenderDashboard(dashboardWidget, renderContext, dashboardMeta);
 			}
 			else
@@ -456,13 +464,101 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 	{
 		DashboardFilterContext context = new DashboardFilterContext(dashboardWidget, renderContext, dashboardMeta,
 				nextDashboardId());
-		IndexedDashboardFilterHandler filterHandler = new IndexedDashboardFilterHandler(context);
-		
-		getHtmlFilter().filter(renderContext.getTemplateReader(), filterHandler);
+
+		if (dashboardMeta.hasRenderPlan())
+		{
+			writeInserters(context, dashboardMeta.getRenderPlan());
+		}
+		else
+		{
+			IndexedDashboardFilterHandler filterHandler = new IndexedDashboardFilterHandler(context);
+			getHtmlFilter().filter(renderContext.getTemplateReader(), filterHandler);
+		}
 		
 		return context;
 	}
 
+	/**
+	 * 编译渲染计划。
+	 * <p>
+	 * 渲染计划是按顺序排列的{@linkplain TplDashboardInserter}列表，模板中的静态内容被合并为{@linkplain TplDashboardTextInserter}，
+	 * 动态内容（标题、看板导入项、看板脚本）则保留为对应的插入点，渲染时只需依次写入，无需再解析模板。
+	 * </p>
+	 * 
+	 * @param dashboardWidget
+	 * @param renderContext
+	 * @param dashboardMeta
+	 * @return
+	 * @throws IOException
+	 */
+	protected List<TplDashboardInserter> compileRenderPlan(HtmlTplDashboardWidget dashboardWidget,
+			HtmlTplDashboardRenderContext renderContext, TplDashboardMeta dashboardMeta) throws IOException
+	{
+		DashboardFilterContext context = new DashboardFilterContext(dashboardWidget, renderContext, dashboardMeta,
+				(HtmlTplDashboard) null);
+		RenderPlanFilterHandler filterHandler = new RenderPlanFilterHandler(context);
+
+		getHtmlFilter().filter(renderContext.getTemplateReader(), filterHandler);
+
+		return filterHandler.getRenderPlan();
+	}
+
+	/**
+	 * 写入插入内容。
+	 * 
+	 * @param filterContext
+	 * @param inserters
+	 *            允许为{@code null}
+	 * @throws IOException
+	 */
+	protected void writeInserters(DashboardFilterContext filterContext, List<TplDashboardInserter> inserters)
+			throws IOException
+	{
+		if (inserters == null || inserters.isEmpty())
+			return;
+
+		HtmlTplDashboardRenderContext renderContext = filterContext.getRenderContext();
+
+		for (TplDashboardInserter inserter : inserters)
+		{
+			if (inserter instanceof TplDashboardTitleInserter)
+			{
+				HtmlTitleHandler htmlTitleHandler = renderContext.getHtmlTitleHandler();
+
+				if (htmlTitleHandler != null)
+				{
+					TplDashboardTitleInserter titleInserter = (TplDashboardTitleInserter) inserter;
+					Writer out = renderContext.getWriter();
+
+					if (titleInserter.isWrapTitleTag())
+						out.write(HTML_TAG_TITLE_START);
+
+					String titleContent = htmlTitleHandler.suffix(titleInserter.getRawTitleContent());
+					titleContent = StringUtil.escapeHtml(titleContent);
+
+					out.write(titleContent);
+
+					if (titleInserter.isWrapTitleTag())
+						out.write(HTML_TAG_TITLE_CLOSE);
+				}
+			}
+			else if (inserter instanceof TplDashboardImportInserter)
+			{
+				writeDashboardImport(renderContext, filterContext.getDashboard(),
+						filterContext.getDashboardMeta().getDashboardUnimport());
+			}
+			else if (inserter instanceof TplDashboardScriptInserter)
+			{
+				writeDashboardScript(renderContext, filterContext.getDashboardMeta(), filterContext.getDashboard(),
+						((TplDashboardScriptInserter) inserter).isWriteScriptTag());
+			}
+			else
+			{
+				inserter.insert(filterContext);
+			}
+		}
+	}
+
 	/**
 	 * 写看板脚本。
 	 * 
@@ -609,15 +705,15 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 
 	protected List<HtmlChartWidget> getChartWidgets(List<TplChartMeta> chartMetas)
 	{
-		List<HtmlChartWidget> list = new ArrayList<>();
-
 		if (chartMetas == null)
-			return list;
+			return new ArrayList<>();
+
+		String[] widgetIds = new String[chartMetas.size()];
 
-		for (TplChartMeta chartMeta : chartMetas)
-			list.add(getHtmlChartWidgetForRender(chartMeta.getWidgetId()));
+		for (int i = 0; i < widgetIds.length; i++)
+			widgetIds[i] = chartMetas.get(i).getWidgetId();
 
-		return list;
+		return Arrays.asList(getHtmlChartWidgetsForRender(widgetIds));
 	}
 
 	/**
@@ -783,6 +879,11 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		 * 文档结束后置插入内容：标签索引 -&gt; 插入内容
 		 */
 		private List<TplDashboardInserter> afterWriteInserters = new ArrayList<TplDashboardInserter>();
+
+		/**
+		 * 渲染计划，参考{@linkplain HtmlTplDashboardWidgetHtmlRenderer#compileRenderPlan(HtmlTplDashboardWidget, HtmlTplDashboardRenderContext, TplDashboardMeta)}
+		 */
+		private volatile List<TplDashboardInserter> renderPlan = null;
 		
 		public TplDashboardMeta()
 		{
@@ -953,6 +1054,21 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		{
 			this.afterWriteInserters.add(inserter);
 		}
+
+		public boolean hasRenderPlan()
+		{
+			return (this.renderPlan != null);
+		}
+
+		public List<TplDashboardInserter> getRenderPlan()
+		{
+			return renderPlan;
+		}
+
+		public void setRenderPlan(List<TplDashboardInserter> renderPlan)
+		{
+			this.renderPlan = renderPlan;
+		}
 		
 		protected void addInserter(Map<Integer, List<TplDashboardInserter>> inserterss, int tagIndex, TplDashboardInserter inserter)
 		{
@@ -1684,48 +1800,70 @@ public class HtmlTplDashboardWidgetHtmlRenderer extends HtmlTplDashboardWidgetRe
 		
 		protected void doInsert(List<TplDashboardInserter> inserters) throws IOException
 		{
-			if(inserters == null || inserters.isEmpty())
-				return;
+			writeInserters(this.filterContext, inserters);
+		}
+	}
 
-			for(TplDashboardInserter inserter : inserters)
-			{
-				if (inserter instanceof TplDashboardTitleInserter)
-				{
-					HtmlTitleHandler htmlTitleHandler = this.filterContext.getRenderContext().getHtmlTitleHandler();
+	/**
+	 * 编译渲染计划的HTML看板模板过滤器。
+	 * <p>
+	 * 它不执行插入，而是将模板静态内容及{@linkplain TplDashboardTextInserter}合并为静态片段，其他插入内容作为插入点，按顺序记录至渲染计划。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 */
+	protected class RenderPlanFilterHandler extends IndexedDashboardFilterHandler
+	{
+		private final StringWriter segment = new StringWriter();
 
-					if (htmlTitleHandler != null)
-					{
-						TplDashboardTitleInserter titleInserter = (TplDashboardTitleInserter) inserter;
-						Writer out = filterContext.getRenderContext().getWriter();
+		private final List<TplDashboardInserter> renderPlan = new ArrayList<TplDashboardInserter>();
 
-						if (titleInserter.isWrapTitleTag())
-							out.write(HTML_TAG_TITLE_START);
+		public RenderPlanFilterHandler(DashboardFilterContext filterContext)
+		{
+			super(filterContext);
+			setOut(this.segment);
+		}
 
-						String titleContent = htmlTitleHandler.suffix(titleInserter.getRawTitleContent());
-						titleContent = StringUtil.escapeHtml(titleContent);
+		/**
+		 * 获取渲染计划，应在过滤完成后调用。
+		 * 
+		 * @return
+		 */
+		public List<TplDashboardInserter> getRenderPlan()
+		{
+			flushSegment();
+			return this.renderPlan;
+		}
 
-						out.write(titleContent);
+		@Override
+		protected void doInsert(List<TplDashboardInserter> inserters) throws IOException
+		{
+			if (inserters == null || inserters.isEmpty())
+				return;
 
-						if (titleInserter.isWrapTitleTag())
-							out.write(HTML_TAG_TITLE_CLOSE);
-					}
-				}
-				else if (inserter instanceof TplDashboardImportInserter)
-				{
-					writeDashboardImport(this.filterContext.getRenderContext(), this.filterContext.getDashboard(),
-							this.filterContext.getDashboardMeta().getDashboardUnimport());
-				}
-				else if (inserter instanceof TplDashboardScriptInserter)
+			for (TplDashboardInserter inserter : inserters)
+			{
+				if (inserter instanceof TplDashboardTextInserter)
 				{
-					writeDashboardScript(this.filterContext.getRenderContext(), this.filterContext.getDashboardMeta(),
-							this.filterContext.getDashboard(),
-							((TplDashboardScriptInserter) inserter).isWriteScriptTag());
+					this.segment.write(((TplDashboardTextInserter) inserter).getText());
 				}
 				else
 				{
-					inserter.insert(this.filterContext);
+					flushSegment();
+					this.renderPlan.add(inserter);
 				}
 			}
 		}
+
+		protected void flushSegment()
+		{
+			StringBuffer buffer = this.segment.getBuffer();
+
+			if (buffer.length() > 0)
+			{
+				this.renderPlan.add(new TplDashboardTextInserter(buffer.toString()));
+				buffer.setLength(0);
+			}
+		}
 	}
 }
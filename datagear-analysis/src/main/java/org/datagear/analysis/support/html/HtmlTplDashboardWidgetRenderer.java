@@ -22,7 +22,11 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.datagear.analysis.Chart;
 import org.datagear.analysis.ChartDefinition;
@@ -470,6 +474,75 @@ public abstract class HtmlTplDashboardWidgetRenderer
 			}
 		}
 
+		return toHtmlChartWidgetForRender(id, chartWidget);
+	}
+
+	/**
+	 * 批量获取用于渲染指定ID图表的{@linkplain ChartWidget}。
+	 * <p>
+	 * 此方法通过{@linkplain ChartWidgetSource#getChartWidgets(String...)}一次获取全部（重复的ID仅获取一次），
+	 * 返回数组与{@code ids}的元素一一对应，且元素不会为{@code null}，参考{@linkplain #getHtmlChartWidgetForRender(String)}。
+	 * </p>
+	 * <p>
+	 * 如果批量获取出现异常（比如：某个图表无权限），将改为逐一获取，使出现异常的图表单独显示为异常图表，而不影响其他图表。
+	 * </p>
+	 * 
+	 * @param ids
+	 * @return
+	 */
+	protected HtmlChartWidget[] getHtmlChartWidgetsForRender(String... ids)
+	{
+		HtmlChartWidget[] re = new HtmlChartWidget[ids.length];
+
+		Set<String> queryIds = new LinkedHashSet<>();
+
+		for (String id : ids)
+		{
+			if (!StringUtil.isEmpty(id))
+				queryIds.add(id);
+		}
+
+		Map<String, ChartWidget> chartWidgets = new HashMap<>();
+
+		if (!queryIds.isEmpty())
+		{
+			String[] queryIdArray = queryIds.toArray(new String[queryIds.size()]);
+
+			try
+			{
+				ChartWidget[] queryWidgets = this.chartWidgetSource.getChartWidgets(queryIdArray);
+
+				for (int i = 0; i < queryIdArray.length; i++)
+					chartWidgets.put(queryIdArray[i], queryWidgets[i]);
+			}
+			catch (Throwable t)
+			{
+				if (LOGGER.isDebugEnabled())
+					LOGGER.debug("Get chart widgets " + queryIds + " in batch failed, get them one by one", t);
+
+				for (int i = 0; i < ids.length; i++)
+					re[i] = getHtmlChartWidgetForRender(ids[i]);
+
+				return re;
+			}
+		}
+
+		for (int i = 0; i < ids.length; i++)
+			re[i] = toHtmlChartWidgetForRender(ids[i], chartWidgets.get(ids[i]));
+
+		return re;
+	}
+
+	/**
+	 * 将获取的{@linkplain ChartWidget}转换为用于渲染的{@linkplain HtmlChartWidget}。
+	 * 
+	 * @param id
+	 * @param chartWidget
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected HtmlChartWidget toHtmlChartWidgetForRender(String id, ChartWidget chartWidget)
+	{
 		if (chartWidget == null)
 			chartWidget = createHtmlChartWidgetForNotFound(id);
 
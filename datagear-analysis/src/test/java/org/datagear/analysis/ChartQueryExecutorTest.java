@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.datagear.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * {@linkplain ChartQueryExecutor}单元测试用例。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class ChartQueryExecutorTest
+{
+	private ChartQueryExecutor chartQueryExecutor = new ChartQueryExecutor(Executors.newFixedThreadPool(10));
+
+	@After
+	public void destroy()
+	{
+		this.chartQueryExecutor.shutdown();
+	}
+
+	@Test
+	public void getResultTest_concurrent()
+	{
+		Map<String, ChartDefinition> charts = new HashMap<String, ChartDefinition>();
+		Map<String, ChartQuery> chartQueries = new LinkedHashMap<String, ChartQuery>();
+
+		for (int i = 0; i < 6; i++)
+		{
+			String id = "chart" + i;
+			charts.put(id, new SleepChartDefinition(id, 300, false));
+			chartQueries.put(id, new ChartQuery());
+		}
+
+		SimpleDashboardQueryHandler handler = new SimpleDashboardQueryHandler(charts);
+		handler.setChartQueryExecutor(this.chartQueryExecutor);
+
+		long start = System.currentTimeMillis();
+		DashboardResult result = handler.getResult(new DashboardQuery(chartQueries));
+		long duration = System.currentTimeMillis() - start;
+
+		assertEquals(6, result.getChartResults().size());
+		assertEquals(0, result.getChartResultErrors().size());
+		assertTrue(duration < 6 * 300);
+	}
+
+	@Test
+	public void getResultTest_parallelism()
+	{
+		AtomicInteger runnings = new AtomicInteger(0);
+		AtomicInteger maxRunnings = new AtomicInteger(0);
+
+		Map<String, ChartDefinition> charts = new HashMap<String, ChartDefinition>();
+		Map<String, ChartQuery> chartQueries = new LinkedHashMap<String, ChartQuery>();
+
+		for (int i = 0; i < 6; i++)
+		{
+			String id = "chart" + i;
+			charts.put(id, new CountChartDefinition(id, runnings, maxRunnings));
+			chartQueries.put(id, new ChartQuery());
+		}
+
+		this.chartQueryExecutor.setParallelism(2);
+
+		SimpleDashboardQueryHandler handler = new SimpleDashboardQueryHandler(charts);
+		handler.setChartQueryExecutor(this.chartQueryExecutor);
+
+		DashboardResult result = handler.getResult(new DashboardQuery(chartQueries));
+
+		assertEquals(6, result.getChartResults().size());
+		assertTrue(maxRunnings.get() <= 2);
+	}
+
+	@Test
+	public void getResultTest_suppressChartError()
+	{
+		Map<String, ChartDefinition> charts = new HashMap<String, ChartDefinition>();
+		charts.put("chart0", new SleepChartDefinition("chart0", 10, false));
+		charts.put("chart1", new SleepChartDefinition("chart1", 10, true));
+		charts.put("chart2", new SleepChartDefinition("chart2", 2000, false));
+
+		Map<String, ChartQuery> chartQueries = new LinkedHashMap<String, ChartQuery>();
+		chartQueries.put("chart0", new ChartQuery());
+		chartQueries.put("chart1", new ChartQuery());
+		chartQueries.put("chart2", new ChartQuery());
+
+		this.chartQueryExecutor.setChartTimeout(300);
+
+		SimpleDashboardQueryHandler handler = new SimpleDashboardQueryHandler(charts);
+		handler.setChartQueryExecutor(this.chartQueryExecutor);
+
+		DashboardQuery query = new DashboardQuery(chartQueries);
+		query.setSuppressChartError(true);
+
+		DashboardResult result = handler.getResult(query);
+
+		assertEquals(1, result.getChartResults().size());
+		assertTrue(result.getChartResults().containsKey("chart0"));
+		assertEquals(2, result.getChartResultErrors().size());
+		assertTrue(result.getChartResultErrors().get("chart1").getThrowable() instanceof DataSetException);
+		assertTrue(result.getChartResultErrors().get("chart2").getThrowable() instanceof ChartQueryTimeoutException);
+	}
+
+	@Test(expected = DataSetException.class)
+	public void getResultTest_error()
+	{
+		Map<String, ChartDefinition> charts = new HashMap<String, ChartDefinition>();
+		charts.put("chart0", new SleepChartDefinition("chart0", 10, false));
+		charts.put("chart1", new SleepChartDefinition("chart1", 10, true));
+
+		Map<String, ChartQuery> chartQueries = new LinkedHashMap<String, ChartQuery>();
+		chartQueries.put("chart0", new ChartQuery());
+		chartQueries.put("chart1", new ChartQuery());
+
+		SimpleDashboardQueryHandler handler = new SimpleDashboardQueryHandler(charts);
+		handler.setChartQueryExecutor(this.chartQueryExecutor);
+
+		handler.getResult(new DashboardQuery(chartQueries));
+	}
+
+	private static class SleepChartDefinition extends ChartDefinition
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final long sleep;
+
+		private final boolean error;
+
+		public SleepChartDefinition(String id, long sleep, boolean error)
+		{
+			super(id, id, new DataSetBind[0]);
+			this.sleep = sleep;
+			this.error = error;
+		}
+
+		@Override
+		public ChartResult getResult(ChartQuery query) throws DataSetException
+		{
+			try
+			{
+				Thread.sleep(this.sleep);
+			}
+			catch (InterruptedException e)
+			{
+				throw new DataSetException(e);
+			}
+
+			if (this.error)
+				throw new DataSetException("error");
+
+			return new ChartResult();
+		}
+	}
+
+	private static class CountChartDefinition extends ChartDefinition
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final AtomicInteger runnings;
+
+		private final AtomicInteger maxRunnings;
+
+		public CountChartDefinition(String id, AtomicInteger runnings, AtomicInteger maxRunnings)
+		{
+			super(id, id, new DataSetBind[0]);
+			this.runnings = runnings;
+			this.maxRunnings = maxRunnings;
+		}
+
+		@Override
+		public ChartResult getResult(ChartQuery query) throws DataSetException
+		{
+			int count = this.runnings.incrementAndGet();
+			this.maxRunnings.accumulateAndGet(count, Math::max);
+
+			try
+			{
+				Thread.sleep(50);
+			}
+			catch (InterruptedException e)
+			{
+				throw new DataSetException(e);
+			}
+			finally
+			{
+				this.runnings.decrementAndGet();
+			}
+
+			return new ChartResult();
+		}
+	}
+}
@@ -18,6 +18,8 @@
 package org.datagear.analysis.support;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.support.AbstractResolvableResourceDataSet.ResourceData;
 import org.datagear.analysis.support.CsvValueDataSet.CsvValueDataSetResource;
 import org.junit.Test;
 
@@ -164,4 +167,84 @@ public class AbstractCsvDataSetTest
 			assertEquals(DataSetProperty.DataType.STRING, properties.get(1).getType());
 		}
 	}
+
+	@Test
+	public void resolveResourceDataTest_maxDataSize() throws Throwable
+	{
+		CsvValueDataSet ds = new CsvValueDataSet();
+
+		// 名称行之前也有数据
+		CsvValueDataSetResource resource = new CsvValueDataSetResource("a, 1\nname, value\nb, 2\nc, 3\nd, 4", 2);
+
+		{
+			ResourceData rd = ds.resolveResourceData(resource, true, -1);
+			@SuppressWarnings("unchecked")
+			List<Map<String, Object>> data = (List<Map<String, Object>>) rd.getData();
+
+			assertFalse(rd.isTruncated());
+			assertEquals(4, data.size());
+			assertEquals("a", data.get(0).get("name"));
+			assertEquals("1", data.get(0).get("value"));
+			assertEquals("d", data.get(3).get("name"));
+			assertEquals(2, rd.getProperties().size());
+			assertEquals(DataSetProperty.DataType.NUMBER, rd.getProperties().get(1).getType());
+		}
+
+		{
+			ResourceData rd = ds.resolveResourceData(resource, false, 2);
+			@SuppressWarnings("unchecked")
+			List<Map<String, Object>> data = (List<Map<String, Object>>) rd.getData();
+
+			assertTrue(rd.isTruncated());
+			assertEquals(2, data.size());
+			assertEquals("a", data.get(0).get("name"));
+			assertEquals("b", data.get(1).get("name"));
+		}
+
+		{
+			ResourceData rd = ds.resolveResourceData(resource, false, 4);
+
+			assertFalse(rd.isTruncated());
+			assertEquals(4, ((List<?>) rd.getData()).size());
+		}
+	}
+
+	@Test
+	public void resolveResourceDataTest_noNameRow() throws Throwable
+	{
+		CsvValueDataSet ds = new CsvValueDataSet();
+		CsvValueDataSetResource resource = new CsvValueDataSetResource("a, 1\nb, 2", -1);
+
+		ResourceData rd = ds.resolveResourceData(resource, true, -1);
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> data = (List<Map<String, Object>>) rd.getData();
+
+		assertEquals(2, data.size());
+		assertEquals("a", data.get(0).get("1"));
+		assertEquals("2", data.get(1).get("2"));
+		assertEquals("1", rd.getProperties().get(0).getName());
+		assertEquals("2", rd.getProperties().get(1).getName());
+	}
+
+	@Test
+	public void resolvePropertiesTest_propertySampleSize() throws Throwable
+	{
+		AbstractCsvDataSet<CsvValueDataSetResource> ds = new CsvValueDataSet();
+		ds.setPropertySampleSize(2);
+
+		List<String> propertyNames = Arrays.asList("value");
+		List<Map<String, String>> data = new ArrayList<>();
+
+		for (String value : new String[] { "1", "2", "c" })
+		{
+			Map<String, String> row = new HashMap<>();
+			row.put("value", value);
+			data.add(row);
+		}
+
+		assertEquals(DataSetProperty.DataType.NUMBER, ds.resolveProperties(propertyNames, data).get(0).getType());
+
+		ds.setPropertySampleSize(0);
+		assertEquals(DataSetProperty.DataType.STRING, ds.resolveProperties(propertyNames, data).get(0).getType());
+	}
 }
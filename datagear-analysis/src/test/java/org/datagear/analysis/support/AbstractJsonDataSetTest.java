@@ -18,12 +18,17 @@
 package org.datagear.analysis.support;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.StringReader;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.support.AbstractResolvableResourceDataSet.ResourceData;
 import org.junit.Test;
 
 /**
@@ -85,4 +90,91 @@ public class AbstractJsonDataSetTest
 			}
 		}
 	}
+
+	@Test
+	public void resolveDataTest_stream()
+	{
+		String jsonString = "{ path0: { other: [1, { a: 2 }], path1: [ { path2: [ { name:'aaa' }, { name:'bbb' }, { name:'ccc' } ] } ] } }";
+
+		JsonValueDataSet dataSet = new JsonValueDataSet(JsonValueDataSet.class.getSimpleName(),
+				JsonValueDataSet.class.getSimpleName(), jsonString);
+
+		try
+		{
+			{
+				ResourceData rd = dataSet.resolveData(new StringReader(jsonString), "$['path0'].path1[0].path2", 2);
+				@SuppressWarnings("unchecked")
+				List<Map<String, Object>> data = (List<Map<String, Object>>) rd.getData();
+
+				assertTrue(rd.isTruncated());
+				assertEquals(2, data.size());
+				assertEquals("aaa", data.get(0).get("name"));
+				assertEquals("bbb", data.get(1).get("name"));
+			}
+
+			{
+				ResourceData rd = dataSet.resolveData(new StringReader(jsonString), "path0.path1[0].path2", 3);
+
+				assertEquals(false, rd.isTruncated());
+				assertEquals(3, ((List<?>) rd.getData()).size());
+			}
+
+			{
+				ResourceData rd = dataSet.resolveData(new StringReader(jsonString), "path0.path1[0].path2[1]", -1);
+
+				assertEquals("bbb", ((Map<?, ?>) rd.getData()).get("name"));
+			}
+
+			{
+				ResourceData rd = dataSet.resolveData(new StringReader("null"), "path0", -1);
+				assertNull(rd.getData());
+			}
+		}
+		catch (Throwable t)
+		{
+			throw new RuntimeException(t);
+		}
+	}
+
+	@Test(expected = ReadJsonDataPathException.class)
+	public void resolveDataTest_stream_pathNotFound() throws Throwable
+	{
+		String jsonString = "{ path0: { path1: [] } }";
+
+		JsonValueDataSet dataSet = new JsonValueDataSet(JsonValueDataSet.class.getSimpleName(),
+				JsonValueDataSet.class.getSimpleName(), jsonString);
+
+		dataSet.resolveData(new StringReader(jsonString), "path0.path1[0]", -1);
+	}
+
+	@Test(expected = UnsupportedJsonResultDataException.class)
+	public void resolveDataTest_stream_illegalRoot() throws Throwable
+	{
+		String jsonString = "[ { a: 1 }, 2 ]";
+
+		JsonValueDataSet dataSet = new JsonValueDataSet(JsonValueDataSet.class.getSimpleName(),
+				JsonValueDataSet.class.getSimpleName(), jsonString);
+
+		dataSet.resolveData(new StringReader(jsonString), "", -1);
+	}
+
+	@Test
+	public void resolveDefinitePathTest()
+	{
+		JsonPathSupport jsonPathSupport = JsonPathSupport.INSTANCE;
+
+		assertEquals(Arrays.asList(), jsonPathSupport.resolveDefinitePath(""));
+		assertEquals(Arrays.asList(), jsonPathSupport.resolveDefinitePath("$"));
+		assertEquals(Arrays.asList("stores", 0, "books"), jsonPathSupport.resolveDefinitePath("stores[0].books"));
+		assertEquals(Arrays.asList(1, "stores"), jsonPathSupport.resolveDefinitePath("[1].stores"));
+		assertEquals(Arrays.asList("store", "book", 0),
+				jsonPathSupport.resolveDefinitePath("$['store'][\"book\"][0]"));
+
+		assertNull(jsonPathSupport.resolveDefinitePath("$.store.book[*].author"));
+		assertNull(jsonPathSupport.resolveDefinitePath("$..book[2]"));
+		assertNull(jsonPathSupport.resolveDefinitePath("$.book[-1]"));
+		assertNull(jsonPathSupport.resolveDefinitePath("$.book[0:2]"));
+		assertNull(jsonPathSupport.resolveDefinitePath("$.book[?(@.price < 10)]"));
+		assertNull(jsonPathSupport.resolveDefinitePath("$['a','b']"));
+	}
 }
@@ -18,11 +18,15 @@
 package org.datagear.analysis.support;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetProperty;
@@ -89,10 +93,45 @@ public class AbstractResolvableDataSetTest
 		assertEquals(valueMerged.getLabel(), p3.getLabel());
 	}
 
+	@Test
+	public void getCoalesceKeyTest()
+	{
+		Map<String, Object> paramValues = new HashMap<String, Object>();
+		paramValues.put("id", 1);
+
+		// 没有ID
+		{
+			TestAbstractResolvableDataSet dataSet = new TestAbstractResolvableDataSet();
+			assertNull(dataSet.getCoalesceKey(DataSetQuery.valueOf(paramValues), false));
+		}
+
+		TestAbstractResolvableDataSet dataSet = new TestAbstractResolvableDataSet("ds");
+
+		Object key0 = dataSet.getCoalesceKey(DataSetQuery.valueOf(paramValues), false);
+		Object key1 = dataSet.getCoalesceKey(DataSetQuery.valueOf(new HashMap<String, Object>(paramValues)), false);
+
+		assertNotNull(key0);
+		assertEquals(key0, key1);
+		assertEquals(key0.hashCode(), key1.hashCode());
+
+		// 预览时数据集定义可能未保存，不应合并
+		assertNull(dataSet.getCoalesceKey(DataSetQuery.valueOf(paramValues), true));
+	}
+
 	private static class TestAbstractResolvableDataSet extends AbstractResolvableDataSet
 	{
 		private static final long serialVersionUID = 1L;
 
+		public TestAbstractResolvableDataSet()
+		{
+			super();
+		}
+
+		public TestAbstractResolvableDataSet(String id)
+		{
+			super(id, id);
+		}
+
 		@Override
 		protected ResolvedDataSetResult resolveResult(DataSetQuery query, boolean resolveProperties)
 				throws DataSetException
@@ -21,7 +21,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
@@ -36,6 +38,10 @@ import java.util.Map;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.support.DataSetPropertyExpEvaluator.ValueSetter;
 import org.junit.Test;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
 
 /**
  * {@linkplain DataSetPropertyExpEvaluator}单元测试类。
@@ -630,6 +636,161 @@ public class DataSetPropertyExpEvaluatorTest
 		assertFalse(evaled);
 	}
 
+	@Test
+	public void parseExpressionTest_cache() throws Throwable
+	{
+		DataSetPropertyExpEvaluator evaluator = new DataSetPropertyExpEvaluator();
+
+		Expression exp0 = evaluator.parseExpression("a + b");
+		Expression exp1 = evaluator.parseExpression("a + b");
+
+		assertSame(exp0, exp1);
+
+		evaluator.setExpressionCacheMaxSize(0);
+
+		Expression exp2 = evaluator.parseExpression("a + b");
+		Expression exp3 = evaluator.parseExpression("a + b");
+
+		assertNotSame(exp0, exp2);
+		assertNotSame(exp2, exp3);
+	}
+
+	@Test
+	public void parseExpressionTest_cache_illegal()
+	{
+		DataSetPropertyExpEvaluator evaluator = new DataSetPropertyExpEvaluator();
+
+		for (int i = 0; i < 2; i++)
+		{
+			DataSetPropertyExpEvaluatorException exception = null;
+
+			try
+			{
+				evaluator.eval("T(java.lang.Math).random()", new HashMap<String, Object>());
+			}
+			catch (DataSetPropertyExpEvaluatorException e)
+			{
+				exception = e;
+			}
+
+			assertNotNull(exception);
+		}
+	}
+
+	@Test
+	public void evalTest_compilerMode()
+	{
+		DataSetPropertyExpEvaluator evaluator = new DataSetPropertyExpEvaluator(SpelCompilerMode.MIXED);
+
+		Map<String, Object> nested = new HashMap<String, Object>();
+		nested.put("name", "aaa");
+
+		// 多次计算，确保超过编译阈值
+		for (int i = 0; i < 300; i++)
+		{
+			Map<String, Object> data = new HashMap<String, Object>();
+			data.put("v", i);
+			data.put("nested", nested);
+
+			assertEquals(i * 2, ((Number) evaluator.eval("v * 2", data)).intValue());
+			assertEquals("aaa", evaluator.eval("nested.name", data));
+		}
+	}
+
+	@Test
+	public void evalTest_compilerMode_compiled() throws Throwable
+	{
+		DataSetPropertyExpEvaluator evaluator = new DataSetPropertyExpEvaluator(SpelCompilerMode.IMMEDIATE);
+
+		String[] expressions = new String[] { "nested.name", "nested.inner.value", "['nested']['name']" };
+
+		// 先解释执行，确定属性访问器
+		{
+			Map<String, Object> data = createNestedData("aaa", "bbb");
+
+			assertEquals("aaa", evaluator.eval(expressions[0], data));
+			assertEquals("bbb", evaluator.eval(expressions[1], data));
+			assertEquals("aaa", evaluator.eval(expressions[2], data));
+		}
+
+		// 确保表达式可被编译，之后的计算将执行编译后的字节码
+		for (String expression : expressions)
+		{
+			SpelExpression exp = (SpelExpression) evaluator.parseExpression(expression);
+			assertTrue(expression, exp.compileExpression());
+		}
+
+		for (int i = 0; i < 10; i++)
+		{
+			Map<String, Object> data = createNestedData("aaa-" + i, "bbb-" + i);
+
+			assertEquals("aaa-" + i, evaluator.eval(expressions[0], data));
+			assertEquals("bbb-" + i, evaluator.eval(expressions[1], data));
+			assertEquals("aaa-" + i, evaluator.eval(expressions[2], data));
+		}
+
+		// 编译后仍只能读取Map的关键字值
+		{
+			Map<String, Object> data = createNestedData(null, null);
+
+			assertNull(evaluator.eval(expressions[0], data));
+			assertNull(evaluator.eval(expressions[1], data));
+		}
+
+		// 批量计算
+		{
+			List<Map<String, Object>> datas = new ArrayList<Map<String, Object>>();
+			for (int i = 0; i < 10; i++)
+				datas.add(createNestedData("ccc-" + i, null));
+
+			List<Object> results = evaluator.eval(expressions[0], datas);
+
+			for (int i = 0; i < 10; i++)
+				assertEquals("ccc-" + i, results.get(i));
+		}
+	}
+
+	@Test
+	public void evalTest_compilerMode_maxExpressionLength()
+	{
+		DataSetPropertyExpEvaluator evaluator = new DataSetPropertyExpEvaluator(SpelCompilerMode.MIXED);
+
+		StringBuilder sb = new StringBuilder("1");
+		while (sb.length() <= new SpelParserConfiguration().getMaximumExpressionLength())
+			sb.append(" + 1");
+
+		DataSetPropertyExpEvaluatorException exception = null;
+
+		try
+		{
+			evaluator.eval(sb.toString(), new HashMap<String, Object>());
+		}
+		catch (DataSetPropertyExpEvaluatorException e)
+		{
+			exception = e;
+		}
+
+		// 启用编译时，仍限制表达式最大长度
+		assertNotNull(exception);
+	}
+
+	protected Map<String, Object> createNestedData(String name, String innerValue)
+	{
+		Map<String, Object> inner = new HashMap<String, Object>();
+		if (innerValue != null)
+			inner.put("value", innerValue);
+
+		Map<String, Object> nested = new HashMap<String, Object>();
+		if (name != null)
+			nested.put("name", name);
+		nested.put("inner", inner);
+
+		Map<String, Object> data = new HashMap<String, Object>();
+		data.put("nested", nested);
+
+		return data;
+	}
+
 	protected static class ExpBean
 	{
 		private int d = 2;
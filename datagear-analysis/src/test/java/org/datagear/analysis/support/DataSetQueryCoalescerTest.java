@@ -0,0 +1,174 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.analysis.DataSetException;
+import org.junit.Test;
+
+/**
+ * {@linkplain DataSetQueryCoalescer}单元测试用例。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DataSetQueryCoalescerTest
+{
+	@Test
+	public void executeTest() throws Exception
+	{
+		DataSetQueryCoalescer coalescer = new DataSetQueryCoalescer();
+
+		int count = 5;
+		ExecutorService executorService = Executors.newFixedThreadPool(count);
+
+		try
+		{
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			AtomicInteger executed = new AtomicInteger(0);
+			Object value = new Object();
+
+			List<Future<Object>> futures = new ArrayList<Future<Object>>();
+
+			futures.add(executorService.submit(() -> coalescer.execute("key", () ->
+			{
+				executed.incrementAndGet();
+				started.countDown();
+				release.await();
+				return value;
+			})));
+
+			started.await(5, TimeUnit.SECONDS);
+
+			for (int i = 1; i < count; i++)
+			{
+				futures.add(executorService.submit(() -> coalescer.execute("key", () ->
+				{
+					executed.incrementAndGet();
+					return new Object();
+				})));
+			}
+
+			while (coalescer.getCoalescedCount() < count - 1)
+				Thread.sleep(5);
+
+			release.countDown();
+
+			for (Future<Object> future : futures)
+				assertSame(value, future.get(5, TimeUnit.SECONDS));
+
+			assertEquals(1, executed.get());
+			assertEquals(1, coalescer.getExecutionCount());
+			assertEquals(count - 1, coalescer.getCoalescedCount());
+			assertEquals(0, coalescer.getInFlightCount());
+
+			// 执行完毕后不再合并
+			assertEquals("v", coalescer.execute("key", () -> "v"));
+			assertEquals(2, coalescer.getExecutionCount());
+		}
+		finally
+		{
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void executeTest_leaderInterrupted() throws Exception
+	{
+		DataSetQueryCoalescer coalescer = new DataSetQueryCoalescer();
+
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+		try
+		{
+			CountDownLatch started = new CountDownLatch(1);
+			AtomicInteger executed = new AtomicInteger(0);
+			Object value = new Object();
+
+			Future<Object> leader = executorService.submit(() -> coalescer.execute("key", () ->
+			{
+				executed.incrementAndGet();
+				started.countDown();
+				Thread.sleep(10000);
+				return new Object();
+			}));
+
+			started.await(5, TimeUnit.SECONDS);
+
+			Future<Object> follower = executorService.submit(() -> coalescer.execute("key", () ->
+			{
+				executed.incrementAndGet();
+				return value;
+			}));
+
+			while (coalescer.getCoalescedCount() < 1)
+				Thread.sleep(5);
+
+			// 模拟查询超时取消
+			leader.cancel(true);
+
+			// 等待者不应共享中断异常，而是重新执行
+			assertSame(value, follower.get(5, TimeUnit.SECONDS));
+
+			assertEquals(2, executed.get());
+			assertEquals(2, coalescer.getExecutionCount());
+			assertEquals(0, coalescer.getCoalescedCount());
+			assertEquals(0, coalescer.getInFlightCount());
+		}
+		finally
+		{
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void executeTest_exception() throws Exception
+	{
+		DataSetQueryCoalescer coalescer = new DataSetQueryCoalescer();
+
+		try
+		{
+			coalescer.execute("key", () ->
+			{
+				throw new Exception("error");
+			});
+
+			fail();
+		}
+		catch (DataSetException e)
+		{
+			assertEquals("error", e.getCause().getMessage());
+		}
+
+		assertEquals(0, coalescer.getInFlightCount());
+	}
+}
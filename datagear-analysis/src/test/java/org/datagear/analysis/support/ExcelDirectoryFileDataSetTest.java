@@ -18,6 +18,8 @@
 package org.datagear.analysis.support;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
@@ -30,6 +32,8 @@ import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetQuery;
 import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.analysis.support.AbstractExcelFileDataSet.ExcelFileDataSetResource;
+import org.datagear.analysis.support.AbstractResolvableResourceDataSet.ResourceData;
 import org.datagear.util.FileUtil;
 import org.junit.Test;
 
@@ -424,4 +428,46 @@ public class ExcelDirectoryFileDataSetTest
 			}
 		}
 	}
+
+	@Test
+	public void resolveResourceDataTest_maxDataSize() throws Throwable
+	{
+		String[] fileNames = { "ExcelDirectoryFileDataSetTest-0.xlsx", "ExcelDirectoryFileDataSetTest-1.xls" };
+
+		for (String fileName : fileNames)
+		{
+			ExcelDirectoryFileDataSet dataSet = new ExcelDirectoryFileDataSet("a", "a", DIRECTORY, fileName);
+			dataSet.setNameRow(1);
+
+			ExcelFileDataSetResource resource = dataSet.getResource(DataSetQuery.valueOf());
+
+			{
+				ResourceData resourceData = dataSet.resolveResourceData(resource, false, 2);
+				@SuppressWarnings("unchecked")
+				List<Map<String, Object>> data = (List<Map<String, Object>>) resourceData.getData();
+
+				assertTrue(resourceData.isTruncated());
+				assertEquals(2, data.size());
+				assertEquals("aaa", data.get(0).get("name"));
+				assertEquals("bbb", data.get(1).get("name"));
+			}
+
+			{
+				ResourceData resourceData = dataSet.resolveResourceData(resource, false, 3);
+
+				assertFalse(resourceData.isTruncated());
+				assertEquals(3, resourceData.dataSize());
+			}
+
+			{
+				dataSet.setDataRowExp("2-3");
+				resource = dataSet.getResource(DataSetQuery.valueOf());
+
+				ResourceData resourceData = dataSet.resolveResourceData(resource, false, 2);
+
+				assertFalse(resourceData.isTruncated());
+				assertEquals(2, resourceData.dataSize());
+			}
+		}
+	}
 }
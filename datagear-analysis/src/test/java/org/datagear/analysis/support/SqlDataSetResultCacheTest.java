@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetResult;
+import org.datagear.analysis.support.SqlDataSetResultCache.SqlDataSetResultCacheKey;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * {@linkplain SqlDataSetResultCache}单元测试用例。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SqlDataSetResultCacheTest
+{
+	@Test
+	public void getTest()
+	{
+		SqlDataSetResultCache cache = new SqlDataSetResultCache(new ConcurrentMapCache("test"));
+
+		DataSetQuery query = DataSetQuery.valueOf();
+		query.setParamValue("id", 1);
+
+		DataSetResult result = new DataSetResult(createRows(3));
+
+		assertNull(cache.get(cache.getKey("ds", "SELECT * FROM T", query), 10000));
+		assertTrue(cache.put(cache.getKey("ds", "SELECT * FROM T", query), result));
+		assertSame(result, cache.get(cache.getKey("ds", "SELECT * FROM T", query), 10000));
+
+		DataSetQuery query1 = DataSetQuery.valueOf();
+		query1.setParamValue("id", 2);
+
+		assertNull(cache.get(cache.getKey("ds", "SELECT * FROM T", query1), 10000));
+		assertNull(cache.get(cache.getKey("ds", "SELECT * FROM T1", query), 10000));
+		assertNull(cache.get(cache.getKey("ds1", "SELECT * FROM T", query), 10000));
+
+		// 禁用缓存
+		assertNull(cache.get(cache.getKey("ds", "SELECT * FROM T", query), 0));
+	}
+
+	@Test
+	public void getTest_expired() throws Exception
+	{
+		SqlDataSetResultCache cache = new SqlDataSetResultCache(new ConcurrentMapCache("test"));
+
+		DataSetQuery query = DataSetQuery.valueOf();
+
+		cache.put(cache.getKey("ds", "SELECT * FROM T", query), new DataSetResult(createRows(3)));
+		assertNotNull(cache.get(cache.getKey("ds", "SELECT * FROM T", query), 10000));
+
+		Thread.sleep(20);
+
+		assertNull(cache.get(cache.getKey("ds", "SELECT * FROM T", query), 10));
+	}
+
+	@Test
+	public void invalidateTest()
+	{
+		SqlDataSetResultCache cache = new SqlDataSetResultCache(new ConcurrentMapCache("test"));
+
+		DataSetQuery query = DataSetQuery.valueOf();
+
+		cache.put(cache.getKey("ds", "SELECT * FROM T", query), new DataSetResult(createRows(3)));
+		cache.put(cache.getKey("ds1", "SELECT * FROM T", query), new DataSetResult(createRows(3)));
+
+		cache.invalidate("ds");
+
+		assertNull(cache.get(cache.getKey("ds", "SELECT * FROM T", query), 10000));
+		assertNotNull(cache.get(cache.getKey("ds1", "SELECT * FROM T", query), 10000));
+	}
+
+	@Test
+	public void invalidateTest_duringQuery()
+	{
+		SqlDataSetResultCache cache = new SqlDataSetResultCache(new ConcurrentMapCache("test"));
+
+		DataSetQuery query = DataSetQuery.valueOf();
+
+		// 查询开始时获取KEY，查询期间数据集失效
+		SqlDataSetResultCacheKey key = cache.getKey("ds", "SELECT * FROM T", query);
+		assertNull(cache.get(key, 10000));
+
+		cache.invalidate("ds");
+
+		// 旧结果仅存入旧代次，不会被失效后的查询读取
+		assertTrue(cache.put(key, new DataSetResult(createRows(3))));
+		assertNull(cache.get(cache.getKey("ds", "SELECT * FROM T", query), 10000));
+	}
+
+	@Test
+	public void putTest_exceedMax()
+	{
+		SqlDataSetResultCache cache = new SqlDataSetResultCache(new ConcurrentMapCache("test"));
+		cache.setMaxRows(5);
+		cache.setMaxBytes(1024 * 10);
+
+		DataSetQuery query = DataSetQuery.valueOf();
+
+		assertTrue(cache.put(cache.getKey("ds", "SELECT * FROM T", query), new DataSetResult(createRows(5))));
+		assertFalse(cache.put(cache.getKey("ds", "SELECT * FROM T", query), new DataSetResult(createRows(6))));
+
+		cache.setMaxRows(1000);
+		assertFalse(cache.put(cache.getKey("ds", "SELECT * FROM T", query), new DataSetResult(createRows(500))));
+	}
+
+	protected List<Map<String, Object>> createRows(int count)
+	{
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+
+		for (int i = 0; i < count; i++)
+		{
+			Map<String, Object> row = new HashMap<String, Object>();
+			row.put("id", i);
+			row.put("name", "name-" + i);
+			rows.add(row);
+		}
+
+		return rows;
+	}
+}
@@ -169,6 +169,76 @@ public class SqlDataSetTest extends DBTestSupport
 		}
 	}
 
+	@Test
+	public void getResultTest_duplicateColumnLabel() throws Exception
+	{
+		Connection cn = null;
+
+		long recordId = 999999998;
+		String recordName = SqlDataSet.class.getSimpleName();
+
+		try
+		{
+			cn = getConnection();
+			SimpleConnectionFactory connectionFactory = new SimpleConnectionFactory(cn, false);
+
+			{
+				String insertSql = "INSERT INTO T_ACCOUNT(ID, NAME) VALUES(" + recordId + ", '" + recordName + "')";
+				Statement st = null;
+
+				try
+				{
+					st = cn.createStatement();
+					st.executeUpdate(insertSql);
+				}
+				finally
+				{
+					JdbcUtil.closeStatement(st);
+				}
+			}
+
+			// 同名列应取第一列的值，与按列名读取时JDBC的逻辑一致
+			String sql = "SELECT NAME AS N, 'other' AS N FROM T_ACCOUNT WHERE ID = " + recordId;
+
+			List<DataSetProperty> dataSetProperties = Arrays
+					.asList(new DataSetProperty("N", DataSetProperty.DataType.STRING));
+
+			SqlDataSet sqlDataSet = new SqlDataSet("1", "1", dataSetProperties, connectionFactory, sql);
+			sqlDataSet.setSqlValidator(createSqlValidator());
+
+			DataSetResult dataSetResult = sqlDataSet.getResult(DataSetQuery.valueOf());
+
+			@SuppressWarnings("unchecked")
+			List<Map<String, ?>> datas = (List<Map<String, ?>>) dataSetResult.getData();
+
+			Assert.assertEquals(1, datas.size());
+
+			Map<String, ?> row = datas.get(0);
+
+			Assert.assertEquals(1, row.size());
+			Assert.assertEquals(recordName, row.get("N"));
+		}
+		finally
+		{
+			{
+				String deleteSql = "DELETE FROM T_ACCOUNT WHERE ID=" + recordId;
+				Statement st = null;
+
+				try
+				{
+					st = cn.createStatement();
+					st.executeUpdate(deleteSql);
+				}
+				finally
+				{
+					JdbcUtil.closeStatement(st);
+				}
+			}
+
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
 	protected SqlValidator createSqlValidator()
 	{
 		Map<String, Pattern> patterns = new HashMap<String, Pattern>();
@@ -33,12 +33,14 @@ import java.util.List;
 
 import org.datagear.analysis.ChartDefinition;
 import org.datagear.analysis.TplDashboardWidgetResManager;
+import org.datagear.analysis.support.ChartWidget;
 import org.datagear.analysis.support.ChartWidgetSource;
 import org.datagear.analysis.support.FileTplDashboardWidgetResManager;
 import org.datagear.analysis.support.SimpleChartWidgetSource;
 import org.datagear.analysis.support.SimpleDashboardThemeSource;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer.DashboardFilterContext;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer.TplChartMeta;
+import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer.TplDashboardInserter;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer.TplDashboardMeta;
 import org.datagear.util.IDUtil;
 import org.datagear.util.IOUtil;
@@ -130,6 +132,52 @@ public class HtmlTplDashboardWidgetHtmlRendererTest
 		assertNotEquals(dashboard1.getId(), dashboard2.getId());
 	}
 
+	@Test
+	public void renderTest_getChartWidgetsInBatch() throws Exception
+	{
+		final int[] getCount = { 0 };
+		final int[] batchGetCount = { 0 };
+
+		ChartWidgetSource chartWidgetSource = new SimpleChartWidgetSource(this.htmlChartWidget01,
+				this.htmlChartWidget02)
+		{
+			@Override
+			public ChartWidget getChartWidget(String id)
+			{
+				getCount[0]++;
+				return super.getChartWidget(id);
+			}
+
+			@Override
+			public ChartWidget[] getChartWidgets(String... ids)
+			{
+				batchGetCount[0]++;
+
+				ChartWidget[] re = new ChartWidget[ids.length];
+
+				for (int i = 0; i < ids.length; i++)
+				{
+					for (ChartWidget chartWidget : getChartWidgets())
+					{
+						if (chartWidget.getId().equals(ids[i]))
+							re[i] = chartWidget;
+					}
+				}
+
+				return re;
+			}
+		};
+
+		HtmlTplDashboardWidgetHtmlRenderer renderer = new HtmlTplDashboardWidgetHtmlRenderer(chartWidgetSource);
+		HtmlTplDashboardWidget dashboardWidget = createHtmlTplDashboardWidget(renderer);
+
+		HtmlTplDashboard dashboard = dashboardWidget.render(buildRenderContext());
+
+		assertEquals(6, dashboard.getCharts().size());
+		assertEquals(1, batchGetCount[0]);
+		assertEquals(0, getCount[0]);
+	}
+
 	@Test
 	public void renderDashboardTest() throws Throwable
 	{
@@ -168,6 +216,24 @@ public class HtmlTplDashboardWidgetHtmlRendererTest
 				
 				assertEquals(html, html1);
 			}
+
+			//渲染计划
+			{
+				List<TplDashboardInserter> renderPlan = this.renderer.compileRenderPlan(dashboardWidget,
+						buildRenderContext(template), dashboardMeta);
+
+				TplDashboardMeta planDashboardMeta = this.renderer.doRenderDashboard(dashboardWidget,
+						buildRenderContext(template)).getDashboardMeta();
+				planDashboardMeta.setRenderPlan(renderPlan);
+
+				// 渲染计划不应再读取模板
+				HtmlTplDashboardRenderContext renderContext2 = buildRenderContext(TEMPLATE_NAME,
+						IOUtil.getReader(""), new StringWriter());
+				this.renderer.doRenderDashboard(dashboardWidget, renderContext2, planDashboardMeta);
+				String html2 = getHtmlWithPrint(renderContext2);
+
+				assertEquals(html, html2);
+			}
 		}
 
 		// 看板属性，无引号
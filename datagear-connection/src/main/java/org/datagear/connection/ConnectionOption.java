@@ -42,6 +42,9 @@ public class ConnectionOption implements Serializable
 
 	private Properties properties = new Properties();
 
+	/** 连接池选项，为{@code null}表示使用默认连接池选项 */
+	private ConnectionPoolOption poolOption = null;
+
 	public ConnectionOption()
 	{
 		super();
@@ -113,6 +116,22 @@ public class ConnectionOption implements Serializable
 		this.properties = properties;
 	}
 
+	public ConnectionPoolOption getPoolOption()
+	{
+		return poolOption;
+	}
+
+	/**
+	 * 设置连接池选项。
+	 * 
+	 * @param poolOption
+	 *            允许为{@code null}
+	 */
+	public void setPoolOption(ConnectionPoolOption poolOption)
+	{
+		this.poolOption = poolOption;
+	}
+
 	public String getUser()
 	{
 		return getProperty(PROPERTY_NAME_USER);
@@ -168,6 +187,7 @@ public class ConnectionOption implements Serializable
 	public ConnectionOption copyOfPsdMask()
 	{
 		ConnectionOption co = new ConnectionOption(this.url, this.properties);
+		co.setPoolOption(this.poolOption);
 
 		if (!StringUtil.isEmpty(co.getPassword()))
 			co.setPassword(StringUtil.mask(co.getPassword(), 1, 1, 3));
@@ -182,6 +202,7 @@ public class ConnectionOption implements Serializable
 		int result = 1;
 		result = prime * result + ((properties == null) ? 0 : properties.hashCode());
 		result = prime * result + ((url == null) ? 0 : url.hashCode());
+		result = prime * result + ((poolOption == null) ? 0 : poolOption.hashCode());
 		return result;
 	}
 
@@ -209,13 +230,21 @@ public class ConnectionOption implements Serializable
 		}
 		else if (!url.equals(other.url))
 			return false;
+		if (poolOption == null)
+		{
+			if (other.poolOption != null)
+				return false;
+		}
+		else if (!poolOption.equals(other.poolOption))
+			return false;
 		return true;
 	}
 
 	@Override
 	public String toString()
 	{
-		return getClass().getSimpleName() + " [url=" + url + ", properties=" + properties + "]";
+		return getClass().getSimpleName() + " [url=" + url + ", properties=" + properties + ", poolOption="
+				+ poolOption + "]";
 	}
 
 	/**
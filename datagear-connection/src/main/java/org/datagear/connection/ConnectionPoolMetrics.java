@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.connection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * 连接池度量信息。
+ * <p>
+ * 它是获取时连接池状态的快照。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionPoolMetrics implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * 获取连接耗时直方图的各区间上限毫秒数。
+	 * <p>
+	 * {@linkplain #getBorrowLatencyCounts()}的长度比它多{@code 1}，最后一个元素是超过最大上限的次数。
+	 * </p>
+	 */
+	public static final long[] BORROW_LATENCY_BOUNDS = { 1, 5, 10, 50, 100, 500, 1000, 5000, 10000 };
+
+	/** 连接池标识（URL、用户名） */
+	private String name;
+
+	/** 连接池选项 */
+	private ConnectionPoolOption poolOption;
+
+	/** 已借出的连接数 */
+	private int numActive;
+
+	/** 空闲连接数 */
+	private int numIdle;
+
+	/** 正在等待获取连接的线程数 */
+	private int numWaiters;
+
+	/** 获取连接成功次数 */
+	private long borrowCount;
+
+	/** 获取连接失败次数（包括等待超时） */
+	private long borrowErrorCount;
+
+	/** 获取连接的最大耗时毫秒数 */
+	private long maxBorrowMillis;
+
+	/** 获取连接耗时直方图，参考{@linkplain #BORROW_LATENCY_BOUNDS} */
+	private long[] borrowLatencyCounts;
+
+	public ConnectionPoolMetrics()
+	{
+		super();
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+
+	public ConnectionPoolOption getPoolOption()
+	{
+		return poolOption;
+	}
+
+	public void setPoolOption(ConnectionPoolOption poolOption)
+	{
+		this.poolOption = poolOption;
+	}
+
+	public int getNumActive()
+	{
+		return numActive;
+	}
+
+	public void setNumActive(int numActive)
+	{
+		this.numActive = numActive;
+	}
+
+	public int getNumIdle()
+	{
+		return numIdle;
+	}
+
+	public void setNumIdle(int numIdle)
+	{
+		this.numIdle = numIdle;
+	}
+
+	public int getNumWaiters()
+	{
+		return numWaiters;
+	}
+
+	public void setNumWaiters(int numWaiters)
+	{
+		this.numWaiters = numWaiters;
+	}
+
+	public long getBorrowCount()
+	{
+		return borrowCount;
+	}
+
+	public void setBorrowCount(long borrowCount)
+	{
+		this.borrowCount = borrowCount;
+	}
+
+	public long getBorrowErrorCount()
+	{
+		return borrowErrorCount;
+	}
+
+	public void setBorrowErrorCount(long borrowErrorCount)
+	{
+		this.borrowErrorCount = borrowErrorCount;
+	}
+
+	public long getMaxBorrowMillis()
+	{
+		return maxBorrowMillis;
+	}
+
+	public void setMaxBorrowMillis(long maxBorrowMillis)
+	{
+		this.maxBorrowMillis = maxBorrowMillis;
+	}
+
+	public long[] getBorrowLatencyCounts()
+	{
+		return borrowLatencyCounts;
+	}
+
+	public void setBorrowLatencyCounts(long[] borrowLatencyCounts)
+	{
+		this.borrowLatencyCounts = borrowLatencyCounts;
+	}
+
+	/**
+	 * 获取耗时所在的直方图区间索引。
+	 *
+	 * @param millis
+	 * @return
+	 */
+	public static int indexOfBorrowLatency(long millis)
+	{
+		for (int i = 0; i < BORROW_LATENCY_BOUNDS.length; i++)
+		{
+			if (millis <= BORROW_LATENCY_BOUNDS[i])
+				return i;
+		}
+
+		return BORROW_LATENCY_BOUNDS.length;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [name=" + name + ", poolOption=" + poolOption + ", numActive="
+				+ numActive + ", numIdle=" + numIdle + ", numWaiters=" + numWaiters + ", borrowCount=" + borrowCount
+				+ ", borrowErrorCount=" + borrowErrorCount + ", maxBorrowMillis=" + maxBorrowMillis
+				+ ", borrowLatencyCounts=" + Arrays.toString(borrowLatencyCounts) + "]";
+	}
+}
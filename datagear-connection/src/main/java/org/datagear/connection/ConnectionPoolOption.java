@@ -0,0 +1,324 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.connection;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+import org.datagear.util.StringUtil;
+
+/**
+ * 连接池选项。
+ * <p>
+ * 所有属性都允许为{@code null}，表示使用默认值。
+ * </p>
+ * <p>
+ * 连接池选项可以以{@linkplain #PROPERTY_NAME_PREFIX}为前缀的连接属性名定义，参考{@linkplain #valueOf(Properties)}、{@linkplain #extract(Properties)}。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionPoolOption implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 连接池选项的连接属性名前缀 */
+	public static final String PROPERTY_NAME_PREFIX = "datagear.pool.";
+
+	public static final String PROPERTY_NAME_MAX_TOTAL = PROPERTY_NAME_PREFIX + "maxTotal";
+
+	public static final String PROPERTY_NAME_MIN_IDLE = PROPERTY_NAME_PREFIX + "minIdle";
+
+	public static final String PROPERTY_NAME_MAX_IDLE = PROPERTY_NAME_PREFIX + "maxIdle";
+
+	public static final String PROPERTY_NAME_MAX_WAIT_MILLIS = PROPERTY_NAME_PREFIX + "maxWaitMillis";
+
+	public static final String PROPERTY_NAME_VALIDATION_QUERY = PROPERTY_NAME_PREFIX + "validationQuery";
+
+	public static final String PROPERTY_NAME_POOL_PREPARED_STATEMENTS = PROPERTY_NAME_PREFIX
+			+ "poolPreparedStatements";
+
+	public static final String PROPERTY_NAME_MAX_OPEN_PREPARED_STATEMENTS = PROPERTY_NAME_PREFIX
+			+ "maxOpenPreparedStatements";
+
+	/** 最大连接数，负数表示不限制 */
+	private Integer maxTotal = null;
+
+	/** 最小空闲连接数 */
+	private Integer minIdle = null;
+
+	/** 最大空闲连接数，负数表示不限制 */
+	private Integer maxIdle = null;
+
+	/** 获取连接的最长等待毫秒数，负数表示一直等待 */
+	private Long maxWaitMillis = null;
+
+	/** 校验连接的SQL语句 */
+	private String validationQuery = null;
+
+	/** 是否缓存预编译语句 */
+	private Boolean poolPreparedStatements = null;
+
+	/** 每个连接最多缓存的预编译语句数，负数表示不限制 */
+	private Integer maxOpenPreparedStatements = null;
+
+	public ConnectionPoolOption()
+	{
+		super();
+	}
+
+	public Integer getMaxTotal()
+	{
+		return maxTotal;
+	}
+
+	public void setMaxTotal(Integer maxTotal)
+	{
+		this.maxTotal = maxTotal;
+	}
+
+	public Integer getMinIdle()
+	{
+		return minIdle;
+	}
+
+	public void setMinIdle(Integer minIdle)
+	{
+		this.minIdle = minIdle;
+	}
+
+	public Integer getMaxIdle()
+	{
+		return maxIdle;
+	}
+
+	public void setMaxIdle(Integer maxIdle)
+	{
+		this.maxIdle = maxIdle;
+	}
+
+	public Long getMaxWaitMillis()
+	{
+		return maxWaitMillis;
+	}
+
+	public void setMaxWaitMillis(Long maxWaitMillis)
+	{
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	public String getValidationQuery()
+	{
+		return validationQuery;
+	}
+
+	public void setValidationQuery(String validationQuery)
+	{
+		this.validationQuery = validationQuery;
+	}
+
+	public Boolean getPoolPreparedStatements()
+	{
+		return poolPreparedStatements;
+	}
+
+	public void setPoolPreparedStatements(Boolean poolPreparedStatements)
+	{
+		this.poolPreparedStatements = poolPreparedStatements;
+	}
+
+	public Integer getMaxOpenPreparedStatements()
+	{
+		return maxOpenPreparedStatements;
+	}
+
+	public void setMaxOpenPreparedStatements(Integer maxOpenPreparedStatements)
+	{
+		this.maxOpenPreparedStatements = maxOpenPreparedStatements;
+	}
+
+	/**
+	 * 是否所有属性都为{@code null}。
+	 *
+	 * @return
+	 */
+	public boolean isEmpty()
+	{
+		return (this.maxTotal == null && this.minIdle == null && this.maxIdle == null && this.maxWaitMillis == null
+				&& this.validationQuery == null && this.poolPreparedStatements == null
+				&& this.maxOpenPreparedStatements == null);
+	}
+
+	/**
+	 * 合并，此实例中为{@code null}的属性将使用{@code defaults}中的值。
+	 *
+	 * @param defaults
+	 *            允许为{@code null}
+	 * @return 新实例
+	 */
+	public ConnectionPoolOption merge(ConnectionPoolOption defaults)
+	{
+		ConnectionPoolOption re = new ConnectionPoolOption();
+
+		re.maxTotal = (this.maxTotal != null || defaults == null ? this.maxTotal : defaults.maxTotal);
+		re.minIdle = (this.minIdle != null || defaults == null ? this.minIdle : defaults.minIdle);
+		re.maxIdle = (this.maxIdle != null || defaults == null ? this.maxIdle : defaults.maxIdle);
+		re.maxWaitMillis = (this.maxWaitMillis != null || defaults == null ? this.maxWaitMillis
+				: defaults.maxWaitMillis);
+		re.validationQuery = (this.validationQuery != null || defaults == null ? this.validationQuery
+				: defaults.validationQuery);
+		re.poolPreparedStatements = (this.poolPreparedStatements != null || defaults == null
+				? this.poolPreparedStatements
+				: defaults.poolPreparedStatements);
+		re.maxOpenPreparedStatements = (this.maxOpenPreparedStatements != null || defaults == null
+				? this.maxOpenPreparedStatements
+				: defaults.maxOpenPreparedStatements);
+
+		return re;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(maxTotal, minIdle, maxIdle, maxWaitMillis, validationQuery, poolPreparedStatements,
+				maxOpenPreparedStatements);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ConnectionPoolOption other = (ConnectionPoolOption) obj;
+		return Objects.equals(maxTotal, other.maxTotal) && Objects.equals(minIdle, other.minIdle)
+				&& Objects.equals(maxIdle, other.maxIdle) && Objects.equals(maxWaitMillis, other.maxWaitMillis)
+				&& Objects.equals(validationQuery, other.validationQuery)
+				&& Objects.equals(poolPreparedStatements, other.poolPreparedStatements)
+				&& Objects.equals(maxOpenPreparedStatements, other.maxOpenPreparedStatements);
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [maxTotal=" + maxTotal + ", minIdle=" + minIdle + ", maxIdle="
+				+ maxIdle + ", maxWaitMillis=" + maxWaitMillis + ", validationQuery=" + validationQuery
+				+ ", poolPreparedStatements=" + poolPreparedStatements + ", maxOpenPreparedStatements="
+				+ maxOpenPreparedStatements + "]";
+	}
+
+	/**
+	 * 是否连接池选项的连接属性名。
+	 *
+	 * @param name
+	 *            允许为{@code null}
+	 * @return
+	 */
+	public static boolean isPoolPropertyName(String name)
+	{
+		return (name != null && name.startsWith(PROPERTY_NAME_PREFIX));
+	}
+
+	/**
+	 * 由连接属性构建{@linkplain ConnectionPoolOption}。
+	 * <p>
+	 * 无法解析的属性值将被忽略。
+	 * </p>
+	 *
+	 * @param properties
+	 * @return 没有任何连接池选项时返回{@code null}
+	 */
+	public static ConnectionPoolOption valueOf(Properties properties)
+	{
+		ConnectionPoolOption re = new ConnectionPoolOption();
+
+		re.setMaxTotal(toInteger(properties.getProperty(PROPERTY_NAME_MAX_TOTAL)));
+		re.setMinIdle(toInteger(properties.getProperty(PROPERTY_NAME_MIN_IDLE)));
+		re.setMaxIdle(toInteger(properties.getProperty(PROPERTY_NAME_MAX_IDLE)));
+		re.setMaxWaitMillis(toLong(properties.getProperty(PROPERTY_NAME_MAX_WAIT_MILLIS)));
+
+		String validationQuery = properties.getProperty(PROPERTY_NAME_VALIDATION_QUERY);
+		re.setValidationQuery(StringUtil.isBlank(validationQuery) ? null : validationQuery.trim());
+
+		String poolPreparedStatements = properties.getProperty(PROPERTY_NAME_POOL_PREPARED_STATEMENTS);
+		re.setPoolPreparedStatements(StringUtil.isBlank(poolPreparedStatements) ? null
+				: StringUtil.toBoolean(poolPreparedStatements.trim()));
+
+		re.setMaxOpenPreparedStatements(toInteger(properties.getProperty(PROPERTY_NAME_MAX_OPEN_PREPARED_STATEMENTS)));
+
+		return (re.isEmpty() ? null : re);
+	}
+
+	/**
+	 * 由连接属性构建{@linkplain ConnectionPoolOption}，并从中移除所有连接池选项的连接属性，使它们不会传递给驱动程序。
+	 *
+	 * @param properties
+	 * @return 没有任何连接池选项时返回{@code null}
+	 */
+	public static ConnectionPoolOption extract(Properties properties)
+	{
+		ConnectionPoolOption re = valueOf(properties);
+
+		for (Iterator<Map.Entry<Object, Object>> it = properties.entrySet().iterator(); it.hasNext();)
+		{
+			Object name = it.next().getKey();
+
+			if (name instanceof String && isPoolPropertyName((String) name))
+				it.remove();
+		}
+
+		return re;
+	}
+
+	protected static Integer toInteger(String value)
+	{
+		if (StringUtil.isBlank(value))
+			return null;
+
+		try
+		{
+			return Integer.valueOf(value.trim());
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+
+	protected static Long toLong(String value)
+	{
+		if (StringUtil.isBlank(value))
+			return null;
+
+		try
+		{
+			return Long.valueOf(value.trim());
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+}
@@ -25,13 +25,21 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import javax.sql.DataSource;
@@ -39,6 +47,8 @@ import javax.sql.DataSource;
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.commons.dbcp2.ConnectionFactory;
 import org.apache.commons.dbcp2.DriverConnectionFactory;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.datagear.util.JDBCCompatiblity;
@@ -77,17 +87,48 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 
 	public static final int DEFAULT_CACHE_SIZE = 50;
 
+	/** 默认检查驱动程序修改的间隔毫秒数 */
+	public static final long DEFAULT_ROUTING_CHECK_INTERVAL = 1000;
+
 	private DriverEntityManager driverEntityManager;
 
 	private DriverChecker driverChecker = new SimpleDriverChecker();
 
 	private PropertiesProcessor propertiesProcessor = null;
 
+	/** 默认连接池选项，{@linkplain ConnectionOption#getPoolOption()}中为{@code null}的选项将使用它 */
+	private ConnectionPoolOption defaultPoolOption = null;
+
+	/** 检查驱动程序修改的间隔毫秒数 */
+	private long routingCheckInterval = DEFAULT_ROUTING_CHECK_INTERVAL;
+
 	private Cache<InternalDataSourceKey, InternalDataSourceHolder> internalDataSourceCache;
 
+	/**
+	 * URL首选驱动路由表。
+	 * <p>
+	 * 获取连接时只读取它，不再检查驱动程序是否修改，驱动程序修改由{@linkplain #checkRoutingModified()}在后台检查并使其失效。
+	 * </p>
+	 */
 	private ConcurrentMap<String, PreferedDriverEntity> _urlPreferedDriverEntities = new ConcurrentHashMap<>();
 	private volatile long _driverEntityManagerLastModified = -1;
 
+	/** 路由版本，路由失效时递增，用于避免失效前开始的查找写入过时的路由 */
+	private final AtomicLong _routingVersion = new AtomicLong(0);
+
+	/** 已加载的驱动程序目录，为{@code null}表示需重新加载 */
+	private volatile List<DriverCatalogEntry> _driverCatalog = null;
+	private final Object _driverCatalogLock = new Object();
+
+	private final AtomicBoolean _routingWatcherStarted = new AtomicBoolean(false);
+
+	private final ScheduledExecutorService _scheduler = Executors.newScheduledThreadPool(1, r ->
+	{
+		Thread thread = new Thread(r, DefaultConnectionSource.class.getSimpleName() + "-scheduler");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	public DefaultConnectionSource()
 	{
 		this(null);
@@ -112,7 +153,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 
 		this.internalDataSourceCache = Caffeine.newBuilder().maximumSize(maxCacheSize)
 				.expireAfterAccess(internalDsExpiredSeconds, TimeUnit.SECONDS)
-				.scheduler(Scheduler.forScheduledExecutorService(Executors.newScheduledThreadPool(1)))
+				.scheduler(Scheduler.forScheduledExecutorService(this._scheduler))
 				.removalListener(new DriverBasicDataSourceRemovalListener()).build();
 	}
 
@@ -146,6 +187,43 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		this.propertiesProcessor = propertiesProcessor;
 	}
 
+	public ConnectionPoolOption getDefaultPoolOption()
+	{
+		return defaultPoolOption;
+	}
+
+	/**
+	 * 设置默认连接池选项。
+	 * <p>
+	 * 注意：设置后只对新建的内置数据源有效。
+	 * </p>
+	 * 
+	 * @param defaultPoolOption
+	 *            允许为{@code null}
+	 */
+	public void setDefaultPoolOption(ConnectionPoolOption defaultPoolOption)
+	{
+		this.defaultPoolOption = defaultPoolOption;
+	}
+
+	public long getRoutingCheckInterval()
+	{
+		return routingCheckInterval;
+	}
+
+	/**
+	 * 设置检查驱动程序修改的间隔毫秒数。
+	 * <p>
+	 * 驱动程序修改后，最多经过此间隔，获取连接将使用新的驱动程序。应在{@linkplain #init()}之前设置。
+	 * </p>
+	 * 
+	 * @param routingCheckInterval
+	 */
+	public void setRoutingCheckInterval(long routingCheckInterval)
+	{
+		this.routingCheckInterval = routingCheckInterval;
+	}
+
 	protected Cache<InternalDataSourceKey, InternalDataSourceHolder> getInternalDataSourceCache()
 	{
 		return this.internalDataSourceCache;
@@ -165,6 +243,11 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		this.internalDataSourceCache = internalDataSourceCache;
 	}
 
+	protected long getRoutingVersion()
+	{
+		return this._routingVersion.get();
+	}
+
 	protected ConcurrentMap<String, PreferedDriverEntity> getUrlPreferedDriverEntities()
 	{
 		return _urlPreferedDriverEntities;
@@ -188,6 +271,21 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		return getPreferredConnection(connectionOption);
 	}
 
+	/**
+	 * 初始化。
+	 * <p>
+	 * 它将启动驱动程序修改检查，并在后台异步加载所有驱动程序，使首次获取连接时无需等待驱动程序加载。
+	 * </p>
+	 * <p>
+	 * 此方法不是必须调用的，首次获取首选连接时也会启动驱动程序修改检查。
+	 * </p>
+	 */
+	public void init()
+	{
+		startRoutingWatcher();
+		warmUp();
+	}
+
 	/**
 	 * 关闭。
 	 */
@@ -195,6 +293,30 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 	public void close()
 	{
 		this.internalDataSourceCache.invalidateAll();
+		this._scheduler.shutdown();
+	}
+
+	/**
+	 * 获取所有内置数据源的连接池度量信息。
+	 * 
+	 * @return
+	 */
+	public List<ConnectionPoolMetrics> getPoolMetrics()
+	{
+		List<ConnectionPoolMetrics> re = new ArrayList<>();
+
+		for (Map.Entry<InternalDataSourceKey, InternalDataSourceHolder> entry : this.internalDataSourceCache.asMap()
+				.entrySet())
+		{
+			InternalDataSourceHolder holder = entry.getValue();
+
+			if (!holder.hasDataSource())
+				continue;
+
+			re.add(holder.getMetrics(entry.getKey()));
+		}
+
+		return re;
 	}
 
 	/**
@@ -209,36 +331,25 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 	protected Connection getPreferredConnection(ConnectionOption connectionOption)
 			throws UnsupportedGetConnectionException, ConnectionSourceException
 	{
-		if (this.driverEntityManager.getLastModified() != this._driverEntityManagerLastModified)
-		{
-			this._driverEntityManagerLastModified = this.driverEntityManager.getLastModified();
-			this._urlPreferedDriverEntities.clear();
-		}
+		startRoutingWatcher();
 
 		String url = connectionOption.getUrl();
 
+		// 快速路径：只查找路由表，驱动程序修改由后台检查
 		PreferedDriverEntity preferedDriverEntity = this._urlPreferedDriverEntities.get(url);
 
 		if (preferedDriverEntity != null)
 		{
 			if (preferedDriverEntity.hasDriverEntityDriver())
 			{
-				DriverEntityDriver driverEntityDriver = preferedDriverEntity.getDriverEntityDriver();
-				DriverEntity driverEntity = driverEntityDriver.getDriverEntity();
-				long driverEntityLastModified = this.driverEntityManager.getLastModified(driverEntity);
-
-				if (driverEntityLastModified > -1
-						&& driverEntityLastModified == preferedDriverEntity.getCreationModified())
-				{
-					Driver driver = driverEntityDriver.getDriver();
-					Connection preferedConnection = getConnection(driver, connectionOption);
+				Driver driver = preferedDriverEntity.getDriverEntityDriver().getDriver();
+				Connection preferedConnection = getConnection(driver, connectionOption);
 
-					if (LOGGER.isDebugEnabled())
-						LOGGER.debug("Get prefered connection by cached [" + preferedDriverEntity + "] for ["
-								+ connectionOption.copyOfPsdMask() + "]");
+				if (LOGGER.isDebugEnabled())
+					LOGGER.debug("Get prefered connection by cached [" + preferedDriverEntity + "] for ["
+							+ connectionOption.copyOfPsdMask() + "]");
 
-					return preferedConnection;
-				}
+				return preferedConnection;
 			}
 			else
 			{
@@ -250,6 +361,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 			}
 		}
 
+		long routingVersion = this._routingVersion.get();
 		Connection preferedConnection = null;
 
 		List<DriverEntityDriver> accepted = new ArrayList<>();
@@ -270,8 +382,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 			{
 				preferedConnection = getConnection(driverEntityDriver.getDriver(), connectionOption);
 
-				this._urlPreferedDriverEntities.put(connectionOption.getUrl(),
-						createPreferedDriverEntity(driverEntityDriver));
+				putPreferedDriverEntity(routingVersion, url, createPreferedDriverEntity(driverEntityDriver));
 
 				break;
 			}
@@ -280,7 +391,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 				if (i == len - 1)
 				{
 					// 使用最后一个最为首选，这样下次获取时，可以使用缓存中的它，直接抛出异常供上层应用知晓，不用再查找一次
-					this._urlPreferedDriverEntities.put(url, createPreferedDriverEntity(driverEntityDriver));
+					putPreferedDriverEntity(routingVersion, url, createPreferedDriverEntity(driverEntityDriver));
 
 					// 抛出最后一个异常，供上层应用知晓
 					throw e;
@@ -296,7 +407,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 
 		if (preferedConnection == null)
 		{
-			this._urlPreferedDriverEntities.put(url, createPreferedDriverEntity(null));
+			putPreferedDriverEntity(routingVersion, url, createPreferedDriverEntity(null));
 			throw new UnsupportedGetConnectionException(connectionOption);
 		}
 		else
@@ -316,22 +427,12 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 	protected void findOrderedAcceptedAndCheckedDriverEntityDrivers(ConnectionOption connectionOption,
 			List<DriverEntityDriver> accepted, List<DriverEntityDriver> checked)
 	{
-		List<DriverEntity> driverEntities = this.driverEntityManager.getAll();
+		List<DriverCatalogEntry> driverCatalog = getDriverCatalog();
 
-		for (DriverEntity driverEntity : driverEntities)
+		for (DriverCatalogEntry driverCatalogEntry : driverCatalog)
 		{
-			Driver driver = null;
-
-			try
-			{
-				driver = this.driverEntityManager.getDriver(driverEntity);
-			}
-			catch (Throwable t)
-			{
-				if (LOGGER.isErrorEnabled())
-					LOGGER.error("Get Driver with [" + driverEntity + "] for getting prefered connection for ["
-							+ connectionOption.copyOfPsdMask() + "] error", t);
-			}
+			DriverEntity driverEntity = driverCatalogEntry.getDriverEntity();
+			Driver driver = driverCatalogEntry.getDriver();
 
 			if (driver != null)
 			{
@@ -393,6 +494,208 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		Collections.sort(checked, comparator);
 	}
 
+	/**
+	 * 写入路由表。
+	 * <p>
+	 * 如果查找期间路由已失效，将不写入。
+	 * </p>
+	 * 
+	 * @param routingVersion
+	 *            开始查找时的路由版本
+	 * @param url
+	 * @param preferedDriverEntity
+	 */
+	protected void putPreferedDriverEntity(long routingVersion, String url, PreferedDriverEntity preferedDriverEntity)
+	{
+		if (routingVersion == this._routingVersion.get())
+			this._urlPreferedDriverEntities.put(url, preferedDriverEntity);
+	}
+
+	/**
+	 * 获取驱动程序目录，尚未加载时将同步加载。
+	 * 
+	 * @return
+	 */
+	protected List<DriverCatalogEntry> getDriverCatalog()
+	{
+		List<DriverCatalogEntry> driverCatalog = this._driverCatalog;
+
+		if (driverCatalog == null)
+		{
+			synchronized (this._driverCatalogLock)
+			{
+				driverCatalog = this._driverCatalog;
+
+				if (driverCatalog == null)
+				{
+					long routingVersion = this._routingVersion.get();
+
+					driverCatalog = loadDriverCatalog();
+
+					if (routingVersion == this._routingVersion.get())
+						this._driverCatalog = driverCatalog;
+				}
+			}
+		}
+
+		return driverCatalog;
+	}
+
+	/**
+	 * 加载所有驱动程序。
+	 * 
+	 * @return
+	 */
+	protected List<DriverCatalogEntry> loadDriverCatalog()
+	{
+		List<DriverEntity> driverEntities = this.driverEntityManager.getAll();
+		List<DriverCatalogEntry> driverCatalog = new ArrayList<>(driverEntities.size());
+
+		for (DriverEntity driverEntity : driverEntities)
+		{
+			// 应在加载驱动程序之前获取，确保加载期间的修改也能被检查到
+			long lastModified = this.driverEntityManager.getLastModified(driverEntity);
+			Driver driver = null;
+
+			try
+			{
+				driver = this.driverEntityManager.getDriver(driverEntity);
+			}
+			catch (Throwable t)
+			{
+				if (LOGGER.isErrorEnabled())
+					LOGGER.error("Get Driver with [" + driverEntity + "] for getting prefered connection error", t);
+			}
+
+			driverCatalog.add(new DriverCatalogEntry(driverEntity, driver, lastModified));
+		}
+
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug("Load driver catalog with {} driver entities", driverCatalog.size());
+
+		return Collections.unmodifiableList(driverCatalog);
+	}
+
+	/**
+	 * 在后台异步加载驱动程序目录。
+	 */
+	protected void warmUp()
+	{
+		if (this._scheduler.isShutdown())
+			return;
+
+		this._scheduler.execute(() ->
+		{
+			try
+			{
+				getDriverCatalog();
+			}
+			catch (Throwable t)
+			{
+				LOGGER.error("Warm up driver catalog error", t);
+			}
+		});
+	}
+
+	/**
+	 * 启动驱动程序修改检查，多次调用只会启动一次。
+	 */
+	protected void startRoutingWatcher()
+	{
+		if (!this._routingWatcherStarted.compareAndSet(false, true))
+			return;
+
+		this._driverEntityManagerLastModified = this.driverEntityManager.getLastModified();
+
+		this._scheduler.scheduleWithFixedDelay(() ->
+		{
+			try
+			{
+				checkRoutingModified();
+			}
+			catch (Throwable t)
+			{
+				LOGGER.error("Check driver modification error", t);
+			}
+		}, this.routingCheckInterval, this.routingCheckInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 检查驱动程序是否有修改，有修改时使路由表、驱动程序目录失效。
+	 */
+	protected void checkRoutingModified()
+	{
+		long lastModified = this.driverEntityManager.getLastModified();
+		boolean modified = (lastModified != this._driverEntityManagerLastModified);
+
+		if (!modified)
+		{
+			Map<String, Long> lastModifieds = new HashMap<>();
+
+			for (PreferedDriverEntity preferedDriverEntity : this._urlPreferedDriverEntities.values())
+			{
+				if (!preferedDriverEntity.hasDriverEntityDriver())
+					continue;
+
+				if (isModified(preferedDriverEntity.getDriverEntityDriver().getDriverEntity(),
+						preferedDriverEntity.getCreationModified(), lastModifieds))
+				{
+					modified = true;
+					break;
+				}
+			}
+
+			List<DriverCatalogEntry> driverCatalog = this._driverCatalog;
+
+			if (!modified && driverCatalog != null)
+			{
+				for (DriverCatalogEntry driverCatalogEntry : driverCatalog)
+				{
+					if (isModified(driverCatalogEntry.getDriverEntity(), driverCatalogEntry.getLastModified(),
+							lastModifieds))
+					{
+						modified = true;
+						break;
+					}
+				}
+			}
+		}
+
+		if (modified)
+		{
+			this._driverEntityManagerLastModified = lastModified;
+			invalidateRouting();
+
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("Invalidate driver routing because of driver modification");
+		}
+	}
+
+	protected boolean isModified(DriverEntity driverEntity, long creationModified, Map<String, Long> lastModifieds)
+	{
+		Long lastModified = lastModifieds.get(driverEntity.getId());
+
+		if (lastModified == null)
+		{
+			lastModified = this.driverEntityManager.getLastModified(driverEntity);
+			lastModifieds.put(driverEntity.getId(), lastModified);
+		}
+
+		return (lastModified < 0 || lastModified != creationModified);
+	}
+
+	/**
+	 * 使路由表、驱动程序目录失效，并在后台重新加载驱动程序目录。
+	 */
+	protected void invalidateRouting()
+	{
+		this._routingVersion.incrementAndGet();
+		this._urlPreferedDriverEntities.clear();
+		this._driverCatalog = null;
+
+		warmUp();
+	}
+
 	protected boolean acceptsURL(Driver driver, String url)
 	{
 		try
@@ -427,7 +730,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 
 		try
 		{
-			return getConnection(driver, url, properties);
+			return getConnection(driver, url, properties, connectionOption.getPoolOption());
 		}
 		catch (SQLException | ExecutionException e)
 		{
@@ -442,7 +745,13 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 	protected Connection getConnection(Driver driver, String url, Properties properties)
 			throws ExecutionException, SQLException, Throwable
 	{
-		InternalDataSourceKey key = new InternalDataSourceKey(driver, url, properties);
+		return getConnection(driver, url, properties, null);
+	}
+
+	protected Connection getConnection(Driver driver, String url, Properties properties,
+			ConnectionPoolOption poolOption) throws ExecutionException, SQLException, Throwable
+	{
+		InternalDataSourceKey key = new InternalDataSourceKey(driver, url, properties, poolOption);
 
 		Connection connection = null;
 		InternalDataSourceHolder dataSourceHolder = null;
@@ -456,7 +765,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 						public InternalDataSourceHolder apply(InternalDataSourceKey key)
 						{
 							DataSource dataSource = createInternalDataSource(key.getDriver(), key.getUrl(),
-									key.getProperties());
+									key.getProperties(), key.getPoolOption());
 							InternalDataSourceHolder holder = new InternalDataSourceHolder();
 							holder.setDataSource(dataSource);
 
@@ -477,7 +786,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 			}
 			else
 			{
-				connection = dataSourceHolder.getDataSource().getConnection();
+				connection = getConnection(key, dataSourceHolder);
 
 				if (LOGGER.isDebugEnabled())
 					LOGGER.debug("Got a connection from the internal DataSource for {}", key.copyOfPsdMask());
@@ -571,6 +880,47 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		return false;
 	}
 
+	/**
+	 * 从内置数据源获取连接，并记录获取耗时。
+	 * 
+	 * @param key
+	 * @param dataSourceHolder
+	 * @return
+	 * @throws SQLException
+	 */
+	protected Connection getConnection(InternalDataSourceKey key, InternalDataSourceHolder dataSourceHolder)
+			throws SQLException
+	{
+		long startTime = System.currentTimeMillis();
+
+		try
+		{
+			Connection connection = dataSourceHolder.getDataSource().getConnection();
+			dataSourceHolder.recordBorrow(System.currentTimeMillis() - startTime);
+
+			return connection;
+		}
+		catch (SQLException | RuntimeException e)
+		{
+			dataSourceHolder.recordBorrowError();
+
+			if (LOGGER.isWarnEnabled())
+			{
+				ConnectionPoolMetrics metrics = dataSourceHolder.getMetrics(key);
+				ConnectionPoolOption poolOption = metrics.getPoolOption();
+				int maxTotal = (poolOption == null || poolOption.getMaxTotal() == null ? -1
+						: poolOption.getMaxTotal());
+
+				// 连接池耗尽导致的失败应记录，避免请求无响应却无从排查
+				if (metrics.getNumWaiters() > 0 || (maxTotal >= 0 && metrics.getNumActive() >= maxTotal))
+					LOGGER.warn("Get connection from exhausted internal DataSource failed after {} ms : {}",
+							(System.currentTimeMillis() - startTime), metrics);
+			}
+
+			throw e;
+		}
+	}
+
 	protected Connection getConnectionWithoutInternalDataSource(Driver driver, String url, Properties properties)
 			throws Throwable
 	{
@@ -578,15 +928,68 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 	}
 
 	protected DataSource createInternalDataSource(Driver driver, String url, Properties properties)
+	{
+		return createInternalDataSource(driver, url, properties, null);
+	}
+
+	/**
+	 * 创建内置数据源。
+	 * 
+	 * @param driver
+	 * @param url
+	 * @param properties
+	 * @param poolOption
+	 *            允许为{@code null}，将与{@linkplain #getDefaultPoolOption()}合并后应用
+	 * @return
+	 */
+	protected DataSource createInternalDataSource(Driver driver, String url, Properties properties,
+			ConnectionPoolOption poolOption)
 	{
 		DriverBasicDataSource re = new DriverBasicDataSource(driver, url, properties);
 
+		ConnectionPoolOption mergedPoolOption = (poolOption == null ? this.defaultPoolOption
+				: poolOption.merge(this.defaultPoolOption));
+
+		if (mergedPoolOption != null)
+			applyPoolOption(re, mergedPoolOption);
+
 		if (LOGGER.isDebugEnabled())
-			LOGGER.debug("Create internal data source for {}", new ConnectionOption(url, properties).copyOfPsdMask());
+			LOGGER.debug("Create internal data source for {} with {}",
+					new ConnectionOption(url, properties).copyOfPsdMask(), mergedPoolOption);
 
 		return re;
 	}
 
+	/**
+	 * 将连接池选项应用于{@linkplain BasicDataSource}。
+	 * 
+	 * @param dataSource
+	 * @param poolOption
+	 */
+	protected void applyPoolOption(BasicDataSource dataSource, ConnectionPoolOption poolOption)
+	{
+		if (poolOption.getMaxTotal() != null)
+			dataSource.setMaxTotal(poolOption.getMaxTotal());
+
+		if (poolOption.getMinIdle() != null)
+			dataSource.setMinIdle(poolOption.getMinIdle());
+
+		if (poolOption.getMaxIdle() != null)
+			dataSource.setMaxIdle(poolOption.getMaxIdle());
+
+		if (poolOption.getMaxWaitMillis() != null)
+			dataSource.setMaxWaitMillis(poolOption.getMaxWaitMillis());
+
+		if (poolOption.getValidationQuery() != null)
+			dataSource.setValidationQuery(poolOption.getValidationQuery());
+
+		if (poolOption.getPoolPreparedStatements() != null)
+			dataSource.setPoolPreparedStatements(poolOption.getPoolPreparedStatements());
+
+		if (poolOption.getMaxOpenPreparedStatements() != null)
+			dataSource.setMaxOpenPreparedStatements(poolOption.getMaxOpenPreparedStatements());
+	}
+
 	protected PreferedDriverEntity createPreferedDriverEntity(DriverEntityDriver driverEntityDriver)
 	{
 		if (driverEntityDriver == null)
@@ -674,6 +1077,45 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		}
 	}
 
+	/**
+	 * 驱动程序目录条目。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class DriverCatalogEntry
+	{
+		private final DriverEntity driverEntity;
+
+		/** 驱动程序，加载失败时为{@code null} */
+		private final Driver driver;
+
+		private final long lastModified;
+
+		public DriverCatalogEntry(DriverEntity driverEntity, Driver driver, long lastModified)
+		{
+			super();
+			this.driverEntity = driverEntity;
+			this.driver = driver;
+			this.lastModified = lastModified;
+		}
+
+		public DriverEntity getDriverEntity()
+		{
+			return driverEntity;
+		}
+
+		public Driver getDriver()
+		{
+			return driver;
+		}
+
+		public long getLastModified()
+		{
+			return lastModified;
+		}
+	}
+
 	protected static class PreferedDriverEntity
 	{
 		private final DriverEntityDriver driverEntityDriver;
@@ -714,13 +1156,21 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		private final Driver driver;
 		private final String url;
 		private final Properties properties;
+		private final ConnectionPoolOption poolOption;
 
 		public InternalDataSourceKey(Driver driver, String url, Properties properties)
+		{
+			this(driver, url, properties, null);
+		}
+
+		public InternalDataSourceKey(Driver driver, String url, Properties properties,
+				ConnectionPoolOption poolOption)
 		{
 			super();
 			this.driver = driver;
 			this.url = url;
 			this.properties = properties;
+			this.poolOption = poolOption;
 		}
 
 		public Driver getDriver()
@@ -738,6 +1188,11 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 			return properties;
 		}
 
+		public ConnectionPoolOption getPoolOption()
+		{
+			return poolOption;
+		}
+
 		/**
 		 * 复制，但是对密码脱敏处理。
 		 * 
@@ -748,7 +1203,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 			ConnectionOption co = new ConnectionOption(this.url, this.properties);
 			co = co.copyOfPsdMask();
 
-			return new InternalDataSourceKey(this.driver, this.url, co.getProperties());
+			return new InternalDataSourceKey(this.driver, this.url, co.getProperties(), this.poolOption);
 		}
 
 		@Override
@@ -759,6 +1214,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 			result = prime * result + ((driver == null) ? 0 : driver.hashCode());
 			result = prime * result + ((properties == null) ? 0 : properties.hashCode());
 			result = prime * result + ((url == null) ? 0 : url.hashCode());
+			result = prime * result + ((poolOption == null) ? 0 : poolOption.hashCode());
 			return result;
 		}
 
@@ -793,6 +1249,13 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 			}
 			else if (!url.equals(other.url))
 				return false;
+			if (poolOption == null)
+			{
+				if (other.poolOption != null)
+					return false;
+			}
+			else if (!poolOption.equals(other.poolOption))
+				return false;
 			return true;
 		}
 
@@ -800,7 +1263,7 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		public String toString()
 		{
 			return getClass().getSimpleName() + " [driver=" + driver + ", url=" + url + ", properties=" + properties
-					+ "]";
+					+ ", poolOption=" + poolOption + "]";
 		}
 	}
 
@@ -842,6 +1305,17 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		{
 			return new DriverConnectionFactory(driver, getUrl(), this.connectionProperties);
 		}
+
+		/**
+		 * 获取正在等待获取连接的线程数。
+		 * 
+		 * @return
+		 */
+		public int getNumWaiters()
+		{
+			GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+			return (pool == null ? 0 : pool.getNumWaiters());
+		}
 	}
 
 	/**
@@ -896,6 +1370,19 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		/** 内置数据源 */
 		private DataSource dataSource = null;
 
+		/** 获取连接成功次数 */
+		private final LongAdder borrowCount = new LongAdder();
+
+		/** 获取连接失败次数 */
+		private final LongAdder borrowErrorCount = new LongAdder();
+
+		/** 获取连接最大耗时 */
+		private final LongAccumulator maxBorrowMillis = new LongAccumulator(Math::max, 0);
+
+		/** 获取连接耗时直方图 */
+		private final AtomicLongArray borrowLatencyCounts = new AtomicLongArray(
+				ConnectionPoolMetrics.BORROW_LATENCY_BOUNDS.length + 1);
+
 		public InternalDataSourceHolder()
 		{
 			super();
@@ -925,5 +1412,73 @@ public class DefaultConnectionSource implements ConnectionSource, AutoCloseable
 		{
 			this.dataSource = dataSource;
 		}
+
+		/**
+		 * 记录一次获取连接成功。
+		 * 
+		 * @param millis
+		 *            获取耗时
+		 */
+		public void recordBorrow(long millis)
+		{
+			this.borrowCount.increment();
+			this.maxBorrowMillis.accumulate(millis);
+			this.borrowLatencyCounts.incrementAndGet(ConnectionPoolMetrics.indexOfBorrowLatency(millis));
+		}
+
+		/**
+		 * 记录一次获取连接失败。
+		 */
+		public void recordBorrowError()
+		{
+			this.borrowErrorCount.increment();
+		}
+
+		/**
+		 * 获取连接池度量信息。
+		 * 
+		 * @param key
+		 * @return
+		 */
+		public ConnectionPoolMetrics getMetrics(InternalDataSourceKey key)
+		{
+			ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+
+			ConnectionOption co = new ConnectionOption(key.getUrl(), key.getProperties());
+			metrics.setName(co.getUrl() + " [" + co.getUser() + "]");
+
+			if (this.dataSource instanceof BasicDataSource)
+			{
+				BasicDataSource bds = (BasicDataSource) this.dataSource;
+
+				ConnectionPoolOption poolOption = new ConnectionPoolOption();
+				poolOption.setMaxTotal(bds.getMaxTotal());
+				poolOption.setMinIdle(bds.getMinIdle());
+				poolOption.setMaxIdle(bds.getMaxIdle());
+				poolOption.setMaxWaitMillis(bds.getMaxWaitMillis());
+				poolOption.setValidationQuery(bds.getValidationQuery());
+				poolOption.setPoolPreparedStatements(bds.isPoolPreparedStatements());
+				poolOption.setMaxOpenPreparedStatements(bds.getMaxOpenPreparedStatements());
+
+				metrics.setPoolOption(poolOption);
+				metrics.setNumActive(bds.getNumActive());
+				metrics.setNumIdle(bds.getNumIdle());
+			}
+
+			if (this.dataSource instanceof DriverBasicDataSource)
+				metrics.setNumWaiters(((DriverBasicDataSource) this.dataSource).getNumWaiters());
+
+			metrics.setBorrowCount(this.borrowCount.sum());
+			metrics.setBorrowErrorCount(this.borrowErrorCount.sum());
+			metrics.setMaxBorrowMillis(this.maxBorrowMillis.get());
+
+			long[] latencyCounts = new long[this.borrowLatencyCounts.length()];
+			for (int i = 0; i < latencyCounts.length; i++)
+				latencyCounts[i] = this.borrowLatencyCounts.get(i);
+
+			metrics.setBorrowLatencyCounts(latencyCounts);
+
+			return metrics;
+		}
 	}
 }
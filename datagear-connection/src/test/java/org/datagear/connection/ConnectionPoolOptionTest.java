@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain ConnectionPoolOption}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ConnectionPoolOptionTest
+{
+	@Test
+	public void extractTest()
+	{
+		{
+			Properties properties = new Properties();
+			properties.put("useSSL", "false");
+
+			assertNull(ConnectionPoolOption.extract(properties));
+			assertEquals(1, properties.size());
+		}
+
+		{
+			Properties properties = new Properties();
+			properties.put("useSSL", "false");
+			properties.put(ConnectionPoolOption.PROPERTY_NAME_MAX_TOTAL, "20");
+			properties.put(ConnectionPoolOption.PROPERTY_NAME_MAX_WAIT_MILLIS, " 3000 ");
+			properties.put(ConnectionPoolOption.PROPERTY_NAME_MIN_IDLE, "abc");
+			properties.put(ConnectionPoolOption.PROPERTY_NAME_VALIDATION_QUERY, "SELECT 1");
+			properties.put(ConnectionPoolOption.PROPERTY_NAME_POOL_PREPARED_STATEMENTS, "true");
+
+			ConnectionPoolOption actual = ConnectionPoolOption.extract(properties);
+
+			assertEquals(20, actual.getMaxTotal().intValue());
+			assertEquals(3000L, actual.getMaxWaitMillis().longValue());
+			assertNull(actual.getMinIdle());
+			assertEquals("SELECT 1", actual.getValidationQuery());
+			assertTrue(actual.getPoolPreparedStatements());
+
+			assertEquals(1, properties.size());
+			assertEquals("false", properties.getProperty("useSSL"));
+		}
+	}
+
+	@Test
+	public void mergeTest()
+	{
+		ConnectionPoolOption defaults = new ConnectionPoolOption();
+		defaults.setMaxTotal(8);
+		defaults.setMaxWaitMillis(30000L);
+
+		ConnectionPoolOption option = new ConnectionPoolOption();
+		option.setMaxTotal(20);
+		option.setMinIdle(2);
+
+		ConnectionPoolOption actual = option.merge(defaults);
+
+		assertEquals(20, actual.getMaxTotal().intValue());
+		assertEquals(2, actual.getMinIdle().intValue());
+		assertEquals(30000L, actual.getMaxWaitMillis().longValue());
+		assertNull(actual.getValidationQuery());
+
+		assertEquals(option, option.merge(null));
+	}
+}
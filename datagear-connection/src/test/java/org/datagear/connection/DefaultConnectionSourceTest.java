@@ -29,9 +29,11 @@ import java.io.File;
 import java.io.Writer;
 import java.sql.Connection;
 import java.sql.Driver;
+import java.util.List;
 import java.util.concurrent.ConcurrentMap;
 
 import org.datagear.connection.DefaultConnectionSource.DriverBasicDataSource;
+import org.datagear.connection.DefaultConnectionSource.DriverEntityDriver;
 import org.datagear.connection.DefaultConnectionSource.InternalDataSourceHolder;
 import org.datagear.connection.DefaultConnectionSource.InternalDataSourceKey;
 import org.datagear.connection.DefaultConnectionSource.PreferedDriverEntity;
@@ -380,6 +382,154 @@ public class DefaultConnectionSourceTest extends DBTestSupport
 		}
 	}
 
+	@Test
+	public void getConnectionTest_poolOption() throws Exception
+	{
+		XmlDriverEntityManager driverEntityManager = createDriverEntityManager("4");
+		DriverEntity driverEntity = getDriverEntity();
+
+		ConnectionPoolOption defaultPoolOption = new ConnectionPoolOption();
+		defaultPoolOption.setMaxTotal(5);
+		defaultPoolOption.setMaxWaitMillis(1000L);
+
+		ConnectionPoolOption poolOption = new ConnectionPoolOption();
+		poolOption.setMaxTotal(1);
+
+		ConnectionOption option = ConnectionOption.valueOf(getUrl(), getUser(), getPassword());
+		option.setPoolOption(poolOption);
+
+		TestDefaultConnectionSource cs = new TestDefaultConnectionSource(driverEntityManager, 60, 5);
+		cs.setDefaultPoolOption(defaultPoolOption);
+
+		try
+		{
+			Connection cn = null;
+
+			try
+			{
+				cn = cs.getConnection(driverEntity, option);
+
+				List<ConnectionPoolMetrics> metricses = cs.getPoolMetrics();
+				assertEquals(1, metricses.size());
+
+				ConnectionPoolMetrics metrics = metricses.get(0);
+				assertEquals(1, metrics.getPoolOption().getMaxTotal().intValue());
+				assertEquals(1000L, metrics.getPoolOption().getMaxWaitMillis().longValue());
+				assertEquals(1, metrics.getNumActive());
+				assertEquals(1, metrics.getBorrowCount());
+				assertEquals(0, metrics.getBorrowErrorCount());
+			}
+			finally
+			{
+				JdbcUtil.closeConnection(cn);
+			}
+
+			ConnectionPoolMetrics metrics = cs.getPoolMetrics().get(0);
+			assertEquals(0, metrics.getNumActive());
+			assertEquals(1, metrics.getNumIdle());
+
+			long latencyCount = 0;
+			for (long count : metrics.getBorrowLatencyCounts())
+				latencyCount += count;
+
+			assertEquals(1, latencyCount);
+		}
+		finally
+		{
+			IOUtil.close(cs);
+			driverEntityManager.releaseAll();
+		}
+	}
+
+	@Test
+	public void checkRoutingModifiedTest() throws Exception
+	{
+		XmlDriverEntityManager driverEntityManager = createDriverEntityManager("5");
+		DriverEntity driverEntity = getDriverEntity();
+
+		TestDefaultConnectionSource cs = new TestDefaultConnectionSource(driverEntityManager, 6, 5);
+		cs.setRoutingCheckInterval(1000 * 60 * 60);
+		ConcurrentMap<String, PreferedDriverEntity> urlPreferedDriverEntities = cs.getUrlPreferedDriverEntities();
+
+		try
+		{
+			cs.startRoutingWatcher();
+
+			Driver driver = driverEntityManager.getDriver(driverEntity);
+			cs.putPreferedDriverEntity(cs.getRoutingVersion(), getUrl(),
+					cs.createPreferedDriverEntity(new DriverEntityDriver(driverEntity, driver)));
+
+			// 驱动程序未修改
+			{
+				long routingVersion = cs.getRoutingVersion();
+				cs.checkRoutingModified();
+
+				assertEquals(routingVersion, cs.getRoutingVersion());
+				assertEquals(1, urlPreferedDriverEntities.size());
+			}
+
+			Thread.sleep(2000);
+
+			File modifiedFile = FileUtil.getFile(driverEntityManager.getRootDirectory(), "mysql-jre8/modified.txt");
+			Writer writer = null;
+			try
+			{
+				writer = IOUtil.getWriter(modifiedFile);
+				writer.write("modified");
+			}
+			finally
+			{
+				IOUtil.close(writer);
+			}
+
+			// 驱动程序修改后路由应失效
+			{
+				long routingVersion = cs.getRoutingVersion();
+				cs.checkRoutingModified();
+
+				assertEquals(routingVersion + 1, cs.getRoutingVersion());
+				assertTrue(urlPreferedDriverEntities.isEmpty());
+			}
+		}
+		finally
+		{
+			IOUtil.close(cs);
+			driverEntityManager.releaseAll();
+		}
+	}
+
+	@Test
+	public void putPreferedDriverEntityTest_invalidated() throws Exception
+	{
+		XmlDriverEntityManager driverEntityManager = createDriverEntityManager("6");
+
+		TestDefaultConnectionSource cs = new TestDefaultConnectionSource(driverEntityManager, 6, 5);
+		ConcurrentMap<String, PreferedDriverEntity> urlPreferedDriverEntities = cs.getUrlPreferedDriverEntities();
+
+		try
+		{
+			// 查找开始时的路由版本
+			long routingVersion = cs.getRoutingVersion();
+
+			// 查找期间路由失效
+			cs.invalidateRouting();
+
+			// 失效前开始的查找不应写入路由表
+			cs.putPreferedDriverEntity(routingVersion, getUrl(), cs.createPreferedDriverEntity(null));
+			assertTrue(urlPreferedDriverEntities.isEmpty());
+
+			// 失效后开始的查找可写入路由表
+			cs.putPreferedDriverEntity(cs.getRoutingVersion(), getUrl(), cs.createPreferedDriverEntity(null));
+			assertEquals(1, urlPreferedDriverEntities.size());
+			assertFalse(urlPreferedDriverEntities.get(getUrl()).hasDriverEntityDriver());
+		}
+		finally
+		{
+			IOUtil.close(cs);
+			driverEntityManager.releaseAll();
+		}
+	}
+
 	protected XmlDriverEntityManager createDriverEntityManager(String name) throws Exception
 	{
 		File directory = FileUtil.getDirectory("target/test/DefaultConnectionSourceTest/" + name);
@@ -17,14 +17,27 @@
 
 package org.datagear.dataexchange;
 
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.datagear.meta.Column;
 import org.datagear.meta.Table;
 import org.datagear.meta.resolver.DBMetaResolver;
+import org.datagear.util.FileUtil;
+import org.datagear.util.IOUtil;
 
 /**
  * 抽象导入服务。
@@ -36,8 +49,17 @@ import org.datagear.meta.resolver.DBMetaResolver;
 public abstract class AbstractDevotedDBMetaDataExchangeService<T extends DataExchange>
 		extends AbstractDevotedDataExchangeService<T>
 {
+	/** 默认最大导出分区数 */
+	public static final int DEFAULT_MAX_PARTITION_COUNT = 4;
+
 	private DBMetaResolver dbMetaResolver;
 
+	/** 执行分区导出的共享线程池，为{@code null}时将在当前线程依次导出各分区 */
+	private ExecutorService partitionExecutorService = null;
+
+	/** 最大导出分区数，用于限制客户端设置的{@linkplain TextDataExportOption#getPartitionCount()} */
+	private int maxPartitionCount = DEFAULT_MAX_PARTITION_COUNT;
+
 	public AbstractDevotedDBMetaDataExchangeService()
 	{
 		super();
@@ -59,6 +81,34 @@ public abstract class AbstractDevotedDBMetaDataExchangeService<T extends DataExc
 		this.dbMetaResolver = dbMetaResolver;
 	}
 
+	public ExecutorService getPartitionExecutorService()
+	{
+		return partitionExecutorService;
+	}
+
+	/**
+	 * 设置执行分区导出的线程池。
+	 * <p>
+	 * 它应是有界的，且由所有导出共享，使得并行导出占用的线程数、数据库连接数不会随导出请求增长，此类不会关闭它。
+	 * </p>
+	 * 
+	 * @param partitionExecutorService
+	 */
+	public void setPartitionExecutorService(ExecutorService partitionExecutorService)
+	{
+		this.partitionExecutorService = partitionExecutorService;
+	}
+
+	public int getMaxPartitionCount()
+	{
+		return maxPartitionCount;
+	}
+
+	public void setMaxPartitionCount(int maxPartitionCount)
+	{
+		this.maxPartitionCount = maxPartitionCount;
+	}
+
 	/**
 	 * 获取{@linkplain ResultSet}列信息。
 	 * 
@@ -76,4 +126,324 @@ public abstract class AbstractDevotedDBMetaDataExchangeService<T extends DataExc
 	{
 		return super.getTableIfValid(cn, table, this.dbMetaResolver);
 	}
+
+	/**
+	 * 拆分导出查询。
+	 * <p>
+	 * 仅当{@code partitionCount}大于{@code 1}且{@code query}是{@linkplain TableQuery}时才会拆分，参考{@linkplain TableQueryPartitioner}，
+	 * 分区数不会超过{@linkplain #getMaxPartitionCount()}；
+	 * 返回列表元素多于{@code 1}个时，应使用{@linkplain #exportPartitions(DataExchange, DataExchangeContext, List, PartitionExporter)}导出，
+	 * 否则，应直接导出{@code query}。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param query
+	 * @param partitionCount
+	 * @return 不可拆分时返回空列表
+	 * @throws Throwable
+	 */
+	protected List<TableQuery> partitionExportQuery(Connection cn, Query query, int partitionCount) throws Throwable
+	{
+		partitionCount = Math.min(partitionCount, this.maxPartitionCount);
+
+		if (partitionCount > 1 && (query instanceof TableQuery))
+		{
+			TableQueryPartitioner partitioner = new TableQueryPartitioner(this.dbMetaResolver);
+			return partitioner.partition(cn, (TableQuery) query, partitionCount);
+		}
+
+		return Collections.emptyList();
+	}
+
+	/**
+	 * 并行导出分区。
+	 * <p>
+	 * 每个分区将导出至一个临时文件，第一个分区使用{@code context}，其他分区使用各自新建的{@linkplain DataExchangeContext}（即独立的数据库连接）。
+	 * 各分区在{@linkplain #getPartitionExecutorService()}中执行，它们的起始记录索引由{@linkplain #getPartitionRowOffsets(Connection, List)}确定。
+	 * 返回的临时文件与{@code queries}顺序一致，调用方应使用{@linkplain #writePartitionFile(File, Writer)}按序合并后，
+	 * 再使用{@linkplain #deletePartitionFiles(List)}删除它们。
+	 * </p>
+	 * 
+	 * @param dataExchange
+	 * @param context
+	 * @param queries
+	 * @param exporter
+	 * @return
+	 * @throws Throwable
+	 */
+	protected List<File> exportPartitions(final T dataExchange, final DataExchangeContext context,
+			final List<TableQuery> queries, final PartitionExporter exporter) throws Throwable
+	{
+		final List<File> files = new ArrayList<File>(queries.size());
+		final long[] rowOffsets = getPartitionRowOffsets(context.getConnection(), queries);
+
+		try
+		{
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(queries.size());
+
+			for (int i = 0, len = queries.size(); i < len; i++)
+			{
+				final int partitionIndex = i;
+				final File file = FileUtil.createTempFile();
+				files.add(file);
+
+				tasks.add(new Callable<Void>()
+				{
+					@Override
+					public Void call() throws Exception
+					{
+						DataExchangeContext myContext = (partitionIndex == 0 ? context
+								: createDataExchangeContext(dataExchange));
+						Writer out = null;
+
+						try
+						{
+							out = IOUtil.getWriter(file, IOUtil.CHARSET_UTF_8);
+							exporter.export(myContext, queries.get(partitionIndex), partitionIndex,
+									rowOffsets[partitionIndex], out);
+							out.flush();
+						}
+						catch (Exception e)
+						{
+							throw e;
+						}
+						catch (Throwable t)
+						{
+							throw new DataExchangeException(t);
+						}
+						finally
+						{
+							IOUtil.close(out);
+
+							if (partitionIndex != 0)
+							{
+								myContext.closeConnection();
+								myContext.closeContextCloseables();
+							}
+						}
+
+						return null;
+					}
+				});
+			}
+
+			executePartitions(tasks);
+
+			return files;
+		}
+		catch (Throwable t)
+		{
+			deletePartitionFiles(files);
+			throw t;
+		}
+	}
+
+	/**
+	 * 获取各分区的起始记录索引。
+	 * <p>
+	 * 由前面各分区的记录数累加得到，使得各分区并行导出时的{@linkplain DataIndex}与合并后的输出顺序一致。
+	 * 如果导出期间有记录增删，索引可能会有偏差。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param queries
+	 * @return
+	 * @throws Throwable
+	 */
+	protected long[] getPartitionRowOffsets(Connection cn, List<TableQuery> queries) throws Throwable
+	{
+		long[] offsets = new long[queries.size()];
+
+		for (int i = 1, len = queries.size(); i < len; i++)
+			offsets[i] = offsets[i - 1] + queries.get(i - 1).executeCount(cn);
+
+		return offsets;
+	}
+
+	/**
+	 * 并行执行分区任务。
+	 * <p>
+	 * 任务将在{@linkplain #getPartitionExecutorService()}中执行，它为{@code null}时在当前线程依次执行。
+	 * 任一任务出错时，将取消其他任务并抛出此错误。
+	 * </p>
+	 * 
+	 * @param <R>
+	 * @param tasks
+	 * @return 与{@code tasks}顺序一致的结果
+	 * @throws Throwable
+	 */
+	protected <R> List<R> executePartitions(List<? extends Callable<R>> tasks) throws Throwable
+	{
+		ExecutorService executor = this.partitionExecutorService;
+
+		if (executor == null)
+		{
+			List<R> re = new ArrayList<R>(tasks.size());
+
+			for (Callable<R> task : tasks)
+				re.add(task.call());
+
+			return re;
+		}
+
+		CompletionService<R> completionService = new ExecutorCompletionService<R>(executor);
+		List<Future<R>> futures = new ArrayList<Future<R>>(tasks.size());
+
+		try
+		{
+			for (Callable<R> task : tasks)
+				futures.add(completionService.submit(task));
+
+			for (int i = 0, len = tasks.size(); i < len; i++)
+			{
+				try
+				{
+					completionService.take().get();
+				}
+				catch (ExecutionException e)
+				{
+					throw (e.getCause() == null ? e : e.getCause());
+				}
+			}
+
+			List<R> re = new ArrayList<R>(futures.size());
+
+			for (Future<R> future : futures)
+				re.add(future.get());
+
+			return re;
+		}
+		finally
+		{
+			// 出错时取消未完成的任务，线程池是共享的，不能关闭
+			for (Future<R> future : futures)
+				future.cancel(true);
+		}
+	}
+
+	/**
+	 * 将分区临时文件内容写入输出流。
+	 * 
+	 * @param file
+	 * @param out
+	 * @throws Throwable
+	 */
+	protected void writePartitionFile(File file, Writer out) throws Throwable
+	{
+		Reader in = null;
+
+		try
+		{
+			in = IOUtil.getReader(file, IOUtil.CHARSET_UTF_8);
+			IOUtil.write(in, out);
+		}
+		finally
+		{
+			IOUtil.close(in);
+		}
+	}
+
+	/**
+	 * 删除分区临时文件。
+	 * 
+	 * @param files
+	 */
+	protected void deletePartitionFiles(List<File> files)
+	{
+		for (File file : files)
+			FileUtil.deleteFile(file);
+	}
+
+	/**
+	 * 分区导出器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static interface PartitionExporter
+	{
+		/**
+		 * 导出分区。
+		 * 
+		 * @param context
+		 *            分区上下文，它的数据库连接仅由此分区使用
+		 * @param query
+		 * @param partitionIndex
+		 * @param rowOffset
+		 *            分区的起始记录索引
+		 * @param out
+		 * @throws Throwable
+		 */
+		void export(DataExchangeContext context, Query query, int partitionIndex, long rowOffset, Writer out)
+				throws Throwable;
+	}
+
+	/**
+	 * 分区导出使用的{@linkplain TextDataExportListener}。
+	 * <p>
+	 * 它仅同步转发记录级的事件，因为各分区会并行调用它；开始、完成等事件仍由整个导出负责。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class PartitionTextDataExportListener implements TextDataExportListener
+	{
+		private final TextDataExportListener listener;
+
+		public PartitionTextDataExportListener(TextDataExportListener listener)
+		{
+			super();
+			this.listener = listener;
+		}
+
+		public TextDataExportListener getListener()
+		{
+			return listener;
+		}
+
+		@Override
+		public void onStart()
+		{
+		}
+
+		@Override
+		public void onException(DataExchangeException e)
+		{
+		}
+
+		@Override
+		public void onSuccess()
+		{
+		}
+
+		@Override
+		public void onFinish()
+		{
+		}
+
+		@Override
+		public void onSuccess(DataIndex dataIndex)
+		{
+			if (this.listener == null)
+				return;
+
+			synchronized (this.listener)
+			{
+				this.listener.onSuccess(dataIndex);
+			}
+		}
+
+		@Override
+		public void onSetNullTextValue(DataIndex dataIndex, String columnName, DataExchangeException e)
+		{
+			if (this.listener == null)
+				return;
+
+			synchronized (this.listener)
+			{
+				this.listener.onSetNullTextValue(dataIndex, columnName, e);
+			}
+		}
+	}
 }
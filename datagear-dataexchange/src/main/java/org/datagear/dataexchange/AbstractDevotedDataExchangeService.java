@@ -24,6 +24,7 @@ import java.io.Reader;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.NClob;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -31,6 +32,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.RowId;
 import java.sql.SQLException;
 import java.sql.SQLXML;
+import java.sql.Savepoint;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
@@ -1022,7 +1024,7 @@ public abstract class AbstractDevotedDataExchangeService<T extends DataExchange>
 			case Types.REF:
 			case Types.REF_CURSOR:
 			{
-				value = getColumnValueExt(cn, rs, columnName, sqlType);
+				value = getColumnValueExt(cn, rs, rs.findColumn(columnName), sqlType);
 
 				break;
 			}
@@ -1039,7 +1041,7 @@ public abstract class AbstractDevotedDataExchangeService<T extends DataExchange>
 	}
 
 	@Override
-	protected Object getColumnValueExt(Connection cn, ResultSet rs, String columnName, int sqlType) throws SQLException
+	protected Object getColumnValueExt(Connection cn, ResultSet rs, int columnIndex, int sqlType) throws SQLException
 	{
 		throw new UnsupportedSqlTypeException(sqlType);
 	}
@@ -1195,6 +1197,325 @@ public abstract class AbstractDevotedDataExchangeService<T extends DataExchange>
 		}
 	}
 
+	/**
+	 * 创建{@linkplain ValueDataImportBatch}。
+	 * <p>
+	 * 仅当{@linkplain ValueDataImportOption#getBatchSize()}大于{@code 1}、且数据库支持批处理和保存点时，才会以批处理方式导入，否则逐条导入；
+	 * 当{@linkplain ValueDataImportOption#getExceptionResolve()}为{@linkplain ExceptionResolve#ROLLBACK}时，将忽略{@linkplain ValueDataImportOption#getCommitInterval()}。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param st
+	 * @param columns
+	 * @param importOption
+	 * @param dataFormatContext
+	 * @param listener
+	 * @return
+	 */
+	protected ValueDataImportBatch createValueDataImportBatch(Connection cn, PreparedStatement st,
+			List<Column> columns, ValueDataImportOption importOption, DataFormatContext dataFormatContext,
+			ValueDataImportListener listener)
+	{
+		ValueDataImportBatch batch = new ValueDataImportBatch(cn, st, columns);
+
+		int batchSize = importOption.getBatchSize();
+		if (batchSize > 1 && !isSupportsBatchImport(cn))
+			batchSize = 1;
+
+		ExceptionResolve exceptionResolve = importOption.getExceptionResolve();
+
+		batch.setBatchSize(batchSize);
+		batch.setCommitInterval(
+				ExceptionResolve.ROLLBACK.equals(exceptionResolve) ? 0 : importOption.getCommitInterval());
+		batch.setNullForIllegalColumnValue(importOption.isNullForIllegalColumnValue());
+		batch.setExceptionResolve(exceptionResolve);
+		batch.setDataFormatContext(dataFormatContext);
+		batch.setListener(listener);
+
+		return batch;
+	}
+
+	/**
+	 * 是否支持批处理导入。
+	 * <p>
+	 * 批处理出错时需要回滚至保存点再逐条导入，所以要求数据库同时支持批处理和保存点。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @return
+	 */
+	protected boolean isSupportsBatchImport(Connection cn)
+	{
+		try
+		{
+			DatabaseMetaData metaData = cn.getMetaData();
+			return (metaData.supportsBatchUpdates() && metaData.supportsSavepoints());
+		}
+		catch (Throwable t)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * 使用{@linkplain ValueDataImportBatch}导入一条值数据。
+	 * <p>
+	 * 如果{@linkplain ValueDataImportBatch#isBatch()}为{@code true}，此方法仅设置参数值并将其添加至批处理，
+	 * 待达到{@linkplain ValueDataImportBatch#getBatchSize()}时才执行，
+	 * 导入完成后应调用{@linkplain #flushValueDataImportBatch(ValueDataImportBatch)}执行剩余的记录；
+	 * 否则，将立即导入此条记录。
+	 * </p>
+	 * 
+	 * @param batch
+	 * @param columnValues
+	 * @param dataIndex
+	 * @return 设置参数值出错时返回{@code false}
+	 * @throws DataExchangeException
+	 */
+	protected boolean importValueData(ValueDataImportBatch batch, List<? extends Object> columnValues,
+			DataIndex dataIndex) throws DataExchangeException
+	{
+		Connection cn = batch.getConnection();
+		PreparedStatement st = batch.getStatement();
+		ExceptionResolve exceptionResolve = batch.getExceptionResolve();
+		ValueDataImportListener listener = batch.getListener();
+
+		if (!batch.isBatch())
+		{
+			boolean success = importValueData(cn, st, batch.getColumns(), columnValues, dataIndex,
+					batch.isNullForIllegalColumnValue(), exceptionResolve, batch.getDataFormatContext(), listener);
+
+			if (success && batch.addUncommittedCount(1))
+				commitValueDataImportBatch(batch);
+
+			return success;
+		}
+
+		DataExchangeException exception = null;
+
+		try
+		{
+			setImportParamValues(cn, st, batch.getColumns(), columnValues, dataIndex,
+					batch.isNullForIllegalColumnValue(), batch.getDataFormatContext(), listener);
+
+			addImportPreparedStatementBatch(st, dataIndex);
+		}
+		catch (Throwable t)
+		{
+			exception = wrapToDataExchangeException(t);
+		}
+
+		if (exception == null)
+		{
+			batch.addBatchData(dataIndex, new ArrayList<Object>(columnValues));
+
+			if (batch.isBatchFull())
+				flushValueDataImportBatch(batch);
+
+			return true;
+		}
+		else
+		{
+			if (ExceptionResolve.IGNORE.equals(exceptionResolve))
+			{
+				if (listener != null)
+					listener.onIgnore(dataIndex, exception);
+
+				return false;
+			}
+			else
+			{
+				// 先执行此条记录之前的记录，使得出错处理逻辑与逐条导入一致
+				flushValueDataImportBatch(batch);
+				throw exception;
+			}
+		}
+	}
+
+	/**
+	 * 执行{@linkplain ValueDataImportBatch}中尚未执行的批处理记录。
+	 * <p>
+	 * 如果批处理执行出错，将回滚至执行前的保存点，然后逐条导入这些记录，以准确报告出错记录的{@linkplain DataIndex}。
+	 * </p>
+	 * 
+	 * @param batch
+	 * @throws DataExchangeException
+	 */
+	protected void flushValueDataImportBatch(ValueDataImportBatch batch) throws DataExchangeException
+	{
+		int count = batch.getBatchDataCount();
+
+		if (count == 0)
+			return;
+
+		Connection cn = batch.getConnection();
+		PreparedStatement st = batch.getStatement();
+		ValueDataImportListener listener = batch.getListener();
+
+		try
+		{
+			Savepoint savepoint = null;
+			SQLException batchException = null;
+
+			try
+			{
+				savepoint = cn.setSavepoint();
+				st.executeBatch();
+			}
+			catch (SQLException e)
+			{
+				batchException = e;
+			}
+
+			if (batchException == null)
+			{
+				releaseSavepointSilently(cn, savepoint);
+
+				if (listener != null)
+				{
+					for (DataIndex dataIndex : batch.getBatchDataIndexes())
+						listener.onSuccess(dataIndex);
+				}
+
+				if (batch.addUncommittedCount(count))
+					commitValueDataImportBatch(batch);
+			}
+			else
+			{
+				DataIndex firstDataIndex = batch.getBatchDataIndexes().get(0);
+
+				try
+				{
+					// 保存点为null表明批处理未执行，无需回滚
+					if (savepoint != null)
+						cn.rollback(savepoint);
+
+					st.clearBatch();
+				}
+				catch (SQLException e)
+				{
+					throw new ExecuteDataImportSqlException(firstDataIndex, e);
+				}
+
+				importValueDataOneByOne(batch);
+			}
+		}
+		finally
+		{
+			batch.clearBatchData();
+		}
+	}
+
+	/**
+	 * 逐条导入{@linkplain ValueDataImportBatch}中尚未执行的批处理记录。
+	 * <p>
+	 * 这些记录在添加至批处理时已经处理过{@linkplain ValueDataImportListener#onSetNullColumnValue(DataIndex, String, Object, DataExchangeException)}，
+	 * 所以这里不会再次触发它。
+	 * </p>
+	 * 
+	 * @param batch
+	 * @throws DataExchangeException
+	 */
+	protected void importValueDataOneByOne(ValueDataImportBatch batch) throws DataExchangeException
+	{
+		Connection cn = batch.getConnection();
+		PreparedStatement st = batch.getStatement();
+		List<DataIndex> dataIndexes = batch.getBatchDataIndexes();
+		List<List<? extends Object>> columnValueses = batch.getBatchColumnValueses();
+		ExceptionResolve exceptionResolve = batch.getExceptionResolve();
+		ValueDataImportListener listener = batch.getListener();
+
+		int successCount = 0;
+
+		for (int i = 0, len = dataIndexes.size(); i < len; i++)
+		{
+			DataIndex dataIndex = dataIndexes.get(i);
+			DataExchangeException exception = null;
+
+			try
+			{
+				setImportParamValues(cn, st, batch.getColumns(), columnValueses.get(i), dataIndex,
+						batch.isNullForIllegalColumnValue(), batch.getDataFormatContext(), null);
+
+				executeImportPreparedStatement(st, dataIndex);
+			}
+			catch (Throwable t)
+			{
+				exception = wrapToDataExchangeException(t);
+			}
+
+			if (exception == null)
+			{
+				successCount++;
+
+				if (listener != null)
+					listener.onSuccess(dataIndex);
+			}
+			else if (ExceptionResolve.IGNORE.equals(exceptionResolve))
+			{
+				if (listener != null)
+					listener.onIgnore(dataIndex, exception);
+			}
+			else
+				throw exception;
+		}
+
+		if (batch.addUncommittedCount(successCount))
+			commitValueDataImportBatch(batch);
+	}
+
+	/**
+	 * 提交{@linkplain ValueDataImportBatch}已导入的记录。
+	 * 
+	 * @param batch
+	 * @throws DataExchangeException
+	 */
+	protected void commitValueDataImportBatch(ValueDataImportBatch batch) throws DataExchangeException
+	{
+		commit(batch.getConnection());
+		batch.resetUncommittedCount();
+	}
+
+	/**
+	 * 释放保存点，出现异常时将被忽略（某些驱动不支持释放保存点）。
+	 * 
+	 * @param cn
+	 * @param savepoint
+	 */
+	protected void releaseSavepointSilently(Connection cn, Savepoint savepoint)
+	{
+		if (savepoint == null)
+			return;
+
+		try
+		{
+			cn.releaseSavepoint(savepoint);
+		}
+		catch (Throwable t)
+		{
+		}
+	}
+
+	/**
+	 * 将导入SQL添加至批处理。
+	 * 
+	 * @param st
+	 * @param dataIndex
+	 * @throws ExecuteDataImportSqlException
+	 */
+	protected void addImportPreparedStatementBatch(PreparedStatement st, DataIndex dataIndex)
+			throws ExecuteDataImportSqlException
+	{
+		try
+		{
+			st.addBatch();
+		}
+		catch (SQLException e)
+		{
+			throw new ExecuteDataImportSqlException(dataIndex, e);
+		}
+	}
+
 	/**
 	 * 执行导入SQL。
 	 * 
@@ -62,14 +62,30 @@ public abstract class AbstractQuery extends JdbcSupport implements Query
 	 * @throws Throwable
 	 */
 	protected QueryResultSet executeQueryValidation(Connection cn, String sql) throws SqlValidationException, Throwable
+	{
+		return executeQueryValidation(cn, Sql.valueOf(sql));
+	}
+
+	/**
+	 * 执行查询，当{@linkplain #getSqlValidator()}不为{@code null}时，在查询前进行SQL校验。
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @return
+	 * @throws SqlValidationException
+	 * @throws Throwable
+	 */
+	protected QueryResultSet executeQueryValidation(Connection cn, Sql sql) throws SqlValidationException, Throwable
 	{
 		if (this.sqlValidator != null)
 		{
-			SqlValidation validation = this.sqlValidator.validate(sql, DatabaseProfile.valueOf(cn));
+			String sqlValue = sql.getSqlValue();
+
+			SqlValidation validation = this.sqlValidator.validate(sqlValue, DatabaseProfile.valueOf(cn));
 			if (!validation.isValid())
-				throw new SqlValidationException(sql, validation);
+				throw new SqlValidationException(sqlValue, validation);
 		}
 
-		return executeQuery(cn, Sql.valueOf(sql), ResultSet.TYPE_FORWARD_ONLY);
+		return executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY);
 	}
 }
@@ -18,12 +18,20 @@
 package org.datagear.dataexchange;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Types;
 
 import org.datagear.util.JdbcUtil;
 import org.datagear.util.QueryResultSet;
+import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 
 /**
  * 表{@linkplain Query}。
+ * <p>
+ * 如果设置了{@linkplain #getRangeColumn()}，将仅查询此列值在{@code [rangeStart, rangeEnd)}范围内的记录，
+ * {@code rangeStart}、{@code rangeEnd}为{@code null}表示不限制，参考{@linkplain TableQueryPartitioner}。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -32,6 +40,18 @@ public class TableQuery extends AbstractQuery
 {
 	private String table;
 
+	/** 范围列名 */
+	private String rangeColumn = null;
+
+	/** 范围起始值（包含），为{@code null}表示不限制 */
+	private Long rangeStart = null;
+
+	/** 范围结束值（不包含），为{@code null}表示不限制 */
+	private Long rangeEnd = null;
+
+	/** 是否也查询范围列值为{@code null}的记录 */
+	private boolean rangeNull = false;
+
 	public TableQuery()
 	{
 		super();
@@ -53,10 +73,137 @@ public class TableQuery extends AbstractQuery
 		this.table = table;
 	}
 
+	public boolean hasRangeColumn()
+	{
+		return (this.rangeColumn != null && !this.rangeColumn.isEmpty());
+	}
+
+	public String getRangeColumn()
+	{
+		return rangeColumn;
+	}
+
+	public void setRangeColumn(String rangeColumn)
+	{
+		this.rangeColumn = rangeColumn;
+	}
+
+	public Long getRangeStart()
+	{
+		return rangeStart;
+	}
+
+	public void setRangeStart(Long rangeStart)
+	{
+		this.rangeStart = rangeStart;
+	}
+
+	public Long getRangeEnd()
+	{
+		return rangeEnd;
+	}
+
+	public void setRangeEnd(Long rangeEnd)
+	{
+		this.rangeEnd = rangeEnd;
+	}
+
+	public boolean isRangeNull()
+	{
+		return rangeNull;
+	}
+
+	public void setRangeNull(boolean rangeNull)
+	{
+		this.rangeNull = rangeNull;
+	}
+
 	@Override
 	public QueryResultSet execute(Connection cn) throws Throwable
 	{
 		String sql = "SELECT * FROM " + JdbcUtil.quote(this.table, cn);
-		return executeQueryValidation(cn, sql);
+
+		if (!hasRangeColumn())
+			return executeQueryValidation(cn, sql);
+
+		return executeQueryValidation(cn, buildRangeQuery(cn, sql));
+	}
+
+	/**
+	 * 查询记录数。
+	 * <p>
+	 * 如果设置了{@linkplain #getRangeColumn()}，将仅统计范围内的记录。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @return
+	 * @throws Throwable
+	 */
+	public long executeCount(Connection cn) throws Throwable
+	{
+		String sql = "SELECT COUNT(*) FROM " + JdbcUtil.quote(this.table, cn);
+		QueryResultSet qrs = null;
+
+		try
+		{
+			qrs = executeQueryValidation(cn, (hasRangeColumn() ? buildRangeQuery(cn, sql) : Sql.valueOf(sql)));
+			ResultSet rs = qrs.getResultSet();
+
+			return (rs.next() ? rs.getLong(1) : 0);
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
+	}
+
+	/**
+	 * 构建范围查询SQL。
+	 * 
+	 * @param cn
+	 * @param sql
+	 *            不包含{@code WHERE}的查询语句
+	 * @return
+	 * @throws Throwable
+	 */
+	protected Sql buildRangeQuery(Connection cn, String sql) throws Throwable
+	{
+		String column = JdbcUtil.quote(this.rangeColumn, cn);
+		Sql query = Sql.valueOf(sql);
+		Sql condition = Sql.valueOf();
+
+		if (this.rangeStart != null)
+			condition.sql(column + " >= ?", SqlParamValue.valueOf(this.rangeStart, Types.BIGINT));
+
+		if (this.rangeEnd != null)
+		{
+			if (!condition.isEmpty())
+				condition.sql(" AND ");
+
+			condition.sql(column + " < ?", SqlParamValue.valueOf(this.rangeEnd, Types.BIGINT));
+		}
+
+		if (this.rangeNull)
+		{
+			if (condition.isEmpty())
+				condition.sql(column + " IS NULL");
+			else
+			{
+				Sql nullCondition = Sql.valueOf("(").sql(condition).sql(") OR ").sql(column + " IS NULL");
+				condition = nullCondition;
+			}
+		}
+
+		if (!condition.isEmpty())
+			query.sql(" WHERE ").sql(condition);
+
+		return query;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [table=" + table + ", rangeColumn=" + rangeColumn + ", rangeStart="
+				+ rangeStart + ", rangeEnd=" + rangeEnd + ", rangeNull=" + rangeNull + "]";
 	}
 }
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.dataexchange;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.datagear.meta.Column;
+import org.datagear.meta.PrimaryKey;
+import org.datagear.meta.Table;
+import org.datagear.meta.resolver.DBMetaResolver;
+import org.datagear.util.IOUtil;
+import org.datagear.util.JdbcSupport;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
+import org.datagear.util.Sql;
+
+/**
+ * {@linkplain TableQuery}分区器。
+ * <p>
+ * 它按照整数类型的主键列（或者指定的整数列）值范围，将一个{@linkplain TableQuery}拆分为多个互不重叠的范围{@linkplain TableQuery}，
+ * 使得它们可以在不同的数据库连接上并行执行。
+ * </p>
+ * <p>
+ * 返回的分区按照列值范围升序排列，第一个分区不限制起始值、最后一个分区不限制结束值，以包含查询分区之后新增的记录。
+ * 如果表不满足分区条件（比如没有单列整数主键、记录太少），将仅返回原{@linkplain TableQuery}。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class TableQueryPartitioner extends JdbcSupport
+{
+	/** 默认每个分区的最小列值跨度 */
+	public static final long DEFAULT_MIN_PARTITION_SIZE = 10000;
+
+	private DBMetaResolver dbMetaResolver;
+
+	/** 每个分区的最小列值跨度，避免拆分小表 */
+	private long minPartitionSize = DEFAULT_MIN_PARTITION_SIZE;
+
+	public TableQueryPartitioner()
+	{
+		super();
+	}
+
+	public TableQueryPartitioner(DBMetaResolver dbMetaResolver)
+	{
+		super();
+		this.dbMetaResolver = dbMetaResolver;
+	}
+
+	public DBMetaResolver getDbMetaResolver()
+	{
+		return dbMetaResolver;
+	}
+
+	public void setDbMetaResolver(DBMetaResolver dbMetaResolver)
+	{
+		this.dbMetaResolver = dbMetaResolver;
+	}
+
+	public long getMinPartitionSize()
+	{
+		return minPartitionSize;
+	}
+
+	public void setMinPartitionSize(long minPartitionSize)
+	{
+		this.minPartitionSize = minPartitionSize;
+	}
+
+	/**
+	 * 按照主键列拆分。
+	 * 
+	 * @param cn
+	 * @param query
+	 * @param partitionCount
+	 *            最大分区数
+	 * @return
+	 * @throws Throwable
+	 */
+	public List<TableQuery> partition(Connection cn, TableQuery query, int partitionCount) throws Throwable
+	{
+		return partition(cn, query, null, partitionCount);
+	}
+
+	/**
+	 * 按照指定列拆分。
+	 * 
+	 * @param cn
+	 * @param query
+	 * @param column
+	 *            整数类型的列名，为{@code null}时将使用单列整数主键
+	 * @param partitionCount
+	 *            最大分区数
+	 * @return
+	 * @throws Throwable
+	 */
+	public List<TableQuery> partition(Connection cn, TableQuery query, String column, int partitionCount)
+			throws Throwable
+	{
+		List<TableQuery> re = new ArrayList<TableQuery>();
+
+		if (partitionCount <= 1 || query.hasRangeColumn())
+		{
+			re.add(query);
+			return re;
+		}
+
+		Table table = this.dbMetaResolver.getTable(cn, query.getTable());
+		Column rangeColumn = getRangeColumn(table, column);
+
+		if (rangeColumn == null)
+		{
+			re.add(query);
+			return re;
+		}
+
+		long[] minMax = queryMinMax(cn, query.getTable(), rangeColumn.getName());
+
+		if (minMax == null)
+		{
+			re.add(query);
+			return re;
+		}
+
+		BigInteger min = BigInteger.valueOf(minMax[0]);
+		BigInteger span = BigInteger.valueOf(minMax[1]).subtract(min).add(BigInteger.ONE);
+		BigInteger count = span.divide(BigInteger.valueOf(Math.max(this.minPartitionSize, 1)))
+				.min(BigInteger.valueOf(partitionCount));
+
+		if (count.compareTo(BigInteger.ONE) <= 0)
+		{
+			re.add(query);
+			return re;
+		}
+
+		BigInteger size = new BigDecimal(span).divide(new BigDecimal(count), 0, RoundingMode.CEILING)
+				.toBigInteger();
+
+		for (int i = 0, len = count.intValue(); i < len; i++)
+		{
+			TableQuery partition = new TableQuery(query.getTable());
+			partition.setSqlValidator(query.getSqlValidator());
+			partition.setRangeColumn(rangeColumn.getName());
+			partition.setRangeStart(i == 0 ? null : min.add(size.multiply(BigInteger.valueOf(i))).longValue());
+			partition.setRangeEnd(i == len - 1 ? null : min.add(size.multiply(BigInteger.valueOf(i + 1))).longValue());
+			partition.setRangeNull(i == 0 && rangeColumn.isNullable());
+
+			re.add(partition);
+		}
+
+		return re;
+	}
+
+	/**
+	 * 获取用于分区的列。
+	 * <p>
+	 * 没有合适的列将返回{@code null}。
+	 * </p>
+	 * 
+	 * @param table
+	 * @param column
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected Column getRangeColumn(Table table, String column)
+	{
+		Column re = null;
+
+		if (column != null)
+		{
+			re = table.getColumn(column);
+		}
+		else
+		{
+			PrimaryKey primaryKey = table.getPrimaryKey();
+			String[] columnNames = (primaryKey == null ? null : primaryKey.getColumnNames());
+
+			if (columnNames != null && columnNames.length == 1)
+				re = table.getColumn(columnNames[0]);
+		}
+
+		if (re == null || !isIntegerColumn(re))
+			return null;
+
+		return re;
+	}
+
+	/**
+	 * 是否整数列。
+	 * 
+	 * @param column
+	 * @return
+	 */
+	protected boolean isIntegerColumn(Column column)
+	{
+		int type = column.getType();
+
+		if (type == Types.TINYINT || type == Types.SMALLINT || type == Types.INTEGER || type == Types.BIGINT)
+			return true;
+
+		if (type == Types.NUMERIC || type == Types.DECIMAL)
+			return (column.getDecimalDigits() == 0);
+
+		return false;
+	}
+
+	/**
+	 * 查询列的最小值、最大值。
+	 * <p>
+	 * 表为空、或者值超出{@code long}范围时，返回{@code null}。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param column
+	 * @return
+	 * @throws Throwable
+	 */
+	protected long[] queryMinMax(Connection cn, String table, String column) throws Throwable
+	{
+		String quoteColumn = JdbcUtil.quote(column, cn);
+		Sql sql = Sql.valueOf("SELECT MIN(" + quoteColumn + "), MAX(" + quoteColumn + ") FROM "
+				+ JdbcUtil.quote(table, cn));
+
+		QueryResultSet qrs = null;
+
+		try
+		{
+			qrs = executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY);
+			ResultSet rs = qrs.getResultSet();
+
+			if (!rs.next())
+				return null;
+
+			BigDecimal min = rs.getBigDecimal(1);
+			BigDecimal max = rs.getBigDecimal(2);
+
+			if (min == null || max == null)
+				return null;
+
+			try
+			{
+				return new long[] { min.longValueExact(), max.longValueExact() };
+			}
+			catch (ArithmeticException e)
+			{
+				return null;
+			}
+		}
+		finally
+		{
+			IOUtil.close(qrs);
+		}
+	}
+}
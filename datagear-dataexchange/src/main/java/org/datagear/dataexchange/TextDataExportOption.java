@@ -32,6 +32,15 @@ public class TextDataExportOption implements Serializable
 	/** 列值非法时设置为null */
 	private boolean nullForIllegalColumnValue = false;
 
+	/**
+	 * 表导出的分区数。
+	 * <p>
+	 * 大于{@code 1}时，对于{@linkplain TableQuery}，将由{@linkplain TableQueryPartitioner}按照主键值范围拆分为多个分区，
+	 * 各分区使用独立的数据库连接并行导出，再按照顺序合并至导出文件；否则，单线程导出。
+	 * </p>
+	 */
+	private int partitionCount = 1;
+
 	public TextDataExportOption()
 	{
 		super();
@@ -52,4 +61,14 @@ public class TextDataExportOption implements Serializable
 	{
 		this.nullForIllegalColumnValue = nullForIllegalColumnValue;
 	}
+
+	public int getPartitionCount()
+	{
+		return partitionCount;
+	}
+
+	public void setPartitionCount(int partitionCount)
+	{
+		this.partitionCount = partitionCount;
+	}
 }
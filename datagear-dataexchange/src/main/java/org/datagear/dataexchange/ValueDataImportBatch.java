@@ -0,0 +1,261 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.dataexchange;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.datagear.meta.Column;
+
+/**
+ * 值数据批量导入。
+ * <p>
+ * 它记录同一个导入{@linkplain PreparedStatement}的批处理状态：已添加至批处理但尚未执行的记录、尚未提交的记录数等，
+ * 由{@linkplain AbstractDevotedDataExchangeService#importValueData(ValueDataImportBatch, List, DataIndex)}、
+ * {@linkplain AbstractDevotedDataExchangeService#flushValueDataImportBatch(ValueDataImportBatch)}使用。
+ * </p>
+ * <p>
+ * 此类是非线程安全的。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ValueDataImportBatch
+{
+	private Connection connection;
+
+	private PreparedStatement statement;
+
+	private List<Column> columns;
+
+	/** 每批记录数，小于等于{@code 1}表示逐条导入 */
+	private int batchSize = 1;
+
+	/** 提交间隔记录数，小于等于{@code 0}表示不在导入过程中提交 */
+	private int commitInterval = 0;
+
+	private boolean nullForIllegalColumnValue;
+
+	private ExceptionResolve exceptionResolve;
+
+	private DataFormatContext dataFormatContext;
+
+	private ValueDataImportListener listener;
+
+	/** 已添加至批处理但尚未执行的记录索引 */
+	private List<DataIndex> batchDataIndexes = new ArrayList<DataIndex>();
+
+	/** 已添加至批处理但尚未执行的记录列值，用于批处理出错时逐条导入 */
+	private List<List<? extends Object>> batchColumnValueses = new ArrayList<List<? extends Object>>();
+
+	/** 尚未提交的记录数 */
+	private int uncommittedCount = 0;
+
+	public ValueDataImportBatch()
+	{
+		super();
+	}
+
+	public ValueDataImportBatch(Connection connection, PreparedStatement statement, List<Column> columns)
+	{
+		super();
+		this.connection = connection;
+		this.statement = statement;
+		this.columns = columns;
+	}
+
+	public Connection getConnection()
+	{
+		return connection;
+	}
+
+	public void setConnection(Connection connection)
+	{
+		this.connection = connection;
+	}
+
+	public PreparedStatement getStatement()
+	{
+		return statement;
+	}
+
+	public void setStatement(PreparedStatement statement)
+	{
+		this.statement = statement;
+	}
+
+	public List<Column> getColumns()
+	{
+		return columns;
+	}
+
+	public void setColumns(List<Column> columns)
+	{
+		this.columns = columns;
+	}
+
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
+	public int getCommitInterval()
+	{
+		return commitInterval;
+	}
+
+	public void setCommitInterval(int commitInterval)
+	{
+		this.commitInterval = commitInterval;
+	}
+
+	public boolean isNullForIllegalColumnValue()
+	{
+		return nullForIllegalColumnValue;
+	}
+
+	public void setNullForIllegalColumnValue(boolean nullForIllegalColumnValue)
+	{
+		this.nullForIllegalColumnValue = nullForIllegalColumnValue;
+	}
+
+	public ExceptionResolve getExceptionResolve()
+	{
+		return exceptionResolve;
+	}
+
+	public void setExceptionResolve(ExceptionResolve exceptionResolve)
+	{
+		this.exceptionResolve = exceptionResolve;
+	}
+
+	public DataFormatContext getDataFormatContext()
+	{
+		return dataFormatContext;
+	}
+
+	public void setDataFormatContext(DataFormatContext dataFormatContext)
+	{
+		this.dataFormatContext = dataFormatContext;
+	}
+
+	public ValueDataImportListener getListener()
+	{
+		return listener;
+	}
+
+	public void setListener(ValueDataImportListener listener)
+	{
+		this.listener = listener;
+	}
+
+	/**
+	 * 是否批处理导入。
+	 *
+	 * @return
+	 */
+	public boolean isBatch()
+	{
+		return (this.batchSize > 1);
+	}
+
+	/**
+	 * 添加一条已设置参数值并已{@linkplain PreparedStatement#addBatch()}的记录。
+	 *
+	 * @param dataIndex
+	 * @param columnValues
+	 */
+	public void addBatchData(DataIndex dataIndex, List<? extends Object> columnValues)
+	{
+		this.batchDataIndexes.add(dataIndex);
+		this.batchColumnValueses.add(columnValues);
+	}
+
+	/**
+	 * 获取尚未执行的批处理记录数。
+	 *
+	 * @return
+	 */
+	public int getBatchDataCount()
+	{
+		return this.batchDataIndexes.size();
+	}
+
+	/**
+	 * 尚未执行的批处理记录数是否已达到{@linkplain #getBatchSize()}。
+	 *
+	 * @return
+	 */
+	public boolean isBatchFull()
+	{
+		return (this.batchDataIndexes.size() >= this.batchSize);
+	}
+
+	public List<DataIndex> getBatchDataIndexes()
+	{
+		return batchDataIndexes;
+	}
+
+	public List<List<? extends Object>> getBatchColumnValueses()
+	{
+		return batchColumnValueses;
+	}
+
+	/**
+	 * 清除尚未执行的批处理记录。
+	 */
+	public void clearBatchData()
+	{
+		this.batchDataIndexes.clear();
+		this.batchColumnValueses.clear();
+	}
+
+	/**
+	 * 增加尚未提交的记录数。
+	 *
+	 * @param count
+	 * @return 是否应该提交
+	 */
+	public boolean addUncommittedCount(int count)
+	{
+		this.uncommittedCount += count;
+
+		return (this.commitInterval > 0 && this.uncommittedCount >= this.commitInterval);
+	}
+
+	/**
+	 * 重置尚未提交的记录数。
+	 */
+	public void resetUncommittedCount()
+	{
+		this.uncommittedCount = 0;
+	}
+
+	public int getUncommittedCount()
+	{
+		return uncommittedCount;
+	}
+}
@@ -42,6 +42,25 @@ public class ValueDataImportOption extends DataImportOption
 	 */
 	private boolean nullForEmptyImportKey = false;
 
+	/**
+	 * 批量导入的每批记录数。
+	 * <p>
+	 * 大于{@code 1}时，将使用JDBC批处理（{@linkplain java.sql.PreparedStatement#addBatch()}、
+	 * {@linkplain java.sql.PreparedStatement#executeBatch()}）执行导入，某批执行出错时，将回退至逐条导入该批记录，
+	 * 以准确定位出错记录；否则，逐条导入。
+	 * </p>
+	 */
+	private int batchSize = 1;
+
+	/**
+	 * 提交间隔记录数。
+	 * <p>
+	 * 大于{@code 0}时，每成功导入此数目的记录即提交一次事务，仅在{@linkplain #getExceptionResolve()}不是{@linkplain ExceptionResolve#ROLLBACK}时有效；
+	 * 否则，仅在导入完成后提交。
+	 * </p>
+	 */
+	private int commitInterval = 0;
+
 	public ValueDataImportOption()
 	{
 		super();
@@ -86,11 +105,32 @@ public class ValueDataImportOption extends DataImportOption
 		this.nullForEmptyImportKey = nullForEmptyImportKey;
 	}
 
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
+	public int getCommitInterval()
+	{
+		return commitInterval;
+	}
+
+	public void setCommitInterval(int commitInterval)
+	{
+		this.commitInterval = commitInterval;
+	}
+
 	@Override
 	public String toString()
 	{
 		return getClass().getSimpleName() + " [ignoreInexistentColumn=" + ignoreInexistentColumn
 				+ ", nullForIllegalColumnValue=" + nullForIllegalColumnValue + ", nullForEmptyImportKey="
-				+ nullForEmptyImportKey + ", exceptionResolve=" + getExceptionResolve() + "]";
+				+ nullForEmptyImportKey + ", batchSize=" + batchSize + ", commitInterval=" + commitInterval
+				+ ", exceptionResolve=" + getExceptionResolve() + "]";
 	}
 }
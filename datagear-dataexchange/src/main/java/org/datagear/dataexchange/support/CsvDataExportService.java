@@ -17,11 +17,13 @@
 
 package org.datagear.dataexchange.support;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
@@ -29,7 +31,9 @@ import org.datagear.dataexchange.AbstractDevotedDBMetaDataExchangeService;
 import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
+import org.datagear.dataexchange.Query;
 import org.datagear.dataexchange.RowDataIndex;
+import org.datagear.dataexchange.TableQuery;
 import org.datagear.dataexchange.TextDataExportListener;
 import org.datagear.dataexchange.TextDataExportOption;
 import org.datagear.meta.Column;
@@ -66,31 +70,120 @@ public class CsvDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 	{
 		IndexFormatDataExchangeContext exportContext = IndexFormatDataExchangeContext.cast(context);
 
-		TextDataExportListener listener = dataExchange.getListener();
-		TextDataExportOption exportOption = dataExchange.getExportOption();
-
 		Writer csvWriter = getResource(dataExchange.getWriterFactory(), exportContext);
 
 		Connection cn = exportContext.getConnection();
 		JdbcUtil.setReadonlyIfSupports(cn, true);
 
+		List<TableQuery> queries = partitionExportQuery(cn, dataExchange.getQuery(),
+				dataExchange.getExportOption().getPartitionCount());
+
+		if (queries.size() > 1)
+		{
+			exchangeForPartitions(dataExchange, exportContext, queries, csvWriter);
+			return;
+		}
+
 		QueryResultSet qrs = dataExchange.getQuery().execute(cn);
 		context.addContextCloseable(qrs);
 
 		ResultSet rs = qrs.getResultSet();
 
 		List<Column> columns = getColumns(cn, rs);
-		int columnCount = columns.size();
 
 		CSVPrinter csvPrinter = buildCSVPrinter(csvWriter);
 
 		writeColumns(csvPrinter, columns);
+		writeRecords(dataExchange, cn, columns, rs, csvPrinter, exportContext, new AtomicLong(0));
+	}
+
+	/**
+	 * 分区并行导出。
+	 * <p>
+	 * 第一个分区包含列名行，各分区导出完成后按序合并至{@code out}。
+	 * </p>
+	 * 
+	 * @param dataExchange
+	 * @param exportContext
+	 * @param queries
+	 * @param out
+	 * @throws Throwable
+	 */
+	protected void exchangeForPartitions(final CsvDataExport dataExchange,
+			IndexFormatDataExchangeContext exportContext, List<TableQuery> queries, Writer out) throws Throwable
+	{
+		final PartitionTextDataExportListener listener = new PartitionTextDataExportListener(
+				dataExchange.getListener());
+
+		List<File> files = exportPartitions(dataExchange, exportContext, queries, new PartitionExporter()
+		{
+			@Override
+			public void export(DataExchangeContext context, Query query, int partitionIndex, long rowOffset,
+					Writer out) throws Throwable
+			{
+				IndexFormatDataExchangeContext myContext = IndexFormatDataExchangeContext.cast(context);
+
+				CsvDataExport myExport = new CsvDataExport(dataExchange.getConnectionFactory(),
+						dataExchange.getDataFormat(), dataExchange.getExportOption(), query, null);
+				myExport.setListener(listener);
+
+				Connection cn = myContext.getConnection();
+				JdbcUtil.setReadonlyIfSupports(cn, true);
+
+				QueryResultSet qrs = query.execute(cn);
+				myContext.addContextCloseable(qrs);
+
+				ResultSet rs = qrs.getResultSet();
+				List<Column> columns = getColumns(cn, rs);
 
-		long row = 0;
+				CSVPrinter csvPrinter = buildCSVPrinter(out);
+
+				if (partitionIndex == 0)
+					writeColumns(csvPrinter, columns);
+
+				writeRecords(myExport, cn, columns, rs, csvPrinter, myContext,
+						new AtomicLong(rowOffset));
+
+				csvPrinter.flush();
+			}
+		});
+
+		try
+		{
+			for (File file : files)
+				writePartitionFile(file, out);
+		}
+		finally
+		{
+			deletePartitionFiles(files);
+		}
+	}
+
+	/**
+	 * 写记录。
+	 * 
+	 * @param dataExchange
+	 * @param cn
+	 * @param columns
+	 * @param rs
+	 * @param csvPrinter
+	 * @param exportContext
+	 * @param rowIndex
+	 *            记录索引计数器，分区导出时从分区的起始记录索引开始
+	 * @throws Throwable
+	 */
+	protected void writeRecords(CsvDataExport dataExchange, Connection cn, List<Column> columns, ResultSet rs,
+			CSVPrinter csvPrinter, IndexFormatDataExchangeContext exportContext, AtomicLong rowIndex)
+			throws Throwable
+	{
+		TextDataExportListener listener = dataExchange.getListener();
+		TextDataExportOption exportOption = dataExchange.getExportOption();
+
+		int columnCount = columns.size();
 
 		while (rs.next())
 		{
-			exportContext.setDataIndex(RowDataIndex.valueOf(row));
+			exportContext.setDataIndex(RowDataIndex.valueOf(rowIndex.getAndIncrement()));
 
 			for (int i = 0; i < columnCount; i++)
 			{
@@ -123,8 +216,6 @@ public class CsvDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 
 			if (listener != null)
 				listener.onSuccess(exportContext.getDataIndex());
-
-			row++;
 		}
 	}
 
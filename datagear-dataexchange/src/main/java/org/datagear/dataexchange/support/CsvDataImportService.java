@@ -32,6 +32,7 @@ import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
 import org.datagear.dataexchange.RowDataIndex;
+import org.datagear.dataexchange.ValueDataImportBatch;
 import org.datagear.dataexchange.ValueDataImportOption;
 import org.datagear.meta.Column;
 import org.datagear.meta.Table;
@@ -82,6 +83,7 @@ public class CsvDataImportService extends AbstractDevotedDBMetaDataExchangeServi
 		List<Boolean> nonNullImportKeyColumns = null;
 
 		PreparedStatement st = null;
+		ValueDataImportBatch importBatch = null;
 		CSVParser csvParser = buildCSVParser(csvReader);
 		long row = 0;
 
@@ -101,20 +103,23 @@ public class CsvDataImportService extends AbstractDevotedDBMetaDataExchangeServi
 
 				String sql = buildInsertPreparedSql(cn, tableName, nonNullColumns);
 				st = cn.prepareStatement(sql);
+				importBatch = createValueDataImportBatch(cn, st, nonNullColumns, importOption,
+						importContext.getDataFormatContext(), dataExchange.getListener());
 			}
 			else
 			{
 				List<String> columnValues = resolveCSVRecordValues(dataExchange, csvRecord, columns, nonNullColumns,
 						nonNullImportKeyColumns);
 
-				importValueData(cn, st, nonNullColumns, columnValues, importContext.getDataIndex(),
-						importOption.isNullForIllegalColumnValue(), importOption.getExceptionResolve(),
-						importContext.getDataFormatContext(), dataExchange.getListener());
+				importValueData(importBatch, columnValues, importContext.getDataIndex());
 			}
 
 			row++;
 		}
 
+		if (importBatch != null)
+			flushValueDataImportBatch(importBatch);
+
 		commit(cn);
 	}
 
@@ -55,6 +55,7 @@ import org.datagear.dataexchange.AbstractDevotedDBMetaDataExchangeService;
 import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
+import org.datagear.dataexchange.ValueDataImportBatch;
 import org.datagear.dataexchange.ValueDataImportOption;
 import org.datagear.meta.Column;
 import org.datagear.meta.Table;
@@ -63,7 +64,6 @@ import org.datagear.util.IOUtil;
 import org.datagear.util.JdbcUtil;
 import org.datagear.util.StringUtil;
 import org.xml.sax.Attributes;
-import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
@@ -133,11 +133,13 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		POIFSFileSystem poifs = new POIFSFileSystem(dataExchange.getFile(), true);
 
 		HSSFRequest req = new HSSFRequest();
-		req.addListenerForAllRecords(
-				new MissingRecordAwareHSSFListener(new XlsEventListener(dataExchange, importContext, cn)));
+		XlsEventListener listener = new XlsEventListener(dataExchange, importContext, cn);
+		req.addListenerForAllRecords(new MissingRecordAwareHSSFListener(listener));
 
 		HSSFEventFactory factory = new HSSFEventFactory();
 		factory.processWorkbookEvents(req, poifs);
+
+		listener.flushImportBatch();
 	}
 
 	/**
@@ -201,10 +203,12 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		InputSource sheetSource = new InputSource(sheetInputStream);
 
 		XMLReader sheetParser = XMLHelper.newXMLReader();
-		ContentHandler handler = new XlsxSheetHandler(dataExchange, importContext, cn, stylesTable, sharedStringsTable,
-				sheetName, sheetIndex);
+		XlsxSheetHandler handler = new XlsxSheetHandler(dataExchange, importContext, cn, stylesTable,
+				sharedStringsTable, sheetName, sheetIndex);
 		sheetParser.setContentHandler(handler);
 		sheetParser.parse(sheetSource);
+
+		handler.flushImportBatch();
 	}
 
 	protected <T> List<T> createListWithNullElements(int size)
@@ -266,6 +270,7 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		private List<Column> _nonNullColumns = null;
 		private List<Boolean> _nonNullImportKeyColumns = null;
 		private PreparedStatement _statement = null;
+		private ValueDataImportBatch _importBatch = null;
 
 		public XlsEventListener()
 		{
@@ -478,8 +483,14 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 					if (this._nonNullColumns == null || this._nonNullColumns.isEmpty())
 						throw new TableMismatchException(tableName);
 
+					// 切换sheet时，需先执行上一个sheet剩余的批处理记录
+					flushImportBatch();
+
 					String sql = buildInsertPreparedSqlUnchecked(this.connection, tableName, this._nonNullColumns);
 					this._statement = createPreparedStatementUnchecked(this.connection, sql);
+					this._importBatch = createValueDataImportBatch(this.connection, this._statement,
+							this._nonNullColumns, importOption, this.importContext.getDataFormatContext(),
+							this.excelDataImport.getListener());
 				}
 				// 导入数据
 				else
@@ -501,10 +512,8 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 
 						this.importContext.setDataIndex(ExcelDataIndex.valueOf(this._sheetIndex, this._rowIndex));
 
-						ExcelDataImportService.this.importValueData(this.connection, this._statement,
-								this._nonNullColumns, columnValues, this.importContext.getDataIndex(),
-								importOption.isNullForIllegalColumnValue(), importOption.getExceptionResolve(),
-								this.importContext.getDataFormatContext(), this.excelDataImport.getListener());
+						ExcelDataImportService.this.importValueData(this._importBatch, columnValues,
+								this.importContext.getDataIndex());
 					}
 				}
 
@@ -512,6 +521,15 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 				this._rowIndex++;
 			}
 		}
+
+		/**
+		 * 执行剩余的批处理记录。
+		 */
+		public void flushImportBatch()
+		{
+			if (this._importBatch != null)
+				flushValueDataImportBatch(this._importBatch);
+		}
 	}
 
 	/**
@@ -563,6 +581,7 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		private List<Column> _nonNullColumns = null;
 		private List<Boolean> _nonNullImportKeyColumns = null;
 		private PreparedStatement _statement = null;
+		private ValueDataImportBatch _importBatch = null;
 
 		public XlsxSheetHandler()
 		{
@@ -805,8 +824,14 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 					if (this._nonNullColumns == null || this._nonNullColumns.isEmpty())
 						throw new TableMismatchException(tableName);
 
+					// 切换sheet时，需先执行上一个sheet剩余的批处理记录
+					flushImportBatch();
+
 					String sql = buildInsertPreparedSqlUnchecked(this.connection, tableName, this._nonNullColumns);
 					this._statement = createPreparedStatementUnchecked(this.connection, sql);
+					this._importBatch = createValueDataImportBatch(this.connection, this._statement,
+							this._nonNullColumns, importOption, this.importContext.getDataFormatContext(),
+							this.excelDataImport.getListener());
 				}
 				// 导入数据
 				else
@@ -827,10 +852,8 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 						}
 						this.importContext.setDataIndex(ExcelDataIndex.valueOf(this.sheetIndex, this._rowIndex));
 
-						ExcelDataImportService.this.importValueData(this.connection, this._statement,
-								this._nonNullColumns, columnValues, this.importContext.getDataIndex(),
-								importOption.isNullForIllegalColumnValue(), importOption.getExceptionResolve(),
-								this.importContext.getDataFormatContext(), this.excelDataImport.getListener());
+						ExcelDataImportService.this.importValueData(this._importBatch, columnValues,
+								this.importContext.getDataIndex());
 					}
 				}
 
@@ -847,6 +870,15 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 				this._cellContents.append(new String(ch, start, length));
 		}
 
+		/**
+		 * 执行剩余的批处理记录。
+		 */
+		public void flushImportBatch()
+		{
+			if (this._importBatch != null)
+				flushValueDataImportBatch(this._importBatch);
+		}
+
 		/**
 		 * 参考{@code org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.isTextTag(String)}。
 		 * 
@@ -17,6 +17,9 @@
 
 package org.datagear.dataexchange.support;
 
+import java.io.File;
+import java.io.FilterWriter;
+import java.io.IOException;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -28,6 +31,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.json.Json;
 import javax.json.stream.JsonGenerator;
@@ -38,7 +42,9 @@ import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.DataFormatContext;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
+import org.datagear.dataexchange.Query;
 import org.datagear.dataexchange.RowDataIndex;
+import org.datagear.dataexchange.TableQuery;
 import org.datagear.dataexchange.TextDataExportListener;
 import org.datagear.meta.Column;
 import org.datagear.meta.resolver.DBMetaResolver;
@@ -90,6 +96,15 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 		Connection cn = context.getConnection();
 		JdbcUtil.setReadonlyIfSupports(cn, true);
 
+		List<TableQuery> queries = partitionExportQuery(cn, dataExchange.getQuery(),
+				dataExchange.getExportOption().getPartitionCount());
+
+		if (queries.size() > 1)
+		{
+			exchangeForPartitions(dataExchange, exportContext, queries, jsonWriter);
+			return;
+		}
+
 		QueryResultSet qrs = dataExchange.getQuery().execute(cn);
 		context.addContextCloseable(qrs);
 
@@ -99,6 +114,92 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 		writeRecords(dataExchange, cn, columns, rs, jsonWriter, exportContext);
 	}
 
+	/**
+	 * 分区并行导出。
+	 * <p>
+	 * 各分区的临时文件仅包含记录对象，导出完成后按序合并至{@code out}的记录数组中。
+	 * </p>
+	 * 
+	 * @param dataExchange
+	 * @param exportContext
+	 * @param queries
+	 * @param out
+	 * @throws Throwable
+	 */
+	protected void exchangeForPartitions(final JsonDataExport dataExchange,
+			IndexFormatDataExchangeContext exportContext, List<TableQuery> queries, Writer out) throws Throwable
+	{
+		final PartitionTextDataExportListener listener = new PartitionTextDataExportListener(
+				dataExchange.getListener());
+		final long[] rowCounts = new long[queries.size()];
+
+		List<File> files = exportPartitions(dataExchange, exportContext, queries, new PartitionExporter()
+		{
+			@Override
+			public void export(DataExchangeContext context, Query query, int partitionIndex, long rowOffset,
+					Writer out) throws Throwable
+			{
+				IndexFormatDataExchangeContext myContext = IndexFormatDataExchangeContext.cast(context);
+
+				JsonDataExport myExport = new JsonDataExport(dataExchange.getConnectionFactory(),
+						dataExchange.getDataFormat(), dataExchange.getExportOption(), query, null,
+						dataExchange.getTableName());
+				myExport.setListener(listener);
+
+				Connection cn = myContext.getConnection();
+				JdbcUtil.setReadonlyIfSupports(cn, true);
+
+				QueryResultSet qrs = query.execute(cn);
+				myContext.addContextCloseable(qrs);
+
+				ResultSet rs = qrs.getResultSet();
+				List<Column> columns = getColumns(cn, rs);
+
+				// 生成器需先写开始内容以进入记录数组上下文，但开始内容不写入分区文件，
+				// 从而使分区中的记录对象与单线程导出时的格式（包括美化输出的换行、缩进）一致
+				PartitionWriter partitionOut = new PartitionWriter(out);
+				JsonGenerator generator = createJsonGenerator(myExport, partitionOut);
+
+				writeStart(myExport, generator);
+				generator.flush();
+				partitionOut.setSkip(false);
+
+				rowCounts[partitionIndex] = writeRecords(myExport, cn, columns, rs, generator, myContext,
+						new AtomicLong(rowOffset));
+				generator.flush();
+			}
+		});
+
+		try
+		{
+			JsonGenerator generator = createJsonGenerator(dataExchange, out);
+			writeStart(dataExchange, generator);
+			generator.flush();
+
+			boolean first = true;
+
+			for (int i = 0, len = files.size(); i < len; i++)
+			{
+				if (rowCounts[i] == 0)
+					continue;
+
+				// 生成器在每个记录对象之前写入换行、缩进（如果美化输出），因此分区之间仅需写入逗号分隔符
+				if (!first)
+					out.write(',');
+
+				writePartitionFile(files.get(i), out);
+				first = false;
+			}
+
+			writeEnd(dataExchange, generator);
+			generator.flush();
+		}
+		finally
+		{
+			deletePartitionFiles(files);
+		}
+	}
+
 	/**
 	 * 写记录。
 	 * 
@@ -112,14 +213,38 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 	protected void writeRecords(JsonDataExport dataExchange, Connection cn, List<Column> columns, ResultSet rs,
 			Writer out, IndexFormatDataExchangeContext exportContext) throws Throwable
 	{
-		TextDataExportListener listener = dataExchange.getListener();
-		JsonDataExportOption exportOption = dataExchange.getExportOption();
-		JsonDataFormat jsonDataFormat = exportOption.getJsonDataFormat();
+		JsonGenerator generator = createJsonGenerator(dataExchange, out);
 
-		int columnCount = columns.size();
+		writeStart(dataExchange, generator);
+		writeRecords(dataExchange, cn, columns, rs, generator, exportContext, new AtomicLong(0));
+		writeEnd(dataExchange, generator);
 
-		JsonGenerator generator = (exportOption.isPrettyPrint() ? FACTORY_PRETTY_PRINT.createGenerator(out)
+		generator.flush();
+	}
+
+	/**
+	 * 创建{@linkplain JsonGenerator}。
+	 * 
+	 * @param dataExchange
+	 * @param out
+	 * @return
+	 */
+	protected JsonGenerator createJsonGenerator(JsonDataExport dataExchange, Writer out)
+	{
+		return (dataExchange.getExportOption().isPrettyPrint() ? FACTORY_PRETTY_PRINT.createGenerator(out)
 				: FACTORY.createGenerator(out));
+	}
+
+	/**
+	 * 写记录数组之前的内容。
+	 * 
+	 * @param dataExchange
+	 * @param generator
+	 * @throws DataExchangeException
+	 */
+	protected void writeStart(JsonDataExport dataExchange, JsonGenerator generator) throws DataExchangeException
+	{
+		JsonDataFormat jsonDataFormat = dataExchange.getExportOption().getJsonDataFormat();
 
 		if (JsonDataFormat.TABLE_OBJECT.equals(jsonDataFormat))
 		{
@@ -133,12 +258,58 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 		{
 			generator.writeStartArray();
 		}
+	}
+
+	/**
+	 * 写记录数组之后的内容。
+	 * 
+	 * @param dataExchange
+	 * @param generator
+	 */
+	protected void writeEnd(JsonDataExport dataExchange, JsonGenerator generator)
+	{
+		JsonDataFormat jsonDataFormat = dataExchange.getExportOption().getJsonDataFormat();
+
+		if (JsonDataFormat.TABLE_OBJECT.equals(jsonDataFormat))
+		{
+			generator.writeEnd();
+			generator.writeEnd();
+		}
+		else
+		{
+			generator.writeEnd();
+		}
+	}
+
+	/**
+	 * 写记录对象。
+	 * 
+	 * @param dataExchange
+	 * @param cn
+	 * @param columns
+	 * @param rs
+	 * @param generator
+	 * @param exportContext
+	 * @param rowIndex
+	 *            记录索引计数器，分区导出时从分区的起始记录索引开始
+	 * @return 写入的记录数
+	 * @throws Throwable
+	 */
+	protected long writeRecords(JsonDataExport dataExchange, Connection cn, List<Column> columns, ResultSet rs,
+			JsonGenerator generator, IndexFormatDataExchangeContext exportContext, AtomicLong rowIndex)
+			throws Throwable
+	{
+		TextDataExportListener listener = dataExchange.getListener();
+		JsonDataExportOption exportOption = dataExchange.getExportOption();
+		JsonDataFormat jsonDataFormat = exportOption.getJsonDataFormat();
+
+		int columnCount = columns.size();
 
 		long row = 0;
 
 		while (rs.next())
 		{
-			exportContext.setDataIndex(RowDataIndex.valueOf(row));
+			exportContext.setDataIndex(RowDataIndex.valueOf(rowIndex.getAndIncrement()));
 
 			generator.writeStartObject();
 
@@ -158,17 +329,7 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 			row++;
 		}
 
-		if (JsonDataFormat.TABLE_OBJECT.equals(jsonDataFormat))
-		{
-			generator.writeEnd();
-			generator.writeEnd();
-		}
-		else
-		{
-			generator.writeEnd();
-		}
-
-		generator.flush();
+		return row;
 	}
 
 	/**
@@ -277,4 +438,54 @@ public class JsonDataExportService extends AbstractDevotedDBMetaDataExchangeServ
 				throw t;
 		}
 	}
+
+	/**
+	 * 分区输出流。
+	 * <p>
+	 * 在{@linkplain #isSkip()}为{@code true}时，它将忽略所有写入的内容。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class PartitionWriter extends FilterWriter
+	{
+		private boolean skip = true;
+
+		public PartitionWriter(Writer out)
+		{
+			super(out);
+		}
+
+		public boolean isSkip()
+		{
+			return skip;
+		}
+
+		public void setSkip(boolean skip)
+		{
+			this.skip = skip;
+		}
+
+		@Override
+		public void write(int c) throws IOException
+		{
+			if (!this.skip)
+				super.write(c);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException
+		{
+			if (!this.skip)
+				super.write(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException
+		{
+			if (!this.skip)
+				super.write(str, off, len);
+		}
+	}
 }
@@ -36,6 +36,7 @@ import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
 import org.datagear.dataexchange.RowColumnDataIndex;
+import org.datagear.dataexchange.ValueDataImportBatch;
 import org.datagear.meta.Column;
 import org.datagear.meta.Table;
 import org.datagear.meta.resolver.DBMetaResolver;
@@ -190,6 +191,7 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 
 		PreparedStatement prevSt = null;
 		List<Column> prevColumns = null;
+		ValueDataImportBatch prevImportBatch = null;
 
 		while (p.hasNext())
 		{
@@ -224,20 +226,26 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 
 				if (newSql)
 				{
+					if (prevImportBatch != null)
+						flushValueDataImportBatch(prevImportBatch);
+
 					JdbcUtil.closeStatement(prevSt);
 
 					String sql = buildInsertPreparedSql(cn, table.getName(), myColumns);
 
 					prevSt = cn.prepareStatement(sql);
 					prevColumns = myColumns;
+					prevImportBatch = createValueDataImportBatch(cn, prevSt, prevColumns, importOption,
+							context.getDataFormatContext(), dataExchange.getListener());
 				}
 
-				importValueData(cn, prevSt, prevColumns, myColumnValues, context.getDataIndex(),
-						importOption.isNullForIllegalColumnValue(), importOption.getExceptionResolve(),
-						context.getDataFormatContext(), dataExchange.getListener());
+				importValueData(prevImportBatch, myColumnValues, context.getDataIndex());
 			}
 		}
 
+		if (prevImportBatch != null)
+			flushValueDataImportBatch(prevImportBatch);
+
 		JdbcUtil.closeStatement(prevSt);
 	}
 
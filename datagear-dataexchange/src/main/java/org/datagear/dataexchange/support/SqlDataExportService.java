@@ -17,17 +17,21 @@
 
 package org.datagear.dataexchange.support;
 
+import java.io.File;
 import java.io.Writer;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.datagear.dataexchange.AbstractDevotedDBMetaDataExchangeService;
 import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
+import org.datagear.dataexchange.Query;
 import org.datagear.dataexchange.RowDataIndex;
+import org.datagear.dataexchange.TableQuery;
 import org.datagear.dataexchange.TextDataExportListener;
 import org.datagear.meta.Column;
 import org.datagear.meta.PrimaryKey;
@@ -72,6 +76,15 @@ public class SqlDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 		Connection cn = context.getConnection();
 		JdbcUtil.setReadonlyIfSupports(cn, true);
 
+		List<TableQuery> queries = partitionExportQuery(cn, dataExchange.getQuery(),
+				dataExchange.getExportOption().getPartitionCount());
+
+		if (queries.size() > 1)
+		{
+			exchangeForPartitions(dataExchange, exportContext, queries, sqlWriter);
+			return;
+		}
+
 		QueryResultSet qrs = dataExchange.getQuery().execute(cn);
 		context.addContextCloseable(qrs);
 
@@ -81,6 +94,66 @@ public class SqlDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 		writeRecords(dataExchange, cn, columns, rs, sqlWriter, exportContext);
 	}
 
+	/**
+	 * 分区并行导出。
+	 * <p>
+	 * 第一个分区包含建表语句（如果需要），各分区导出完成后按序合并至{@code out}。
+	 * </p>
+	 * 
+	 * @param dataExchange
+	 * @param exportContext
+	 * @param queries
+	 * @param out
+	 * @throws Throwable
+	 */
+	protected void exchangeForPartitions(final SqlDataExport dataExchange,
+			IndexFormatDataExchangeContext exportContext, List<TableQuery> queries, Writer out) throws Throwable
+	{
+		final PartitionTextDataExportListener listener = new PartitionTextDataExportListener(
+				dataExchange.getListener());
+
+		List<File> files = exportPartitions(dataExchange, exportContext, queries, new PartitionExporter()
+		{
+			@Override
+			public void export(DataExchangeContext context, Query query, int partitionIndex, long rowOffset,
+					Writer out) throws Throwable
+			{
+				IndexFormatDataExchangeContext myContext = IndexFormatDataExchangeContext.cast(context);
+
+				SqlDataExport myExport = new SqlDataExport(dataExchange.getConnectionFactory(),
+						dataExchange.getDataFormat(), dataExchange.getExportOption(), query,
+						dataExchange.getTableName(), null);
+				myExport.setListener(listener);
+
+				Connection cn = myContext.getConnection();
+				JdbcUtil.setReadonlyIfSupports(cn, true);
+
+				QueryResultSet qrs = query.execute(cn);
+				myContext.addContextCloseable(qrs);
+
+				ResultSet rs = qrs.getResultSet();
+				List<Column> columns = getColumns(cn, rs);
+
+				boolean creationSql = (partitionIndex == 0 && myExport.getExportOption().isExportCreationSql());
+
+				writeRecords(myExport, cn, columns, rs, out, myContext, creationSql,
+						new AtomicLong(rowOffset));
+
+				out.flush();
+			}
+		});
+
+		try
+		{
+			for (File file : files)
+				writePartitionFile(file, out);
+		}
+		finally
+		{
+			deletePartitionFiles(files);
+		}
+	}
+
 	/**
 	 * 写记录。
 	 * 
@@ -93,6 +166,28 @@ public class SqlDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 	 */
 	protected void writeRecords(SqlDataExport dataExchange, Connection cn, List<Column> columns, ResultSet rs,
 			Writer out, IndexFormatDataExchangeContext exportContext) throws Throwable
+	{
+		writeRecords(dataExchange, cn, columns, rs, out, exportContext,
+				dataExchange.getExportOption().isExportCreationSql(), new AtomicLong(0));
+	}
+
+	/**
+	 * 写记录。
+	 * 
+	 * @param dataExchange
+	 * @param cn
+	 * @param columns
+	 * @param rs
+	 * @param out
+	 * @param exportContext
+	 * @param creationSql
+	 *            是否写建表语句
+	 * @param rowIndex
+	 *            记录索引计数器，分区导出时从分区的起始记录索引开始
+	 */
+	protected void writeRecords(SqlDataExport dataExchange, Connection cn, List<Column> columns, ResultSet rs,
+			Writer out, IndexFormatDataExchangeContext exportContext, boolean creationSql, AtomicLong rowIndex)
+			throws Throwable
 	{
 		TextDataExportListener listener = dataExchange.getListener();
 		SqlDataExportOption exportOption = dataExchange.getExportOption();
@@ -102,14 +197,12 @@ public class SqlDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 		String quote = metaData.getIdentifierQuoteString();
 		String tableNameQuote = JdbcUtil.quoteIfNon(dataExchange.getTableName(), quote);
 
-		if (exportOption.isExportCreationSql())
+		if (creationSql)
 			writeCreationSql(dataExchange, cn, columns, rs, quote, out, exportContext);
 
-		long row = 0;
-
 		while (rs.next())
 		{
-			exportContext.setDataIndex(RowDataIndex.valueOf(row));
+			exportContext.setDataIndex(RowDataIndex.valueOf(rowIndex.getAndIncrement()));
 
 			out.write("INSERT INTO ");
 			out.write(tableNameQuote);
@@ -174,8 +267,6 @@ public class SqlDataExportService extends AbstractDevotedDBMetaDataExchangeServi
 
 			if (listener != null)
 				listener.onSuccess(exportContext.getDataIndex());
-
-			row++;
 		}
 	}
 
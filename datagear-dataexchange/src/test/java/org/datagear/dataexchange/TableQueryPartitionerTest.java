@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.dataexchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain TableQueryPartitioner}、{@linkplain TableQuery}范围查询单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class TableQueryPartitionerTest extends DataexchangeTestSupport
+{
+	private Connection connection;
+
+	@Before
+	public void init() throws Exception
+	{
+		this.connection = getConnection();
+
+		clearTable(this.connection, TABLE_NAME_DATA_EXPORT);
+
+		Statement st = null;
+
+		try
+		{
+			st = this.connection.createStatement();
+
+			for (int i = 1; i <= 10; i++)
+				st.executeUpdate("INSERT INTO " + TABLE_NAME_DATA_EXPORT + "(ID, NAME) VALUES(" + i + ", 'NAME-" + i
+						+ "')");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+		}
+	}
+
+	@After
+	public void destroy() throws Exception
+	{
+		clearTable(this.connection, TABLE_NAME_DATA_EXPORT);
+		JdbcUtil.closeConnection(this.connection);
+	}
+
+	@Test
+	public void partitionTest() throws Throwable
+	{
+		TableQueryPartitioner partitioner = new TableQueryPartitioner(this.dbMetaResolver);
+		partitioner.setMinPartitionSize(1);
+
+		List<TableQuery> partitions = partitioner.partition(this.connection, new TableQuery(TABLE_NAME_DATA_EXPORT),
+				3);
+
+		assertEquals(3, partitions.size());
+
+		// 列值范围[1, 10]，每个分区跨度为4
+		assertNull(partitions.get(0).getRangeStart());
+		assertEquals(Long.valueOf(5), partitions.get(0).getRangeEnd());
+		assertEquals(Long.valueOf(5), partitions.get(1).getRangeStart());
+		assertEquals(Long.valueOf(9), partitions.get(1).getRangeEnd());
+		assertEquals(Long.valueOf(9), partitions.get(2).getRangeStart());
+		assertNull(partitions.get(2).getRangeEnd());
+
+		// 主键不可为null
+		assertFalse(partitions.get(0).isRangeNull());
+
+		assertEquals(Arrays.asList(1, 2, 3, 4), queryIds(partitions.get(0)));
+		assertEquals(Arrays.asList(5, 6, 7, 8), queryIds(partitions.get(1)));
+		assertEquals(Arrays.asList(9, 10), queryIds(partitions.get(2)));
+
+		assertEquals(4, partitions.get(0).executeCount(this.connection));
+		assertEquals(4, partitions.get(1).executeCount(this.connection));
+		assertEquals(2, partitions.get(2).executeCount(this.connection));
+	}
+
+	@Test
+	public void partitionTest_notPartitioned() throws Throwable
+	{
+		TableQueryPartitioner partitioner = new TableQueryPartitioner(this.dbMetaResolver);
+
+		// 分区数不大于1
+		{
+			TableQuery query = new TableQuery(TABLE_NAME_DATA_EXPORT);
+			List<TableQuery> partitions = partitioner.partition(this.connection, query, 1);
+
+			assertEquals(1, partitions.size());
+			assertSame(query, partitions.get(0));
+		}
+
+		// 列值跨度小于最小分区跨度
+		{
+			TableQuery query = new TableQuery(TABLE_NAME_DATA_EXPORT);
+			List<TableQuery> partitions = partitioner.partition(this.connection, query, 3);
+
+			assertEquals(1, partitions.size());
+			assertSame(query, partitions.get(0));
+		}
+
+		// 没有单列整数主键
+		{
+			partitioner.setMinPartitionSize(1);
+
+			TableQuery query = new TableQuery(TABLE_NAME_UNSIGNED_NUMBER);
+			List<TableQuery> partitions = partitioner.partition(this.connection, query, 3);
+
+			assertEquals(1, partitions.size());
+			assertSame(query, partitions.get(0));
+		}
+	}
+
+	@Test
+	public void executeTest_range() throws Throwable
+	{
+		TableQuery query = new TableQuery(TABLE_NAME_DATA_EXPORT);
+		query.setRangeColumn("ID");
+
+		assertEquals(10, queryIds(query).size());
+		assertEquals(10, query.executeCount(this.connection));
+
+		query.setRangeStart(3L);
+		query.setRangeEnd(6L);
+
+		assertEquals(Arrays.asList(3, 4, 5), queryIds(query));
+		assertEquals(3, query.executeCount(this.connection));
+
+		query.setRangeStart(null);
+		query.setRangeEnd(3L);
+
+		assertEquals(Arrays.asList(1, 2), queryIds(query));
+
+		query.setRangeStart(9L);
+		query.setRangeEnd(null);
+
+		assertEquals(Arrays.asList(9, 10), queryIds(query));
+		assertEquals(2, query.executeCount(this.connection));
+	}
+
+	protected List<Integer> queryIds(TableQuery query) throws Throwable
+	{
+		List<Integer> ids = new ArrayList<Integer>();
+		QueryResultSet qrs = null;
+
+		try
+		{
+			qrs = query.execute(this.connection);
+			ResultSet rs = qrs.getResultSet();
+
+			while (rs.next())
+				ids.add(rs.getInt("ID"));
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
+
+		ids.sort(null);
+
+		return ids;
+	}
+}
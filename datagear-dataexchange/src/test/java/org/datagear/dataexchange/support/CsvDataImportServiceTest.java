@@ -19,6 +19,8 @@ package org.datagear.dataexchange.support;
 
 import java.io.Reader;
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.datagear.dataexchange.ColumnNotFoundException;
@@ -28,6 +30,7 @@ import org.datagear.dataexchange.DataIndex;
 import org.datagear.dataexchange.DataexchangeTestSupport;
 import org.datagear.dataexchange.ExceptionResolve;
 import org.datagear.dataexchange.IllegalImportSourceValueException;
+import org.datagear.dataexchange.RowDataIndex;
 import org.datagear.dataexchange.ValueDataImportOption;
 import org.datagear.util.IOUtil;
 import org.datagear.util.JdbcUtil;
@@ -191,6 +194,69 @@ public class CsvDataImportServiceTest extends DataexchangeTestSupport
 		}
 	}
 
+	@Test
+	public void exchangeTest_batch_ExceptionResolve_ignore() throws Exception
+	{
+		DataFormat dataFormat = new DataFormat();
+
+		Connection cn = null;
+		Reader reader = null;
+
+		try
+		{
+			cn = getConnection();
+
+			ResourceFactory<Reader> readerFactory = getTestReaderResourceFactory(
+					"support/CsvDataImportServiceTest_batch.csv");
+
+			final AtomicInteger successCount = new AtomicInteger(0);
+			final List<Long> ignoreRows = new ArrayList<Long>();
+
+			ValueDataImportOption valueDataImportOption = new ValueDataImportOption(ExceptionResolve.IGNORE, true,
+					false, true);
+			valueDataImportOption.setBatchSize(2);
+			valueDataImportOption.setCommitInterval(2);
+
+			CsvDataImport impt = new CsvDataImport(new SimpleConnectionFactory(cn, false), dataFormat,
+					valueDataImportOption, TABLE_NAME_DATA_IMPORT, readerFactory);
+
+			impt.setListener(new MockValueDataImportListener()
+			{
+				@Override
+				public void onSuccess(DataIndex dataIndex)
+				{
+					super.onSuccess(dataIndex);
+					successCount.incrementAndGet();
+				}
+
+				@Override
+				public void onIgnore(DataIndex dataIndex, DataExchangeException e)
+				{
+					super.onIgnore(dataIndex, e);
+					ignoreRows.add(((RowDataIndex) dataIndex).getRow());
+				}
+			});
+
+			clearTable(cn, TABLE_NAME_DATA_IMPORT);
+
+			this.csvDataImportService.exchange(impt);
+
+			int count = getCount(cn, TABLE_NAME_DATA_IMPORT);
+
+			Assert.assertEquals(4, count);
+			Assert.assertEquals(4, successCount.intValue());
+			Assert.assertEquals(2, ignoreRows.size());
+			// 主键重复的记录在批处理出错后逐条导入时才被定位
+			Assert.assertTrue(ignoreRows.contains(4L));
+			Assert.assertTrue(ignoreRows.contains(5L));
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+			IOUtil.close(reader);
+		}
+	}
+
 	@Test
 	public void exchangeTest_ExceptionResolve_abort() throws Exception
 	{
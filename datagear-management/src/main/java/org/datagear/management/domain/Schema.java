@@ -20,8 +20,10 @@ package org.datagear.management.domain;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Properties;
 
 import org.datagear.analysis.support.JsonSupport;
+import org.datagear.connection.ConnectionPoolOption;
 import org.datagear.connection.DriverEntity;
 import org.datagear.util.StringUtil;
 import org.springframework.beans.BeanUtils;
@@ -83,7 +85,7 @@ public class Schema extends AbstractStringIdEntity
 	/** 数据库驱动程序路径名 */
 	private DriverEntity driverEntity = null;
 	
-	/**属性列表*/
+	/**属性列表，其中以{@linkplain ConnectionPoolOption#PROPERTY_NAME_PREFIX}为前缀的属性是连接池选项*/
 	private List<SchemaProperty> properties = null;
 
 	/** 权限 */
@@ -251,6 +253,32 @@ public class Schema extends AbstractStringIdEntity
 		}
 	}
 
+	/**
+	 * 获取连接池选项。
+	 * <p>
+	 * 连接池选项由{@linkplain #getProperties()}中以{@linkplain ConnectionPoolOption#PROPERTY_NAME_PREFIX}为前缀的属性定义，
+	 * 比如：{@code datagear.pool.maxTotal}、{@code datagear.pool.maxWaitMillis}。
+	 * </p>
+	 * 
+	 * @return 没有定义时返回{@code null}
+	 */
+	@JsonIgnore
+	public ConnectionPoolOption getPoolOption()
+	{
+		if (this.properties == null)
+			return null;
+
+		Properties poolProperties = new Properties();
+
+		for (SchemaProperty sp : this.properties)
+		{
+			if (ConnectionPoolOption.isPoolPropertyName(sp.getName()) && sp.getValue() != null)
+				poolProperties.put(sp.getName(), sp.getValue());
+		}
+
+		return (poolProperties.isEmpty() ? null : ConnectionPoolOption.valueOf(poolProperties));
+	}
+
 	@Override
 	public Schema clone()
 	{
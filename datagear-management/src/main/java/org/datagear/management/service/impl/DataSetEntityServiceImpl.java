@@ -27,9 +27,14 @@ import org.apache.ibatis.session.SqlSessionFactory;
 import org.datagear.analysis.DataSet;
 import org.datagear.analysis.DataSetParam;
 import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.support.AbstractDataSet;
+import org.datagear.analysis.support.AbstractResolvableDataSet;
 import org.datagear.analysis.support.AbstractResolvableResourceDataSet;
 import org.datagear.analysis.support.DataFormat;
+import org.datagear.analysis.support.DataSetPropertyExpEvaluator;
+import org.datagear.analysis.support.DataSetQueryCoalescer;
 import org.datagear.analysis.support.ProfileDataSet;
+import org.datagear.analysis.support.SqlDataSetResultCache;
 import org.datagear.connection.ConnectionSource;
 import org.datagear.management.domain.AnalysisProject;
 import org.datagear.management.domain.AnalysisProjectAwareEntity;
@@ -95,6 +100,16 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 
 	private SqlValidator sqlDataSetSqlValidator;
 
+	private SqlDataSetResultCache sqlDataSetResultCache = null;
+
+	/** SQL数据集结果缓存有效毫秒数，小于等于{@code 0}表示不缓存 */
+	private long sqlDataSetResultCacheTtl = 0;
+
+	private DataSetQueryCoalescer dataSetQueryCoalescer = null;
+
+	/** 数据集属性表达式计算器，为{@code null}时数据集使用{@linkplain DataSetPropertyExpEvaluator#DEFAULT} */
+	private DataSetPropertyExpEvaluator dataSetPropertyExpEvaluator = null;
+
 	public DataSetEntityServiceImpl()
 	{
 		super();
@@ -236,6 +251,46 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		this.sqlDataSetSqlValidator = sqlDataSetSqlValidator;
 	}
 
+	public SqlDataSetResultCache getSqlDataSetResultCache()
+	{
+		return sqlDataSetResultCache;
+	}
+
+	public void setSqlDataSetResultCache(SqlDataSetResultCache sqlDataSetResultCache)
+	{
+		this.sqlDataSetResultCache = sqlDataSetResultCache;
+	}
+
+	public long getSqlDataSetResultCacheTtl()
+	{
+		return sqlDataSetResultCacheTtl;
+	}
+
+	public void setSqlDataSetResultCacheTtl(long sqlDataSetResultCacheTtl)
+	{
+		this.sqlDataSetResultCacheTtl = sqlDataSetResultCacheTtl;
+	}
+
+	public DataSetQueryCoalescer getDataSetQueryCoalescer()
+	{
+		return dataSetQueryCoalescer;
+	}
+
+	public void setDataSetQueryCoalescer(DataSetQueryCoalescer dataSetQueryCoalescer)
+	{
+		this.dataSetQueryCoalescer = dataSetQueryCoalescer;
+	}
+
+	public DataSetPropertyExpEvaluator getDataSetPropertyExpEvaluator()
+	{
+		return dataSetPropertyExpEvaluator;
+	}
+
+	public void setDataSetPropertyExpEvaluator(DataSetPropertyExpEvaluator dataSetPropertyExpEvaluator)
+	{
+		this.dataSetPropertyExpEvaluator = dataSetPropertyExpEvaluator;
+	}
+
 	@Override
 	public File getDataSetDirectory(String dataSetId)
 	{
@@ -259,6 +314,8 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 			}
 
 			sqlDataSetEntity.setSqlValidator(this.sqlDataSetSqlValidator);
+			sqlDataSetEntity.setResultCache(this.sqlDataSetResultCache);
+			sqlDataSetEntity.setResultCacheTtl(this.sqlDataSetResultCacheTtl);
 		}
 
 		if (entity instanceof DirectoryFileDataSetEntity)
@@ -274,6 +331,12 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 			rds.setDataCacheMaxLength(this.dataSetCacheMaxLength);
 		}
 
+		if (entity instanceof AbstractResolvableDataSet)
+			((AbstractResolvableDataSet) entity).setQueryCoalescer(this.dataSetQueryCoalescer);
+
+		if (entity instanceof AbstractDataSet)
+			((AbstractDataSet) entity).setPropertyExpEvaluator(this.dataSetPropertyExpEvaluator);
+
 		return entity;
 	}
 	
@@ -443,11 +506,38 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		}
 
 		if (success)
+		{
 			saveDataSetChildren(entity);
 
+			// 更新成功后才失效缓存，避免失效后、更新前的查询又缓存了旧结果
+			sqlDataSetResultCacheInvalidate(entity.getId());
+		}
+
 		return success;
 	}
 
+	@Override
+	protected boolean deleteById(String id, Map<String, Object> params)
+	{
+		boolean success = super.deleteById(id, params);
+
+		if (success)
+			sqlDataSetResultCacheInvalidate(id);
+
+		return success;
+	}
+
+	/**
+	 * 使{@linkplain SqlDataSetResultCache}中指定数据集的结果缓存失效。
+	 * 
+	 * @param id
+	 */
+	protected void sqlDataSetResultCacheInvalidate(String id)
+	{
+		if (this.sqlDataSetResultCache != null)
+			this.sqlDataSetResultCache.invalidate(id);
+	}
+
 	protected SummaryDataSetEntity toUpdateDataSetEntity(DataSetEntity entity)
 	{
 		SummaryDataSetEntity re = new SummaryDataSetEntity(entity);
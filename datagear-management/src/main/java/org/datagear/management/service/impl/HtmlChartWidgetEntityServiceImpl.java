@@ -19,6 +19,7 @@ package org.datagear.management.service.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -42,6 +43,7 @@ import org.datagear.analysis.support.JsonSupport;
 import org.datagear.analysis.support.html.HtmlChartPlugin;
 import org.datagear.management.domain.AnalysisProject;
 import org.datagear.management.domain.AnalysisProjectAwareEntity;
+import org.datagear.management.domain.Authorization;
 import org.datagear.management.domain.DataSetBindVO;
 import org.datagear.management.domain.HtmlChartPluginVo;
 import org.datagear.management.domain.HtmlChartWidgetEntity;
@@ -57,6 +59,7 @@ import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.util.StringUtil;
 import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.cache.Cache.ValueWrapper;
 
 /**
  * {@linkplain HtmlChartWidgetEntityService}实现类。
@@ -166,6 +169,51 @@ public class HtmlChartWidgetEntityServiceImpl
 		return entity;
 	}
 
+	@Override
+	public ChartWidget[] getChartWidgets(String... ids) throws Throwable
+	{
+		ChartWidgetSourceContext context = ChartWidgetSourceContext.get();
+
+		List<Integer> permissions = null;
+
+		if (context.hasUser())
+			permissions = getPermissions(context.getUser(), Arrays.asList(ids));
+
+		List<String> readIds = new ArrayList<>(ids.length);
+
+		for (int i = 0; i < ids.length; i++)
+		{
+			if (permissions != null)
+			{
+				int permission = permissions.get(i);
+
+				if (PERMISSION_NOT_FOUND == permission)
+					continue;
+
+				if (!Authorization.canRead(permission))
+					throw new PermissionDeniedException();
+			}
+
+			readIds.add(ids[i]);
+		}
+
+		Map<String, HtmlChartWidgetEntity> entities = getByIdsForAnalysis(readIds);
+
+		ChartWidget[] re = new ChartWidget[ids.length];
+
+		for (int i = 0; i < ids.length; i++)
+		{
+			HtmlChartWidgetEntity entity = entities.get(ids[i]);
+
+			if (entity != null && permissions != null)
+				entity.setDataPermission(permissions.get(i));
+
+			re[i] = entity;
+		}
+
+		return re;
+	}
+
 	@Override
 	public HtmlChartWidgetEntity getById(User user, String id) throws PermissionDeniedException
 	{
@@ -266,6 +314,74 @@ public class HtmlChartWidgetEntityServiceImpl
 		return super.postProcessGet(obj);
 	}
 
+	/**
+	 * 批量获取用于分析展示的实体。
+	 * <p>
+	 * 先从缓存中获取，没有的再通过底层的{@code getByIds} SQL一次获取。
+	 * </p>
+	 * 
+	 * @param ids
+	 * @return 实体ID映射表，不存在的实体不会包含在内
+	 */
+	protected Map<String, HtmlChartWidgetEntity> getByIdsForAnalysis(List<String> ids)
+	{
+		Map<String, HtmlChartWidgetEntity> entities = new HashMap<>();
+		List<String> noCachedIds = new ArrayList<>(ids.size());
+
+		for (String id : ids)
+		{
+			if (entities.containsKey(id))
+				continue;
+
+			ValueWrapper entityWrapper = cacheGet(id);
+
+			if (entityWrapper == null)
+				noCachedIds.add(id);
+			else if (entityWrapper.get() != null)
+				entities.put(id, (HtmlChartWidgetEntity) entityWrapper.get());
+		}
+
+		if (!noCachedIds.isEmpty())
+		{
+			List<HtmlChartWidgetEntity> dbEntities = getByIdsFromDB(noCachedIds, buildParamMap());
+
+			for (HtmlChartWidgetEntity entity : dbEntities)
+			{
+				cachePut(entity.getId(), entity);
+				entities.put(entity.getId(), entity);
+			}
+		}
+
+		for (Map.Entry<String, HtmlChartWidgetEntity> entry : entities.entrySet())
+		{
+			HtmlChartWidgetEntity entity = postProcessGet(entry.getValue());
+			inflateHtmlChartWidgetEntity(entity, true);
+
+			entry.setValue(entity);
+		}
+
+		return entities;
+	}
+
+	/**
+	 * 从底层数据库批量获取实体。
+	 * <p>
+	 * 此方法调用底层的{@code getByIds} SQL，并一次加载这些实体的{@linkplain DataSetBindVO}。
+	 * </p>
+	 * 
+	 * @param ids
+	 * @param params
+	 * @return
+	 */
+	protected List<HtmlChartWidgetEntity> getByIdsFromDB(List<String> ids, Map<String, Object> params)
+	{
+		params.put("ids", ids);
+		List<HtmlChartWidgetEntity> entities = selectListMybatis("getByIds", params);
+		setDataSetBindVOs(entities);
+
+		return entities;
+	}
+
 	protected void saveWidgetDataSetRelations(HtmlChartWidgetEntity entity)
 	{
 		if (entity == null)
@@ -335,6 +451,52 @@ public class HtmlChartWidgetEntityServiceImpl
 		entity.setDataSetBinds(dataSetBinds.toArray(new DataSetBindVO[dataSetBinds.size()]));
 	}
 
+	protected void setDataSetBindVOs(List<HtmlChartWidgetEntity> entities)
+	{
+		if (entities.isEmpty())
+			return;
+
+		List<String> widgetIds = new ArrayList<>(entities.size());
+
+		for (HtmlChartWidgetEntity entity : entities)
+			widgetIds.add(entity.getId());
+
+		Map<String, Object> sqlParams = buildParamMap();
+		sqlParams.put("widgetIds", widgetIds);
+
+		List<WidgetDataSetRelation> relations = selectListMybatis("getDataSetRelationsByWidgetIds", sqlParams);
+
+		Map<String, List<DataSetBindVO>> widgetDataSetBinds = new HashMap<>();
+
+		for (WidgetDataSetRelation relation : relations)
+		{
+			DataSetBindVO dataSetBind = toDataSetBindVO(relation);
+
+			if (dataSetBind == null)
+				continue;
+
+			List<DataSetBindVO> dataSetBinds = widgetDataSetBinds.get(relation.getWidgetId());
+
+			if (dataSetBinds == null)
+			{
+				dataSetBinds = new ArrayList<>(3);
+				widgetDataSetBinds.put(relation.getWidgetId(), dataSetBinds);
+			}
+
+			dataSetBinds.add(dataSetBind);
+		}
+
+		for (HtmlChartWidgetEntity entity : entities)
+		{
+			List<DataSetBindVO> dataSetBinds = widgetDataSetBinds.get(entity.getId());
+
+			if (dataSetBinds == null)
+				dataSetBinds = Collections.emptyList();
+
+			entity.setDataSetBinds(dataSetBinds.toArray(new DataSetBindVO[dataSetBinds.size()]));
+		}
+	}
+
 	protected DataSetBindVO toDataSetBindVO(WidgetDataSetRelation relation)
 	{
 		if (relation == null || StringUtil.isEmpty(relation.getDataSetId()))
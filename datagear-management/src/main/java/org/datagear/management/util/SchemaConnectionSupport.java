@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Properties;
 
 import org.datagear.connection.ConnectionOption;
+import org.datagear.connection.ConnectionPoolOption;
 import org.datagear.connection.ConnectionSource;
 import org.datagear.connection.ConnectionSourceException;
 import org.datagear.connection.DriverEntity;
@@ -66,13 +67,15 @@ public class SchemaConnectionSupport
 				String name = sp.getName();
 				String value = sp.getValue();
 				
-				if(!StringUtil.isEmpty(name))
+				// 连接池选项不应作为连接属性传递给驱动程序
+				if(!StringUtil.isEmpty(name) && !ConnectionPoolOption.isPoolPropertyName(name))
 					properties.put(name, (value == null ? "" : value));
 			}
 		}
 		
 		ConnectionOption connectionOption = ConnectionOption.valueOf(schema.getUrl(), schema.getUser(),
 				schema.getPassword(), properties);
+		connectionOption.setPoolOption(schema.getPoolOption());
 
 		if (schema.hasDriverEntity())
 		{
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.meta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 表目录。
+ * <p>
+ * 此类是某一时刻的表列表快照，表按照名称升序排列（同{@linkplain TableUtil#sortAscByName(List)}），
+ * 并为表名建立了三元组（忽略{@code US-ASCII}字母大小写）倒排索引，
+ * 使得{@linkplain #find(String)}只需校验包含关键字中所有三元组的表，而无需逐一匹配所有表。
+ * </p>
+ * <p>
+ * 此类是不可变的，可在多线程间共享。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class TableCatalog
+{
+	private static final int GRAM_LENGTH = 3;
+
+	/** 按名称升序排列的表 */
+	private final List<SimpleTable> tables;
+
+	/** 三元组-包含它的表索引（升序） */
+	private final Map<Long, int[]> gramIndex;
+
+	/** 创建时间 */
+	private final long createTime;
+
+	/**
+	 * 创建{@linkplain TableCatalog}。
+	 *
+	 * @param tables
+	 *            表列表，此类不会修改它
+	 */
+	public TableCatalog(List<SimpleTable> tables)
+	{
+		super();
+
+		List<SimpleTable> sorted = new ArrayList<SimpleTable>(tables);
+		TableUtil.sortAscByName(sorted);
+
+		this.tables = Collections.unmodifiableList(sorted);
+		this.gramIndex = buildGramIndex(sorted);
+		this.createTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * 获取按名称升序排列的所有表。
+	 *
+	 * @return 不可修改的列表
+	 */
+	public List<SimpleTable> getTables()
+	{
+		return tables;
+	}
+
+	public int size()
+	{
+		return this.tables.size();
+	}
+
+	public long getCreateTime()
+	{
+		return createTime;
+	}
+
+	/**
+	 * 根据表名称关键字查找表。
+	 * <p>
+	 * 匹配规则与{@linkplain TableUtil#findTable(List, String)}一致。
+	 * </p>
+	 *
+	 * @param nameKeyword
+	 *            允许为{@code null}
+	 * @return 按名称升序排列的表，不应修改它
+	 */
+	public List<SimpleTable> find(String nameKeyword)
+	{
+		if (nameKeyword == null || nameKeyword.isEmpty())
+			return this.tables;
+
+		return TableUtil.findTable(findCandidates(nameKeyword), nameKeyword);
+	}
+
+	/**
+	 * 查找可能匹配关键字的表：名称包含关键字中所有字面内容（以{@code '%'}分隔）的三元组的表。
+	 *
+	 * @param nameKeyword
+	 * @return
+	 */
+	protected List<SimpleTable> findCandidates(String nameKeyword)
+	{
+		int[] candidates = null;
+
+		for (String literal : nameKeyword.split("%"))
+		{
+			for (int i = 0, len = literal.length() - GRAM_LENGTH + 1; i < len; i++)
+			{
+				int[] ids = this.gramIndex.get(toGram(literal, i));
+
+				if (ids == null)
+					return Collections.emptyList();
+
+				candidates = (candidates == null ? ids : intersect(candidates, ids));
+
+				if (candidates.length == 0)
+					return Collections.emptyList();
+			}
+		}
+
+		// 没有可用的三元组
+		if (candidates == null)
+			return this.tables;
+
+		List<SimpleTable> re = new ArrayList<SimpleTable>(candidates.length);
+
+		for (int id : candidates)
+			re.add(this.tables.get(id));
+
+		return re;
+	}
+
+	protected Map<Long, int[]> buildGramIndex(List<SimpleTable> tables)
+	{
+		Map<Long, int[]> index = new HashMap<Long, int[]>();
+
+		// 数组首元素存储长度
+		for (int id = 0, size = tables.size(); id < size; id++)
+		{
+			String name = tables.get(id).getName();
+
+			if (name == null)
+				continue;
+
+			for (int i = 0, len = name.length() - GRAM_LENGTH + 1; i < len; i++)
+			{
+				Long gram = toGram(name, i);
+				int[] ids = index.get(gram);
+
+				if (ids == null)
+				{
+					ids = new int[4];
+					index.put(gram, ids);
+				}
+				// 同一个表名可能多次包含同一三元组
+				else if (ids[ids[0]] == id)
+				{
+					continue;
+				}
+				else if (ids[0] + 1 >= ids.length)
+				{
+					ids = Arrays.copyOf(ids, ids.length * 2);
+					index.put(gram, ids);
+				}
+
+				ids[++ids[0]] = id;
+			}
+		}
+
+		for (Map.Entry<Long, int[]> entry : index.entrySet())
+		{
+			int[] ids = entry.getValue();
+			entry.setValue(Arrays.copyOfRange(ids, 1, ids[0] + 1));
+		}
+
+		return index;
+	}
+
+	/**
+	 * 求两个升序数组的交集。
+	 *
+	 * @param a
+	 * @param b
+	 * @return
+	 */
+	protected int[] intersect(int[] a, int[] b)
+	{
+		int[] re = new int[Math.min(a.length, b.length)];
+		int count = 0;
+
+		for (int i = 0, j = 0; i < a.length && j < b.length;)
+		{
+			if (a[i] < b[j])
+				i++;
+			else if (a[i] > b[j])
+				j++;
+			else
+			{
+				re[count++] = a[i];
+				i++;
+				j++;
+			}
+		}
+
+		return (count == re.length ? re : Arrays.copyOf(re, count));
+	}
+
+	/**
+	 * 获取指定位置的三元组。
+	 * <p>
+	 * 与{@linkplain TableUtil#findTable(List, String)}一致，仅{@code a-z}转换为大写。
+	 * </p>
+	 *
+	 * @param str
+	 * @param start
+	 * @return
+	 */
+	protected Long toGram(String str, int start)
+	{
+		long gram = 0;
+
+		for (int i = start, end = start + GRAM_LENGTH; i < end; i++)
+		{
+			char c = str.charAt(i);
+
+			if (c >= 'a' && c <= 'z')
+				c = (char) (c - 32);
+
+			gram = (gram << 16) | c;
+		}
+
+		return gram;
+	}
+}
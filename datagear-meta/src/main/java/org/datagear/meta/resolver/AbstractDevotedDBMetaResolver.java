@@ -40,6 +40,7 @@ import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.SearchableType;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
+import org.datagear.meta.TableCatalog;
 import org.datagear.meta.TableType;
 import org.datagear.meta.UniqueKey;
 import org.datagear.util.JDBCCompatiblity;
@@ -149,6 +150,18 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return re;
 	}
 
+	@Override
+	public TableCatalog getDataTableCatalog(Connection cn) throws DBMetaResolverException
+	{
+		return new TableCatalog(getDataTables(cn));
+	}
+
+	@Override
+	public TableCatalog reloadDataTableCatalog(Connection cn) throws DBMetaResolverException
+	{
+		return getDataTableCatalog(cn);
+	}
+
 	@Override
 	public List<SimpleTable> getEntityTables(Connection cn) throws DBMetaResolverException
 	{
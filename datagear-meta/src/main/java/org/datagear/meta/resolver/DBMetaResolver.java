@@ -27,6 +27,7 @@ import org.datagear.meta.Database;
 import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
+import org.datagear.meta.TableCatalog;
 
 /**
  * 数据库元信息解析类。
@@ -66,6 +67,31 @@ public interface DBMetaResolver extends TableTypeResolver
 	 */
 	List<SimpleTable> getDataTables(Connection cn) throws DBMetaResolverException;
 
+	/**
+	 * 获取当前连接用户的所有数据表目录。
+	 * <p>
+	 * 目录中的表与{@linkplain #getDataTables(Connection)}一致，但实现类可以缓存目录，
+	 * 适用于需频繁按关键字查找表的场景（比如表列表分页查询、SQL自动补全）。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @return
+	 * @throws DBMetaResolverException
+	 */
+	TableCatalog getDataTableCatalog(Connection cn) throws DBMetaResolverException;
+
+	/**
+	 * 重新加载当前连接用户的所有数据表目录。
+	 * <p>
+	 * 与{@linkplain #getDataTableCatalog(Connection)}不同，此方法总是从数据库读取，并替换已缓存的目录。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @return
+	 * @throws DBMetaResolverException
+	 */
+	TableCatalog reloadDataTableCatalog(Connection cn) throws DBMetaResolverException;
+
 	/**
 	 * 获取当前连接用户的所有实体表。
 	 * <p>
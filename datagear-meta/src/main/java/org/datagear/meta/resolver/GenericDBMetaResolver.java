@@ -21,7 +21,9 @@ import java.sql.Connection;
 import java.sql.ResultSetMetaData;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.datagear.connection.ConnectionOption;
 import org.datagear.meta.Column;
@@ -30,7 +32,9 @@ import org.datagear.meta.Database;
 import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
+import org.datagear.meta.TableCatalog;
 import org.datagear.meta.resolver.support.MySqlDevotedDBMetaResolver;
+import org.datagear.util.JdbcUtil;
 
 /**
  * 通用{@linkplain DBMetaResolver}。
@@ -43,6 +47,10 @@ import org.datagear.meta.resolver.support.MySqlDevotedDBMetaResolver;
  * 如果没有查找到能处理给定{@link Connection}的{@linkplain DevotedDBMetaResolver}，此类将抛出
  * {@linkplain UnsupportedDBMetaResolverException}异常。
  * </p>
+ * <p>
+ * 此类会按照连接URL、用户名、catalog、schema缓存{@linkplain #getDataTableCatalog(Connection)}的结果，
+ * 缓存超过{@linkplain #getDataTableCatalogExpiredMillis()}后，将在下次调用时重新加载。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -51,6 +59,25 @@ public class GenericDBMetaResolver implements DBMetaResolver
 {
 	private List<DevotedDBMetaResolver> devotedDBMetaResolvers = Collections.emptyList();
 
+	/** 数据表目录缓存过期毫秒数，小于等于0表示不缓存 */
+	private volatile long dataTableCatalogExpiredMillis = 60 * 1000;
+
+	/** 最多缓存的数据表目录数 */
+	private volatile int dataTableCatalogCacheMaxSize = 100;
+
+	/** 连接标识-数据表目录的LRU缓存 */
+	private final Map<String, TableCatalog> dataTableCatalogCache = new LinkedHashMap<String, TableCatalog>(16,
+			0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, TableCatalog> eldest)
+		{
+			return size() > dataTableCatalogCacheMaxSize;
+		}
+	};
+
 	public GenericDBMetaResolver()
 	{
 		this(null);
@@ -89,6 +116,26 @@ public class GenericDBMetaResolver implements DBMetaResolver
 		this.devotedDBMetaResolvers = devotedDBMetaResolvers;
 	}
 
+	public long getDataTableCatalogExpiredMillis()
+	{
+		return dataTableCatalogExpiredMillis;
+	}
+
+	public void setDataTableCatalogExpiredMillis(long dataTableCatalogExpiredMillis)
+	{
+		this.dataTableCatalogExpiredMillis = dataTableCatalogExpiredMillis;
+	}
+
+	public int getDataTableCatalogCacheMaxSize()
+	{
+		return dataTableCatalogCacheMaxSize;
+	}
+
+	public void setDataTableCatalogCacheMaxSize(int dataTableCatalogCacheMaxSize)
+	{
+		this.dataTableCatalogCacheMaxSize = dataTableCatalogCacheMaxSize;
+	}
+
 	@Override
 	public Database getDatabase(Connection cn) throws DBMetaResolverException
 	{
@@ -110,6 +157,87 @@ public class GenericDBMetaResolver implements DBMetaResolver
 		return resolver.getDataTables(cn);
 	}
 
+	@Override
+	public TableCatalog getDataTableCatalog(Connection cn) throws DBMetaResolverException
+	{
+		String key = (this.dataTableCatalogExpiredMillis > 0 ? getDataTableCatalogKey(cn) : null);
+
+		if (key != null)
+		{
+			TableCatalog catalog = null;
+
+			synchronized (this.dataTableCatalogCache)
+			{
+				catalog = this.dataTableCatalogCache.get(key);
+			}
+
+			if (catalog != null
+					&& System.currentTimeMillis() - catalog.getCreateTime() <= this.dataTableCatalogExpiredMillis)
+				return catalog;
+		}
+
+		return doReloadDataTableCatalog(cn, key);
+	}
+
+	@Override
+	public TableCatalog reloadDataTableCatalog(Connection cn) throws DBMetaResolverException
+	{
+		String key = (this.dataTableCatalogExpiredMillis > 0 ? getDataTableCatalogKey(cn) : null);
+		return doReloadDataTableCatalog(cn, key);
+	}
+
+	protected TableCatalog doReloadDataTableCatalog(Connection cn, String key) throws DBMetaResolverException
+	{
+		DevotedDBMetaResolver resolver = doGetDevotedDBMetaResolverNotNull(cn);
+		TableCatalog catalog = resolver.getDataTableCatalog(cn);
+
+		if (key != null)
+		{
+			synchronized (this.dataTableCatalogCache)
+			{
+				this.dataTableCatalogCache.put(key, catalog);
+			}
+		}
+
+		return catalog;
+	}
+
+	/**
+	 * 获取数据表目录的缓存关键字。
+	 * 
+	 * @param cn
+	 * @return 返回{@code null}表示不能缓存
+	 */
+	protected String getDataTableCatalogKey(Connection cn)
+	{
+		String url = JdbcUtil.getURLIfSupports(cn);
+
+		if (url == null)
+			return null;
+
+		String catalog = null;
+		String schema = null;
+
+		try
+		{
+			catalog = cn.getCatalog();
+		}
+		catch (Throwable t)
+		{
+		}
+
+		// JDBC4.1（JDK1.7）才有Connection.getSchema()接口，这里捕获Throwable，避免出现底层java.lang.Error
+		try
+		{
+			schema = cn.getSchema();
+		}
+		catch (Throwable t)
+		{
+		}
+
+		return url + "\n" + JdbcUtil.getUserNameIfSupports(cn) + "\n" + catalog + "\n" + schema;
+	}
+
 	@Override
 	public List<SimpleTable> getEntityTables(Connection cn) throws DBMetaResolverException
 	{
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.meta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain TableCatalog}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class TableCatalogTest
+{
+	@Test
+	public void findTest()
+	{
+		List<SimpleTable> tables = new ArrayList<SimpleTable>();
+		tables.add(new SimpleTable("T_ORDER", TableType.TABLE));
+		tables.add(new SimpleTable("t_order_item", TableType.TABLE));
+		tables.add(new SimpleTable("T_USER", TableType.TABLE));
+		tables.add(new SimpleTable("V_USER_ORDER", TableType.VIEW));
+		tables.add(new SimpleTable("ORDERORDER", TableType.TABLE));
+		tables.add(new SimpleTable("订单表", TableType.TABLE));
+		tables.add(new SimpleTable("AB", TableType.TABLE));
+
+		TableCatalog catalog = new TableCatalog(tables);
+
+		List<SimpleTable> sorted = new ArrayList<SimpleTable>(tables);
+		TableUtil.sortAscByName(sorted);
+
+		assertEquals(sorted, catalog.getTables());
+		assertEquals(sorted, catalog.find(null));
+		assertEquals(sorted, catalog.find(""));
+
+		String[] keywords = new String[] { "order", "ORDER", "t_order", "%user", "T_%", "t%item", "%ORDER%",
+				"_ORD", "orderorder", "订单", "订单表", "ab", "AB%", "b", "%", "%%", "not_exists", "T_USER_X" };
+
+		for (String keyword : keywords)
+			assertEquals(keyword, TableUtil.findTable(sorted, keyword), catalog.find(keyword));
+
+		assertEquals(1, catalog.find("order_").size());
+		assertEquals("V_USER_ORDER", catalog.find("user_").get(0).getName());
+		assertTrue(catalog.find("not_exists").isEmpty());
+	}
+
+	@Test
+	public void findTest_forPerformance()
+	{
+		List<SimpleTable> tables = new ArrayList<SimpleTable>();
+
+		for (int i = 0; i < 20000; i++)
+			tables.add(new SimpleTable("T_TABLE_" + (i % 7 == 0 ? "ORDER_" : "USER_") + i, TableType.TABLE));
+
+		List<SimpleTable> sorted = new ArrayList<SimpleTable>(tables);
+		TableUtil.sortAscByName(sorted);
+
+		long startTime = System.nanoTime();
+		TableCatalog catalog = new TableCatalog(tables);
+		long buildTime = System.nanoTime() - startTime;
+
+		String[] keywords = new String[] { "order_1", "user_19", "table_%_123", "19999" };
+		int loopCount = 100;
+
+		long rawTimes = 0;
+		long enhanceTimes = 0;
+
+		for (int i = 0; i < loopCount; i++)
+		{
+			for (String keyword : keywords)
+			{
+				startTime = System.nanoTime();
+				List<SimpleTable> expected = TableUtil.findTable(sorted, keyword);
+				rawTimes += System.nanoTime() - startTime;
+
+				startTime = System.nanoTime();
+				List<SimpleTable> actual = catalog.find(keyword);
+				enhanceTimes += System.nanoTime() - startTime;
+
+				assertEquals(expected, actual);
+			}
+		}
+
+		double enhance = ((double) rawTimes) / enhanceTimes;
+
+		System.out.println("-----------------------");
+		System.out.println("table count  : " + catalog.size());
+		System.out.println("build time   : " + buildTime);
+		System.out.println("test count   : " + loopCount * keywords.length);
+		System.out.println("raw time     : " + rawTimes);
+		System.out.println("enhance time : " + enhanceTimes);
+		System.out.println("enhance ratio : " + String.format("%.2f", enhance));
+		System.out.println("-----------------------");
+	}
+}
@@ -18,6 +18,7 @@
 package org.datagear.persistence;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 分页数据。
@@ -43,6 +44,12 @@ public class PagingData<T>
 	/** 分页信息 */
 	private Paging paging = new Paging();
 
+	/** 总记录数是否为估算值（未执行总数查询） */
+	private boolean totalEstimated = false;
+
+	/** 键集分页时，用于查询下一页的{@linkplain PagingQuery#getSeekAfter()}，为{@code null}表示没有下一页 */
+	private Map<String, Object> nextSeekAfter = null;
+
 	public PagingData()
 	{
 		this(1, 0);
@@ -120,6 +127,31 @@ public class PagingData<T>
 		this.paging.setPageSize(pageSize);
 	}
 
+	public boolean isTotalEstimated()
+	{
+		return totalEstimated;
+	}
+
+	public void setTotalEstimated(boolean totalEstimated)
+	{
+		this.totalEstimated = totalEstimated;
+	}
+
+	public boolean hasNextSeekAfter()
+	{
+		return (this.nextSeekAfter != null && !this.nextSeekAfter.isEmpty());
+	}
+
+	public Map<String, Object> getNextSeekAfter()
+	{
+		return nextSeekAfter;
+	}
+
+	public void setNextSeekAfter(Map<String, Object> nextSeekAfter)
+	{
+		this.nextSeekAfter = nextSeekAfter;
+	}
+
 	/**
 	 * 获取当前页在整个记录中的开始位置，以{@code 0}开始计数。
 	 * 
@@ -18,6 +18,7 @@
 package org.datagear.persistence;
 
 import java.util.Arrays;
+import java.util.Map;
 
 /**
  * 分页查询。
@@ -32,6 +33,23 @@ public class PagingQuery extends Query
 	/** 分页信息 */
 	private Paging paging = new Paging();
 
+	/**
+	 * 是否使用键集（seek）分页。
+	 * <p>
+	 * 键集分页不使用{@code OFFSET}，而是依据上一页最后一行的排序列/主键列值定位下一页，深分页时性能不会随页码下降。
+	 * </p>
+	 * <p>
+	 * 排序列包含可为{@code null}的列、或者表没有主键和非空唯一键时，将使用普通分页。
+	 * </p>
+	 */
+	private boolean keyset = false;
+
+	/** 键集分页时，上一页最后一行的排序列/主键列值，为{@code null}表示第一页 */
+	private Map<String, Object> seekAfter = null;
+
+	/** 是否查询总记录数，为{@code false}时，总记录数将根据已读取的数据估算 */
+	private boolean countTotal = true;
+
 	public PagingQuery()
 	{
 		super();
@@ -84,12 +102,48 @@ public class PagingQuery extends Query
 		this.paging.setPageSize(pageSize);
 	}
 
+	public boolean isKeyset()
+	{
+		return keyset;
+	}
+
+	public void setKeyset(boolean keyset)
+	{
+		this.keyset = keyset;
+	}
+
+	public boolean hasSeekAfter()
+	{
+		return (this.seekAfter != null && !this.seekAfter.isEmpty());
+	}
+
+	public Map<String, Object> getSeekAfter()
+	{
+		return seekAfter;
+	}
+
+	public void setSeekAfter(Map<String, Object> seekAfter)
+	{
+		this.seekAfter = seekAfter;
+	}
+
+	public boolean isCountTotal()
+	{
+		return countTotal;
+	}
+
+	public void setCountTotal(boolean countTotal)
+	{
+		this.countTotal = countTotal;
+	}
+
 	@Override
 	public String toString()
 	{
 		return getClass().getSimpleName() + " [page=" + getPage() + ", pageSize=" + getPageSize() + ", notLike="
 				+ isNotLike() + ", keyword=" + getKeyword() + ", condition=" + getCondition() + ", orders="
-				+ Arrays.toString(getOrders()) + "]";
+				+ Arrays.toString(getOrders()) + ", keyset=" + keyset + ", seekAfter=" + seekAfter + ", countTotal="
+				+ countTotal + "]";
 	}
 
 	@Override
@@ -98,6 +152,9 @@ public class PagingQuery extends Query
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((paging == null) ? 0 : paging.hashCode());
+		result = prime * result + (keyset ? 1231 : 1237);
+		result = prime * result + ((seekAfter == null) ? 0 : seekAfter.hashCode());
+		result = prime * result + (countTotal ? 1231 : 1237);
 		return result;
 	}
 
@@ -118,6 +175,17 @@ public class PagingQuery extends Query
 		}
 		else if (!paging.equals(other.paging))
 			return false;
+		if (keyset != other.keyset)
+			return false;
+		if (seekAfter == null)
+		{
+			if (other.seekAfter != null)
+				return false;
+		}
+		else if (!seekAfter.equals(other.seekAfter))
+			return false;
+		if (countTotal != other.countTotal)
+			return false;
 		return true;
 	}
 }
@@ -37,10 +37,18 @@ import org.datagear.persistence.DialectBuilder;
 import org.datagear.persistence.DialectException;
 import org.datagear.persistence.DialectSource;
 import org.datagear.persistence.Order;
+import org.datagear.persistence.support.dialect.ClickHouseDialectBuilder;
+import org.datagear.persistence.support.dialect.Db2DialectBuilder;
+import org.datagear.persistence.support.dialect.DerbyDialectBuilder;
+import org.datagear.persistence.support.dialect.DmDialectBuilder;
+import org.datagear.persistence.support.dialect.H2DialectBuilder;
+import org.datagear.persistence.support.dialect.KingbaseDialectBuilder;
+import org.datagear.persistence.support.dialect.MariaDBDialectBuilder;
 import org.datagear.persistence.support.dialect.MysqlDialectBuilder;
 import org.datagear.persistence.support.dialect.OracleDialectBuilder;
 import org.datagear.persistence.support.dialect.PostgresqlDialectBuilder;
 import org.datagear.persistence.support.dialect.SqlServerDialectBuilder;
+import org.datagear.persistence.support.dialect.SqliteDialectBuilder;
 import org.datagear.util.Sql;
 
 /**
@@ -74,6 +82,14 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 		this.dialectBuilders.add(new PostgresqlDialectBuilder());
 		this.dialectBuilders.add(new OracleDialectBuilder());
 		this.dialectBuilders.add(new SqlServerDialectBuilder());
+		this.dialectBuilders.add(new MariaDBDialectBuilder());
+		this.dialectBuilders.add(new H2DialectBuilder());
+		this.dialectBuilders.add(new SqliteDialectBuilder());
+		this.dialectBuilders.add(new Db2DialectBuilder());
+		this.dialectBuilders.add(new DerbyDialectBuilder());
+		this.dialectBuilders.add(new ClickHouseDialectBuilder());
+		this.dialectBuilders.add(new DmDialectBuilder());
+		this.dialectBuilders.add(new KingbaseDialectBuilder());
 	}
 
 	public DBMetaResolver getDbMetaResolver()
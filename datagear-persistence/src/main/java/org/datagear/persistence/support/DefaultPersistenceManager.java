@@ -22,6 +22,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -30,10 +31,12 @@ import org.datagear.connection.ConnectionOption;
 import org.datagear.meta.Column;
 import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.Table;
+import org.datagear.meta.UniqueKey;
 import org.datagear.persistence.Dialect;
 import org.datagear.persistence.DialectSource;
 import org.datagear.persistence.LiteralSqlParamValue;
 import org.datagear.persistence.NonUniqueResultException;
+import org.datagear.persistence.Order;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.persistence.PersistenceException;
@@ -406,6 +409,14 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 
 		dialect = getDialect(cn, dialect);
 
+		if (pagingQuery.isKeyset())
+		{
+			Order[] keysetOrders = getKeysetOrders(table, pagingQuery.getOrders());
+
+			if (keysetOrders != null)
+				return keysetPagingQuery(cn, dialect, table, pagingQuery, keysetOrders, mapper);
+		}
+
 		Sql queryView = buildQuerySql(cn, dialect, table, pagingQuery, true);
 
 		long total = executeCountQueryForQueryViewValidation(cn, queryView);
@@ -445,6 +456,284 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		return pagingData;
 	}
 
+	/**
+	 * 键集（seek）分页查询。
+	 * <p>
+	 * 使用上一页最后一行的键集列值构建{@code WHERE}条件定位当前页，而不是使用{@code OFFSET}，使得深分页的查询开销与第一页相当。
+	 * 多读取一行用于判断是否有下一页；如果{@linkplain PagingQuery#isCountTotal()}为{@code false}，将不执行总数查询，而是估算总记录数。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @param pagingQuery
+	 * @param keysetOrders
+	 *            键集排序列，参考{@linkplain #getKeysetOrders(Table, Order[])}
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @return
+	 * @throws PersistenceException
+	 */
+	protected PagingData<Row> keysetPagingQuery(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery,
+			Order[] keysetOrders, RowMapper mapper) throws PersistenceException
+	{
+		int page = pagingQuery.getPage();
+		int pageSize = pagingQuery.getPageSize();
+		Map<String, Object> seekAfter = pagingQuery.getSeekAfter();
+
+		Sql seekCondition = null;
+
+		if (pagingQuery.hasSeekAfter())
+		{
+			seekCondition = buildKeysetCondition(dialect, table, keysetOrders, seekAfter);
+
+			// 无法构建键集条件（比如键集值缺失或者为null）时，回退为普通分页
+			if (seekCondition == null)
+			{
+				PagingQuery offsetQuery = copyForOffsetPaging(pagingQuery, keysetOrders);
+				return pagingQuery(cn, dialect, table, offsetQuery, mapper);
+			}
+		}
+		else
+			page = 1;
+
+		Sql queryView = buildQuerySql(cn, dialect, table, pagingQuery, true);
+
+		long total = -1;
+		if (pagingQuery.isCountTotal())
+			total = executeCountQueryForQueryViewValidation(cn, queryView);
+
+		Sql seekQuery = queryView;
+		if (seekCondition != null)
+		{
+			Sql queryCondition = buildQueryCondition(cn, dialect, table, pagingQuery, true);
+
+			seekQuery = buildQuerySqlWithoutCondition(dialect, table);
+			seekQuery.sql(" WHERE ");
+
+			if (Sql.isEmpty(queryCondition))
+				seekQuery.sql(seekCondition);
+			else
+				seekQuery.sql("(").sql(queryCondition).sql(") AND (").sql(seekCondition).sql(")");
+		}
+
+		// 多读取一行，用于判断是否有下一页
+		int count = pageSize + 1;
+		Sql query = null;
+
+		if (dialect.supportsPagingSql())
+			query = dialect.toPagingQuerySql(seekQuery, keysetOrders, 1, count);
+
+		if (query == null)
+			query = dialect.toOrderSql(seekQuery, keysetOrders);
+
+		List<Row> rows = executeListQueryValidation(cn, table, query, ResultSet.TYPE_FORWARD_ONLY, 1, count, mapper);
+
+		boolean hasNext = (rows.size() > pageSize);
+		if (hasNext)
+			rows = new ArrayList<>(rows.subList(0, pageSize));
+
+		boolean totalEstimated = (total < 0);
+		if (totalEstimated)
+			total = (long) (page - 1) * pageSize + rows.size() + (hasNext ? 1 : 0);
+
+		PagingData<Row> pagingData = new PagingData<>(page, total, pageSize);
+		pagingData.setItems(rows);
+		pagingData.setTotalEstimated(totalEstimated);
+
+		if (hasNext && !rows.isEmpty())
+			pagingData.setNextSeekAfter(getKeysetValues(rows.get(rows.size() - 1), keysetOrders));
+
+		return pagingData;
+	}
+
+	/**
+	 * 获取键集分页使用的排序列。
+	 * <p>
+	 * 由排序列加上未包含在其中的主键列（或者非空唯一键列）组成，确保排序唯一；如果表没有主键和非空唯一键，返回{@code null}，表示不能使用键集分页。
+	 * </p>
+	 * <p>
+	 * 所有排序列都必须是{@code NOT NULL}列，因为键集条件中的比较操作不会匹配{@code null}值，
+	 * 包含{@code null}值的行将在翻页时被遗漏，此时也返回{@code null}，应使用普通分页。
+	 * </p>
+	 * 
+	 * @param table
+	 * @param orders
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected Order[] getKeysetOrders(Table table, Order[] orders)
+	{
+		String[] keyColumnNames = null;
+
+		if (table.hasPrimaryKey() && isNotNullColumns(table, table.getPrimaryKey().getColumnNames()))
+			keyColumnNames = table.getPrimaryKey().getColumnNames();
+		else if (table.hasUniqueKey())
+		{
+			for (UniqueKey uniqueKey : table.getUniqueKeys())
+			{
+				if (isNotNullColumns(table, uniqueKey.getColumnNames()))
+				{
+					keyColumnNames = uniqueKey.getColumnNames();
+					break;
+				}
+			}
+		}
+
+		if (keyColumnNames == null || keyColumnNames.length == 0)
+			return null;
+
+		List<Order> re = new ArrayList<>();
+
+		if (orders != null)
+		{
+			for (Order order : orders)
+			{
+				Column column = table.getColumn(order.getName());
+
+				// 排序列必须是表中的可持久化非空列
+				if (column == null || !supportsColumn(column) || column.isNullable())
+					return null;
+
+				re.add(order);
+			}
+		}
+
+		String keyOrderType = (re.isEmpty() ? Order.ASC : (re.get(0).isAsc() ? Order.ASC : Order.DESC));
+
+		for (String keyColumnName : keyColumnNames)
+		{
+			boolean contains = false;
+
+			for (Order order : re)
+			{
+				if (keyColumnName.equals(order.getName()))
+				{
+					contains = true;
+					break;
+				}
+			}
+
+			if (!contains)
+				re.add(Order.valueOf(keyColumnName, keyOrderType));
+		}
+
+		return re.toArray(new Order[re.size()]);
+	}
+
+	/**
+	 * 判断列是否都是表中的{@code NOT NULL}列。
+	 * 
+	 * @param table
+	 * @param columnNames
+	 * @return
+	 */
+	protected boolean isNotNullColumns(Table table, String[] columnNames)
+	{
+		if (columnNames == null || columnNames.length == 0)
+			return false;
+
+		for (String columnName : columnNames)
+		{
+			Column column = table.getColumn(columnName);
+
+			if (column == null || column.isNullable())
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * 构建键集条件，格式为：
+	 * <p>
+	 * <code>(A &gt; ?) OR (A = ? AND B &gt; ?) OR (A = ? AND B = ? AND C &gt; ?)</code>
+	 * </p>
+	 * <p>
+	 * 其中的比较操作符由各列的排序方向决定。
+	 * </p>
+	 * 
+	 * @param dialect
+	 * @param table
+	 * @param keysetOrders
+	 * @param seekAfter
+	 * @return 返回{@code null}表示无法构建
+	 */
+	protected Sql buildKeysetCondition(Dialect dialect, Table table, Order[] keysetOrders,
+			Map<String, Object> seekAfter)
+	{
+		Column[] columns = new Column[keysetOrders.length];
+
+		for (int i = 0; i < keysetOrders.length; i++)
+		{
+			String name = keysetOrders[i].getName();
+			Object value = seekAfter.get(name);
+
+			// 键集值为null时，各数据库的null排序规则不一致，无法使用比较条件
+			if (value == null)
+				return null;
+
+			columns[i] = table.getColumn(name);
+
+			if (columns[i] == null)
+				return null;
+		}
+
+		Sql sql = Sql.valueOf().delimit(" OR ");
+
+		for (int i = 0; i < keysetOrders.length; i++)
+		{
+			Sql item = Sql.valueOf().delimit(" AND ");
+
+			for (int j = 0; j <= i; j++)
+			{
+				Column column = columns[j];
+				String operator = (j < i ? "=" : (keysetOrders[j].isAsc() ? ">" : "<"));
+
+				item.sqld(quote(dialect, column.getName()) + " " + operator + " ?")
+						.param(createSqlParamValue(column, seekAfter.get(column.getName())));
+			}
+
+			sql.sqld(Sql.valueOf().sql("(").sql(item).sql(")"));
+		}
+
+		return sql;
+	}
+
+	/**
+	 * 获取行的键集值。
+	 * 
+	 * @param row
+	 * @param keysetOrders
+	 * @return
+	 */
+	protected Map<String, Object> getKeysetValues(Row row, Order[] keysetOrders)
+	{
+		Map<String, Object> re = new LinkedHashMap<>();
+
+		for (Order order : keysetOrders)
+			re.put(order.getName(), row.get(order.getName()));
+
+		return re;
+	}
+
+	/**
+	 * 复制为使用键集排序的普通分页查询。
+	 * 
+	 * @param pagingQuery
+	 * @param keysetOrders
+	 * @return
+	 */
+	protected PagingQuery copyForOffsetPaging(PagingQuery pagingQuery, Order[] keysetOrders)
+	{
+		PagingQuery re = new PagingQuery(pagingQuery.getPage(), pagingQuery.getPageSize(), pagingQuery.getKeyword(),
+				pagingQuery.getCondition());
+		re.setNotLike(pagingQuery.isNotLike());
+		re.setOrders(keysetOrders);
+
+		return re;
+	}
+
 	@Override
 	public String getQuerySql(Connection cn, Table table, Query query)
 	{
@@ -465,6 +754,27 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 	}
 
 	protected Sql buildQuerySql(Connection cn, Dialect dialect, Table table, Query query, boolean parameterized)
+	{
+		Sql sql = buildQuerySqlWithoutCondition(dialect, table);
+		Sql condition = buildQueryCondition(cn, dialect, table, query, parameterized);
+
+		if (!Sql.isEmpty(condition))
+		{
+			sql.sql(" WHERE ");
+			sql.sql(condition);
+		}
+
+		return sql;
+	}
+
+	/**
+	 * 构建不含条件的查询SQL，格式为：{@code "SELECT ... FROM ..."}。
+	 * 
+	 * @param dialect
+	 * @param table
+	 * @return
+	 */
+	protected Sql buildQuerySqlWithoutCondition(Dialect dialect, Table table)
 	{
 		Sql sql = Sql.valueOf().sql("SELECT ").delimit(",");
 
@@ -474,13 +784,6 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 
 		sql.sql(" FROM ");
 		sql.sql(quote(dialect, table.getName()));
-		Sql condition = buildQueryCondition(cn, dialect, table, query, parameterized);
-
-		if (!Sql.isEmpty(condition))
-		{
-			sql.sql(" WHERE ");
-			sql.sql(condition);
-		}
 
 		return sql;
 	}
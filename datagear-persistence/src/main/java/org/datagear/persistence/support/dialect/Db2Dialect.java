@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import org.datagear.persistence.Order;
+import org.datagear.persistence.support.AbstractDialect;
+import org.datagear.util.Sql;
+
+/**
+ * DB2方言。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class Db2Dialect extends AbstractDialect
+{
+	public Db2Dialect()
+	{
+		super();
+	}
+
+	public Db2Dialect(String identifierQuote)
+	{
+		super(identifierQuote);
+	}
+
+	@Override
+	public boolean supportsPagingSql()
+	{
+		return true;
+	}
+
+	@Override
+	public Sql toPagingQuerySql(Sql query, Order[] orders, long startRow, int count)
+	{
+		Sql sql = Sql.valueOf();
+
+		Sql orderSql = toOrderSql(orders);
+
+		// DB2 9.7起支持ROW_NUMBER()，而“OFFSET ... ROWS”需要DB2 11.1，因此使用前者以兼容更多版本
+		sql.sql("SELECT T1.* FROM (SELECT ROW_NUMBER() OVER (");
+
+		if (!isEmptySql(orderSql))
+			sql.sql("ORDER BY ").sql(orderSql);
+
+		sql.sql(") AS ROWNUM_____, T0.* ");
+		sql.sql(" FROM (").sql(query).sql(
+				") T0 ) T1 WHERE (T1.ROWNUM_____ >= " + startRow + " AND T1.ROWNUM_____ < " + (startRow + count) + ")");
+
+		return sql;
+	}
+}
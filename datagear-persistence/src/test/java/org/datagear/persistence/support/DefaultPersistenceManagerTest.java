@@ -19,15 +19,21 @@ package org.datagear.persistence.support;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.datagear.meta.Table;
 import org.datagear.persistence.PagingData;
+import org.datagear.persistence.Order;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.persistence.PersistenceTestSupport;
 import org.datagear.persistence.Row;
@@ -104,4 +110,96 @@ public class DefaultPersistenceManagerTest extends PersistenceTestSupport
 
 		assertTrue(rows.size() <= 1);
 	}
+
+	@Test
+	public void pagingQueryTest_keyset()
+	{
+		Table table = this.genericDBMetaResolver.getTable(this.connection, "T_ACCOUNT");
+
+		PagingQuery pagingQuery = new PagingQuery(1, 1);
+		pagingQuery.setKeyset(true);
+		pagingQuery.setCountTotal(false);
+
+		PagingData<Row> pagingData0 = this.defaultPersistenceManager.pagingQuery(connection, table, pagingQuery);
+		List<Row> rows0 = pagingData0.getItems();
+
+		assertTrue(rows0.size() <= 1);
+		assertTrue(pagingData0.isTotalEstimated());
+
+		if (pagingData0.hasNextSeekAfter())
+		{
+			pagingQuery.setPage(2);
+			pagingQuery.setSeekAfter(pagingData0.getNextSeekAfter());
+
+			PagingData<Row> pagingData1 = this.defaultPersistenceManager.pagingQuery(connection, table, pagingQuery);
+			List<Row> rows1 = pagingData1.getItems();
+
+			assertEquals(1, rows1.size());
+			assertEquals(2, pagingData1.getPage());
+			assertTrue(!rows0.get(0).get("ID").equals(rows1.get(0).get("ID")));
+		}
+	}
+
+	@Test
+	public void pagingQueryTest_keysetNullOrderValue()
+	{
+		Table table = this.genericDBMetaResolver.getTable(this.connection, "T_DATA_IMPORT");
+
+		// NAME列可为null，键集条件无法匹配null值，应使用普通分页
+		assertNull(this.defaultPersistenceManager.getKeysetOrders(table,
+				new Order[] { Order.valueOf("NAME", Order.ASC) }));
+		assertNotNull(this.defaultPersistenceManager.getKeysetOrders(table,
+				new Order[] { Order.valueOf("ID", Order.ASC) }));
+
+		int idStart = 999999990;
+		int rowCount = 6;
+		List<Row> rows = new ArrayList<>();
+
+		for (int i = 0; i < rowCount; i++)
+		{
+			Row row = new Row();
+			row.put("ID", idStart + i);
+			row.put("NAME", (i % 2 == 0 ? null : "NAME-" + i));
+
+			rows.add(row);
+		}
+
+		try
+		{
+			for (Row row : rows)
+			{
+				this.defaultPersistenceManager.delete(connection, table, row);
+				this.defaultPersistenceManager.insert(connection, null, table, row, new ConversionSqlParamValueMapper());
+			}
+
+			PagingQuery pagingQuery = new PagingQuery(1, 2, null,
+					"ID >= " + idStart + " AND ID < " + (idStart + rowCount));
+			pagingQuery.setKeyset(true);
+			pagingQuery.setOrders(Order.valueOf("NAME", Order.ASC));
+
+			Set<Integer> ids = new HashSet<>();
+
+			for (int page = 1; page <= rowCount; page++)
+			{
+				pagingQuery.setPage(page);
+
+				PagingData<Row> pagingData = this.defaultPersistenceManager.pagingQuery(connection, table,
+						pagingQuery);
+
+				for (Row row : pagingData.getItems())
+					ids.add(((Number) row.get("ID")).intValue());
+
+				if (pagingData.hasNextSeekAfter())
+					pagingQuery.setSeekAfter(pagingData.getNextSeekAfter());
+			}
+
+			// 不应遗漏排序列值为null的行
+			assertEquals(rowCount, ids.size());
+		}
+		finally
+		{
+			for (Row row : rows)
+				this.defaultPersistenceManager.delete(connection, table, row);
+		}
+	}
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.datagear.persistence.Dialect;
+import org.datagear.persistence.Order;
+import org.datagear.persistence.support.DefaultDialectSource;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.Sql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain DerbyDialect}单元测试类。
+ * <p>
+ * 使用内存Derby数据库验证原生分页SQL。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DerbyDialectTest
+{
+	private Connection connection;
+
+	@Before
+	public void init() throws Exception
+	{
+		this.connection = DriverManager.getConnection("jdbc:derby:memory:DerbyDialectTest;create=true");
+
+		Statement st = this.connection.createStatement();
+
+		try
+		{
+			st.execute("CREATE TABLE T_DIALECT (ID INT PRIMARY KEY, NAME VARCHAR(20))");
+
+			for (int i = 1; i <= 5; i++)
+				st.execute("INSERT INTO T_DIALECT VALUES (" + i + ", 'name-" + i + "')");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+		}
+	}
+
+	@After
+	public void destroy() throws Exception
+	{
+		Statement st = this.connection.createStatement();
+
+		try
+		{
+			st.execute("DROP TABLE T_DIALECT");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(this.connection);
+		}
+	}
+
+	@Test
+	public void getDialectTest()
+	{
+		DefaultDialectSource dialectSource = new DefaultDialectSource();
+		dialectSource.setDetection(false);
+
+		Dialect dialect = dialectSource.getDialect(this.connection);
+
+		assertTrue(dialect instanceof DerbyDialect);
+	}
+
+	@Test
+	public void toPagingQuerySqlTest() throws Exception
+	{
+		DerbyDialect dialect = new DerbyDialect("\"");
+
+		{
+			Sql query = Sql.valueOf().sql("SELECT ID, NAME FROM T_DIALECT");
+			Sql pagingSql = dialect.toPagingQuerySql(query, Order.asArray(Order.valueOf("ID", Order.ASC)), 3, 2);
+
+			List<Integer> ids = queryIds(pagingSql);
+
+			assertEquals(2, ids.size());
+			assertEquals(3, ids.get(0).intValue());
+			assertEquals(4, ids.get(1).intValue());
+		}
+
+		{
+			Sql query = Sql.valueOf().sql("SELECT ID, NAME FROM T_DIALECT");
+			Sql pagingSql = dialect.toPagingQuerySql(query, Order.asArray(Order.valueOf("ID", Order.DESC)), 5, 2);
+
+			List<Integer> ids = queryIds(pagingSql);
+
+			assertEquals(1, ids.size());
+			assertEquals(1, ids.get(0).intValue());
+		}
+	}
+
+	protected List<Integer> queryIds(Sql sql) throws Exception
+	{
+		List<Integer> ids = new ArrayList<>();
+
+		PreparedStatement pst = this.connection.prepareStatement(sql.getSqlValue());
+		ResultSet rs = null;
+
+		try
+		{
+			rs = pst.executeQuery();
+
+			while (rs.next())
+				ids.add(rs.getInt("ID"));
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(pst);
+		}
+
+		return ids;
+	}
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * 块缓冲字符扫描器。
+ * <p>
+ * 此类以{@code char[]}块为单位从底层输入流读取字符，供文本解析器逐字符扫描，与{@linkplain BufferedReader}相比：
+ * </p>
+ * <ul>
+ * <li>{@linkplain #read()}不加锁，可被JIT内联；</li>
+ * <li>支持不消费字符的预读（{@linkplain #peek()}）；</li>
+ * <li>支持直接在缓冲块上批量操作（{@linkplain #readLine()}、{@linkplain #writeUntil(Writer, char)}），避免逐字符调用；</li>
+ * <li>由字符串构建时（{@linkplain #CharScanner(String)}），直接以字符串内容作为缓冲块，无需再次读取。</li>
+ * </ul>
+ * <p>
+ * 此类支持{@linkplain #mark(int)}、{@linkplain #reset()}，语义与{@linkplain BufferedReader}一致。
+ * </p>
+ * <p>
+ * 注意：此类不是线程安全的，且会预读底层输入流，使用此类后不应再直接读取底层输入流。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class CharScanner extends Reader
+{
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/** 底层输入流，为null表示全部内容已在缓冲块中 */
+	private Reader in;
+
+	private char[] buffer;
+
+	/** 下一个读取位置 */
+	private int position = 0;
+
+	/** 缓冲块中有效字符的结束位置（不包含） */
+	private int limit = 0;
+
+	/** 标记位置，小于0表示没有标记 */
+	private int markPosition = -1;
+
+	/** 标记后允许读取的字符数 */
+	private int markLimit = 0;
+
+	public CharScanner(Reader in)
+	{
+		this(in, DEFAULT_BUFFER_SIZE);
+	}
+
+	public CharScanner(Reader in, int bufferSize)
+	{
+		super();
+
+		if (bufferSize <= 0)
+			throw new IllegalArgumentException("[bufferSize] must be positive");
+
+		this.in = in;
+		this.buffer = new char[bufferSize];
+	}
+
+	public CharScanner(String str)
+	{
+		super();
+		this.in = null;
+		this.buffer = str.toCharArray();
+		this.limit = this.buffer.length;
+	}
+
+	@Override
+	public int read() throws IOException
+	{
+		if (this.position >= this.limit && !fill())
+			return -1;
+
+		return this.buffer[this.position++];
+	}
+
+	/**
+	 * 预读下一个字符，但不消费它。
+	 *
+	 * @return 下一个字符，{@code -1}表示已读完
+	 * @throws IOException
+	 */
+	public int peek() throws IOException
+	{
+		if (this.position >= this.limit && !fill())
+			return -1;
+
+		return this.buffer[this.position];
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException
+	{
+		if (len == 0)
+			return 0;
+
+		if (this.position >= this.limit && !fill())
+			return -1;
+
+		int n = Math.min(len, this.limit - this.position);
+		System.arraycopy(this.buffer, this.position, cbuf, off, n);
+		this.position += n;
+
+		return n;
+	}
+
+	/**
+	 * 读取一行，行结束符为：{@code '\n'}、{@code '\r'}、{@code "\r\n"}，语义与{@linkplain BufferedReader#readLine()}一致。
+	 *
+	 * @return 不包含行结束符的行内容，{@code null}表示已读完
+	 * @throws IOException
+	 */
+	public String readLine() throws IOException
+	{
+		StringBuilder sb = null;
+
+		while (true)
+		{
+			if (this.position >= this.limit && !fill())
+				return (sb == null ? null : sb.toString());
+
+			char[] buf = this.buffer;
+			int start = this.position;
+			int end = this.limit;
+
+			for (int i = start; i < end; i++)
+			{
+				char c = buf[i];
+
+				if (c == '\n' || c == '\r')
+				{
+					String line = null;
+
+					if (sb == null)
+						line = new String(buf, start, i - start);
+					else
+						line = sb.append(buf, start, i - start).toString();
+
+					this.position = i + 1;
+
+					if (c == '\r' && peek() == '\n')
+						this.position++;
+
+					return line;
+				}
+			}
+
+			if (sb == null)
+				sb = new StringBuilder(Math.max(80, (end - start) * 2));
+
+			sb.append(buf, start, end - start);
+			this.position = end;
+		}
+	}
+
+	/**
+	 * 将字符写入输出流，直到读取到指定字符后停止，指定字符会被消费但不会写入输出流。
+	 * <p>
+	 * 此方法按块批量写入，适用于快速跳过不需处理的文本。
+	 * </p>
+	 *
+	 * @param out
+	 * @param stop
+	 * @return 读取到的指定字符，{@code -1}表示已读完而没有读取到
+	 * @throws IOException
+	 */
+	public int writeUntil(Writer out, char stop) throws IOException
+	{
+		while (true)
+		{
+			if (this.position >= this.limit && !fill())
+				return -1;
+
+			char[] buf = this.buffer;
+			int start = this.position;
+			int end = this.limit;
+
+			for (int i = start; i < end; i++)
+			{
+				if (buf[i] == stop)
+				{
+					if (i > start)
+						out.write(buf, start, i - start);
+
+					this.position = i + 1;
+
+					return stop;
+				}
+			}
+
+			out.write(buf, start, end - start);
+			this.position = end;
+		}
+	}
+
+	@Override
+	public long skip(long n) throws IOException
+	{
+		if (n < 0L)
+			throw new IllegalArgumentException("skip value is negative");
+
+		long remain = n;
+
+		while (remain > 0)
+		{
+			if (this.position >= this.limit && !fill())
+				break;
+
+			int skip = (int) Math.min(remain, this.limit - this.position);
+			this.position += skip;
+			remain -= skip;
+		}
+
+		return n - remain;
+	}
+
+	@Override
+	public boolean ready() throws IOException
+	{
+		return (this.position < this.limit || (this.in != null && this.in.ready()));
+	}
+
+	@Override
+	public boolean markSupported()
+	{
+		return true;
+	}
+
+	@Override
+	public void mark(int readAheadLimit) throws IOException
+	{
+		if (readAheadLimit < 0)
+			throw new IllegalArgumentException("Read-ahead limit < 0");
+
+		this.markPosition = this.position;
+		this.markLimit = readAheadLimit;
+	}
+
+	@Override
+	public void reset() throws IOException
+	{
+		if (this.markPosition < 0)
+			throw new IOException("Stream not marked or mark invalid");
+
+		this.position = this.markPosition;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		if (this.in != null)
+			this.in.close();
+	}
+
+	/**
+	 * 从底层输入流读取下一块字符，仅应在{@code position >= limit}时调用。
+	 *
+	 * @return {@code false} 已读完；{@code true} 已读取
+	 * @throws IOException
+	 */
+	protected boolean fill() throws IOException
+	{
+		if (this.in == null)
+			return false;
+
+		int dst = 0;
+
+		if (this.markPosition >= 0)
+		{
+			int delta = this.position - this.markPosition;
+
+			// 超过标记读取限制，标记失效
+			if (delta >= this.markLimit)
+			{
+				this.markPosition = -1;
+				this.markLimit = 0;
+			}
+			else
+			{
+				// 保留标记后的字符
+				if (this.markLimit <= this.buffer.length)
+				{
+					System.arraycopy(this.buffer, this.markPosition, this.buffer, 0, delta);
+				}
+				else
+				{
+					char[] newBuffer = new char[this.markLimit];
+					System.arraycopy(this.buffer, this.markPosition, newBuffer, 0, delta);
+					this.buffer = newBuffer;
+				}
+
+				this.markPosition = 0;
+				dst = delta;
+			}
+		}
+
+		this.position = dst;
+		this.limit = dst;
+
+		int n = 0;
+		do
+		{
+			n = this.in.read(this.buffer, dst, this.buffer.length - dst);
+		}
+		while (n == 0);
+
+		if (n < 0)
+			return false;
+
+		this.limit = dst + n;
+
+		return true;
+	}
+
+	/**
+	 * 获取{@linkplain CharScanner}，如果{@code in}已是{@linkplain CharScanner}，则直接返回它。
+	 *
+	 * @param in
+	 * @return
+	 */
+	public static CharScanner valueOf(Reader in)
+	{
+		if (in instanceof CharScanner)
+			return (CharScanner) in;
+
+		return new CharScanner(in);
+	}
+}
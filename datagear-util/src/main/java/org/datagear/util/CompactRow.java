@@ -0,0 +1,476 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 紧凑行。
+ * <p>
+ * 所有行共享同一个{@linkplain Schema}（键名及其位置），每行只存储一个值数组，用于替代每行一个{@linkplain HashMap}，
+ * 减少大量行数据时的对象分配和内存占用。
+ * </p>
+ * <p>
+ * 对于{@linkplain Schema}中的键，{@linkplain #get(Object)}、{@linkplain #put(String, Object)}直接按位置读写值数组；
+ * 不在{@linkplain Schema}中的键，将存储在按需创建的额外{@linkplain Map}中。
+ * </p>
+ * <p>
+ * 此类不是线程安全的。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class CompactRow extends AbstractMap<String, Object> implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 标识已移除的键值 */
+	private static final Object ABSENT = Absent.INSTANCE;
+
+	private final Schema schema;
+
+	private final Object[] values;
+
+	/** 不在schema中的键值，按需创建 */
+	private Map<String, Object> extras = null;
+
+	/** schema中已移除的键数 */
+	private int absentCount = 0;
+
+	private transient Set<Map.Entry<String, Object>> _entrySet = null;
+
+	/**
+	 * 创建所有键值都为{@code null}的行。
+	 *
+	 * @param schema
+	 */
+	public CompactRow(Schema schema)
+	{
+		super();
+		this.schema = schema;
+		this.values = new Object[schema.size()];
+	}
+
+	/**
+	 * 使用给定值数组创建行。
+	 *
+	 * @param schema
+	 * @param values
+	 *            值数组，长度应与{@linkplain Schema#size()}一致，此数组将直接作为行存储使用
+	 */
+	public CompactRow(Schema schema, Object[] values)
+	{
+		super();
+
+		if (values.length != schema.size())
+			throw new IllegalArgumentException("[values] length must be " + schema.size());
+
+		this.schema = schema;
+		this.values = values;
+	}
+
+	public Schema getSchema()
+	{
+		return schema;
+	}
+
+	/**
+	 * 按位置获取值。
+	 *
+	 * @param index
+	 *            {@linkplain Schema}中的位置，以{@code 0}开始
+	 * @return
+	 */
+	public Object getAt(int index)
+	{
+		Object value = this.values[index];
+		return (value == ABSENT ? null : value);
+	}
+
+	/**
+	 * 按位置设置值。
+	 *
+	 * @param index
+	 *            {@linkplain Schema}中的位置，以{@code 0}开始
+	 * @param value
+	 */
+	public void setAt(int index, Object value)
+	{
+		if (this.values[index] == ABSENT)
+			this.absentCount--;
+
+		this.values[index] = value;
+	}
+
+	@Override
+	public int size()
+	{
+		return this.values.length - this.absentCount + (this.extras == null ? 0 : this.extras.size());
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		int index = this.schema.indexOf(key);
+
+		if (index >= 0)
+			return (this.values[index] != ABSENT);
+
+		return (this.extras != null && this.extras.containsKey(key));
+	}
+
+	@Override
+	public Object get(Object key)
+	{
+		int index = this.schema.indexOf(key);
+
+		if (index >= 0)
+			return getAt(index);
+
+		return (this.extras == null ? null : this.extras.get(key));
+	}
+
+	@Override
+	public Object put(String key, Object value)
+	{
+		int index = this.schema.indexOf(key);
+
+		if (index >= 0)
+		{
+			Object old = getAt(index);
+			setAt(index, value);
+
+			return old;
+		}
+
+		if (this.extras == null)
+			this.extras = new LinkedHashMap<>();
+
+		return this.extras.put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key)
+	{
+		int index = this.schema.indexOf(key);
+
+		if (index >= 0)
+		{
+			Object old = this.values[index];
+
+			if (old == ABSENT)
+				return null;
+
+			this.values[index] = ABSENT;
+			this.absentCount++;
+
+			return old;
+		}
+
+		return (this.extras == null ? null : this.extras.remove(key));
+	}
+
+	@Override
+	public void clear()
+	{
+		for (int i = 0; i < this.values.length; i++)
+			this.values[i] = ABSENT;
+
+		this.absentCount = this.values.length;
+		this.extras = null;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet()
+	{
+		if (this._entrySet == null)
+			this._entrySet = new EntrySet();
+
+		return this._entrySet;
+	}
+
+	protected class EntrySet extends AbstractSet<Map.Entry<String, Object>>
+	{
+		@Override
+		public int size()
+		{
+			return CompactRow.this.size();
+		}
+
+		@Override
+		public Iterator<Map.Entry<String, Object>> iterator()
+		{
+			return new EntryIterator();
+		}
+	}
+
+	protected class EntryIterator implements Iterator<Map.Entry<String, Object>>
+	{
+		private int nextIndex = 0;
+
+		private int lastIndex = -1;
+
+		private Iterator<Map.Entry<String, Object>> extrasIterator = null;
+
+		public EntryIterator()
+		{
+			super();
+			skipAbsent();
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (this.nextIndex < values.length)
+				return true;
+
+			return (getExtrasIterator().hasNext());
+		}
+
+		@Override
+		public Map.Entry<String, Object> next()
+		{
+			if (this.nextIndex < values.length)
+			{
+				this.lastIndex = this.nextIndex;
+				this.nextIndex++;
+				skipAbsent();
+
+				return new IndexEntry(this.lastIndex);
+			}
+
+			this.lastIndex = -1;
+
+			Iterator<Map.Entry<String, Object>> it = getExtrasIterator();
+
+			if (!it.hasNext())
+				throw new NoSuchElementException();
+
+			return it.next();
+		}
+
+		@Override
+		public void remove()
+		{
+			if (this.lastIndex >= 0)
+			{
+				if (values[this.lastIndex] != ABSENT)
+				{
+					values[this.lastIndex] = ABSENT;
+					absentCount++;
+				}
+
+				this.lastIndex = -1;
+			}
+			else if (this.extrasIterator != null)
+				this.extrasIterator.remove();
+			else
+				throw new IllegalStateException();
+		}
+
+		protected void skipAbsent()
+		{
+			while (this.nextIndex < values.length && values[this.nextIndex] == ABSENT)
+				this.nextIndex++;
+		}
+
+		protected Iterator<Map.Entry<String, Object>> getExtrasIterator()
+		{
+			if (this.extrasIterator == null)
+			{
+				Map<String, Object> myExtras = extras;
+				this.extrasIterator = (myExtras == null ? Collections.<String, Object> emptyMap().entrySet().iterator()
+						: myExtras.entrySet().iterator());
+			}
+
+			return this.extrasIterator;
+		}
+	}
+
+	protected class IndexEntry implements Map.Entry<String, Object>
+	{
+		private final int index;
+
+		public IndexEntry(int index)
+		{
+			super();
+			this.index = index;
+		}
+
+		@Override
+		public String getKey()
+		{
+			return schema.getKey(this.index);
+		}
+
+		@Override
+		public Object getValue()
+		{
+			return getAt(this.index);
+		}
+
+		@Override
+		public Object setValue(Object value)
+		{
+			Object old = getAt(this.index);
+			setAt(this.index, value);
+
+			return old;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			Object key = getKey();
+			Object value = getValue();
+
+			return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Map.Entry))
+				return false;
+
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+
+			return StringUtil.isEquals(getKey(), other.getKey()) && StringUtil.isEquals(getValue(), other.getValue());
+		}
+
+		@Override
+		public String toString()
+		{
+			return getKey() + "=" + getValue();
+		}
+	}
+
+	private static enum Absent
+	{
+		INSTANCE
+	}
+
+	/**
+	 * {@linkplain CompactRow}的键名及其位置。
+	 * <p>
+	 * 同一批行应共享同一个此类实例。
+	 * </p>
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class Schema implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String[] keys;
+
+		private final Map<String, Integer> indexes;
+
+		/**
+		 * 创建。
+		 *
+		 * @param keys
+		 *            键名数组，不允许有重复的键名，参考{@linkplain #valueOf(String...)}
+		 */
+		public Schema(String[] keys)
+		{
+			super();
+			this.keys = keys;
+			this.indexes = new HashMap<>(keys.length * 2);
+
+			for (int i = 0; i < keys.length; i++)
+			{
+				if (this.indexes.put(keys[i], i) != null)
+					throw new IllegalArgumentException("Duplicate key [" + keys[i] + "]");
+			}
+		}
+
+		public int size()
+		{
+			return this.keys.length;
+		}
+
+		public String getKey(int index)
+		{
+			return this.keys[index];
+		}
+
+		/**
+		 * 获取键名的位置。
+		 *
+		 * @param key
+		 * @return 以{@code 0}开始，{@code -1}表示不存在
+		 */
+		public int indexOf(Object key)
+		{
+			Integer index = this.indexes.get(key);
+			return (index == null ? -1 : index);
+		}
+
+		/**
+		 * 创建{@linkplain Schema}，重复的键名只保留一个。
+		 *
+		 * @param keys
+		 * @return
+		 * @see #slotsOf(Schema, String...)
+		 */
+		public static Schema valueOf(String... keys)
+		{
+			Map<String, Integer> uniques = new LinkedHashMap<>();
+
+			for (String key : keys)
+			{
+				if (!uniques.containsKey(key))
+					uniques.put(key, uniques.size());
+			}
+
+			return new Schema(uniques.keySet().toArray(new String[uniques.size()]));
+		}
+
+		/**
+		 * 获取键名数组中各个键名在{@linkplain Schema}中的位置。
+		 * <p>
+		 * 对于包含重复键名的数组（比如：结果集中同名的列），多个元素将对应同一位置，由调用方决定保留先写入的值还是后写入的值。
+		 * </p>
+		 *
+		 * @param schema
+		 * @param keys
+		 * @return
+		 */
+		public static int[] slotsOf(Schema schema, String... keys)
+		{
+			int[] slots = new int[keys.length];
+
+			for (int i = 0; i < keys.length; i++)
+				slots[i] = schema.indexOf(keys[i]);
+
+			return slots;
+		}
+	}
+}
@@ -998,18 +998,42 @@ public class JdbcSupport
 	/**
 	 * 获取列值。
 	 * <p>
+	 * 此方法先使用{@linkplain ResultSet#findColumn(String)}查找列号（同名列时为第一个匹配列，与按列名读取的JDBC规范一致），
+	 * 然后调用{@linkplain #getColumnValue(Connection, ResultSet, int, int)}。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param rs
+	 * @param columnName
+	 * @param sqlType
+	 * @return
+	 * @throws SQLException
+	 */
+	public Object getColumnValue(Connection cn, ResultSet rs, String columnName, int sqlType) throws SQLException
+	{
+		return getColumnValue(cn, rs, rs.findColumn(columnName), sqlType);
+	}
+
+	/**
+	 * 按列号获取列值。
+	 * <p>
+	 * 按列号读取可避免某些驱动在按列名读取时每次都要查找列名，适用于大量行读取的场景。
+	 * </p>
+	 * <p>
 	 * 此方法实现参考自JDBC4.0规范“Data Type Conversion Tables”章节中的“TABLE B-6 Type
 	 * Conversions Supported by ResultSet getter Methods”表，并且尽量使用其中的推荐方法。
 	 * </p>
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param column
+	 * @param columnIndex
+	 *            列号，以{@code 1}开始
+	 * @param sqlType
 	 * @return
 	 * @throws SQLException
 	 */
 	@JDBCCompatiblity("某些驱动程序可能不支持ResultSet.getObject()方法，所以这里没有使用")
-	public Object getColumnValue(Connection cn, ResultSet rs, String columnName, int sqlType) throws SQLException
+	public Object getColumnValue(Connection cn, ResultSet rs, int columnIndex, int sqlType) throws SQLException
 	{
 		Object value = null;
 
@@ -1017,225 +1041,225 @@ public class JdbcSupport
 		{
 			case Types.ARRAY:
 			{
-				value = rs.getArray(columnName);
+				value = rs.getArray(columnIndex);
 				break;
 			}
 
 			case Types.BIGINT:
 			{
-				value = getColumnValueForBigInt(cn, rs, columnName);
+				value = getColumnValueForBigInt(cn, rs, columnIndex);
 				break;
 			}
 
 			case Types.BINARY:
 			{
-				value = rs.getBytes(columnName);
+				value = rs.getBytes(columnIndex);
 				break;
 			}
 
 			case Types.BIT:
 			{
-				value = rs.getBoolean(columnName);
+				value = rs.getBoolean(columnIndex);
 				break;
 			}
 
 			case Types.BLOB:
 			{
-				value = rs.getBlob(columnName);
+				value = rs.getBlob(columnIndex);
 				break;
 			}
 
 			case Types.BOOLEAN:
 			{
-				value = rs.getBoolean(columnName);
+				value = rs.getBoolean(columnIndex);
 				break;
 			}
 
 			case Types.CHAR:
 			{
-				value = rs.getString(columnName);
+				value = rs.getString(columnIndex);
 				break;
 			}
 
 			case Types.CLOB:
 			{
-				value = rs.getClob(columnName);
+				value = rs.getClob(columnIndex);
 				break;
 			}
 
 			case Types.DATALINK:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.DATE:
 			{
-				value = rs.getDate(columnName);
+				value = rs.getDate(columnIndex);
 				break;
 			}
 
 			case Types.DECIMAL:
 			{
-				value = rs.getBigDecimal(columnName);
+				value = rs.getBigDecimal(columnIndex);
 				break;
 			}
 
 			case Types.DISTINCT:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.DOUBLE:
 			{
-				value = getColumnValueForDouble(cn, rs, columnName);
+				value = getColumnValueForDouble(cn, rs, columnIndex);
 				break;
 			}
 
 			case Types.FLOAT:
 			{
-				value = getColumnValueForFloat(cn, rs, columnName);
+				value = getColumnValueForFloat(cn, rs, columnIndex);
 				break;
 			}
 
 			case Types.INTEGER:
 			{
-				value = getColumnValueForInteger(cn, rs, columnName);
+				value = getColumnValueForInteger(cn, rs, columnIndex);
 				break;
 			}
 
 			case Types.JAVA_OBJECT:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.LONGNVARCHAR:
 			{
-				value = rs.getNCharacterStream(columnName);
+				value = rs.getNCharacterStream(columnIndex);
 				break;
 			}
 
 			case Types.LONGVARBINARY:
 			{
-				value = rs.getBinaryStream(columnName);
+				value = rs.getBinaryStream(columnIndex);
 				break;
 			}
 
 			case Types.LONGVARCHAR:
 			{
-				value = rs.getCharacterStream(columnName);
+				value = rs.getCharacterStream(columnIndex);
 				break;
 			}
 
 			case Types.NCHAR:
 			{
-				value = rs.getNString(columnName);
+				value = rs.getNString(columnIndex);
 				break;
 			}
 
 			case Types.NCLOB:
 			{
-				value = rs.getNClob(columnName);
+				value = rs.getNClob(columnIndex);
 				break;
 			}
 
 			case Types.NUMERIC:
 			{
-				value = rs.getBigDecimal(columnName);
+				value = rs.getBigDecimal(columnIndex);
 				break;
 			}
 
 			case Types.NVARCHAR:
 			{
-				value = rs.getNString(columnName);
+				value = rs.getNString(columnIndex);
 				break;
 			}
 
 			case Types.OTHER:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.REAL:
 			{
-				value = getColumnValueForFloat(cn, rs, columnName);
+				value = getColumnValueForFloat(cn, rs, columnIndex);
 				break;
 			}
 
 			case Types.REF:
 			{
-				value = rs.getRef(columnName);
+				value = rs.getRef(columnIndex);
 				break;
 			}
 
 			case Types.REF_CURSOR:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.ROWID:
 			{
-				value = rs.getRowId(columnName);
+				value = rs.getRowId(columnIndex);
 				break;
 			}
 
 			case Types.SMALLINT:
 			{
-				value = getColumnValueForSmallint(cn, rs, columnName);
+				value = getColumnValueForSmallint(cn, rs, columnIndex);
 				break;
 			}
 
 			case Types.SQLXML:
 			{
-				value = rs.getSQLXML(columnName);
+				value = rs.getSQLXML(columnIndex);
 				break;
 			}
 
 			case Types.STRUCT:
 			{
-				value = rs.getObject(columnName);
+				value = rs.getObject(columnIndex);
 				break;
 			}
 
 			case Types.TIME:
 			case Types.TIME_WITH_TIMEZONE:
 			{
-				value = rs.getTime(columnName);
+				value = rs.getTime(columnIndex);
 				break;
 			}
 
 			case Types.TIMESTAMP:
 			case Types.TIMESTAMP_WITH_TIMEZONE:
 			{
-				value = rs.getTimestamp(columnName);
+				value = rs.getTimestamp(columnIndex);
 				break;
 			}
 
 			case Types.TINYINT:
 			{
-				value = getColumnValueForTinyint(cn, rs, columnName);
+				value = getColumnValueForTinyint(cn, rs, columnIndex);
 				break;
 			}
 
 			case Types.VARBINARY:
 			{
-				value = rs.getBytes(columnName);
+				value = rs.getBytes(columnIndex);
 				break;
 			}
 
 			case Types.VARCHAR:
 			{
-				value = rs.getString(columnName);
+				value = rs.getString(columnIndex);
 				break;
 			}
 
 			default:
 			{
-				value = getColumnValueExt(cn, rs, columnName, sqlType);
+				value = getColumnValueExt(cn, rs, columnIndex, sqlType);
 				break;
 			}
 		}
@@ -1251,11 +1275,12 @@ public class JdbcSupport
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param columnName
+	 * @param columnIndex
+	 *            列号，以{@code 1}开始
 	 * @return
 	 * @throws SQLException
 	 */
-	protected Object getColumnValueForBigInt(Connection cn, ResultSet rs, String columnName)
+	protected Object getColumnValueForBigInt(Connection cn, ResultSet rs, int columnIndex)
 			throws SQLException
 	{
 		Object value = null;
@@ -1263,12 +1288,12 @@ public class JdbcSupport
 		try
 		{
 			// 优先使用JDBC规范中的推荐方法
-			value = rs.getLong(columnName);
+			value = rs.getLong(columnIndex);
 		}
 		catch (SQLException e)
 		{
 			@JDBCCompatiblity("某些数据库允许无符号整数类型，上述ResultSet.getLong()取值可能因为超出long类型值范围而报错，这里升级类型再次尝试")
-			BigDecimal bigValue = rs.getBigDecimal(columnName);
+			BigDecimal bigValue = rs.getBigDecimal(columnIndex);
 			value = (bigValue == null ? null : bigValue.toBigInteger());
 		}
 
@@ -1280,11 +1305,12 @@ public class JdbcSupport
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param columnName
+	 * @param columnIndex
+	 *            列号，以{@code 1}开始
 	 * @return
 	 * @throws SQLException
 	 */
-	protected Object getColumnValueForDouble(Connection cn, ResultSet rs, String columnName)
+	protected Object getColumnValueForDouble(Connection cn, ResultSet rs, int columnIndex)
 			throws SQLException
 	{
 		Object value = null;
@@ -1292,12 +1318,12 @@ public class JdbcSupport
 		try
 		{
 			// 优先使用JDBC规范中的推荐方法
-			value = rs.getDouble(columnName);
+			value = rs.getDouble(columnIndex);
 		}
 		catch (SQLException e)
 		{
 			@JDBCCompatiblity("数据库中的值可能因为超出double类型值范围而报错，这里升级类型再次尝试")
-			BigDecimal bigValue = rs.getBigDecimal(columnName);
+			BigDecimal bigValue = rs.getBigDecimal(columnIndex);
 			value = bigValue;
 		}
 
@@ -1309,11 +1335,12 @@ public class JdbcSupport
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param columnName
+	 * @param columnIndex
+	 *            列号，以{@code 1}开始
 	 * @return
 	 * @throws SQLException
 	 */
-	protected Object getColumnValueForFloat(Connection cn, ResultSet rs, String columnName)
+	protected Object getColumnValueForFloat(Connection cn, ResultSet rs, int columnIndex)
 			throws SQLException
 	{
 		Object value = null;
@@ -1321,12 +1348,12 @@ public class JdbcSupport
 		try
 		{
 			// 优先使用JDBC规范中的推荐方法
-			value = rs.getFloat(columnName);
+			value = rs.getFloat(columnIndex);
 		}
 		catch (SQLException e)
 		{
 			@JDBCCompatiblity("数据库中的值可能因为超出float类型值范围而报错，这里升级类型再次尝试")
-			Object bigValue = getColumnValueForDouble(cn, rs, columnName);
+			Object bigValue = getColumnValueForDouble(cn, rs, columnIndex);
 			value = bigValue;
 		}
 
@@ -1338,11 +1365,12 @@ public class JdbcSupport
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param columnName
+	 * @param columnIndex
+	 *            列号，以{@code 1}开始
 	 * @return
 	 * @throws SQLException
 	 */
-	protected Object getColumnValueForInteger(Connection cn, ResultSet rs, String columnName)
+	protected Object getColumnValueForInteger(Connection cn, ResultSet rs, int columnIndex)
 			throws SQLException
 	{
 		Object value = null;
@@ -1350,12 +1378,12 @@ public class JdbcSupport
 		try
 		{
 			// 优先使用JDBC规范中的推荐方法
-			value = rs.getInt(columnName);
+			value = rs.getInt(columnIndex);
 		}
 		catch (SQLException e)
 		{
 			@JDBCCompatiblity("某些数据库允许无符号整数类型，上述ResultSet.getInt()取值可能因为超出int类型值范围而报错，这里升级类型再次尝试")
-			Object bigValue = getColumnValueForBigInt(cn, rs, columnName);
+			Object bigValue = getColumnValueForBigInt(cn, rs, columnIndex);
 			value = bigValue;
 		}
 
@@ -1367,11 +1395,12 @@ public class JdbcSupport
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param columnName
+	 * @param columnIndex
+	 *            列号，以{@code 1}开始
 	 * @return
 	 * @throws SQLException
 	 */
-	protected Object getColumnValueForSmallint(Connection cn, ResultSet rs, String columnName)
+	protected Object getColumnValueForSmallint(Connection cn, ResultSet rs, int columnIndex)
 			throws SQLException
 	{
 		Object value = null;
@@ -1379,12 +1408,12 @@ public class JdbcSupport
 		try
 		{
 			// 优先使用JDBC规范中的推荐方法
-			value = rs.getShort(columnName);
+			value = rs.getShort(columnIndex);
 		}
 		catch (SQLException e)
 		{
 			@JDBCCompatiblity("某些数据库允许无符号整数类型，上述ResultSet.getShort()取值可能因为超出short类型值范围而报错，这里升级类型再次尝试")
-			Object bigValue = getColumnValueForInteger(cn, rs, columnName);
+			Object bigValue = getColumnValueForInteger(cn, rs, columnIndex);
 			value = bigValue;
 		}
 
@@ -1396,11 +1425,12 @@ public class JdbcSupport
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param columnName
+	 * @param columnIndex
+	 *            列号，以{@code 1}开始
 	 * @return
 	 * @throws SQLException
 	 */
-	protected Object getColumnValueForTinyint(Connection cn, ResultSet rs, String columnName)
+	protected Object getColumnValueForTinyint(Connection cn, ResultSet rs, int columnIndex)
 			throws SQLException
 	{
 		Object value = null;
@@ -1408,12 +1438,12 @@ public class JdbcSupport
 		try
 		{
 			// 优先使用JDBC规范中的推荐方法
-			value = rs.getByte(columnName);
+			value = rs.getByte(columnIndex);
 		}
 		catch (SQLException e)
 		{
 			@JDBCCompatiblity("某些数据库允许无符号整数类型，上述ResultSet.getByte()取值可能因为超出byte类型值范围而报错，这里升级类型再次尝试")
-			Object bigValue = getColumnValueForSmallint(cn, rs, columnName);
+			Object bigValue = getColumnValueForSmallint(cn, rs, columnIndex);
 			value = bigValue;
 		}
 
@@ -1425,12 +1455,13 @@ public class JdbcSupport
 	 * 
 	 * @param cn
 	 * @param rs
-	 * @param columnName
+	 * @param columnIndex
+	 *            列号，以{@code 1}开始
 	 * @param sqlType
 	 * @return
 	 * @throws SQLException
 	 */
-	protected Object getColumnValueExt(Connection cn, ResultSet rs, String columnName, int sqlType) throws SQLException
+	protected Object getColumnValueExt(Connection cn, ResultSet rs, int columnIndex, int sqlType) throws SQLException
 	{
 		throw new UnsupportedOperationException("Get JDBC [" + sqlType + "] type value is not supported");
 	}
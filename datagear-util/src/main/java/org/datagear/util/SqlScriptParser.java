@@ -17,7 +17,6 @@
 
 package org.datagear.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Serializable;
@@ -65,7 +64,7 @@ public class SqlScriptParser
 	private String delimiter = DEFAULT_DELIMITER;
 
 	/** 缓冲SQL输入流 */
-	private BufferedReader _bufferedSqlScriptReader;
+	private CharScanner _sqlScriptScanner;
 	private boolean _readFinish = false;
 
 	/** 解析过程：当前行 */
@@ -97,7 +96,7 @@ public class SqlScriptParser
 	{
 		super();
 		this.sqlScriptReader = sqlScriptReader;
-		this._bufferedSqlScriptReader = getSqlScriptBufferedReader();
+		this._sqlScriptScanner = getSqlScriptScanner();
 	}
 
 	public Reader getSqlScriptReader()
@@ -108,7 +107,7 @@ public class SqlScriptParser
 	public void setSqlScriptReader(Reader sqlScriptReader)
 	{
 		this.sqlScriptReader = sqlScriptReader;
-		this._bufferedSqlScriptReader = getSqlScriptBufferedReader();
+		this._sqlScriptScanner = getSqlScriptScanner();
 	}
 
 	public int getContextStartRow()
@@ -158,12 +157,12 @@ public class SqlScriptParser
 	{
 		List<SqlStatement> sqlStatements = new LinkedList<SqlStatement>();
 
-		BufferedReader bufferedReader = this._bufferedSqlScriptReader;
+		CharScanner scanner = this._sqlScriptScanner;
 
 		String line = null;
 		StringBuilder sqlBuilder = new StringBuilder();
 
-		while ((line = bufferedReader.readLine()) != null)
+		while ((line = scanner.readLine()) != null)
 			handleLine(sqlStatements, sqlBuilder, line);
 
 		addSqlStatement(sqlStatements, sqlBuilder);
@@ -209,7 +208,7 @@ public class SqlScriptParser
 		if (this._readFinish)
 			return false;
 
-		String line = this._bufferedSqlScriptReader.readLine();
+		String line = this._sqlScriptScanner.readLine();
 
 		if (line != null)
 			handleLine(this._nextLineSqlStatements, this._sqlStatementBuilder, line);
@@ -293,7 +292,7 @@ public class SqlScriptParser
 						;
 					else
 					{
-						sqlBuilder.append(line.substring(handleIndex));
+						sqlBuilder.append(line, handleIndex, lineLength);
 						sqlBuilder.append(LINE_SEPARATOR);
 
 						isSqlBuilderEmpty = false;
@@ -311,8 +310,7 @@ public class SqlScriptParser
 						_currentSqlEndRow = _currentRow;
 						_currentSqlEndColumn = delimiterIndex;
 
-						String scriptBefore = line.substring(handleIndex, delimiterIndex);
-						sqlBuilder.append(scriptBefore);
+						sqlBuilder.append(line, handleIndex, delimiterIndex);
 					}
 
 					addSqlStatement(sqlStatements, sqlBuilder);
@@ -649,20 +647,13 @@ public class SqlScriptParser
 	}
 
 	/**
-	 * 获取SQL脚本输入流的{@linkplain BufferedReader}。
+	 * 获取SQL脚本输入流的{@linkplain CharScanner}。
 	 * 
 	 * @return
 	 */
-	protected BufferedReader getSqlScriptBufferedReader()
+	protected CharScanner getSqlScriptScanner()
 	{
-		BufferedReader bufferedReader = null;
-
-		if (this.sqlScriptReader instanceof BufferedReader)
-			bufferedReader = (BufferedReader) this.sqlScriptReader;
-		else
-			bufferedReader = new BufferedReader(this.sqlScriptReader);
-
-		return bufferedReader;
+		return CharScanner.valueOf(this.sqlScriptReader);
 	}
 
 	/**
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import org.datagear.util.CharScanner;
 import org.datagear.util.TextParserSupport;
 
 /**
@@ -113,6 +114,10 @@ public class HtmlFilter extends TextParserSupport
 	 * <p>
 	 * 注意：此方法执行完后，不会关闭输入/输出流。
 	 * </p>
+	 * <p>
+	 * 输入流将以{@linkplain CharScanner}读取，{@linkplain FilterHandler}中的输入流参数也是它，
+	 * 如果{@code in}不是{@linkplain CharScanner}，当中止过滤（{@linkplain FilterHandler#isAborted()}）时，它可能已被预读。
+	 * </p>
 	 * 
 	 * @param in
 	 * @param handler
@@ -123,43 +128,41 @@ public class HtmlFilter extends TextParserSupport
 	 */
 	public void filter(Reader in, FilterHandler handler, boolean flush) throws IOException
 	{
+		CharScanner scanner = CharScanner.valueOf(in);
+		in = scanner;
+
 		handler.beforeWrite(in);
 
 		Writer out = handler.getOut();
-		int c = -1;
 
-		while ((c = in.read()) > -1)
+		// 标签之间的文本按块直接写入
+		while (scanner.writeUntil(out, TAG_START_CHAR) > -1)
 		{
-			if (c == TAG_START_CHAR)
+			StringBuilder tagNameSb = createStringBuilder();
+			String afterTagName = readTagName(in, tagNameSb);
+			String tagName = tagNameSb.toString();
+
+			// <!--
+			if (tagName.startsWith("!--"))
 			{
-				StringBuilder tagNameSb = createStringBuilder();
-				String afterTagName = readTagName(in, tagNameSb);
-				String tagName = tagNameSb.toString();
+				filterAfterHtmlComment(in, handler, tagName, afterTagName);
+			}
+			else
+			{
+				String tagEnd = filterAfterTag(in, handler, tagName, afterTagName);
 
-				// <!--
-				if (tagName.startsWith("!--"))
+				if (!TAG_END_STR_SELF_CLOSE.equals(tagEnd))
 				{
-					filterAfterHtmlComment(in, handler, tagName, afterTagName);
+					// <script></script>、<style></style>之间按照普通文本解析
+					if ("script".equalsIgnoreCase(tagName))
+						filterAfterScriptCloseTag(in, handler);
+					else if ("style".equalsIgnoreCase(tagName))
+						filterAfterStyleCloseTag(in, handler);
 				}
-				else
-				{
-					String tagEnd = filterAfterTag(in, handler, tagName, afterTagName);
-
-					if (!TAG_END_STR_SELF_CLOSE.equals(tagEnd))
-					{
-						// <script></script>、<style></style>之间按照普通文本解析
-						if ("script".equalsIgnoreCase(tagName))
-							filterAfterScriptCloseTag(in, handler);
-						else if ("style".equalsIgnoreCase(tagName))
-							filterAfterStyleCloseTag(in, handler);
-					}
-				}
-
-				if (handler.isAborted())
-					break;
 			}
-			else
-				out.write(c);
+
+			if (handler.isAborted())
+				break;
 		}
 
 		handler.afterWrite(in);
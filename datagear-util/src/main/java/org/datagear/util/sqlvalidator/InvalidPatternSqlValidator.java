@@ -19,11 +19,15 @@ package org.datagear.util.sqlvalidator;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.datagear.util.StringUtil;
+
 /**
  * 黑名单正则模式{@linkplain SqlValidator}。
  * <p>
@@ -33,6 +37,13 @@ import java.util.regex.Pattern;
  * {@linkplain #getPatterns()}映射表中关键字为{@linkplain #DEFAULT_PATTERN_KEY}的正则模式将优先用于任意{@linkplain DatabaseProfile}，
  * 其次是关键字为{@linkplain DatabaseProfile#getName()}子串的正则模式、关键字以{@linkplain DatabaseProfile#getUrl()}开头的正则模式。
  * </p>
+ * <p>
+ * 对于由{@linkplain #toKeywordPattern(String...)}构建的正则模式，此类会将{@linkplain DatabaseProfile}对应的所有关键字编译为一个{@linkplain SqlKeywordMatcher}，
+ * 在忽略SQL字符串、引用标识符的同时扫描一遍SQL即可完成校验，而无需先替换SQL、再逐一执行正则匹配。
+ * </p>
+ * <p>
+ * 此类还会缓存最近的校验结果（参考{@linkplain #setValidationCacheMaxSize(int)}），因为同一SQL（比如数据集SQL）通常会被反复校验。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -41,6 +52,10 @@ public class InvalidPatternSqlValidator extends AbstractSqlValidator
 {
 	public static final String DEFAULT_PATTERN_KEY = "default";
 
+	protected static final String KEYWORD_PATTERN_PREFIX = "([^\\_\\w]|^)(";
+
+	protected static final String KEYWORD_PATTERN_SUFFIX = ")([^\\_\\w]|$)";
+
 	/** 数据库名子串/URL子串 - 正则模式 */
 	private Map<String, Pattern> patterns = Collections.emptyMap();
 
@@ -48,6 +63,28 @@ public class InvalidPatternSqlValidator extends AbstractSqlValidator
 
 	private boolean ignoreQuoteIdentifier = true;
 
+	/** 最多缓存的校验结果数，小于等于0表示不缓存 */
+	private volatile int validationCacheMaxSize = 1000;
+
+	/** 缓存校验结果的SQL最大长度 */
+	private volatile int validationCacheMaxSqlLength = 10000;
+
+	/** 数据库信息-编译后的正则模式 */
+	private final ConcurrentHashMap<DatabaseProfile, CompiledPatterns> compiledPatternsCache = new ConcurrentHashMap<DatabaseProfile, CompiledPatterns>();
+
+	/** 校验结果的LRU缓存 */
+	private final Map<ValidationKey, SqlValidation> validationCache = new LinkedHashMap<ValidationKey, SqlValidation>(
+			16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ValidationKey, SqlValidation> eldest)
+		{
+			return size() > validationCacheMaxSize;
+		}
+	};
+
 	public InvalidPatternSqlValidator()
 	{
 		super();
@@ -67,6 +104,7 @@ public class InvalidPatternSqlValidator extends AbstractSqlValidator
 	public void setPatterns(Map<String, Pattern> patterns)
 	{
 		this.patterns = patterns;
+		clearCache();
 	}
 
 	public boolean isIgnoreSqlString()
@@ -77,6 +115,7 @@ public class InvalidPatternSqlValidator extends AbstractSqlValidator
 	public void setIgnoreSqlString(boolean ignoreSqlString)
 	{
 		this.ignoreSqlString = ignoreSqlString;
+		clearCache();
 	}
 
 	public boolean isIgnoreQuoteIdentifier()
@@ -87,28 +126,245 @@ public class InvalidPatternSqlValidator extends AbstractSqlValidator
 	public void setIgnoreQuoteIdentifier(boolean ignoreQuoteIdentifier)
 	{
 		this.ignoreQuoteIdentifier = ignoreQuoteIdentifier;
+		clearCache();
+	}
+
+	public int getValidationCacheMaxSize()
+	{
+		return validationCacheMaxSize;
+	}
+
+	public void setValidationCacheMaxSize(int validationCacheMaxSize)
+	{
+		this.validationCacheMaxSize = validationCacheMaxSize;
+
+		synchronized (this.validationCache)
+		{
+			this.validationCache.clear();
+		}
+	}
+
+	public int getValidationCacheMaxSqlLength()
+	{
+		return validationCacheMaxSqlLength;
+	}
+
+	public void setValidationCacheMaxSqlLength(int validationCacheMaxSqlLength)
+	{
+		this.validationCacheMaxSqlLength = validationCacheMaxSqlLength;
 	}
 
 	@Override
 	public SqlValidation validate(String sql, DatabaseProfile profile)
 	{
-		SqlValidation validation = new SqlValidation(true);
-		
-		sql = replaceSqlIfNeed(sql, profile);
+		if (sql == null)
+			sql = "";
 
-		List<Pattern> patterns = findPatterns(profile);
-		
-		for (Pattern pattern : patterns)
+		boolean cache = (this.validationCacheMaxSize > 0 && sql.length() <= this.validationCacheMaxSqlLength);
+		ValidationKey key = null;
+
+		if (cache)
 		{
-			validation = validate(sql, pattern);
+			key = new ValidationKey(sql, profile);
+
+			synchronized (this.validationCache)
+			{
+				SqlValidation validation = this.validationCache.get(key);
+
+				if (validation != null)
+					return validation;
+			}
+		}
+
+		SqlValidation validation = doValidate(sql, profile);
 
-			if (!validation.isValid())
-				return validation;
+		if (cache)
+		{
+			synchronized (this.validationCache)
+			{
+				this.validationCache.put(key, validation);
+			}
 		}
 
 		return validation;
 	}
 
+	/**
+	 * 清空编译后的正则模式、校验结果缓存。
+	 * <p>
+	 * 修改{@linkplain #getPatterns()}映射表的内容后，应调用此方法。
+	 * </p>
+	 */
+	public void clearCache()
+	{
+		this.compiledPatternsCache.clear();
+
+		synchronized (this.validationCache)
+		{
+			this.validationCache.clear();
+		}
+	}
+
+	protected SqlValidation doValidate(String sql, DatabaseProfile profile)
+	{
+		CompiledPatterns compiledPatterns = getCompiledPatterns(profile);
+
+		if (compiledPatterns.isEmpty())
+			return new SqlValidation(true);
+
+		String identifierQuote = profile.getIdentifierQuote();
+
+		// 没有其他正则模式时，只需扫描一遍SQL
+		if (!compiledPatterns.hasRegexPattern()
+				&& (!this.ignoreQuoteIdentifier || identifierQuote == null || identifierQuote.length() <= 1))
+		{
+			SqlKeywordMatcher.Scan scan = scanKeywords(sql, compiledPatterns.getKeywordMatcher(), identifierQuote);
+
+			return (scan.hasMatch() ? new SqlValidation(scan.getValue()) : new SqlValidation(true));
+		}
+
+		sql = replaceSqlIfNeed(sql, profile);
+
+		SqlKeywordMatcher keywordMatcher = compiledPatterns.getKeywordMatcher();
+		SqlKeywordMatcher.Scan scan = (keywordMatcher == null ? null : keywordMatcher.scan(sql));
+		Pattern[] regexPatterns = compiledPatterns.getRegexPatterns();
+
+		for (int i = 0; i < regexPatterns.length; i++)
+		{
+			if (scan != null && scan.getGroup() == i)
+				return new SqlValidation(scan.getValue());
+
+			if (regexPatterns[i] != null)
+			{
+				SqlValidation validation = validate(sql, regexPatterns[i]);
+
+				if (!validation.isValid())
+					return validation;
+			}
+		}
+
+		return new SqlValidation(true);
+	}
+
+	/**
+	 * 忽略SQL字符串、引用标识符，扫描SQL中的关键字。
+	 * <p>
+	 * 被忽略的内容与{@linkplain #replaceSqlIfNeed(String, DatabaseProfile)}一致，即仅保留首尾的引号，
+	 * 以使匹配结果与先替换SQL、再执行正则匹配的结果一致。
+	 * </p>
+	 *
+	 * @param sql
+	 * @param keywordMatcher
+	 * @param identifierQuote
+	 *            允许为{@code null}，不应是多字符
+	 * @return
+	 */
+	protected SqlKeywordMatcher.Scan scanKeywords(String sql, SqlKeywordMatcher keywordMatcher,
+			String identifierQuote)
+	{
+		SqlKeywordMatcher.Scan scan = keywordMatcher.scan();
+
+		int quote = (this.ignoreQuoteIdentifier && !StringUtil.isEmpty(identifierQuote) ? identifierQuote.charAt(0)
+				: -1);
+		int len = sql.length();
+		int i = 0;
+
+		while (i < len)
+		{
+			char c = sql.charAt(i);
+
+			if ((c == '\'' && this.ignoreSqlString) || c == quote)
+			{
+				if (!scan.next(c) || !scan.next(c))
+					break;
+
+				i = skipQuote(sql, i + 1, c);
+			}
+			else
+			{
+				if (!scan.next(c))
+					break;
+
+				i++;
+			}
+		}
+
+		scan.end();
+
+		return scan;
+	}
+
+	/**
+	 * 跳过引号内容，连续的两个引号被认为是转义内容。
+	 *
+	 * @param sql
+	 * @param start
+	 *            起始引号之后的位置
+	 * @param quote
+	 * @return 结束引号之后的位置
+	 */
+	protected int skipQuote(String sql, int start, char quote)
+	{
+		int len = sql.length();
+		int i = start;
+
+		while (i < len)
+		{
+			if (sql.charAt(i++) == quote)
+			{
+				if (i < len && sql.charAt(i) == quote)
+					i++;
+				else
+					return i;
+			}
+		}
+
+		return len;
+	}
+
+	protected CompiledPatterns getCompiledPatterns(DatabaseProfile profile)
+	{
+		CompiledPatterns compiledPatterns = this.compiledPatternsCache.get(profile);
+
+		if (compiledPatterns == null)
+		{
+			compiledPatterns = compilePatterns(findPatterns(profile));
+			this.compiledPatternsCache.put(profile, compiledPatterns);
+		}
+
+		return compiledPatterns;
+	}
+
+	/**
+	 * 编译正则模式，由{@linkplain #toKeywordPattern(String...)}构建的正则模式将被合并编译为一个{@linkplain SqlKeywordMatcher}。
+	 *
+	 * @param patterns
+	 * @return
+	 */
+	protected CompiledPatterns compilePatterns(List<Pattern> patterns)
+	{
+		Pattern[] regexPatterns = new Pattern[patterns.size()];
+		List<String[]> keywordGroups = new ArrayList<String[]>(patterns.size());
+		boolean hasKeywords = false;
+
+		for (int i = 0; i < patterns.size(); i++)
+		{
+			Pattern pattern = patterns.get(i);
+			String[] keywords = toKeywords(pattern);
+
+			if (keywords == null)
+				regexPatterns[i] = pattern;
+			else
+				hasKeywords = true;
+
+			keywordGroups.add(keywords);
+		}
+
+		SqlKeywordMatcher keywordMatcher = (hasKeywords ? new SqlKeywordMatcher(keywordGroups) : null);
+
+		return new CompiledPatterns(regexPatterns, keywordMatcher);
+	}
+
 	protected List<Pattern> findPatterns(DatabaseProfile profile)
 	{
 		List<Pattern> patterns = new ArrayList<Pattern>(3);
@@ -170,11 +426,15 @@ public class InvalidPatternSqlValidator extends AbstractSqlValidator
 	 * @return
 	 */
 	public static Pattern toKeywordPattern(String... keywords)
+	{
+		return compileToSqlValidatorPattern(toKeywordRegex(keywords));
+	}
+
+	protected static String toKeywordRegex(String... keywords)
 	{
 		StringBuilder sb = new StringBuilder();
 		
-		sb.append("([^\\_\\w]|^)");
-		sb.append("(");
+		sb.append(KEYWORD_PATTERN_PREFIX);
 		
 		for (int i = 0; i < keywords.length; i++)
 		{
@@ -184,12 +444,84 @@ public class InvalidPatternSqlValidator extends AbstractSqlValidator
 			sb.append("(" + Pattern.quote(keywords[i]) + ")");
 		}
 		
-		sb.append(")");
-		sb.append("([^\\_\\w]|$)");
+		sb.append(KEYWORD_PATTERN_SUFFIX);
 
-		return compileToSqlValidatorPattern(sb.toString());
+		return sb.toString();
 	}
 	
+	/**
+	 * 获取由{@linkplain #toKeywordPattern(String...)}构建的正则模式的关键字。
+	 *
+	 * @param pattern
+	 * @return 不是由{@linkplain #toKeywordPattern(String...)}构建、或者包含空关键字时返回{@code null}
+	 */
+	public static String[] toKeywords(Pattern pattern)
+	{
+		if (pattern.flags() != Pattern.CASE_INSENSITIVE)
+			return null;
+
+		String regex = pattern.pattern();
+
+		if (!regex.startsWith(KEYWORD_PATTERN_PREFIX) || !regex.endsWith(KEYWORD_PATTERN_SUFFIX))
+			return null;
+
+		List<String> keywords = new ArrayList<String>();
+
+		int idx = KEYWORD_PATTERN_PREFIX.length();
+		int end = regex.length() - KEYWORD_PATTERN_SUFFIX.length();
+
+		while (idx < end)
+		{
+			if (!keywords.isEmpty())
+			{
+				if (regex.charAt(idx) != '|')
+					return null;
+
+				idx++;
+			}
+
+			if (!regex.startsWith("(\\Q", idx))
+				return null;
+
+			// Pattern.quote()将内容中的"\E"转换为"\E\\E\Q"
+			StringBuilder keyword = new StringBuilder();
+			idx += 3;
+
+			while (true)
+			{
+				int quoteEnd = regex.indexOf("\\E", idx);
+
+				if (quoteEnd < 0 || quoteEnd > end)
+					return null;
+
+				keyword.append(regex, idx, quoteEnd);
+				idx = quoteEnd + 2;
+
+				if (regex.startsWith("\\\\E\\Q", idx))
+				{
+					keyword.append("\\E");
+					idx += 5;
+				}
+				else
+					break;
+			}
+
+			if (idx >= end || regex.charAt(idx) != ')' || keyword.length() == 0)
+				return null;
+
+			idx++;
+			keywords.add(keyword.toString());
+		}
+
+		String[] re = keywords.toArray(new String[keywords.size()]);
+
+		// 确保完全一致
+		if (re.length == 0 || !toKeywordRegex(re).equals(regex))
+			return null;
+
+		return re;
+	}
+
 	/**
 	 * 将正则字符串编译为用于{@linkplain SqlValidator}的正则对象（匹配时忽略大小写）。
 	 * 
@@ -200,4 +532,110 @@ public class InvalidPatternSqlValidator extends AbstractSqlValidator
 	{
 		return Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
 	}
+
+	/**
+	 * 编译后的正则模式。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class CompiledPatterns
+	{
+		/** 与{@linkplain #findPatterns(DatabaseProfile)}顺序一致，已编译至{@linkplain #keywordMatcher}的元素为{@code null} */
+		private final Pattern[] regexPatterns;
+
+		/** 组索引即正则模式索引，允许为{@code null} */
+		private final SqlKeywordMatcher keywordMatcher;
+
+		private final boolean hasRegexPattern;
+
+		public CompiledPatterns(Pattern[] regexPatterns, SqlKeywordMatcher keywordMatcher)
+		{
+			super();
+			this.regexPatterns = regexPatterns;
+			this.keywordMatcher = keywordMatcher;
+
+			boolean hasRegexPattern = false;
+			for (Pattern pattern : regexPatterns)
+			{
+				if (pattern != null)
+				{
+					hasRegexPattern = true;
+					break;
+				}
+			}
+			this.hasRegexPattern = hasRegexPattern;
+		}
+
+		public Pattern[] getRegexPatterns()
+		{
+			return regexPatterns;
+		}
+
+		public SqlKeywordMatcher getKeywordMatcher()
+		{
+			return keywordMatcher;
+		}
+
+		public boolean hasRegexPattern()
+		{
+			return hasRegexPattern;
+		}
+
+		public boolean isEmpty()
+		{
+			return (this.regexPatterns.length == 0);
+		}
+	}
+
+	/**
+	 * 校验结果缓存关键字。
+	 * <p>
+	 * 以完整的SQL作为关键字，而不仅是它的摘要，避免摘要冲突导致误用其他SQL的校验结果。
+	 * </p>
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ValidationKey
+	{
+		private final String sql;
+
+		private final DatabaseProfile profile;
+
+		private final int hash;
+
+		public ValidationKey(String sql, DatabaseProfile profile)
+		{
+			super();
+			this.sql = sql;
+			this.profile = profile;
+			this.hash = 31 * sql.hashCode() + (profile == null ? 0 : profile.hashCode());
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			ValidationKey other = (ValidationKey) obj;
+			if (this.hash != other.hash)
+				return false;
+			if (!this.sql.equals(other.sql))
+				return false;
+			if (this.profile == null)
+				return (other.profile == null);
+			return this.profile.equals(other.profile);
+		}
+	}
 }
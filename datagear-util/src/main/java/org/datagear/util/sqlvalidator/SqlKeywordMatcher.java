@@ -0,0 +1,515 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util.sqlvalidator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL关键字匹配器。
+ * <p>
+ * 此类将多组关键字编译为一个Aho–Corasick确定有限自动机，只需逐字符扫描一遍文本即可找出所有组的关键字，
+ * 匹配语义与{@linkplain InvalidPatternSqlValidator#toKeywordPattern(String...)}构建的正则一致：
+ * </p>
+ * <ul>
+ * <li>仅{@code US-ASCII}字母忽略大小写；</li>
+ * <li>关键字前后必须是文本边界或者不是{@code _}、{@code 0-9}、{@code a-z}、{@code A-Z}的字符；</li>
+ * <li>匹配结果（{@linkplain Scan#getValue()}）包含关键字前后的边界字符，与正则匹配的子串一致。</li>
+ * </ul>
+ * <p>
+ * 当有多个匹配时，优先取组索引最小的，其次是在文本中最靠前的，最后是在组内最靠前的，与依次使用每组的正则查找的结果一致。
+ * </p>
+ * <p>
+ * 此类是线程安全的，每次扫描应使用{@linkplain #scan()}创建新的{@linkplain Scan}。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class SqlKeywordMatcher
+{
+	/** 状态转移表：{@code 状态 * columnCount + 列} */
+	private final int[] transitions;
+
+	private final int columnCount;
+
+	/** ASCII字符（大写化后）-列，0表示不是任何关键字中的字符 */
+	private final int[] asciiColumns = new int[128];
+
+	/** 非ASCII字符-列 */
+	private final Map<Character, Integer> otherColumns = new HashMap<Character, Integer>();
+
+	/** 状态-匹配的关键字索引，{@code null}表示没有 */
+	private final int[][] outputs;
+
+	/** 关键字索引-关键字长度 */
+	private final int[] keywordLengths;
+
+	/** 关键字索引-所在组索引 */
+	private final int[] keywordGroups;
+
+	/** 关键字索引-在组内的索引 */
+	private final int[] keywordOrders;
+
+	private final int maxKeywordLength;
+
+	private final int minGroup;
+
+	/**
+	 * 创建{@linkplain SqlKeywordMatcher}。
+	 *
+	 * @param keywordGroups
+	 *            关键字组，元素允许为{@code null}（表示没有关键字的组），关键字不允许为空字符串
+	 */
+	public SqlKeywordMatcher(List<String[]> keywordGroups)
+	{
+		super();
+
+		List<char[]> keywords = new ArrayList<char[]>();
+		List<int[]> groupOrders = new ArrayList<int[]>();
+
+		int columnCount = 1;
+
+		for (int i = 0; i < keywordGroups.size(); i++)
+		{
+			String[] group = keywordGroups.get(i);
+
+			if (group == null)
+				continue;
+
+			for (int j = 0; j < group.length; j++)
+			{
+				char[] keyword = group[j].toCharArray();
+
+				if (keyword.length == 0)
+					throw new IllegalArgumentException("Keyword must not be empty");
+
+				for (int k = 0; k < keyword.length; k++)
+				{
+					char c = toUpperCase(keyword[k]);
+					keyword[k] = c;
+
+					if (c < 128)
+					{
+						if (this.asciiColumns[c] == 0)
+							this.asciiColumns[c] = columnCount++;
+					}
+					else if (!this.otherColumns.containsKey(c))
+						this.otherColumns.put(c, columnCount++);
+				}
+
+				keywords.add(keyword);
+				groupOrders.add(new int[] { i, j });
+			}
+		}
+
+		this.columnCount = columnCount;
+		this.keywordLengths = new int[keywords.size()];
+		this.keywordGroups = new int[keywords.size()];
+		this.keywordOrders = new int[keywords.size()];
+
+		int maxKeywordLength = 0;
+		int minGroup = Integer.MAX_VALUE;
+
+		// 构建关键字树
+		List<int[]> gotos = new ArrayList<int[]>();
+		List<List<Integer>> outputList = new ArrayList<List<Integer>>();
+		gotos.add(newGotoRow(columnCount));
+		outputList.add(null);
+
+		for (int i = 0; i < keywords.size(); i++)
+		{
+			char[] keyword = keywords.get(i);
+			int state = 0;
+
+			for (char c : keyword)
+			{
+				int column = getColumn(c);
+				int next = gotos.get(state)[column];
+
+				if (next < 0)
+				{
+					next = gotos.size();
+					gotos.get(state)[column] = next;
+					gotos.add(newGotoRow(columnCount));
+					outputList.add(null);
+				}
+
+				state = next;
+			}
+
+			List<Integer> output = outputList.get(state);
+			if (output == null)
+			{
+				output = new ArrayList<Integer>(1);
+				outputList.set(state, output);
+			}
+			output.add(i);
+
+			this.keywordLengths[i] = keyword.length;
+			this.keywordGroups[i] = groupOrders.get(i)[0];
+			this.keywordOrders[i] = groupOrders.get(i)[1];
+
+			maxKeywordLength = Math.max(maxKeywordLength, keyword.length);
+			minGroup = Math.min(minGroup, this.keywordGroups[i]);
+		}
+
+		this.maxKeywordLength = maxKeywordLength;
+		this.minGroup = minGroup;
+
+		// 按广度优先顺序计算失败链接，并将其合并至状态转移表，构成确定有限自动机
+		int stateCount = gotos.size();
+		int[] transitions = new int[stateCount * columnCount];
+		int[] fails = new int[stateCount];
+		LinkedList<Integer> queue = new LinkedList<Integer>();
+
+		queue.add(0);
+
+		while (!queue.isEmpty())
+		{
+			int state = queue.removeFirst();
+			int[] gotoRow = gotos.get(state);
+
+			// 列0表示不在任何关键字中的字符，总是回到初始状态
+			for (int column = 1; column < columnCount; column++)
+			{
+				int next = gotoRow[column];
+
+				if (next >= 0)
+				{
+					int fail = (state == 0 ? 0 : transitions[fails[state] * columnCount + column]);
+					fails[next] = fail;
+
+					List<Integer> failOutput = outputList.get(fail);
+					if (failOutput != null)
+					{
+						List<Integer> output = outputList.get(next);
+						if (output == null)
+						{
+							output = new ArrayList<Integer>(failOutput.size());
+							outputList.set(next, output);
+						}
+						output.addAll(failOutput);
+					}
+
+					transitions[state * columnCount + column] = next;
+					queue.add(next);
+				}
+				else
+				{
+					transitions[state * columnCount + column] = (state == 0 ? 0
+							: transitions[fails[state] * columnCount + column]);
+				}
+			}
+		}
+
+		this.transitions = transitions;
+		this.outputs = new int[stateCount][];
+
+		for (int i = 0; i < stateCount; i++)
+		{
+			List<Integer> output = outputList.get(i);
+
+			if (output != null)
+			{
+				int[] outputArray = new int[output.size()];
+				for (int j = 0; j < outputArray.length; j++)
+					outputArray[j] = output.get(j);
+
+				this.outputs[i] = outputArray;
+			}
+		}
+	}
+
+	/**
+	 * 是否没有任何关键字。
+	 *
+	 * @return
+	 */
+	public boolean isEmpty()
+	{
+		return (this.keywordLengths.length == 0);
+	}
+
+	/**
+	 * 创建一次扫描。
+	 *
+	 * @return
+	 */
+	public Scan scan()
+	{
+		return new Scan();
+	}
+
+	/**
+	 * 扫描整个文本。
+	 *
+	 * @param text
+	 * @return
+	 */
+	public Scan scan(String text)
+	{
+		Scan scan = new Scan();
+
+		for (int i = 0, len = text.length(); i < len; i++)
+		{
+			if (!scan.next(text.charAt(i)))
+				break;
+		}
+
+		scan.end();
+
+		return scan;
+	}
+
+	protected int getColumn(char c)
+	{
+		if (c < 128)
+			return this.asciiColumns[toUpperCase(c)];
+
+		Integer column = this.otherColumns.get(c);
+		return (column == null ? 0 : column);
+	}
+
+	protected int[] newGotoRow(int columnCount)
+	{
+		int[] row = new int[columnCount];
+
+		for (int i = 0; i < row.length; i++)
+			row[i] = -1;
+
+		return row;
+	}
+
+	/**
+	 * 转换为大写，仅转换{@code a-z}。
+	 *
+	 * @param c
+	 * @return
+	 */
+	protected static char toUpperCase(char c)
+	{
+		return (c >= 'a' && c <= 'z' ? (char) (c - 32) : c);
+	}
+
+	/**
+	 * 是否单词字符：{@code _}、{@code 0-9}、{@code a-z}、{@code A-Z}。
+	 *
+	 * @param c
+	 * @return
+	 */
+	protected static boolean isWordChar(char c)
+	{
+		return ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_');
+	}
+
+	/**
+	 * 一次扫描。
+	 * <p>
+	 * 依次调用{@linkplain #next(char)}输入文本中的每个字符，最后调用{@linkplain #end()}，然后获取匹配结果。
+	 * </p>
+	 * <p>
+	 * 此类不是线程安全的。
+	 * </p>
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	public class Scan
+	{
+		/** 最近输入字符的环形缓冲，用于检查关键字前的边界字符、构建匹配结果 */
+		private final char[] recent;
+
+		private final int recentMask;
+
+		/** 已输入的字符数 */
+		private int count = 0;
+
+		private int state = 0;
+
+		private boolean finished = false;
+
+		private int group = -1;
+
+		/** 匹配结果在文本中的起始位置 */
+		private int start = -1;
+
+		/** 匹配结果是否以文本开头作为边界 */
+		private boolean startAtBegin = false;
+
+		private int order = -1;
+
+		private String value = null;
+
+		protected Scan()
+		{
+			super();
+
+			int size = Integer.highestOneBit(maxKeywordLength + 2) << 1;
+			this.recent = new char[size];
+			this.recentMask = size - 1;
+		}
+
+		/**
+		 * 输入下一个字符。
+		 *
+		 * @param c
+		 * @return {@code false} 已能确定最终匹配结果，无需再输入；{@code true} 需继续输入
+		 */
+		public boolean next(char c)
+		{
+			if (this.finished)
+				return false;
+
+			resolve(c, true);
+
+			if (this.finished)
+				return false;
+
+			this.recent[this.count & this.recentMask] = c;
+			this.count++;
+			this.state = transitions[this.state * columnCount + getColumn(c)];
+
+			return true;
+		}
+
+		/**
+		 * 结束输入。
+		 */
+		public void end()
+		{
+			if (!this.finished)
+			{
+				resolve((char) 0, false);
+				this.finished = true;
+			}
+		}
+
+		/**
+		 * 是否有匹配。
+		 *
+		 * @return
+		 */
+		public boolean hasMatch()
+		{
+			return (this.value != null);
+		}
+
+		/**
+		 * 获取匹配的组索引。
+		 *
+		 * @return {@code -1}表示没有匹配
+		 */
+		public int getGroup()
+		{
+			return group;
+		}
+
+		/**
+		 * 获取匹配结果，包含关键字前后的边界字符。
+		 *
+		 * @return {@code null}表示没有匹配
+		 */
+		public String getValue()
+		{
+			return value;
+		}
+
+		/**
+		 * 处理结束于上一个输入字符的关键字。
+		 *
+		 * @param next
+		 *            下一个字符
+		 * @param hasNext
+		 *            是否有下一个字符
+		 */
+		protected void resolve(char next, boolean hasNext)
+		{
+			int[] output = outputs[this.state];
+
+			if (output != null && (!hasNext || !isWordChar(next)))
+			{
+				for (int keyword : output)
+				{
+					int keywordStart = this.count - keywordLengths[keyword];
+					int start = keywordStart;
+					boolean startAtBegin = false;
+
+					if (keywordStart == 0)
+					{
+						startAtBegin = true;
+					}
+					else
+					{
+						if (isWordChar(this.recent[(keywordStart - 1) & this.recentMask]))
+							continue;
+
+						start = keywordStart - 1;
+					}
+
+					if (isPrior(keywordGroups[keyword], start, startAtBegin, keywordOrders[keyword]))
+					{
+						this.group = keywordGroups[keyword];
+						this.start = start;
+						this.startAtBegin = startAtBegin;
+						this.order = keywordOrders[keyword];
+						this.value = buildValue(start, next, hasNext);
+					}
+				}
+			}
+
+			// 之后的匹配起始位置不会小于(count - maxKeywordLength)，不会再优先于最小组索引的匹配
+			if (this.group == minGroup && this.start < this.count - maxKeywordLength)
+				this.finished = true;
+		}
+
+		protected boolean isPrior(int group, int start, boolean startAtBegin, int order)
+		{
+			if (this.value == null)
+				return true;
+
+			if (group != this.group)
+				return (group < this.group);
+
+			if (start != this.start)
+				return (start < this.start);
+
+			// 正则优先匹配前边界字符，其次才是文本开头
+			if (startAtBegin != this.startAtBegin)
+				return !startAtBegin;
+
+			return (order < this.order);
+		}
+
+		protected String buildValue(int start, char next, boolean hasNext)
+		{
+			StringBuilder sb = new StringBuilder(this.count - start + 1);
+
+			for (int i = start; i < this.count; i++)
+				sb.append(this.recent[i & this.recentMask]);
+
+			if (hasNext)
+				sb.append(next);
+
+			return sb.toString();
+		}
+	}
+}
@@ -19,13 +19,13 @@ package org.datagear.util.sqlvalidator;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.datagear.util.CharScanner;
 import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 import org.datagear.util.TextParserSupport;
@@ -71,7 +71,7 @@ public class SqlTokenParser extends TextParserSupport
 
 		try
 		{
-			in = new StringReader(sql);
+			in = new CharScanner(sql);
 			return parse(in, identifierQuote);
 		}
 		catch (IOException e)
@@ -88,7 +88,7 @@ public class SqlTokenParser extends TextParserSupport
 	 * 解析SQL单词。
 	 * 
 	 * @param in
-	 *            SQL输入流，需支持{@linkplain Reader#markSupported()}
+	 *            SQL输入流，将以{@linkplain CharScanner}读取
 	 * @param identifierQuote
 	 *            允许{@code null}，数据库标识引用符
 	 * @return
@@ -96,6 +96,8 @@ public class SqlTokenParser extends TextParserSupport
 	 */
 	public List<SqlToken> parse(Reader in, String identifierQuote) throws IOException
 	{
+		in = CharScanner.valueOf(in);
+
 		List<SqlToken> tokens = new ArrayList<SqlToken>();
 		
 		StringWriter out = new StringWriter();
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.text.DecimalFormat;
+
+import org.datagear.util.html.DefaultFilterHandler;
+import org.datagear.util.html.HtmlFilter;
+import org.junit.Test;
+
+/**
+ * {@linkplain CharScanner}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class CharScannerTest
+{
+	@Test
+	public void readTest() throws IOException
+	{
+		String str = "abcdefghijklmn";
+
+		// 缓冲块小于内容长度
+		CharScanner scanner = new CharScanner(new StringReader(str), 3);
+
+		StringBuilder sb = new StringBuilder();
+		assertEquals('a', scanner.peek());
+
+		int c = -1;
+		while ((c = scanner.read()) > -1)
+			sb.append((char) c);
+
+		assertEquals(str, sb.toString());
+		assertEquals(-1, scanner.peek());
+		assertEquals(-1, scanner.read());
+	}
+
+	@Test
+	public void readLineTest() throws IOException
+	{
+		String str = "line0\nline1\r\nline2\rline3\r\n\r\nline5";
+
+		for (int bufferSize = 1; bufferSize < 10; bufferSize++)
+		{
+			CharScanner scanner = new CharScanner(new StringReader(str), bufferSize);
+
+			assertEquals("line0", scanner.readLine());
+			assertEquals("line1", scanner.readLine());
+			assertEquals("line2", scanner.readLine());
+			assertEquals("line3", scanner.readLine());
+			assertEquals("", scanner.readLine());
+			assertEquals("line5", scanner.readLine());
+			assertNull(scanner.readLine());
+		}
+
+		{
+			CharScanner scanner = new CharScanner(str);
+
+			assertEquals("line0", scanner.readLine());
+			assertEquals("line1", scanner.readLine());
+			assertEquals("line2", scanner.readLine());
+		}
+	}
+
+	@Test
+	public void writeUntilTest() throws IOException
+	{
+		String str = "abc<def<<ghi";
+
+		CharScanner scanner = new CharScanner(new StringReader(str), 2);
+
+		StringWriter out = new StringWriter();
+		assertEquals('<', scanner.writeUntil(out, '<'));
+		assertEquals("abc", out.toString());
+
+		out = new StringWriter();
+		assertEquals('<', scanner.writeUntil(out, '<'));
+		assertEquals("def", out.toString());
+
+		out = new StringWriter();
+		assertEquals('<', scanner.writeUntil(out, '<'));
+		assertEquals("", out.toString());
+
+		out = new StringWriter();
+		assertEquals(-1, scanner.writeUntil(out, '<'));
+		assertEquals("ghi", out.toString());
+	}
+
+	@Test
+	public void markResetTest() throws IOException
+	{
+		String str = "abcdefghijklmn";
+
+		// 标记读取限制大于缓冲块
+		CharScanner scanner = new CharScanner(new StringReader(str), 2);
+
+		scanner.read();
+		scanner.mark(5);
+
+		assertEquals('b', scanner.read());
+		assertEquals('c', scanner.read());
+		assertEquals('d', scanner.read());
+		assertEquals('e', scanner.read());
+
+		scanner.reset();
+
+		assertEquals('b', scanner.read());
+
+		// 超过标记读取限制，且已读取下一块
+		scanner.mark(1);
+		for (int i = 0; i < 8; i++)
+			scanner.read();
+
+		IOException exception = null;
+
+		try
+		{
+			scanner.reset();
+		}
+		catch (IOException e)
+		{
+			exception = e;
+		}
+
+		assertTrue(exception != null);
+	}
+
+	@Test
+	public void readTest_forPerformance() throws Throwable
+	{
+		int loopCount = 200;
+
+		String html = buildPerformanceHtml();
+
+		long rawTimes = 0;
+		long enhanceTimes = 0;
+
+		for (int i = 0; i < loopCount; i++)
+		{
+			BufferedReader in = new BufferedReader(new StringReader(html));
+
+			long startTime = System.nanoTime();
+
+			int c = -1;
+			while ((c = in.read()) > -1)
+				;
+
+			rawTimes += System.nanoTime() - startTime;
+		}
+
+		for (int i = 0; i < loopCount; i++)
+		{
+			CharScanner in = new CharScanner(new StringReader(html));
+
+			long startTime = System.nanoTime();
+
+			int c = -1;
+			while ((c = in.read()) > -1)
+				;
+
+			enhanceTimes += System.nanoTime() - startTime;
+		}
+
+		double enhance = ((double) rawTimes) / enhanceTimes;
+
+		System.out.println("-----------------------");
+		System.out.println("test count   : " + loopCount);
+		System.out.println("raw time     : " + rawTimes);
+		System.out.println("enhance time : " + enhanceTimes);
+		System.out.println("enhance ratio : " + new DecimalFormat("0.00").format(enhance));
+		System.out.println("-----------------------");
+	}
+
+	@Test
+	public void parseTest_forPerformance() throws Throwable
+	{
+		int loopCount = 200;
+
+		String html = buildPerformanceHtml();
+		String sql = buildPerformanceSql();
+
+		HtmlFilter htmlFilter = new HtmlFilter();
+
+		long htmlTimes = 0;
+		long sqlTimes = 0;
+
+		for (int i = 0; i < loopCount; i++)
+		{
+			StringWriter out = new StringWriter(html.length());
+
+			long startTime = System.nanoTime();
+
+			htmlFilter.filter(new StringReader(html), new DefaultFilterHandler(out));
+
+			htmlTimes += System.nanoTime() - startTime;
+
+			assertEquals(html, out.toString());
+		}
+
+		for (int i = 0; i < loopCount; i++)
+		{
+			SqlScriptParser parser = new SqlScriptParser(new StringReader(sql));
+
+			long startTime = System.nanoTime();
+
+			int count = 0;
+			while (parser.parseNext() != null)
+				count++;
+
+			sqlTimes += System.nanoTime() - startTime;
+
+			assertEquals(5000, count);
+		}
+
+		DecimalFormat df = new DecimalFormat("0.00");
+
+		System.out.println("-----------------------");
+		System.out.println("test count   : " + loopCount);
+		System.out.println("HtmlFilter chars/us : " + df.format(((double) html.length() * loopCount) / (htmlTimes / 1000.0d)));
+		System.out.println("SqlScriptParser chars/us : " + df.format(((double) sql.length() * loopCount) / (sqlTimes / 1000.0d)));
+		System.out.println("-----------------------");
+	}
+
+	protected String buildPerformanceHtml()
+	{
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("<html>\n<head>\n<title>test</title>\n");
+		sb.append("<style>\n.chart{ width: 100%; height: 300px; }\n</style>\n");
+		sb.append("<script>\nvar a = '<div>'; // comment\n</script>\n");
+		sb.append("</head>\n<body>\n");
+
+		for (int i = 0; i < 2000; i++)
+		{
+			sb.append("<div id=\"chart" + i + "\" class=\"chart\" dg-chart-widget=\"widget" + i + "\"></div>\n");
+			sb.append("<p>some text, some text, some text, some text, some text</p>\n");
+		}
+
+		sb.append("</body>\n</html>");
+
+		return sb.toString();
+	}
+
+	protected String buildPerformanceSql()
+	{
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < 5000; i++)
+		{
+			sb.append("-- comment " + i + "\n");
+			sb.append("INSERT INTO T_ORDER(ID, NAME, REMARK) VALUES(" + i + ", 'name;" + i + "', /* remark */ 'x');\n");
+		}
+
+		return sb.toString();
+	}
+}
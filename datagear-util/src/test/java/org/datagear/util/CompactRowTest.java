@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain CompactRow}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class CompactRowTest
+{
+	@Test
+	public void test()
+	{
+		CompactRow.Schema schema = CompactRow.Schema.valueOf("a", "b", "a", "c");
+
+		assertEquals(3, schema.size());
+
+		int[] slots = CompactRow.Schema.slotsOf(schema, "a", "b", "a", "c");
+		assertEquals(0, slots[0]);
+		assertEquals(1, slots[1]);
+		assertEquals(0, slots[2]);
+		assertEquals(2, slots[3]);
+
+		CompactRow row = new CompactRow(schema, new Object[] { 1, null, "c" });
+
+		assertEquals(3, row.size());
+		assertEquals(1, row.get("a"));
+		assertNull(row.get("b"));
+		assertTrue(row.containsKey("b"));
+		assertFalse(row.containsKey("d"));
+
+		row.put("b", 2);
+		row.put("d", 4);
+
+		assertEquals(4, row.size());
+		assertEquals(2, row.get("b"));
+		assertEquals(4, row.get("d"));
+
+		Map<String, Object> expected = new HashMap<>();
+		expected.put("a", 1);
+		expected.put("b", 2);
+		expected.put("c", "c");
+		expected.put("d", 4);
+
+		assertEquals(expected, row);
+		assertEquals(expected.hashCode(), row.hashCode());
+		assertEquals(expected, new HashMap<>(row));
+
+		assertEquals(1, row.remove("a"));
+		assertEquals(4, row.remove("d"));
+		assertEquals(2, row.size());
+		assertFalse(row.containsKey("a"));
+		assertNull(row.remove("a"));
+
+		row.put("a", 5);
+		assertEquals(3, row.size());
+		assertEquals(5, row.get("a"));
+	}
+}
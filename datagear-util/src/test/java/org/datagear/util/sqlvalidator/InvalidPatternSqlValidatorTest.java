@@ -18,7 +18,10 @@
 package org.datagear.util.sqlvalidator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.HashMap;
@@ -398,4 +401,144 @@ public class InvalidPatternSqlValidatorTest
 			assertTrue(validation.isValid());
 		}
 	}
+
+	@Test
+	public void validateTest_regexPattern()
+	{
+		Map<String, Pattern> patterns = new HashMap<String, Pattern>();
+		patterns.put(InvalidPatternSqlValidator.DEFAULT_PATTERN_KEY,
+				InvalidPatternSqlValidator.toKeywordPattern("DELETE", "ALTER"));
+		patterns.put("mysql", InvalidPatternSqlValidator.compileToSqlValidatorPattern("(^|\\s)exec(\\s|$)"));
+
+		DatabaseProfile mysqlProfile = new DatabaseProfile("mysql", "", "`");
+
+		InvalidPatternSqlValidator validator = new InvalidPatternSqlValidator(patterns);
+
+		// "default"优先
+		{
+			String sql = "exec `DELETE`, 'exec', alter";
+			SqlValidation validation = validator.validate(sql, mysqlProfile);
+
+			assertFalse(validation.isValid());
+			assertEquals(" alter", validation.getInvalidValue());
+		}
+		{
+			String sql = "exec `DELETE`, 'exec', alter_";
+			SqlValidation validation = validator.validate(sql, mysqlProfile);
+
+			assertFalse(validation.isValid());
+			assertEquals("exec ", validation.getInvalidValue());
+		}
+		{
+			String sql = "SELECT `DELETE`, 'exec', alter_";
+			SqlValidation validation = validator.validate(sql, mysqlProfile);
+
+			assertTrue(validation.isValid());
+		}
+	}
+
+	@Test
+	public void validateTest_cache()
+	{
+		Map<String, Pattern> patterns = new HashMap<String, Pattern>();
+		patterns.put(InvalidPatternSqlValidator.DEFAULT_PATTERN_KEY,
+				InvalidPatternSqlValidator.toKeywordPattern("DELETE", "ALTER"));
+
+		DatabaseProfile mysqlProfile = new DatabaseProfile("mysql", "", "`");
+
+		InvalidPatternSqlValidator validator = new InvalidPatternSqlValidator(patterns);
+
+		String sql = "SELECT `DELETE` FROM TABLE";
+
+		SqlValidation validation = validator.validate(sql, mysqlProfile);
+		assertTrue(validation.isValid());
+		assertSame(validation, validator.validate(sql, new DatabaseProfile("mysql", "", "`")));
+
+		// 不同的标识引用符
+		assertFalse(validator.validate(sql, new DatabaseProfile("mysql", "", "\"")).isValid());
+
+		// 修改后缓存失效
+		validator.setIgnoreQuoteIdentifier(false);
+		assertFalse(validator.validate(sql, mysqlProfile).isValid());
+	}
+
+	@Test
+	public void toKeywordsTest()
+	{
+		{
+			String[] keywords = new String[] { "DELETE", "DROP TABLE", "a\\Eb", "a)|(b" };
+			assertArrayEquals(keywords,
+					InvalidPatternSqlValidator.toKeywords(InvalidPatternSqlValidator.toKeywordPattern(keywords)));
+		}
+
+		assertNull(InvalidPatternSqlValidator.toKeywords(InvalidPatternSqlValidator.toKeywordPattern("")));
+		assertNull(InvalidPatternSqlValidator
+				.toKeywords(InvalidPatternSqlValidator.compileToSqlValidatorPattern("DELETE|ALTER")));
+		assertNull(InvalidPatternSqlValidator
+				.toKeywords(Pattern.compile(InvalidPatternSqlValidator.toKeywordPattern("DELETE").pattern())));
+	}
+
+	@Test
+	public void validateTest_forPerformance()
+	{
+		Map<String, Pattern> patterns = new HashMap<String, Pattern>();
+		patterns.put(InvalidPatternSqlValidator.DEFAULT_PATTERN_KEY, InvalidPatternSqlValidator
+				.toKeywordPattern("INSERT", "UPDATE", "DELETE", "TRUNCATE", "CREATE", "ALTER", "DROP"));
+
+		DatabaseProfile mysqlProfile = new DatabaseProfile("mysql", "", "`");
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 200; i++)
+			sb.append("SELECT t.a, 'it''s' AS c, `name` FROM table_" + i + " t WHERE t.x = 'drop' AND t.y > " + i
+					+ "\n");
+
+		String sql = sb.toString();
+		int loopCount = 1000;
+
+		InvalidPatternSqlValidator regexValidator = new InvalidPatternSqlValidator(patterns)
+		{
+			@Override
+			protected SqlValidation doValidate(String sql, DatabaseProfile profile)
+			{
+				sql = replaceSqlIfNeed(sql, profile);
+
+				for (Pattern pattern : findPatterns(profile))
+				{
+					SqlValidation validation = validate(sql, pattern);
+
+					if (!validation.isValid())
+						return validation;
+				}
+
+				return new SqlValidation(true);
+			}
+		};
+		regexValidator.setValidationCacheMaxSize(0);
+
+		InvalidPatternSqlValidator validator = new InvalidPatternSqlValidator(patterns);
+		validator.setValidationCacheMaxSize(0);
+
+		long rawTimes = 0;
+		long enhanceTimes = 0;
+
+		for (int i = 0; i < loopCount; i++)
+		{
+			long startTime = System.nanoTime();
+			assertTrue(regexValidator.validate(sql, mysqlProfile).isValid());
+			rawTimes += System.nanoTime() - startTime;
+
+			startTime = System.nanoTime();
+			assertTrue(validator.validate(sql, mysqlProfile).isValid());
+			enhanceTimes += System.nanoTime() - startTime;
+		}
+
+		double enhance = ((double) rawTimes) / enhanceTimes;
+
+		System.out.println("-----------------------");
+		System.out.println("test count   : " + loopCount);
+		System.out.println("raw time     : " + rawTimes);
+		System.out.println("enhance time : " + enhanceTimes);
+		System.out.println("enhance ratio : " + String.format("%.2f", enhance));
+		System.out.println("-----------------------");
+	}
 }
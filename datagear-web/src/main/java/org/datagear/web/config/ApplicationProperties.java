@@ -114,6 +114,10 @@ public abstract class ApplicationProperties implements Serializable
 	@Value("${cleanTempDirectory.interval}")
 	private String cleanTempDirectoryInterval;
 
+	/** 运行指标日志-输出间隔 */
+	@Value("${runtimeMetricsLog.interval}")
+	private String runtimeMetricsLogInterval;
+
 	/** 数据库-驱动类名 */
 	@Value("${datasource.driverClassName}")
 	private String datasourceDriverClassName;
@@ -198,10 +202,118 @@ public abstract class ApplicationProperties implements Serializable
 	@Value("${schemaTableCacheMaxLength}")
 	private int schemaTableCacheMaxLength;
 
+	/** 数据源表目录缓存秒数 */
+	@Value("${schemaTableCatalogExpiredSeconds}")
+	private int schemaTableCatalogExpiredSeconds;
+
 	/** 数据集缓存数据的最大条目数 */
 	@Value("${dataSetCacheMaxLength}")
 	private int dataSetCacheMaxLength;
 
+	/** 看板图表查询线程池最大线程数 */
+	@Value("${dashboardQuery.threads}")
+	private int dashboardQueryThreads;
+
+	/** 看板图表查询线程池等待队列长度 */
+	@Value("${dashboardQuery.queueSize}")
+	private int dashboardQueryQueueSize;
+
+	/** 单个看板最多并发执行的图表查询数 */
+	@Value("${dashboardQuery.parallelism}")
+	private int dashboardQueryParallelism;
+
+	/** 单个图表查询超时毫秒数 */
+	@Value("${dashboardQuery.chartTimeout}")
+	private long dashboardQueryChartTimeout;
+
+	/** 看板数据推送执行图表查询的线程数 */
+	@Value("${dashboardDataPush.threads}")
+	private int dashboardDataPushThreads;
+
+	/** 看板数据推送最小更新间隔毫秒数 */
+	@Value("${dashboardDataPush.minUpdateInterval}")
+	private long dashboardDataPushMinUpdateInterval;
+
+	/** 看板数据推送连接超时毫秒数 */
+	@Value("${dashboardDataPush.timeout}")
+	private long dashboardDataPushTimeout;
+
+	/** SQL工作台执行最大线程数 */
+	@Value("${sqlpadExecution.threads}")
+	private int sqlpadExecutionThreads;
+
+	/** 数据源连接池默认最大连接数 */
+	@Value("${connectionPool.maxTotal}")
+	private int connectionPoolMaxTotal;
+
+	/** 数据源连接池默认获取连接最长等待毫秒数 */
+	@Value("${connectionPool.maxWaitMillis}")
+	private long connectionPoolMaxWaitMillis;
+
+	/** SQL数据集结果缓存有效毫秒数 */
+	@Value("${sqlDataSetCache.ttl}")
+	private long sqlDataSetCacheTtl;
+
+	/** SQL数据集单个结果允许缓存的最大行数 */
+	@Value("${sqlDataSetCache.maxRows}")
+	private int sqlDataSetCacheMaxRows;
+
+	/** SQL数据集单个结果允许缓存的最大估算字节数 */
+	@Value("${sqlDataSetCache.maxBytes}")
+	private long sqlDataSetCacheMaxBytes;
+
+	/** 数据集属性表达式编译模式 */
+	@Value("${dataSetPropertyExp.compilerMode}")
+	private String dataSetPropertyExpCompilerMode;
+
+	/** HTTP客户端连接池最大连接数 */
+	@Value("${httpClient.maxTotal}")
+	private int httpClientMaxTotal;
+
+	/** HTTP客户端连接池单个路由最大连接数 */
+	@Value("${httpClient.maxPerRoute}")
+	private int httpClientMaxPerRoute;
+
+	/** HTTP客户端连接超时毫秒数 */
+	@Value("${httpClient.connectTimeout}")
+	private long httpClientConnectTimeout;
+
+	/** HTTP客户端响应超时毫秒数 */
+	@Value("${httpClient.responseTimeout}")
+	private long httpClientResponseTimeout;
+
+	/** HTTP客户端从连接池获取连接的超时毫秒数 */
+	@Value("${httpClient.connectionRequestTimeout}")
+	private long httpClientConnectionRequestTimeout;
+
+	/** HTTP客户端空闲连接回收毫秒数 */
+	@Value("${httpClient.idleEvictTime}")
+	private long httpClientIdleEvictTime;
+
+	/** HTTP数据集响应缓存最大条目数 */
+	@Value("${httpDataSetCache.maxEntries}")
+	private int httpDataSetCacheMaxEntries;
+
+	/** HTTP数据集单个响应允许缓存的最大字节数 */
+	@Value("${httpDataSetCache.maxObjectSize}")
+	private long httpDataSetCacheMaxObjectSize;
+
+	/** 数据导入批处理的每批记录数 */
+	@Value("${dataExchange.import.batchSize}")
+	private int dataExchangeImportBatchSize;
+
+	/** 数据导入提交间隔记录数 */
+	@Value("${dataExchange.import.commitInterval}")
+	private int dataExchangeImportCommitInterval;
+
+	/** 表数据导出分区数 */
+	@Value("${dataExchange.export.partitionCount}")
+	private int dataExchangeExportPartitionCount;
+
+	/** 表数据分区导出的共享线程数 */
+	@Value("${dataExchange.export.partitionThreads}")
+	private int dataExchangeExportPartitionThreads;
+
 	/** SQL数据集的SQL关键字黑名单 */
 	private Map<String, String> sqlDataSetInvalidSqlKeywords = Collections.emptyMap();
 
@@ -427,6 +539,16 @@ public abstract class ApplicationProperties implements Serializable
 		this.cleanTempDirectoryInterval = cleanTempDirectoryInterval;
 	}
 
+	public String getRuntimeMetricsLogInterval()
+	{
+		return runtimeMetricsLogInterval;
+	}
+
+	protected void setRuntimeMetricsLogInterval(String runtimeMetricsLogInterval)
+	{
+		this.runtimeMetricsLogInterval = runtimeMetricsLogInterval;
+	}
+
 	public String getDatasourceDriverClassName()
 	{
 		return datasourceDriverClassName;
@@ -637,6 +759,16 @@ public abstract class ApplicationProperties implements Serializable
 		this.schemaTableCacheMaxLength = schemaTableCacheMaxLength;
 	}
 
+	public int getSchemaTableCatalogExpiredSeconds()
+	{
+		return schemaTableCatalogExpiredSeconds;
+	}
+
+	protected void setSchemaTableCatalogExpiredSeconds(int schemaTableCatalogExpiredSeconds)
+	{
+		this.schemaTableCatalogExpiredSeconds = schemaTableCatalogExpiredSeconds;
+	}
+
 	public int getDataSetCacheMaxLength()
 	{
 		return dataSetCacheMaxLength;
@@ -647,6 +779,266 @@ public abstract class ApplicationProperties implements Serializable
 		this.dataSetCacheMaxLength = dataSetCacheMaxLength;
 	}
 
+	public int getDashboardQueryThreads()
+	{
+		return dashboardQueryThreads;
+	}
+
+	protected void setDashboardQueryThreads(int dashboardQueryThreads)
+	{
+		this.dashboardQueryThreads = dashboardQueryThreads;
+	}
+
+	public int getDashboardQueryQueueSize()
+	{
+		return dashboardQueryQueueSize;
+	}
+
+	protected void setDashboardQueryQueueSize(int dashboardQueryQueueSize)
+	{
+		this.dashboardQueryQueueSize = dashboardQueryQueueSize;
+	}
+
+	public int getDashboardQueryParallelism()
+	{
+		return dashboardQueryParallelism;
+	}
+
+	protected void setDashboardQueryParallelism(int dashboardQueryParallelism)
+	{
+		this.dashboardQueryParallelism = dashboardQueryParallelism;
+	}
+
+	public long getDashboardQueryChartTimeout()
+	{
+		return dashboardQueryChartTimeout;
+	}
+
+	protected void setDashboardQueryChartTimeout(long dashboardQueryChartTimeout)
+	{
+		this.dashboardQueryChartTimeout = dashboardQueryChartTimeout;
+	}
+
+	public int getDashboardDataPushThreads()
+	{
+		return dashboardDataPushThreads;
+	}
+
+	protected void setDashboardDataPushThreads(int dashboardDataPushThreads)
+	{
+		this.dashboardDataPushThreads = dashboardDataPushThreads;
+	}
+
+	public long getDashboardDataPushMinUpdateInterval()
+	{
+		return dashboardDataPushMinUpdateInterval;
+	}
+
+	protected void setDashboardDataPushMinUpdateInterval(long dashboardDataPushMinUpdateInterval)
+	{
+		this.dashboardDataPushMinUpdateInterval = dashboardDataPushMinUpdateInterval;
+	}
+
+	public long getDashboardDataPushTimeout()
+	{
+		return dashboardDataPushTimeout;
+	}
+
+	protected void setDashboardDataPushTimeout(long dashboardDataPushTimeout)
+	{
+		this.dashboardDataPushTimeout = dashboardDataPushTimeout;
+	}
+
+	public int getSqlpadExecutionThreads()
+	{
+		return sqlpadExecutionThreads;
+	}
+
+	protected void setSqlpadExecutionThreads(int sqlpadExecutionThreads)
+	{
+		this.sqlpadExecutionThreads = sqlpadExecutionThreads;
+	}
+
+	public int getConnectionPoolMaxTotal()
+	{
+		return connectionPoolMaxTotal;
+	}
+
+	protected void setConnectionPoolMaxTotal(int connectionPoolMaxTotal)
+	{
+		this.connectionPoolMaxTotal = connectionPoolMaxTotal;
+	}
+
+	public long getConnectionPoolMaxWaitMillis()
+	{
+		return connectionPoolMaxWaitMillis;
+	}
+
+	protected void setConnectionPoolMaxWaitMillis(long connectionPoolMaxWaitMillis)
+	{
+		this.connectionPoolMaxWaitMillis = connectionPoolMaxWaitMillis;
+	}
+
+	public long getSqlDataSetCacheTtl()
+	{
+		return sqlDataSetCacheTtl;
+	}
+
+	protected void setSqlDataSetCacheTtl(long sqlDataSetCacheTtl)
+	{
+		this.sqlDataSetCacheTtl = sqlDataSetCacheTtl;
+	}
+
+	public int getSqlDataSetCacheMaxRows()
+	{
+		return sqlDataSetCacheMaxRows;
+	}
+
+	protected void setSqlDataSetCacheMaxRows(int sqlDataSetCacheMaxRows)
+	{
+		this.sqlDataSetCacheMaxRows = sqlDataSetCacheMaxRows;
+	}
+
+	public long getSqlDataSetCacheMaxBytes()
+	{
+		return sqlDataSetCacheMaxBytes;
+	}
+
+	protected void setSqlDataSetCacheMaxBytes(long sqlDataSetCacheMaxBytes)
+	{
+		this.sqlDataSetCacheMaxBytes = sqlDataSetCacheMaxBytes;
+	}
+
+	public String getDataSetPropertyExpCompilerMode()
+	{
+		return dataSetPropertyExpCompilerMode;
+	}
+
+	protected void setDataSetPropertyExpCompilerMode(String dataSetPropertyExpCompilerMode)
+	{
+		this.dataSetPropertyExpCompilerMode = dataSetPropertyExpCompilerMode;
+	}
+
+	public int getHttpClientMaxTotal()
+	{
+		return httpClientMaxTotal;
+	}
+
+	protected void setHttpClientMaxTotal(int httpClientMaxTotal)
+	{
+		this.httpClientMaxTotal = httpClientMaxTotal;
+	}
+
+	public int getHttpClientMaxPerRoute()
+	{
+		return httpClientMaxPerRoute;
+	}
+
+	protected void setHttpClientMaxPerRoute(int httpClientMaxPerRoute)
+	{
+		this.httpClientMaxPerRoute = httpClientMaxPerRoute;
+	}
+
+	public long getHttpClientConnectTimeout()
+	{
+		return httpClientConnectTimeout;
+	}
+
+	protected void setHttpClientConnectTimeout(long httpClientConnectTimeout)
+	{
+		this.httpClientConnectTimeout = httpClientConnectTimeout;
+	}
+
+	public long getHttpClientResponseTimeout()
+	{
+		return httpClientResponseTimeout;
+	}
+
+	protected void setHttpClientResponseTimeout(long httpClientResponseTimeout)
+	{
+		this.httpClientResponseTimeout = httpClientResponseTimeout;
+	}
+
+	public long getHttpClientConnectionRequestTimeout()
+	{
+		return httpClientConnectionRequestTimeout;
+	}
+
+	protected void setHttpClientConnectionRequestTimeout(long httpClientConnectionRequestTimeout)
+	{
+		this.httpClientConnectionRequestTimeout = httpClientConnectionRequestTimeout;
+	}
+
+	public long getHttpClientIdleEvictTime()
+	{
+		return httpClientIdleEvictTime;
+	}
+
+	protected void setHttpClientIdleEvictTime(long httpClientIdleEvictTime)
+	{
+		this.httpClientIdleEvictTime = httpClientIdleEvictTime;
+	}
+
+	public int getHttpDataSetCacheMaxEntries()
+	{
+		return httpDataSetCacheMaxEntries;
+	}
+
+	protected void setHttpDataSetCacheMaxEntries(int httpDataSetCacheMaxEntries)
+	{
+		this.httpDataSetCacheMaxEntries = httpDataSetCacheMaxEntries;
+	}
+
+	public long getHttpDataSetCacheMaxObjectSize()
+	{
+		return httpDataSetCacheMaxObjectSize;
+	}
+
+	protected void setHttpDataSetCacheMaxObjectSize(long httpDataSetCacheMaxObjectSize)
+	{
+		this.httpDataSetCacheMaxObjectSize = httpDataSetCacheMaxObjectSize;
+	}
+
+	public int getDataExchangeImportBatchSize()
+	{
+		return dataExchangeImportBatchSize;
+	}
+
+	protected void setDataExchangeImportBatchSize(int dataExchangeImportBatchSize)
+	{
+		this.dataExchangeImportBatchSize = dataExchangeImportBatchSize;
+	}
+
+	public int getDataExchangeImportCommitInterval()
+	{
+		return dataExchangeImportCommitInterval;
+	}
+
+	protected void setDataExchangeImportCommitInterval(int dataExchangeImportCommitInterval)
+	{
+		this.dataExchangeImportCommitInterval = dataExchangeImportCommitInterval;
+	}
+
+	public int getDataExchangeExportPartitionCount()
+	{
+		return dataExchangeExportPartitionCount;
+	}
+
+	protected void setDataExchangeExportPartitionCount(int dataExchangeExportPartitionCount)
+	{
+		this.dataExchangeExportPartitionCount = dataExchangeExportPartitionCount;
+	}
+
+	public int getDataExchangeExportPartitionThreads()
+	{
+		return dataExchangeExportPartitionThreads;
+	}
+
+	protected void setDataExchangeExportPartitionThreads(int dataExchangeExportPartitionThreads)
+	{
+		this.dataExchangeExportPartitionThreads = dataExchangeExportPartitionThreads;
+	}
+
 	public Map<String, String> getSqlDataSetInvalidSqlKeywords()
 	{
 		return sqlDataSetInvalidSqlKeywords;
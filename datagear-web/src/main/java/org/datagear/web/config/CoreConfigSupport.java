@@ -24,30 +24,52 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.cache.CacheConfig;
+import org.apache.hc.client5.http.impl.cache.CachingHttpClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.datagear.analysis.ChartQueryExecutor;
 import org.datagear.analysis.DashboardThemeSource;
 import org.datagear.analysis.TplDashboardWidgetResManager;
 import org.datagear.analysis.support.DashboardQueryConverter;
 import org.datagear.analysis.support.DataSetParamValueConverter;
+import org.datagear.analysis.support.DataSetPropertyExpEvaluator;
+import org.datagear.analysis.support.DataSetQueryCoalescer;
 import org.datagear.analysis.support.FileTplDashboardWidgetResManager;
 import org.datagear.analysis.support.SimpleDashboardThemeSource;
+import org.datagear.analysis.support.SqlDataSetResultCache;
 import org.datagear.analysis.support.html.DirectoryHtmlChartPluginManager;
 import org.datagear.analysis.support.html.HtmlChartPluginLoader;
 import org.datagear.analysis.support.html.HtmlChartWidgetJsonRenderer;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer.IdJsonImportHtmlChartPluginVarNameResolver;
+import org.datagear.connection.ConnectionPoolOption;
 import org.datagear.connection.ConnectionSource;
 import org.datagear.connection.DefaultConnectionSource;
 import org.datagear.connection.GenericPropertiesProcessor;
 import org.datagear.connection.XmlDriverEntityManager;
 import org.datagear.connection.support.MySqlDevotedPropertiesProcessor;
 import org.datagear.connection.support.OracleDevotedPropertiesProcessor;
+import org.datagear.dataexchange.AbstractDevotedDBMetaDataExchangeService;
 import org.datagear.dataexchange.BatchDataExchange;
 import org.datagear.dataexchange.BatchDataExchangeService;
 import org.datagear.dataexchange.DataImportDependencyResolver;
@@ -134,7 +156,9 @@ import org.datagear.web.security.AuthenticationUserGetter;
 import org.datagear.web.sqlpad.SqlPermissionValidator;
 import org.datagear.web.sqlpad.SqlpadExecutionService;
 import org.datagear.web.sqlpad.SqlpadExecutionSubmit;
+import org.datagear.web.util.ChartPluginScriptBundleCache;
 import org.datagear.web.util.CheckCodeManager;
+import org.datagear.web.util.DashboardDataPushManager;
 import org.datagear.web.util.DefaultMessageChannel;
 import org.datagear.web.util.DelegatingTextEncryptor;
 import org.datagear.web.util.DelegatingTextEncryptor.EncryptType;
@@ -147,6 +171,7 @@ import org.datagear.web.util.SchemaTableCache;
 import org.datagear.web.util.SessionDashboardInfoSupport;
 import org.datagear.web.util.SessionIdParamResolver;
 import org.datagear.web.util.SqlDriverChecker;
+import org.datagear.web.util.StaticResourceSender;
 import org.datagear.web.util.WebDashboardQueryConverter;
 import org.datagear.web.util.XmlDriverEntityManagerInitializer;
 import org.datagear.web.util.accesslatch.AccessLatch;
@@ -171,6 +196,7 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.format.support.FormattingConversionService;
 import org.springframework.security.crypto.encrypt.TextEncryptor;
@@ -371,10 +397,50 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 		return FileUtil.getFile(getApplicationProperties().getSchemaUrlBuilderScriptFile());
 	}
 
+	/**
+	 * HTTP客户端。
+	 * <p>
+	 * 使用连接池（保持连接），并且在启用HTTP数据集响应缓存时，将按照HTTP缓存规范缓存GET响应，
+	 * 过期的响应将发送条件请求（{@code If-None-Match}、{@code If-Modified-Since}），服务端返回{@code 304}时使用缓存。
+	 * </p>
+	 * 
+	 * @return
+	 */
 	@Bean
 	public CloseableHttpClient httpClient()
 	{
-		return HttpClients.createDefault();
+		ApplicationProperties properties = getApplicationProperties();
+
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(properties.getHttpClientMaxTotal())
+				.setMaxConnPerRoute(properties.getHttpClientMaxPerRoute()).build();
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(Timeout.ofMilliseconds(properties.getHttpClientConnectTimeout()))
+				.setResponseTimeout(Timeout.ofMilliseconds(properties.getHttpClientResponseTimeout()))
+				.setConnectionRequestTimeout(
+						Timeout.ofMilliseconds(properties.getHttpClientConnectionRequestTimeout()))
+				.build();
+
+		HttpClientBuilder builder = null;
+
+		if (properties.getHttpDataSetCacheMaxEntries() > 0)
+		{
+			// 此HTTP客户端被所有用户共用，必须为共享缓存，否则会将某用户的私有响应返回给其他用户
+			CacheConfig cacheConfig = CacheConfig.custom()
+					.setMaxCacheEntries(properties.getHttpDataSetCacheMaxEntries())
+					.setMaxObjectSize(properties.getHttpDataSetCacheMaxObjectSize()).setSharedCache(true).build();
+
+			builder = CachingHttpClients.custom().setCacheConfig(cacheConfig);
+		}
+		else
+			builder = HttpClientBuilder.create();
+
+		builder.setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig)
+				.evictExpiredConnections()
+				.evictIdleConnections(TimeValue.ofMilliseconds(properties.getHttpClientIdleEvictTime()));
+
+		return builder.build();
 	}
 
 	@Bean
@@ -533,6 +599,7 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 		tableTypeResolver.setDbTableTypeSpecs(getApplicationProperties().getDbTableTypeSpecs());
 
 		GenericDBMetaResolver bean = new GenericDBMetaResolver(tableTypeResolver);
+		bean.setDataTableCatalogExpiredMillis(getApplicationProperties().getSchemaTableCatalogExpiredSeconds() * 1000L);
 		return bean;
 	}
 
@@ -550,12 +617,19 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 		return bean;
 	}
 
-	@Bean(destroyMethod = "close")
+	@Bean(initMethod = "init", destroyMethod = "close")
 	public ConnectionSource connectionSource()
 	{
+		ApplicationProperties properties = getApplicationProperties();
+
 		DefaultConnectionSource bean = new DefaultConnectionSource(this.driverEntityManager());
 		bean.setDriverChecker(new SqlDriverChecker(this.dbMetaResolver()));
 
+		ConnectionPoolOption defaultPoolOption = new ConnectionPoolOption();
+		defaultPoolOption.setMaxTotal(properties.getConnectionPoolMaxTotal());
+		defaultPoolOption.setMaxWaitMillis(properties.getConnectionPoolMaxWaitMillis());
+		bean.setDefaultPoolOption(defaultPoolOption);
+
 		GenericPropertiesProcessor genericPropertiesProcessor = new GenericPropertiesProcessor();
 		genericPropertiesProcessor.setDevotedPropertiesProcessors(
 				Arrays.asList(new MySqlDevotedPropertiesProcessor(), new OracleDevotedPropertiesProcessor()));
@@ -625,6 +699,60 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 		return bean;
 	}
 
+	@Bean(destroyMethod = "shutdown")
+	public ChartQueryExecutor chartQueryExecutor()
+	{
+		ApplicationProperties properties = getApplicationProperties();
+
+		ChartQueryExecutor bean = new ChartQueryExecutor();
+
+		if (properties.getDashboardQueryThreads() > 0)
+			bean.setExecutorService(createChartQueryExecutorService(properties.getDashboardQueryThreads(),
+					properties.getDashboardQueryQueueSize()));
+
+		bean.setParallelism(properties.getDashboardQueryParallelism());
+		bean.setChartTimeout(properties.getDashboardQueryChartTimeout());
+
+		return bean;
+	}
+
+	@Bean(initMethod = "init", destroyMethod = "shutdown")
+	public DashboardDataPushManager dashboardDataPushManager()
+	{
+		ApplicationProperties properties = getApplicationProperties();
+
+		DashboardDataPushManager bean = new DashboardDataPushManager(this.objectMapperBuilder().std().build());
+		bean.setThreads(properties.getDashboardDataPushThreads());
+		bean.setMinUpdateInterval(properties.getDashboardDataPushMinUpdateInterval());
+		bean.setEmitterTimeout(properties.getDashboardDataPushTimeout());
+
+		return bean;
+	}
+
+	protected ExecutorService createChartQueryExecutorService(int threads, int queueSize)
+	{
+		BlockingQueue<Runnable> queue = (queueSize > 0 ? new ArrayBlockingQueue<Runnable>(queueSize)
+				: new SynchronousQueue<Runnable>());
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, queue,
+				new ThreadFactory()
+				{
+					private final AtomicInteger count = new AtomicInteger(0);
+
+					@Override
+					public Thread newThread(Runnable r)
+					{
+						Thread thread = new Thread(r, "dashboard-query-" + this.count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+
+		executor.allowCoreThreadTimeOut(true);
+
+		return executor;
+	}
+
 	@Bean
 	public DashboardThemeSource dashboardThemeSource()
 	{
@@ -635,7 +763,16 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 	@Bean
 	public HtmlTplDashboardImportResolver htmlTplDashboardImportResolver()
 	{
-		HtmlTplDashboardImportResolver bean = new HtmlTplDashboardImportResolver();
+		HtmlTplDashboardImportResolver bean = new HtmlTplDashboardImportResolver(
+				this.chartPluginScriptBundleCache());
+		return bean;
+	}
+
+	@Bean
+	public ChartPluginScriptBundleCache chartPluginScriptBundleCache()
+	{
+		ChartPluginScriptBundleCache bean = new ChartPluginScriptBundleCache(this.directoryHtmlChartPluginManager(),
+				this.htmlTplDashboardWidgetRenderer());
 		return bean;
 	}
 	
@@ -735,6 +872,36 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 		DataSetEntityServiceImpl bean = createDataSetEntityServiceImpl();
 		bean.setSqlDataSetSqlValidator(this.sqlDataSetSqlValidator());
 		bean.setDataSetCacheMaxLength(getApplicationProperties().getDataSetCacheMaxLength());
+		bean.setSqlDataSetResultCache(this.sqlDataSetResultCache());
+		bean.setSqlDataSetResultCacheTtl(getApplicationProperties().getSqlDataSetCacheTtl());
+		bean.setDataSetQueryCoalescer(this.dataSetQueryCoalescer());
+		bean.setDataSetPropertyExpEvaluator(this.dataSetPropertyExpEvaluator());
+
+		return bean;
+	}
+
+	@Bean
+	public DataSetQueryCoalescer dataSetQueryCoalescer()
+	{
+		DataSetQueryCoalescer bean = new DataSetQueryCoalescer();
+		return bean;
+	}
+
+	@Bean
+	public DataSetPropertyExpEvaluator dataSetPropertyExpEvaluator()
+	{
+		DataSetPropertyExpEvaluator bean = new DataSetPropertyExpEvaluator(
+				SpelCompilerMode.valueOf(getApplicationProperties().getDataSetPropertyExpCompilerMode()));
+
+		return bean;
+	}
+
+	@Bean
+	public SqlDataSetResultCache sqlDataSetResultCache()
+	{
+		SqlDataSetResultCache bean = new SqlDataSetResultCache();
+		bean.setMaxRows(getApplicationProperties().getSqlDataSetCacheMaxRows());
+		bean.setMaxBytes(getApplicationProperties().getSqlDataSetCacheMaxBytes());
 
 		return bean;
 	}
@@ -801,6 +968,15 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 		return bean;
 	}
 
+	@Bean
+	public StaticResourceSender dashboardResourceSender()
+	{
+		// gzip变体存储于临时目录内，被清理后可按需重新生成
+		StaticResourceSender bean = new StaticResourceSender(
+				FileUtil.getDirectory(this.tempDirectory(), "dashboardResCompress", false));
+		return bean;
+	}
+
 	@Bean
 	public HtmlTplDashboardWidgetHtmlRenderer htmlTplDashboardWidgetRenderer()
 	{
@@ -913,14 +1089,17 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 	@Bean
 	public SqlpadExecutionService sqlpadExecutionService()
 	{
+		ApplicationProperties properties = getApplicationProperties();
+
 		SqlpadExecutionService bean = new SqlpadExecutionService(this.connectionSource(), this.messageSource(),
 				this.sqlHistoryService(), this.sqlSelectManager(), this.sqlpadMessageChannel());
 		bean.setSqlPermissionValidator(this.sqlPermissionValidator());
+		bean.setExecutorService(SqlpadExecutionService.createExecutorService(properties.getSqlpadExecutionThreads()));
 
 		return bean;
 	}
 
-	@Bean
+	@Bean(destroyMethod = "shutdown")
 	public MessageChannel sqlpadMessageChannel()
 	{
 		DefaultMessageChannel bean = new DefaultMessageChannel(
@@ -940,21 +1119,68 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 	{
 		List<DevotedDataExchangeService<?>> bean = new ArrayList<>();
 
+		// 所有分区导出服务共享同一个有界线程池
+		int partitionThreads = Math.max(getApplicationProperties().getDataExchangeExportPartitionThreads(), 1);
+		ExecutorService partitionExecutorService = createDataExportPartitionExecutorService(partitionThreads);
+
 		SqlDataImportService sqlDataImportService = new SqlDataImportService();
 		sqlDataImportService.setSqlValidator(this.dsmanagerImptsqlSqlValidator());
 
 		bean.add(new CsvDataImportService(this.dbMetaResolver()));
-		bean.add(new CsvDataExportService(this.dbMetaResolver()));
+		bean.add(initPartitionExportService(new CsvDataExportService(this.dbMetaResolver()),
+				partitionExecutorService, partitionThreads));
 		bean.add(sqlDataImportService);
-		bean.add(new SqlDataExportService(this.dbMetaResolver()));
+		bean.add(initPartitionExportService(new SqlDataExportService(this.dbMetaResolver()),
+				partitionExecutorService, partitionThreads));
 		bean.add(new ExcelDataImportService(this.dbMetaResolver()));
 		bean.add(new ExcelDataExportService(this.dbMetaResolver()));
 		bean.add(new JsonDataImportService(this.dbMetaResolver()));
-		bean.add(new JsonDataExportService(this.dbMetaResolver()));
+		bean.add(initPartitionExportService(new JsonDataExportService(this.dbMetaResolver()),
+				partitionExecutorService, partitionThreads));
 
 		return bean;
 	}
 
+	protected <T extends AbstractDevotedDBMetaDataExchangeService<?>> T initPartitionExportService(T service,
+			ExecutorService partitionExecutorService, int maxPartitionCount)
+	{
+		service.setPartitionExecutorService(partitionExecutorService);
+		service.setMaxPartitionCount(maxPartitionCount);
+
+		return service;
+	}
+
+	/**
+	 * 创建表数据分区导出的共享线程池。
+	 * <p>
+	 * 线程数有界，超出的分区将排队等待，使得并行导出占用的线程数、数据库连接数不会随导出请求增长；
+	 * 它的线程是空闲后自动回收的守护线程，无需关闭。
+	 * </p>
+	 * 
+	 * @param threads
+	 * @return
+	 */
+	protected ExecutorService createDataExportPartitionExecutorService(int threads)
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+				{
+					private final AtomicInteger count = new AtomicInteger(0);
+
+					@Override
+					public Thread newThread(Runnable r)
+					{
+						Thread thread = new Thread(r, "data-export-partition-" + this.count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+
+		executor.allowCoreThreadTimeOut(true);
+
+		return executor;
+	}
+
 	@Bean(destroyMethod = "shutdown")
 	public BatchDataExchangeService<BatchDataExchange> batchDataExchangeService()
 	{
@@ -970,7 +1196,7 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 		return bean;
 	}
 
-	@Bean
+	@Bean(destroyMethod = "shutdown")
 	public MessageChannel dataExchangeMessageChannel()
 	{
 		DefaultMessageChannel bean = new DefaultMessageChannel();
@@ -1241,6 +1467,8 @@ public class CoreConfigSupport implements ApplicationListener<ContextRefreshedEv
 						.setDataSetResourceDataCache(getCache(cacheManager, cacheName + "DataSetResDataCache"));
 			}
 		}
+
+		this.sqlDataSetResultCache().setCache(getCache(cacheManager, SqlDataSetResultCache.class.getSimpleName()));
 	}
 
 	protected void initHtmlTplDashboardWidgetHtmlRendererCaches(ApplicationContext context)
@@ -17,7 +17,10 @@
 
 package org.datagear.web.config;
 
+import org.datagear.connection.ConnectionSource;
+import org.datagear.connection.DefaultConnectionSource;
 import org.datagear.web.util.DirectoryCleaner;
+import org.datagear.web.util.RuntimeMetricsLogger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -65,6 +68,7 @@ public class SchedulingConfigSupport implements SchedulingConfigurer
 	public void configureTasks(ScheduledTaskRegistrar taskRegistrar)
 	{
 		configCleanTempDirectoryTask(taskRegistrar);
+		configLogRuntimeMetricsTask(taskRegistrar);
 	}
 
 	/**
@@ -87,6 +91,26 @@ public class SchedulingConfigSupport implements SchedulingConfigurer
 		}, getCoreConfig().getApplicationProperties().getCleanTempDirectoryInterval());
 	}
 
+	/**
+	 * 配置输出运行指标日志任务。
+	 * 
+	 * @param taskRegistrar
+	 */
+	protected void configLogRuntimeMetricsTask(ScheduledTaskRegistrar taskRegistrar)
+	{
+		RuntimeMetricsLogger runtimeMetricsLogger = this.runtimeMetricsLogger();
+
+		taskRegistrar.addCronTask(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				runtimeMetricsLogger.log();
+			}
+			//
+		}, getCoreConfig().getApplicationProperties().getRuntimeMetricsLogInterval());
+	}
+
 	@Bean
 	public DirectoryCleaner tempDirectoryCleaner()
 	{
@@ -96,4 +120,19 @@ public class SchedulingConfigSupport implements SchedulingConfigurer
 		DirectoryCleaner bean = new DirectoryCleaner(this.coreConfig.tempDirectory(), expiredMinutes);
 		return bean;
 	}
+
+	@Bean
+	public RuntimeMetricsLogger runtimeMetricsLogger()
+	{
+		RuntimeMetricsLogger bean = new RuntimeMetricsLogger();
+
+		ConnectionSource connectionSource = this.coreConfig.connectionSource();
+		if (connectionSource instanceof DefaultConnectionSource)
+			bean.setConnectionSource((DefaultConnectionSource) connectionSource);
+
+		bean.setSqlpadExecutionService(this.coreConfig.sqlpadExecutionService());
+		bean.setDataSetQueryCoalescer(this.coreConfig.dataSetQueryCoalescer());
+
+		return bean;
+	}
 }
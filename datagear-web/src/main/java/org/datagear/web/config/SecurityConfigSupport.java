@@ -353,6 +353,8 @@ public class SecurityConfigSupport
 				"/dashboard/authcheck/**",
 				// 看板心跳
 				"/dashboard/heartbeat*",
+				// 看板数据推送
+				"/dashboard/subscribeData*", "/dashboard/dataStream*",
 				// 看板卸载
 				"/dashboard/unload*",
 
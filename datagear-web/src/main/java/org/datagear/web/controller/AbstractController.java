@@ -66,6 +66,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.WebAttributes;
 import org.springframework.ui.Model;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import freemarker.template.TemplateModel;
 
@@ -121,6 +122,9 @@ public abstract class AbstractController extends MessageSourceSupport
 
 	public static final String KEY_QUERY_DATA_URL = "queryDataUrl";
 
+	/** 长轮询消息的最大等待毫秒数 */
+	public static final long MESSAGE_POLL_MAX_TIMEOUT = 30000;
+
 	public static final String KEY_FORM_MODEL = "formModel";
 	
 	public static final String KEY_IS_MULTIPLE_SELECT = "isMultipleSelect";
@@ -1324,4 +1328,51 @@ public abstract class AbstractController extends MessageSourceSupport
 
 		return exception;
 	}
+
+	/**
+	 * 获取长轮询消息的等待毫秒数。
+	 * 
+	 * @param timeout
+	 *            请求的等待毫秒数，允许{@code null}
+	 * @return {@code 0}表示不等待，最大为{@linkplain #MESSAGE_POLL_MAX_TIMEOUT}
+	 */
+	protected long toMessagePollTimeout(Long timeout)
+	{
+		if (timeout == null || timeout <= 0)
+			return 0;
+
+		return Math.min(timeout, MESSAGE_POLL_MAX_TIMEOUT);
+	}
+
+	/**
+	 * 创建长轮询消息的{@linkplain DeferredResult}。
+	 * <p>
+	 * 它的超时时间比{@code timeout}稍长，确保由消息通道超时返回空消息，而非由异步请求超时出错。
+	 * </p>
+	 * 
+	 * @param <T>
+	 * @param timeout
+	 *            {@linkplain #toMessagePollTimeout(Long)}
+	 * @return
+	 */
+	protected <T> DeferredResult<T> createMessagePollResult(long timeout)
+	{
+		return new DeferredResult<T>(timeout + 10000);
+	}
+
+	/**
+	 * 在长轮询消息的{@linkplain DeferredResult}超时、完成或者出错（比如客户端断开）时执行清理操作。
+	 * <p>
+	 * 应使用它移除消息通道中的等待者，避免之后的消息被发送给已失效的请求。
+	 * </p>
+	 * 
+	 * @param result
+	 * @param cleaner
+	 */
+	protected void onMessagePollEnd(DeferredResult<?> result, Runnable cleaner)
+	{
+		result.onTimeout(cleaner);
+		result.onCompletion(cleaner);
+		result.onError((Throwable t) -> cleaner.run());
+	}
 }
@@ -28,6 +28,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.datagear.analysis.ChartDefinition;
 import org.datagear.analysis.ChartQuery;
+import org.datagear.analysis.ChartQueryExecutor;
 import org.datagear.analysis.ChartTheme;
 import org.datagear.analysis.DashboardQuery;
 import org.datagear.analysis.DashboardResult;
@@ -139,6 +140,12 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 	/** 看板展示页{@linkplain WebContext}属性名：加载图表URL名 */
 	public static final String DASHBOARD_LOAD_CHART_URL_NAME = "loadChartURL";
 
+	/** 看板展示页{@linkplain WebContext}属性名：订阅数据推送URL名 */
+	public static final String DASHBOARD_SUBSCRIBE_DATA_URL_NAME = "subscribeDataURL";
+
+	/** 看板展示页{@linkplain WebContext}属性名：数据推送连接URL名 */
+	public static final String DASHBOARD_DATA_STREAM_URL_NAME = "dataStreamURL";
+
 	/** 看板展示页{@linkplain WebContext}属性名：心跳URL名 */
 	public static final String DASHBOARD_HEARTBEAT_URL_NAME = "heartbeatURL";
 
@@ -218,6 +225,9 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 	@Autowired
 	private SessionIdParamResolver sessionIdParamResolver;
 
+	@Autowired
+	private ChartQueryExecutor chartQueryExecutor;
+
 	public AbstractDataAnalysisController()
 	{
 		super();
@@ -283,6 +293,16 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 		this.sessionIdParamResolver = sessionIdParamResolver;
 	}
 
+	public ChartQueryExecutor getChartQueryExecutor()
+	{
+		return chartQueryExecutor;
+	}
+
+	public void setChartQueryExecutor(ChartQueryExecutor chartQueryExecutor)
+	{
+		this.chartQueryExecutor = chartQueryExecutor;
+	}
+
 	protected HtmlTplDashboardRenderContext createRenderContext(HttpServletRequest request, HttpServletResponse response,
 			String template, Writer responseWriter, WebContext webContext, List<HtmlTplDashboardImport> importList,
 			HtmlTitleHandler htmlTitleHandler) throws IOException
@@ -483,6 +503,7 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 		DashboardQuery queriesConverted = convertDashboardQuery(dashboardQuery, chartWidgets, getCurrentUser());
 
 		SimpleDashboardQueryHandler dqh = new SimpleDashboardQueryHandler(chartWidgets);
+		dqh.setChartQueryExecutor(this.chartQueryExecutor);
 
 		return dqh.getResult(queriesConverted);
 	}
@@ -20,7 +20,6 @@ package org.datagear.web.controller;
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -41,14 +40,14 @@ import org.datagear.analysis.support.ChartPluginCategorizationResolver.Categoriz
 import org.datagear.analysis.support.html.HtmlChartPlugin;
 import org.datagear.analysis.support.html.HtmlChartPluginLoadException;
 import org.datagear.analysis.support.html.HtmlChartPluginLoader;
-import org.datagear.analysis.support.html.HtmlChartPluginScriptObjectWriter;
-import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer;
 import org.datagear.management.service.HtmlTplDashboardWidgetEntityService;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.util.FileUtil;
 import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
+import org.datagear.web.util.ChartPluginScriptBundleCache;
+import org.datagear.web.util.ChartPluginScriptBundleCache.ScriptBundle;
 import org.datagear.web.util.OperationMessage;
 import org.datagear.web.util.WebUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -73,13 +72,20 @@ import org.springframework.web.multipart.MultipartFile;
 @RequestMapping("/chartPlugin")
 public class ChartPluginController extends AbstractChartPluginAwareController implements ServletContextAware
 {
+	/** 版本化的{@code chartPluginManager.js}的缓存秒数 */
+	public static final int CHART_PLUGIN_MANAGER_JS_MAX_AGE = 31536000;
+
+	/** {@code chartPluginManager.js}的版本请求参数名 */
+	public static final String CHART_PLUGIN_MANAGER_JS_VERSION_PARAM = "v";
+
 	@Autowired
 	private File tempDirectory;
 
 	@Autowired
 	private HtmlTplDashboardWidgetEntityService htmlTplDashboardWidgetEntityService;
 
-	private HtmlChartPluginScriptObjectWriter htmlChartPluginScriptObjectWriter = new HtmlChartPluginScriptObjectWriter();
+	@Autowired
+	private ChartPluginScriptBundleCache chartPluginScriptBundleCache;
 
 	private ServletContext servletContext;
 
@@ -109,15 +115,14 @@ public class ChartPluginController extends AbstractChartPluginAwareController im
 		this.htmlTplDashboardWidgetEntityService = htmlTplDashboardWidgetEntityService;
 	}
 
-	public HtmlChartPluginScriptObjectWriter getHtmlChartPluginScriptObjectWriter()
+	public ChartPluginScriptBundleCache getChartPluginScriptBundleCache()
 	{
-		return htmlChartPluginScriptObjectWriter;
+		return chartPluginScriptBundleCache;
 	}
 
-	public void setHtmlChartPluginScriptObjectWriter(
-			HtmlChartPluginScriptObjectWriter htmlChartPluginScriptObjectWriter)
+	public void setChartPluginScriptBundleCache(ChartPluginScriptBundleCache chartPluginScriptBundleCache)
 	{
-		this.htmlChartPluginScriptObjectWriter = htmlChartPluginScriptObjectWriter;
+		this.chartPluginScriptBundleCache = chartPluginScriptBundleCache;
 	}
 
 	public ServletContext getServletContext()
@@ -370,66 +375,26 @@ public class ChartPluginController extends AbstractChartPluginAwareController im
 	public void chartPluginManagerJs(HttpServletRequest request, HttpServletResponse response, WebRequest webRequest)
 			throws Exception
 	{
-		List<HtmlChartPlugin> plugins = getDirectoryHtmlChartPluginManager().getAll(HtmlChartPlugin.class);
-		List<HtmlChartPlugin> htmlChartPlugins = new ArrayList<>(plugins.size());
-		long lastModified = -1;
-
-		if (plugins != null)
-		{
-			for (HtmlChartPlugin plugin : plugins)
-			{
-				htmlChartPlugins.add(plugin);
-				lastModified = Math.max(lastModified, plugin.getLastModified());
-			}
-		}
-
-		HtmlTplDashboardWidgetRenderer renderer = getHtmlTplDashboardWidgetEntityService()
-				.getHtmlTplDashboardWidgetRenderer();
-
-		HtmlChartPlugin htmlChartPluginForGetWidgetException = renderer.getHtmlChartPluginForGetWidgetException();
-		htmlChartPlugins.add(htmlChartPluginForGetWidgetException);
-		lastModified = Math.max(lastModified, htmlChartPluginForGetWidgetException.getLastModified());
+		Locale locale = WebUtils.getLocale(request);
+		ScriptBundle bundle = this.chartPluginScriptBundleCache.getBundle(locale);
 
-		if (webRequest.checkNotModified(lastModified))
+		if (webRequest.checkNotModified("\"" + bundle.getVersion() + "\"", bundle.getLastModified()))
 			return;
 
-		Locale locale = WebUtils.getLocale(request);
 		response.setContentType(CONTENT_TYPE_JAVASCRIPT);
-		setCacheControlNoCache(response);
-
-		PrintWriter out = response.getWriter();
-
-		out.println("(function(global)");
-		out.println("{");
-
-		out.println("var chartFactory = (global.chartFactory || (global.chartFactory = {}));");
-		out.println(
-				"var chartPluginManager = (chartFactory.chartPluginManager || (chartFactory.chartPluginManager = {}));");
-		out.println("chartPluginManager.plugins = (chartPluginManager.plugins || {});");
-
-		out.println();
-		out.println("//@deprecated 兼容1.8.1版本的window.chartPluginManager变量名，未来版本会移除");
-		out.println("global.chartPluginManager = chartPluginManager;");
-		
-		out.println();
-		out.println("chartPluginManager.get = function(id){ return this.plugins[id]; };");
-		out.println();
+		response.setCharacterEncoding(IOUtil.CHARSET_UTF_8);
 
-		for (int i = 0, len = htmlChartPlugins.size(); i < len; i++)
-		{
-			HtmlChartPlugin plugin = htmlChartPlugins.get(i);
-			String pluginVar = "plugin" + i;
-
-			this.htmlChartPluginScriptObjectWriter.write(out, plugin, pluginVar, locale);
+		// 版本化URL的内容不会变化，可长期缓存
+		if (bundle.getVersion().equals(request.getParameter(CHART_PLUGIN_MANAGER_JS_VERSION_PARAM)))
+			response.setHeader("Cache-Control", "public, max-age=" + CHART_PLUGIN_MANAGER_JS_MAX_AGE + ", immutable");
+		else
+			setCacheControlNoCache(response);
 
-			out.println("//@deprecated 兼容4.0.0版本的"+HtmlChartPlugin.PROPERTY_RENDERER_OLD+"属性名，未来版本会移除");
-			out.println(pluginVar + "."+ HtmlChartPlugin.PROPERTY_RENDERER_OLD +" = " + pluginVar + "."+ HtmlChartPlugin.PROPERTY_RENDERER +";");
-			
-			out.println("chartPluginManager.plugins[" + StringUtil.toJavaScriptString(plugin.getId()) + "] = "
-					+ pluginVar + ";");
-		}
+		byte[] content = bundle.getContent();
+		response.setContentLength(content.length);
 
-		out.println("})(this);");
+		OutputStream out = response.getOutputStream();
+		out.write(content);
 	}
 	
 	protected void writeChartPluginResource(HttpServletRequest request, HttpServletResponse response,
@@ -45,10 +45,12 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
+import org.datagear.analysis.DashboardQuery;
 import org.datagear.analysis.DashboardResult;
 import org.datagear.analysis.RenderContext;
 import org.datagear.analysis.TplDashboardWidgetResManager;
 import org.datagear.analysis.support.ErrorMessageDashboardResult;
+import org.datagear.analysis.support.FileTplDashboardWidgetResManager;
 import org.datagear.analysis.support.html.DefaultHtmlTitleHandler;
 import org.datagear.analysis.support.html.HtmlChart;
 import org.datagear.analysis.support.html.HtmlChartWidget;
@@ -85,13 +87,17 @@ import org.datagear.web.config.CoreConfigSupport;
 import org.datagear.web.controller.DashboardController.DashboardShowForEdit.EditHtmlInfo;
 import org.datagear.web.controller.DashboardController.DashboardShowForEdit.EditHtmlInfoFilterHandler;
 import org.datagear.web.controller.DashboardController.DashboardShowForEdit.ShowHtmlFilterHandler;
+import org.datagear.web.util.DashboardDataPushManager;
+import org.datagear.web.util.DashboardDataPushManager.Subscription;
 import org.datagear.web.util.OperationMessage;
 import org.datagear.web.util.SessionDashboardInfoSupport.DashboardInfo;
+import org.datagear.web.util.StaticResourceSender;
 import org.datagear.web.util.WebUtils;
 import org.datagear.web.vo.APIDDataFilterPagingQuery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -102,6 +108,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.context.ServletContextAware;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * 看板控制器。
@@ -125,6 +132,12 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 	/** 看板卸载参数：看板ID */
 	public static final String UNLOAD_PARAM_DASHBOARD_ID = "dashboardId";
 
+	/** 订阅看板数据推送参数：要替换的旧订阅ID */
+	public static final String SUBSCRIBE_DATA_PARAM_REPLACE = "replace";
+
+	/** 看板数据推送连接参数：订阅ID */
+	public static final String DATA_STREAM_PARAM_SUBSCRIPTION_ID = "subscriptionId";
+
 	/**
 	 * 看板页面中服务端日期JS变量名：{@code _DATAGEAR_SERVER_TIME}
 	 */
@@ -173,6 +186,12 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 	@Autowired
 	private HtmlFilter htmlFilter;
 
+	@Autowired
+	private StaticResourceSender dashboardResourceSender;
+
+	@Autowired
+	private DashboardDataPushManager dashboardDataPushManager;
+
 	public DashboardController()
 	{
 		super();
@@ -270,6 +289,26 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 		this.htmlFilter = htmlFilter;
 	}
 
+	public StaticResourceSender getDashboardResourceSender()
+	{
+		return dashboardResourceSender;
+	}
+
+	public void setDashboardResourceSender(StaticResourceSender dashboardResourceSender)
+	{
+		this.dashboardResourceSender = dashboardResourceSender;
+	}
+
+	public DashboardDataPushManager getDashboardDataPushManager()
+	{
+		return dashboardDataPushManager;
+	}
+
+	public void setDashboardDataPushManager(DashboardDataPushManager dashboardDataPushManager)
+	{
+		this.dashboardDataPushManager = dashboardDataPushManager;
+	}
+
 	@RequestMapping("/add")
 	public String add(HttpServletRequest request, HttpServletResponse response, org.springframework.ui.Model model)
 	{
@@ -1398,6 +1437,15 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 			// 优先本地资源
 			if (resManager.exists(id, resName))
 			{
+				if (resManager instanceof FileTplDashboardWidgetResManager)
+				{
+					File localRes = ((FileTplDashboardWidgetResManager) resManager).getFile(id, resName);
+
+					setContentTypeByName(request, response, getServletContext(), resName);
+					this.dashboardResourceSender.send(request, response, webRequest, localRes);
+					return;
+				}
+
 				long lastModified = resManager.lastModified(id, resName);
 				if (webRequest.checkNotModified(lastModified))
 					return;
@@ -1420,14 +1468,9 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 
 				if (globalRes.exists() && !globalRes.isDirectory())
 				{
-					long lastModified = globalRes.lastModified();
-					if (webRequest.checkNotModified(lastModified))
-						return;
-
 					setContentTypeByName(request, response, getServletContext(), resName);
-					setCacheControlNoCache(response);
-
-					in = IOUtil.getInputStream(globalRes);
+					this.dashboardResourceSender.send(request, response, webRequest, globalRes);
+					return;
 				}
 			}
 
@@ -1484,28 +1527,8 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 		if (!globalRes.exists() || globalRes.isDirectory())
 			throw new FileNotFoundException(resName);
 
-		long lastModified = globalRes.lastModified();
-		if (webRequest.checkNotModified(lastModified))
-			return;
-
 		setContentTypeByName(request, response, getServletContext(), resName);
-		setCacheControlNoCache(response);
-
-		InputStream in = null;
-		OutputStream out = null;
-
-		try
-		{
-			in = IOUtil.getBufferedInputStream(IOUtil.getInputStream(globalRes));
-			out = IOUtil.getBufferedOutputStream(response.getOutputStream());
-
-			IOUtil.write(in, out);
-		}
-		finally
-		{
-			IOUtil.close(in);
-			IOUtil.close(out);
-		}
+		this.dashboardResourceSender.send(request, response, webRequest, globalRes);
 	}
 
 	/**
@@ -1741,6 +1764,97 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 		return new ErrorMessageDashboardResult(dashboardResult, true);
 	}
 
+	/**
+	 * 订阅看板数据推送。
+	 * <p>
+	 * 订阅看板中间隔更新的图表查询，之后浏览器可通过{@linkplain #dataStream(HttpServletRequest, HttpServletResponse, String)}接收推送的图表数据，
+	 * 而无需定时请求{@linkplain #showData(HttpServletRequest, HttpServletResponse, org.springframework.ui.Model, DashboardQueryForm)}。
+	 * </p>
+	 * 
+	 * @param request
+	 * @param response
+	 * @param form
+	 * @param replace
+	 *            可选，要替换的旧订阅ID，图表参数改变后重新订阅时应设置
+	 * @return
+	 * @throws Exception
+	 */
+	@RequestMapping(value = "/subscribeData", produces = CONTENT_TYPE_JSON)
+	@ResponseBody
+	public Map<String, Object> subscribeData(HttpServletRequest request, HttpServletResponse response,
+			@RequestBody DashboardQueryForm form,
+			@RequestParam(value = SUBSCRIBE_DATA_PARAM_REPLACE, required = false) String replace) throws Exception
+	{
+		if (!this.dashboardDataPushManager.isEnabled())
+			throw new IllegalInputException();
+
+		if (StringUtil.isEmpty(form.getDashboardId()) || form.getDashboardQuery() == null)
+			throw new IllegalInputException();
+
+		DashboardInfo dashboardInfo = getSessionDashboardInfoSupport().getDashboardInfo(request,
+				form.getDashboardId());
+
+		if (dashboardInfo == null)
+			throw new IllegalInputException();
+
+		if (!StringUtil.isEmpty(replace))
+		{
+			Subscription replaced = this.dashboardDataPushManager.getSubscription(replace);
+
+			// 只允许替换此看板会话的订阅
+			if (replaced != null && replaced.getDashboardId().equals(form.getDashboardId()))
+				this.dashboardDataPushManager.unsubscribe(replace);
+		}
+
+		//此处获取ChartWidget不再需要权限控制，应显式移除线程变量
+		ChartWidgetSourceContext.remove();
+
+		Map<String, HtmlChartWidget> chartWidgets = getChartWidgets(dashboardInfo, form.getDashboardQuery(),
+				this.htmlTplDashboardWidgetEntityService.getHtmlTplDashboardWidgetRenderer());
+		DashboardQuery queriesConverted = convertDashboardQuery(form.getDashboardQuery(), chartWidgets,
+				getCurrentUser());
+
+		Subscription subscription = this.dashboardDataPushManager.subscribe(form.getDashboardId(), chartWidgets,
+				queriesConverted);
+
+		Map<String, Object> data = new HashMap<>();
+
+		if (subscription.getChartCount() > 0)
+		{
+			data.put("subscriptionId", subscription.getId());
+		}
+		else
+		{
+			this.dashboardDataPushManager.unsubscribe(subscription.getId());
+			data.put("subscriptionId", null);
+		}
+
+		return data;
+	}
+
+	/**
+	 * 看板数据推送连接（Server-Sent Events）。
+	 * 
+	 * @param request
+	 * @param response
+	 * @param subscriptionId
+	 * @return
+	 * @throws Exception
+	 */
+	@RequestMapping(value = "/dataStream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter dataStream(HttpServletRequest request, HttpServletResponse response,
+			@RequestParam(DATA_STREAM_PARAM_SUBSCRIPTION_ID) String subscriptionId) throws Exception
+	{
+		Subscription subscription = this.dashboardDataPushManager.getSubscription(subscriptionId);
+
+		// 订阅只允许在订阅它的看板会话中连接
+		if (subscription == null || getSessionDashboardInfoSupport().getDashboardInfo(request,
+				subscription.getDashboardId()) == null)
+			throw new RecordNotFoundException();
+
+		return this.dashboardDataPushManager.connect(subscription);
+	}
+
 	/**
 	 * 加载多个看板图表的JSON对象数组。
 	 * 
@@ -1935,6 +2049,7 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 		data.put("dashboardId", dashboardId);
 
 		getSessionDashboardInfoSupport().removeDashboardInfo(request, dashboardId);
+		this.dashboardDataPushManager.unsubscribeDashboard(dashboardId);
 
 		return data;
 	}
@@ -2046,6 +2161,15 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 		webContext.addAttribute(DASHBOARD_LOAD_CHART_URL_NAME,
 				addSessionIdParamIfNotExplicitDisable("/dashboard/loadChart", request));
 
+		// 未启用数据推送时不输出，浏览器将使用定时轮询
+		if (this.dashboardDataPushManager.isEnabled())
+		{
+			webContext.addAttribute(DASHBOARD_SUBSCRIBE_DATA_URL_NAME,
+					addSessionIdParamIfNotExplicitDisable("/dashboard/subscribeData", request));
+			webContext.addAttribute(DASHBOARD_DATA_STREAM_URL_NAME,
+					addSessionIdParamIfNotExplicitDisable("/dashboard/dataStream", request));
+		}
+
 		addHeartBeatValue(request, webContext);
 		addUnloadValue(request, webContext);
 
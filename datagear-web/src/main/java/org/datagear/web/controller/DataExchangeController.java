@@ -98,6 +98,7 @@ import org.datagear.util.resource.FileReaderResourceFactory;
 import org.datagear.util.resource.FileWriterResourceFactory;
 import org.datagear.util.resource.ResourceFactory;
 import org.datagear.util.sqlvalidator.SqlValidator;
+import org.datagear.web.config.ApplicationProperties;
 import org.datagear.web.dataexchange.MessageBatchDataExchangeListener;
 import org.datagear.web.dataexchange.MessageSubDataImportListener;
 import org.datagear.web.dataexchange.MessageSubTextDataExportListener;
@@ -105,6 +106,7 @@ import org.datagear.web.dataexchange.MessageSubTextValueDataImportListener;
 import org.datagear.web.util.ExpiredSessionAttrManager;
 import org.datagear.web.util.ExpiredSessionAttrManager.ExpiredSessionAttr;
 import org.datagear.web.util.MessageChannel;
+import org.datagear.web.util.MessageChannel.MessageReceiver;
 import org.datagear.web.util.OperationMessage;
 import org.datagear.web.util.SessionDashboardInfoSupport.DashboardInfo;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -116,6 +118,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -154,6 +157,9 @@ public class DataExchangeController extends AbstractSchemaConnController
 	@Autowired
 	private ExpiredSessionAttrManager expiredSessionAttrManager;
 
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
 	private long expiredBatchDataExchangeInfoMs = 1000 * 60 * 30;
 
 	public DataExchangeController()
@@ -241,6 +247,16 @@ public class DataExchangeController extends AbstractSchemaConnController
 		this.expiredSessionAttrManager = expiredSessionAttrManager;
 	}
 
+	public ApplicationProperties getApplicationProperties()
+	{
+		return applicationProperties;
+	}
+
+	public void setApplicationProperties(ApplicationProperties applicationProperties)
+	{
+		this.applicationProperties = applicationProperties;
+	}
+
 	public long getExpiredBatchDataExchangeInfoMs()
 	{
 		return expiredBatchDataExchangeInfoMs;
@@ -289,6 +305,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		String dataExchangeId = IDUtil.uuid();
 		DataFormat defaultDataFormat = new DataFormat();
 		ValueDataImportOption importOption = new ValueDataImportOption(ExceptionResolve.ROLLBACK, false, false, true);
+		setImportBatchOption(importOption);
 		
 		DefaultTextValueFileBatchDataImportForm formModel = new DefaultTextValueFileBatchDataImportForm();
 		formModel.setDataExchangeId(dataExchangeId);
@@ -518,6 +535,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		defaultDataFormat.setBinaryFormat("0x" + DataFormatContext.wrapToExpression(DataFormat.BINARY_FORMAT_HEX));
 		JsonDataImportOption importOption = new JsonDataImportOption(ExceptionResolve.ROLLBACK, false, false, true,
 				JsonDataFormat.ROW_ARRAY);
+		setImportBatchOption(importOption);
 		
 		JsonFileBatchDataImportForm formModel = new JsonFileBatchDataImportForm();
 		formModel.setDataExchangeId(dataExchangeId);
@@ -648,6 +666,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		String dataExchangeId = IDUtil.uuid();
 		DataFormat defaultDataFormat = new DataFormat();
 		ValueDataImportOption importOption = new ValueDataImportOption(ExceptionResolve.ROLLBACK, false, false, true);
+		setImportBatchOption(importOption);
 		
 		DefaultTextValueFileBatchDataImportForm formModel = new DefaultTextValueFileBatchDataImportForm();
 		formModel.setDataExchangeId(dataExchangeId);
@@ -895,6 +914,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		String dataExchangeId = IDUtil.uuid();
 		DataFormat defaultDataFormat = new DataFormat();
 		TextDataExportOption exportOption = new TextDataExportOption(false);
+		setExportPartitionOption(exportOption);
 		
 		DefaultTextFileBatchDataExportForm formModel = new DefaultTextFileBatchDataExportForm();
 		formModel.setDataExchangeId(dataExchangeId);
@@ -1105,6 +1125,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 				"'" + DataFormatContext.wrapToExpression(DataFormat.DEFAULT_TIMESTAMP_FORMAT) + "'");
 		defaultDataFormat.setBinaryFormat("0x" + DataFormatContext.wrapToExpression(DataFormat.BINARY_FORMAT_HEX));
 		SqlDataExportOption exportOption = new SqlDataExportOption(false, false);
+		setExportPartitionOption(exportOption);
 		
 		SqlFileBatchDataExportForm formModel = new SqlFileBatchDataExportForm();
 		formModel.setDataExchangeId(dataExchangeId);
@@ -1208,6 +1229,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 		DataFormat defaultDataFormat = new DataFormat();
 		defaultDataFormat.setBinaryFormat("0x" + DataFormatContext.wrapToExpression(DataFormat.BINARY_FORMAT_HEX));
 		JsonDataExportOption exportOption = new JsonDataExportOption(false, JsonDataFormat.ROW_ARRAY);
+		setExportPartitionOption(exportOption);
 		
 		JsonFileBatchDataExportForm formModel = new JsonFileBatchDataExportForm();
 		formModel.setDataExchangeId(dataExchangeId);
@@ -1360,17 +1382,32 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 	@RequestMapping(value = "/{schemaId}/message", produces = CONTENT_TYPE_JSON)
 	@ResponseBody
-	public List<Object> message(HttpServletRequest request, HttpServletResponse response,
+	public DeferredResult<List<Object>> message(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId,
 			@RequestParam("dataExchangeId") String dataExchangeId,
-			@RequestParam(value = "messageCount", required = false) Integer messageCount) throws Throwable
+			@RequestParam(value = "messageCount", required = false) Integer messageCount,
+			@RequestParam(value = "timeout", required = false) Long timeout) throws Throwable
 	{
 		if (messageCount == null)
 			messageCount = 50;
 		if (messageCount < 1)
 			messageCount = 1;
 
-		return this.dataExchangeMessageChannel.poll(dataExchangeId, messageCount);
+		long pollTimeout = toMessagePollTimeout(timeout);
+		DeferredResult<List<Object>> result = createMessagePollResult(pollTimeout);
+
+		// 长轮询：没有消息时不占用请求线程，直到有消息或者超时才响应
+		if (pollTimeout > 0)
+		{
+			// 请求失效时不能接收消息，应返回false，使消息被放回通道
+			MessageReceiver<Object> receiver = (List<Object> messages) -> result.setResult(messages);
+			onMessagePollEnd(result, () -> this.dataExchangeMessageChannel.removeWaiter(dataExchangeId, receiver));
+			this.dataExchangeMessageChannel.poll(dataExchangeId, messageCount, pollTimeout, receiver);
+		}
+		else
+			result.setResult(this.dataExchangeMessageChannel.poll(dataExchangeId, messageCount));
+
+		return result;
 	}
 	
 	protected AutoDataImportDependency toAutoDataImportDependency(SubDataExchange subDataExchange,
@@ -1618,6 +1655,27 @@ public class DataExchangeController extends AbstractSchemaConnController
 				DashboardInfo.class);
 	}
 
+	/**
+	 * 设置默认的批处理导入选项。
+	 * 
+	 * @param importOption
+	 */
+	protected void setImportBatchOption(ValueDataImportOption importOption)
+	{
+		importOption.setBatchSize(this.applicationProperties.getDataExchangeImportBatchSize());
+		importOption.setCommitInterval(this.applicationProperties.getDataExchangeImportCommitInterval());
+	}
+
+	/**
+	 * 设置默认的分区导出选项。
+	 * 
+	 * @param exportOption
+	 */
+	protected void setExportPartitionOption(TextDataExportOption exportOption)
+	{
+		exportOption.setPartitionCount(this.applicationProperties.getDataExchangeExportPartitionCount());
+	}
+
 	protected String toSessionNameForBatchDataExchangeInfo(HttpServletRequest request, String dataExchangeId)
 	{
 		return "dataexchange-" + dataExchangeId;
@@ -37,7 +37,7 @@ import org.datagear.management.util.GuardEntity;
 import org.datagear.meta.Database;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
-import org.datagear.meta.TableUtil;
+import org.datagear.meta.TableCatalog;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
@@ -302,27 +302,29 @@ public class SchemaController extends AbstractSchemaConnTableController
 	@ResponseBody
 	public PagingData<SimpleTable> pagingQueryTable(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId,
-			@RequestBody PagingQuery pagingQueryParam) throws Throwable
+			@RequestBody PagingQuery pagingQueryParam,
+			@RequestParam(value = "reload", required = false) final Boolean forceReload) throws Throwable
 	{
 		final PagingQuery pagingQuery = inflatePagingQuery(request, pagingQueryParam, COOKIE_PAGINATION_SIZE);
 
-		List<SimpleTable> tables = new ReturnSchemaConnExecutor<List<SimpleTable>>(request, response, springModel,
+		TableCatalog catalog = new ReturnSchemaConnExecutor<TableCatalog>(request, response, springModel,
 				schemaId, true)
 		{
 			@Override
-			protected List<SimpleTable> execute(HttpServletRequest request, HttpServletResponse response,
+			protected TableCatalog execute(HttpServletRequest request, HttpServletResponse response,
 					org.springframework.ui.Model springModel, Schema schema) throws Throwable
 			{
 				Connection cn = getConnection();
-				List<SimpleTable> tables = getDbMetaResolver().getDataTables(cn);
-				return tables;
+
+				if (Boolean.TRUE.equals(forceReload))
+					return getDbMetaResolver().reloadDataTableCatalog(cn);
+				else
+					return getDbMetaResolver().getDataTableCatalog(cn);
 			}
 
 		}.execute();
 
-		TableUtil.sortAscByName(tables);
-
-		List<SimpleTable> keywordTables = TableUtil.findTable(tables, pagingQuery.getKeyword());
+		List<SimpleTable> keywordTables = catalog.find(pagingQuery.getKeyword());
 
 		PagingData<SimpleTable> pagingData = new PagingData<>(pagingQuery.getPage(), keywordTables.size(),
 				pagingQuery.getPageSize());
@@ -29,6 +29,7 @@ import org.datagear.management.domain.User;
 import org.datagear.meta.Column;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
+import org.datagear.meta.TableCatalog;
 import org.datagear.meta.TableUtil;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -59,25 +60,24 @@ public class SqlEditorController extends AbstractSchemaConnTableController
 	{
 		final User user = getCurrentUser();
 
-		List<SimpleTable> tables = new ReturnSchemaConnExecutor<List<SimpleTable>>(request, response, springModel,
+		TableCatalog catalog = new ReturnSchemaConnExecutor<TableCatalog>(request, response, springModel,
 				schemaId, true)
 		{
 			@Override
-			protected List<SimpleTable> execute(HttpServletRequest request, HttpServletResponse response,
+			protected TableCatalog execute(HttpServletRequest request, HttpServletResponse response,
 					org.springframework.ui.Model springModel, Schema schema) throws Throwable
 			{
 				checkReadTableDataPermission(schema, user);
 
 				Connection cn = getConnection();
-				List<SimpleTable> tables = getDbMetaResolver().getDataTables(cn);
-
-				return tables;
+				return getDbMetaResolver().getDataTableCatalog(cn);
 			}
 
 		}.execute();
 
-		List<SimpleTable> keywordTables = TableUtil.findTable(tables, keyword);
-		List<String> tableNames = TableUtil.namesOf(keywordTables, true);
+		// 目录中的表已按名称排序
+		List<SimpleTable> keywordTables = catalog.find(keyword);
+		List<String> tableNames = TableUtil.namesOf(keywordTables);
 
 		return tableNames;
 	}
@@ -52,6 +52,7 @@ import org.datagear.web.sqlpad.SqlpadExecutionService.CommitMode;
 import org.datagear.web.sqlpad.SqlpadExecutionService.ExceptionHandleMode;
 import org.datagear.web.sqlpad.SqlpadExecutionService.SqlCommand;
 import org.datagear.web.sqlpad.SqlpadExecutionSubmit;
+import org.datagear.web.util.MessageChannel.MessageReceiver;
 import org.datagear.web.util.OperationMessage;
 import org.datagear.web.util.WebUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -63,6 +64,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -254,22 +256,58 @@ public class SqlpadController extends AbstractSchemaConnController
 	}
 
 	@RequestMapping(value = "/{schemaId}/message", produces = CONTENT_TYPE_JSON)
-	public void message(HttpServletRequest request, HttpServletResponse response,
+	@ResponseBody
+	public DeferredResult<String> message(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId,
 			@RequestParam("sqlpadId") String sqlpadId,
-			@RequestParam(value = "messageCount", required = false) Integer messageCount) throws Throwable
+			@RequestParam(value = "messageCount", required = false) Integer messageCount,
+			@RequestParam(value = "timeout", required = false) Long timeout) throws Throwable
 	{
 		if (messageCount == null)
 			messageCount = 50;
 		if (messageCount < 1)
 			messageCount = 1;
-		
-		List<Object> messages= this.sqlpadExecutionService.message(sqlpadId, messageCount);
 
-		response.setContentType(CONTENT_TYPE_JSON);
-		Writer out = response.getWriter();
+		long pollTimeout = toMessagePollTimeout(timeout);
+		DeferredResult<String> result = createMessagePollResult(pollTimeout);
+
+		// 长轮询：没有消息时不占用请求线程，直到有消息或者超时才响应
+		if (pollTimeout > 0)
+		{
+			MessageReceiver<Object> receiver = (List<Object> messages) -> setMessagesResult(result, messages);
+			onMessagePollEnd(result, () -> this.sqlpadExecutionService.removeMessageWaiter(sqlpadId, receiver));
+			this.sqlpadExecutionService.message(sqlpadId, messageCount, pollTimeout, receiver);
+		}
+		else
+			setMessagesResult(result, this.sqlpadExecutionService.message(sqlpadId, messageCount));
+
+		return result;
+	}
+
+	/**
+	 * 设置消息结果。
+	 * 
+	 * @param result
+	 * @param messages
+	 * @return 是否设置成功，返回{@code false}表示请求已失效，消息应被放回通道
+	 */
+	protected boolean setMessagesResult(DeferredResult<String> result, List<Object> messages)
+	{
+		String json = null;
+
+		try
+		{
+			// 消息需使用大数值转字符串的JSON格式，避免浏览器端精度丢失
+			json = this._objectMapperForBigNumberToString.writeValueAsString(messages);
+		}
+		catch (Throwable t)
+		{
+			// 无法转换的消息放回通道也无法再发送，这里直接丢弃
+			result.setErrorResult(t);
+			return true;
+		}
 
-		this._objectMapperForBigNumberToString.writeValue(out, messages);
+		return result.setResult(json);
 	}
 
 	@RequestMapping(value = "/{schemaId}/select", produces = CONTENT_TYPE_JSON)
@@ -29,8 +29,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.datagear.connection.ConnectionSource;
 import org.datagear.connection.ConnectionSourceException;
@@ -47,6 +51,7 @@ import org.datagear.util.sqlvalidator.DatabaseProfile;
 import org.datagear.util.sqlvalidator.SqlValidation;
 import org.datagear.web.controller.SqlpadController.SqlpadFileDirectory;
 import org.datagear.web.util.MessageChannel;
+import org.datagear.web.util.MessageChannel.MessageReceiver;
 import org.datagear.web.util.OperationMessage;
 import org.datagear.web.util.msg.Message;
 import org.springframework.context.MessageSource;
@@ -60,6 +65,9 @@ import org.springframework.context.NoSuchMessageException;
  */
 public class SqlpadExecutionService extends PersistenceSupport
 {
+	/** 默认最大执行线程数 */
+	public static final int DEFAULT_THREADS = 100;
+
 	private ConnectionSource connectionSource;
 
 	private MessageSource messageSource;
@@ -74,7 +82,8 @@ public class SqlpadExecutionService extends PersistenceSupport
 
 	private SchemaConnectionSupport schemaConnectionSupport = new SchemaConnectionSupport();
 
-	private ExecutorService _executorService = Executors.newCachedThreadPool();
+	/** 执行SQL的线程池，每个执行中的SQL工作台将占用一个线程，直到执行完成 */
+	private ThreadPoolExecutor executorService = createExecutorService(DEFAULT_THREADS);
 
 	private ConcurrentMap<String, SqlpadExecutionRunnable> _sqlpadExecutionRunnableMap = new ConcurrentHashMap<>();
 
@@ -164,6 +173,44 @@ public class SqlpadExecutionService extends PersistenceSupport
 		this.schemaConnectionSupport = schemaConnectionSupport;
 	}
 
+	public ThreadPoolExecutor getExecutorService()
+	{
+		return executorService;
+	}
+
+	/**
+	 * 设置执行SQL的线程池。
+	 * <p>
+	 * 应使用直接移交的线程池，参考{@linkplain #createExecutorService(int)}。
+	 * </p>
+	 * 
+	 * @param executorService
+	 */
+	public void setExecutorService(ThreadPoolExecutor executorService)
+	{
+		this.executorService = executorService;
+	}
+
+	/**
+	 * 获取执行中（包括暂停、等待提交或回滚）的SQL执行数。
+	 * 
+	 * @return
+	 */
+	public int getActiveCount()
+	{
+		return this.executorService.getActiveCount();
+	}
+
+	/**
+	 * 获取已提交且未结束的SQL执行数。
+	 * 
+	 * @return
+	 */
+	public int getSubmittedCount()
+	{
+		return this._sqlpadExecutionRunnableMap.size();
+	}
+
 	/**
 	 * 提交SQL执行。
 	 * 
@@ -180,7 +227,20 @@ public class SqlpadExecutionService extends PersistenceSupport
 		if (old != null)
 			return false;
 
-		this._executorService.submit(sqlpadExecutionRunnable);
+		try
+		{
+			this.executorService.execute(sqlpadExecutionRunnable);
+		}
+		catch (RejectedExecutionException e)
+		{
+			this._sqlpadExecutionRunnableMap.remove(submit.getSqlpadId(), sqlpadExecutionRunnable);
+
+			sendExceptionMessage(submit.getSqlpadId(), e,
+					getMessage(submit.getLocale(), "sqlpad.executionRejected", getActiveCount()), false);
+			sendFinishMessage(submit.getSqlpadId());
+
+			return false;
+		}
 
 		return true;
 	}
@@ -217,12 +277,72 @@ public class SqlpadExecutionService extends PersistenceSupport
 		return this.messageChannel.poll(sqlpadId, count);
 	}
 
+	/**
+	 * 获取反馈消息，没有消息时将等待直到有消息、或者超时。
+	 * 
+	 * @param <T>
+	 * @param sqlpadId
+	 * @param count
+	 * @param timeout
+	 *            最多等待毫秒数
+	 * @param receiver
+	 *            消息接收器，超时将接收空列表
+	 */
+	public <T> void message(String sqlpadId, int count, long timeout, MessageReceiver<T> receiver)
+	{
+		this.messageChannel.poll(sqlpadId, count, timeout, receiver);
+	}
+
+	/**
+	 * 移除{@linkplain #message(String, int, long, MessageReceiver)}中还在等待的消息接收器。
+	 * 
+	 * @param sqlpadId
+	 * @param receiver
+	 * @return
+	 */
+	public boolean removeMessageWaiter(String sqlpadId, MessageReceiver<?> receiver)
+	{
+		return this.messageChannel.removeWaiter(sqlpadId, receiver);
+	}
+
 	/**
 	 * 关闭。
 	 */
 	public void shutdown()
 	{
-		this._executorService.shutdown();
+		this.executorService.shutdown();
+	}
+
+	/**
+	 * 创建执行SQL的有界线程池。
+	 * <p>
+	 * 线程池不排队，线程数达到{@code threads}后，新的SQL执行将被立即拒绝：
+	 * 每个SQL执行将占用线程直到SQL工作台结束，排队等待的SQL执行可能长时间得不到执行，且用户无法感知。
+	 * </p>
+	 * 
+	 * @param threads
+	 *            最大线程数
+	 * @return
+	 */
+	public static ThreadPoolExecutor createExecutorService(int threads)
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), new ThreadFactory()
+				{
+					private final AtomicInteger count = new AtomicInteger(0);
+
+					@Override
+					public Thread newThread(Runnable r)
+					{
+						Thread thread = new Thread(r, "sqlpad-execution-" + this.count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+
+		executor.allowCoreThreadTimeOut(true);
+
+		return executor;
 	}
 
 	/**
@@ -495,6 +615,9 @@ public class SqlpadExecutionService extends PersistenceSupport
 		/** 发送给此Runnable的SQL命令 */
 		private volatile SqlCommand sqlCommand;
 
+		/** 等待SQL命令的锁，接收到命令时将唤醒等待线程 */
+		private final Object sqlCommandLock = new Object();
+
 		public SqlpadExecutionRunnable()
 		{
 			super();
@@ -512,7 +635,11 @@ public class SqlpadExecutionService extends PersistenceSupport
 
 		public void setSqlCommand(SqlCommand sqlCommand)
 		{
-			this.sqlCommand = sqlCommand;
+			synchronized (this.sqlCommandLock)
+			{
+				this.sqlCommand = sqlCommand;
+				this.sqlCommandLock.notifyAll();
+			}
 		}
 
 		@Override
@@ -659,11 +786,13 @@ public class SqlpadExecutionService extends PersistenceSupport
 				if (sendMessageIfPause)
 					sendSqlCommandMessage(this.sqlCommand, getOverTimeThreashold());
 
+				long waitTimeout = getOverTimeThreashold() * 60L * 1000L;
 				long waitStartTime = System.currentTimeMillis();
+				long waitTime = 0;
 
 				while (SqlCommand.PAUSE.equals(this.sqlCommand)
-						&& (System.currentTimeMillis() - waitStartTime) <= getOverTimeThreashold() * 60 * 1000)
-					sleepForSqlCommand();
+						&& (waitTime = waitTimeout - (System.currentTimeMillis() - waitStartTime)) > 0)
+					waitForSqlCommand(SqlCommand.PAUSE, waitTime);
 
 				// 暂停超时
 				if (SqlCommand.PAUSE.equals(this.sqlCommand))
@@ -732,10 +861,13 @@ public class SqlpadExecutionService extends PersistenceSupport
 		{
 			boolean sendWatingMessage = false;
 
+			long waitTimeout = getOverTimeThreashold() * 60L * 1000L;
 			long waitStartTime = System.currentTimeMillis();
+			long waitTime = 0;
+			SqlCommand currentCommand = this.sqlCommand;
 
-			while (!SqlCommand.COMMIT.equals(this.sqlCommand) && !SqlCommand.ROLLBACK.equals(this.sqlCommand)
-					&& (System.currentTimeMillis() - waitStartTime) <= getOverTimeThreashold() * 60 * 1000)
+			while (!SqlCommand.COMMIT.equals(currentCommand) && !SqlCommand.ROLLBACK.equals(currentCommand)
+					&& (waitTime = waitTimeout - (System.currentTimeMillis() - waitStartTime)) > 0)
 			{
 				if (!sendWatingMessage)
 				{
@@ -746,7 +878,8 @@ public class SqlpadExecutionService extends PersistenceSupport
 					sendWatingMessage = true;
 				}
 
-				sleepForSqlCommand();
+				waitForSqlCommand(currentCommand, waitTime);
+				currentCommand = this.sqlCommand;
 			}
 
 			// 等待超时
@@ -858,13 +991,28 @@ public class SqlpadExecutionService extends PersistenceSupport
 		}
 
 		/**
-		 * 睡眠等待SQL命令。
+		 * 等待SQL命令。
+		 * <p>
+		 * 当前命令仍是{@code current}时，将阻塞直到{@linkplain #setSqlCommand(SqlCommand)}设置了命令、或者超时，
+		 * 等待期间不占用CPU。
+		 * </p>
 		 * 
+		 * @param current
+		 *            调用方最后读取到的命令，允许为{@code null}
+		 * @param timeout
+		 *            最多等待毫秒数
 		 * @throws InterruptedException
 		 */
-		protected void sleepForSqlCommand() throws InterruptedException
+		protected void waitForSqlCommand(SqlCommand current, long timeout) throws InterruptedException
 		{
-			Thread.sleep(10);
+			if (timeout <= 0)
+				return;
+
+			synchronized (this.sqlCommandLock)
+			{
+				if (this.sqlCommand == current)
+					this.sqlCommandLock.wait(timeout);
+			}
 		}
 	}
 
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.datagear.analysis.support.html.DirectoryHtmlChartPluginManager;
+import org.datagear.analysis.support.html.HtmlChartPlugin;
+import org.datagear.analysis.support.html.HtmlChartPluginScriptObjectWriter;
+import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer;
+import org.datagear.util.Global;
+import org.datagear.util.StringUtil;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 图表插件管理器脚本（{@code chartPluginManager.js}）缓存。
+ * <p>
+ * 此类将每个{@linkplain HtmlChartPlugin}按照（ID、最后修改时间、{@linkplain Locale}）编译为独立的脚本片段并缓存，
+ * 再由当前所有插件的脚本片段拼接为完整的脚本字节数组并缓存，使得插件的渲染器代码只需从磁盘或ZIP中读取一次。
+ * </p>
+ * <p>
+ * 脚本版本号（{@linkplain #getVersion(Locale)}）是系统版本号（{@linkplain Global#VERSION}）、所有插件ID、最后修改时间以及{@linkplain Locale}的摘要，
+ * 以{@code chartPluginManager.js?v=版本号}的方式引用脚本，可使浏览器长期缓存它，而插件变化后版本号也随之变化。
+ * </p>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ChartPluginScriptBundleCache
+{
+	/** 脚本片段内的插件变量名 */
+	protected static final String PLUGIN_VAR = "plugin";
+
+	private DirectoryHtmlChartPluginManager directoryHtmlChartPluginManager;
+
+	private HtmlTplDashboardWidgetRenderer htmlTplDashboardWidgetRenderer;
+
+	private HtmlChartPluginScriptObjectWriter htmlChartPluginScriptObjectWriter = new HtmlChartPluginScriptObjectWriter();
+
+	/** 最多缓存的插件脚本片段数 */
+	private int pluginScriptCacheMaxSize = 1000;
+
+	/** 最多缓存的完整脚本数 */
+	private int bundleCacheMaxSize = 10;
+
+	private Map<String, String> pluginScriptCache = null;
+
+	private Map<String, ScriptBundle> bundleCache = null;
+
+	public ChartPluginScriptBundleCache()
+	{
+		super();
+		this.pluginScriptCache = createCache(this.pluginScriptCacheMaxSize);
+		this.bundleCache = createCache(this.bundleCacheMaxSize);
+	}
+
+	public ChartPluginScriptBundleCache(DirectoryHtmlChartPluginManager directoryHtmlChartPluginManager,
+			HtmlTplDashboardWidgetRenderer htmlTplDashboardWidgetRenderer)
+	{
+		super();
+		this.directoryHtmlChartPluginManager = directoryHtmlChartPluginManager;
+		this.htmlTplDashboardWidgetRenderer = htmlTplDashboardWidgetRenderer;
+		this.pluginScriptCache = createCache(this.pluginScriptCacheMaxSize);
+		this.bundleCache = createCache(this.bundleCacheMaxSize);
+	}
+
+	public DirectoryHtmlChartPluginManager getDirectoryHtmlChartPluginManager()
+	{
+		return directoryHtmlChartPluginManager;
+	}
+
+	public void setDirectoryHtmlChartPluginManager(DirectoryHtmlChartPluginManager directoryHtmlChartPluginManager)
+	{
+		this.directoryHtmlChartPluginManager = directoryHtmlChartPluginManager;
+	}
+
+	public HtmlTplDashboardWidgetRenderer getHtmlTplDashboardWidgetRenderer()
+	{
+		return htmlTplDashboardWidgetRenderer;
+	}
+
+	public void setHtmlTplDashboardWidgetRenderer(HtmlTplDashboardWidgetRenderer htmlTplDashboardWidgetRenderer)
+	{
+		this.htmlTplDashboardWidgetRenderer = htmlTplDashboardWidgetRenderer;
+	}
+
+	public HtmlChartPluginScriptObjectWriter getHtmlChartPluginScriptObjectWriter()
+	{
+		return htmlChartPluginScriptObjectWriter;
+	}
+
+	public void setHtmlChartPluginScriptObjectWriter(
+			HtmlChartPluginScriptObjectWriter htmlChartPluginScriptObjectWriter)
+	{
+		this.htmlChartPluginScriptObjectWriter = htmlChartPluginScriptObjectWriter;
+		this.pluginScriptCache.clear();
+		this.bundleCache.clear();
+	}
+
+	public int getPluginScriptCacheMaxSize()
+	{
+		return pluginScriptCacheMaxSize;
+	}
+
+	public void setPluginScriptCacheMaxSize(int pluginScriptCacheMaxSize)
+	{
+		this.pluginScriptCacheMaxSize = pluginScriptCacheMaxSize;
+		this.pluginScriptCache = createCache(pluginScriptCacheMaxSize);
+	}
+
+	public int getBundleCacheMaxSize()
+	{
+		return bundleCacheMaxSize;
+	}
+
+	public void setBundleCacheMaxSize(int bundleCacheMaxSize)
+	{
+		this.bundleCacheMaxSize = bundleCacheMaxSize;
+		this.bundleCache = createCache(bundleCacheMaxSize);
+	}
+
+	/**
+	 * 获取当前脚本版本号。
+	 * <p>
+	 * 此方法不会编译脚本，开销很小，可在每次渲染看板时调用。
+	 * </p>
+	 *
+	 * @param locale
+	 * @return
+	 */
+	public String getVersion(Locale locale)
+	{
+		return getVersion(getPlugins(), locale);
+	}
+
+	/**
+	 * 获取当前脚本。
+	 *
+	 * @param locale
+	 * @return
+	 * @throws IOException
+	 */
+	public ScriptBundle getBundle(Locale locale) throws IOException
+	{
+		List<HtmlChartPlugin> plugins = getPlugins();
+		String version = getVersion(plugins, locale);
+
+		ScriptBundle bundle = this.bundleCache.get(version);
+
+		// 并发时可能重复编译，但结果相同，无需加锁
+		if (bundle == null)
+		{
+			bundle = buildBundle(plugins, version, locale);
+			this.bundleCache.put(version, bundle);
+		}
+
+		return bundle;
+	}
+
+	protected ScriptBundle buildBundle(List<HtmlChartPlugin> plugins, String version, Locale locale)
+			throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		long lastModified = -1;
+
+		sb.append("(function(global)\n");
+		sb.append("{\n");
+		sb.append("var chartFactory = (global.chartFactory || (global.chartFactory = {}));\n");
+		sb.append(
+				"var chartPluginManager = (chartFactory.chartPluginManager || (chartFactory.chartPluginManager = {}));\n");
+		sb.append("chartPluginManager.plugins = (chartPluginManager.plugins || {});\n");
+		sb.append("\n");
+		sb.append("//@deprecated 兼容1.8.1版本的window.chartPluginManager变量名，未来版本会移除\n");
+		sb.append("global.chartPluginManager = chartPluginManager;\n");
+		sb.append("\n");
+		sb.append("chartPluginManager.get = function(id){ return this.plugins[id]; };\n");
+		sb.append("\n");
+
+		for (HtmlChartPlugin plugin : plugins)
+		{
+			sb.append(getPluginScript(plugin, locale));
+			lastModified = Math.max(lastModified, plugin.getLastModified());
+		}
+
+		sb.append("})(this);\n");
+
+		return new ScriptBundle(version, sb.toString().getBytes(StandardCharsets.UTF_8), lastModified);
+	}
+
+	/**
+	 * 获取插件的脚本片段。
+	 * <p>
+	 * 脚本片段是一个独立的函数调用，它将插件注册至外层的{@code chartPluginManager}变量。
+	 * </p>
+	 *
+	 * @param plugin
+	 * @param locale
+	 * @return
+	 * @throws IOException
+	 */
+	protected String getPluginScript(HtmlChartPlugin plugin, Locale locale) throws IOException
+	{
+		String key = plugin.getId() + "/" + plugin.getLastModified() + "/" + locale;
+		String script = this.pluginScriptCache.get(key);
+
+		if (script == null)
+		{
+			script = buildPluginScript(plugin, locale);
+			this.pluginScriptCache.put(key, script);
+		}
+
+		return script;
+	}
+
+	protected String buildPluginScript(HtmlChartPlugin plugin, Locale locale) throws IOException
+	{
+		StringWriter out = new StringWriter();
+
+		out.write("(function(){\n");
+
+		this.htmlChartPluginScriptObjectWriter.write(out, plugin, PLUGIN_VAR, locale);
+
+		out.write("//@deprecated 兼容4.0.0版本的" + HtmlChartPlugin.PROPERTY_RENDERER_OLD + "属性名，未来版本会移除\n");
+		out.write(PLUGIN_VAR + "." + HtmlChartPlugin.PROPERTY_RENDERER_OLD + " = " + PLUGIN_VAR + "."
+				+ HtmlChartPlugin.PROPERTY_RENDERER + ";\n");
+		out.write("chartPluginManager.plugins[" + StringUtil.toJavaScriptString(plugin.getId()) + "] = "
+				+ PLUGIN_VAR + ";\n");
+
+		out.write("})();\n");
+
+		return out.toString();
+	}
+
+	/**
+	 * 获取当前所有插件，包括{@linkplain HtmlTplDashboardWidgetRenderer#getHtmlChartPluginForGetWidgetException()}。
+	 *
+	 * @return
+	 */
+	protected List<HtmlChartPlugin> getPlugins()
+	{
+		List<HtmlChartPlugin> plugins = this.directoryHtmlChartPluginManager.getAll(HtmlChartPlugin.class);
+		List<HtmlChartPlugin> re = new ArrayList<>((plugins == null ? 0 : plugins.size()) + 1);
+
+		if (plugins != null)
+			re.addAll(plugins);
+
+		re.add(this.htmlTplDashboardWidgetRenderer.getHtmlChartPluginForGetWidgetException());
+
+		return re;
+	}
+
+	protected String getVersion(List<HtmlChartPlugin> plugins, Locale locale)
+	{
+		StringBuilder sb = new StringBuilder();
+		// 系统升级后脚本的生成方式可能变化，即使插件未变化也应使用新版本号
+		sb.append(Global.VERSION).append('\n').append(locale);
+
+		for (HtmlChartPlugin plugin : plugins)
+			sb.append('\n').append(plugin.getId()).append('/').append(plugin.getLastModified());
+
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	protected <T> Map<String, T> createCache(final int maxSize)
+	{
+		return Collections.synchronizedMap(new LinkedHashMap<String, T>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, T> eldest)
+			{
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * 编译后的完整脚本。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class ScriptBundle
+	{
+		private final String version;
+
+		private final byte[] content;
+
+		private final long lastModified;
+
+		public ScriptBundle(String version, byte[] content, long lastModified)
+		{
+			super();
+			this.version = version;
+			this.content = content;
+			this.lastModified = lastModified;
+		}
+
+		public String getVersion()
+		{
+			return version;
+		}
+
+		/**
+		 * 获取{@code UTF-8}编码的脚本内容，不应修改它。
+		 *
+		 * @return
+		 */
+		public byte[] getContent()
+		{
+			return content;
+		}
+
+		public long getLastModified()
+		{
+			return lastModified;
+		}
+	}
+}
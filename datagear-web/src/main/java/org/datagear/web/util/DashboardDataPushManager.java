@@ -0,0 +1,845 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.analysis.ChartDefinition;
+import org.datagear.analysis.ChartQuery;
+import org.datagear.analysis.ChartResult;
+import org.datagear.analysis.ChartResultError;
+import org.datagear.analysis.DashboardQuery;
+import org.datagear.analysis.support.ChartResultErrorMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * 看板数据推送管理器。
+ * <p>
+ * 浏览器订阅看板中需要间隔更新的图表查询后，通过Server-Sent
+ * Events连接接收图表数据，而无需每个浏览器定时轮询看板数据。
+ * </p>
+ * <p>
+ * 所有订阅中相同的【图表部件ID、图表查询（转换后，包含内置的当前用户参数）】将合并为同一个主题，每个主题每个更新间隔只执行一次图表查询，
+ * 查询结果将推送给此主题的所有订阅者。
+ * </p>
+ * <p>
+ * 订阅的SSE连接断开后（超时、网络错误），浏览器可使用同一订阅ID重新连接；断开超过{@linkplain #getDetachedTimeout()}的订阅将被移除，
+ * 没有订阅者的主题也将随之停止。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DashboardDataPushManager
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(DashboardDataPushManager.class);
+
+	/** SSE事件名：看板数据 */
+	public static final String EVENT_NAME_DATA = "data";
+
+	/** 浏览器SSE连接断开后的重连毫秒数 */
+	public static final long RECONNECT_TIME = 5000;
+
+	/** 用于推送数据的JSON序列化 */
+	private ObjectMapper objectMapper;
+
+	/** 执行图表查询的线程数 */
+	private int threads = 10;
+
+	/** 最小更新间隔毫秒数，图表更新间隔小于此值时将使用此值 */
+	private long minUpdateInterval = 1000;
+
+	/** SSE连接超时毫秒数，超时后浏览器将自动重新连接 */
+	private long emitterTimeout = 1000 * 60 * 30;
+
+	/** SSE连接保活毫秒数，用于及时发现已断开的连接 */
+	private long keepAliveInterval = 1000 * 30;
+
+	/** 订阅断开后保留毫秒数，期间浏览器可重新连接 */
+	private long detachedTimeout = 1000 * 60;
+
+	/** 检查主题是否需要执行查询的间隔毫秒数 */
+	private long tickInterval = 200;
+
+	/** 用于生成主题键的JSON序列化，键的顺序需确定 */
+	private ObjectMapper _keyObjectMapper;
+
+	private final ConcurrentHashMap<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+	private final ConcurrentHashMap<String, Topic> topics = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService _scheduler;
+
+	private ExecutorService _executor;
+
+	public DashboardDataPushManager()
+	{
+		super();
+	}
+
+	public DashboardDataPushManager(ObjectMapper objectMapper)
+	{
+		super();
+		this.objectMapper = objectMapper;
+	}
+
+	public ObjectMapper getObjectMapper()
+	{
+		return objectMapper;
+	}
+
+	public void setObjectMapper(ObjectMapper objectMapper)
+	{
+		this.objectMapper = objectMapper;
+	}
+
+	public int getThreads()
+	{
+		return threads;
+	}
+
+	public void setThreads(int threads)
+	{
+		this.threads = threads;
+	}
+
+	public long getMinUpdateInterval()
+	{
+		return minUpdateInterval;
+	}
+
+	public void setMinUpdateInterval(long minUpdateInterval)
+	{
+		this.minUpdateInterval = minUpdateInterval;
+	}
+
+	public long getEmitterTimeout()
+	{
+		return emitterTimeout;
+	}
+
+	public void setEmitterTimeout(long emitterTimeout)
+	{
+		this.emitterTimeout = emitterTimeout;
+	}
+
+	public long getKeepAliveInterval()
+	{
+		return keepAliveInterval;
+	}
+
+	public void setKeepAliveInterval(long keepAliveInterval)
+	{
+		this.keepAliveInterval = keepAliveInterval;
+	}
+
+	public long getDetachedTimeout()
+	{
+		return detachedTimeout;
+	}
+
+	public void setDetachedTimeout(long detachedTimeout)
+	{
+		this.detachedTimeout = detachedTimeout;
+	}
+
+	public long getTickInterval()
+	{
+		return tickInterval;
+	}
+
+	public void setTickInterval(long tickInterval)
+	{
+		this.tickInterval = tickInterval;
+	}
+
+	/**
+	 * 是否启用。
+	 *
+	 * @return
+	 */
+	public boolean isEnabled()
+	{
+		return (this.threads > 0);
+	}
+
+	/**
+	 * 初始化。
+	 */
+	public void init()
+	{
+		if (!isEnabled())
+			return;
+
+		this._keyObjectMapper = this.objectMapper.copy();
+		this._keyObjectMapper.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+		this._keyObjectMapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(this.threads, this.threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory("dashboard-push-"));
+		executor.allowCoreThreadTimeOut(true);
+		this._executor = executor;
+
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+				new NamedThreadFactory("dashboard-push-tick-"));
+		scheduler.scheduleWithFixedDelay(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					tick(System.currentTimeMillis());
+				}
+				catch (Throwable t)
+				{
+					LOGGER.error("dashboard push tick error", t);
+				}
+			}
+		}, this.tickInterval, this.tickInterval, TimeUnit.MILLISECONDS);
+		this._scheduler = scheduler;
+	}
+
+	/**
+	 * 关闭。
+	 */
+	public void shutdown()
+	{
+		if (this._scheduler != null)
+			this._scheduler.shutdownNow();
+
+		if (this._executor != null)
+			this._executor.shutdownNow();
+
+		for (Subscription subscription : this.subscriptions.values())
+			subscription.complete();
+
+		this.subscriptions.clear();
+		this.topics.clear();
+	}
+
+	/**
+	 * 订阅看板图表查询。
+	 * <p>
+	 * 只有{@linkplain ChartDefinition#getUpdateInterval()}大于等于{@code 0}的图表才会被订阅，其他图表将被忽略。
+	 * </p>
+	 *
+	 * @param dashboardId
+	 *            看板ID
+	 * @param charts
+	 *            图表ID-图表定义映射表，图表定义的{@linkplain ChartDefinition#getId()}应是可共享的图表部件ID
+	 * @param query
+	 *            已转换的看板查询
+	 * @return 订阅，{@linkplain Subscription#getChartCount()}为{@code 0}表示没有可订阅的图表
+	 */
+	public Subscription subscribe(String dashboardId, Map<String, ? extends ChartDefinition> charts,
+			DashboardQuery query)
+	{
+		if (!isEnabled())
+			throw new IllegalStateException("Dashboard data push is disabled");
+
+		Subscription subscription = new Subscription(UUID.randomUUID().toString().replace("-", ""), dashboardId);
+		long now = System.currentTimeMillis();
+
+		for (Map.Entry<String, ChartQuery> entry : query.getChartQueries().entrySet())
+		{
+			String chartId = entry.getKey();
+			ChartQuery chartQuery = entry.getValue();
+			ChartDefinition chart = charts.get(chartId);
+
+			if (chart == null || chart.getUpdateInterval() < 0)
+				continue;
+
+			// 如果没定义图表级结果数据格式，应使用看板级，与DashboardQueryHandler保持一致
+			if (chartQuery.getResultDataFormat() == null && query.getResultDataFormat() != null)
+			{
+				chartQuery = chartQuery.copy();
+				chartQuery.setResultDataFormat(query.getResultDataFormat());
+			}
+
+			String topicKey = toTopicKey(chart, chartQuery);
+			long interval = Math.max(chart.getUpdateInterval(), this.minUpdateInterval);
+
+			Subscriber subscriber = new Subscriber(subscription, chartId);
+			subscription.addSubscriber(topicKey, subscriber);
+
+			ChartQuery topicQuery = chartQuery;
+
+			// 订阅者已通过常规请求获取了初始数据，新主题应在一个间隔后再执行查询
+			this.topics.compute(topicKey, (k, topic) ->
+			{
+				if (topic == null)
+					topic = new Topic(k, chart, topicQuery, interval, now + interval);
+
+				topic.addSubscriber(subscriber);
+				return topic;
+			});
+		}
+
+		subscription.setDetachTime(now);
+		this.subscriptions.put(subscription.getId(), subscription);
+
+		return subscription;
+	}
+
+	/**
+	 * 获取订阅。
+	 *
+	 * @param subscriptionId
+	 * @return 返回{@code null}表示没有
+	 */
+	public Subscription getSubscription(String subscriptionId)
+	{
+		return this.subscriptions.get(subscriptionId);
+	}
+
+	/**
+	 * 获取当前订阅数。
+	 *
+	 * @return
+	 */
+	public int getSubscriptionCount()
+	{
+		return this.subscriptions.size();
+	}
+
+	/**
+	 * 获取当前主题数。
+	 *
+	 * @return
+	 */
+	public int getTopicCount()
+	{
+		return this.topics.size();
+	}
+
+	/**
+	 * 为订阅建立SSE连接。
+	 * <p>
+	 * 订阅之前的连接（如果有）将被关闭。
+	 * </p>
+	 *
+	 * @param subscription
+	 * @return
+	 */
+	public SseEmitter connect(Subscription subscription)
+	{
+		SseEmitter emitter = new SseEmitter(this.emitterTimeout);
+
+		emitter.onCompletion(() -> subscription.detach(emitter));
+		emitter.onTimeout(() -> subscription.detach(emitter));
+		emitter.onError((t) -> subscription.detach(emitter));
+
+		subscription.attach(emitter);
+
+		try
+		{
+			// 立即输出响应头，并设置浏览器断开后的重连毫秒数
+			emitter.send(SseEmitter.event().reconnectTime(RECONNECT_TIME).comment("connected"));
+		}
+		catch (IOException e)
+		{
+			subscription.detach(emitter);
+			emitter.completeWithError(e);
+		}
+
+		return emitter;
+	}
+
+	/**
+	 * 取消订阅。
+	 *
+	 * @param subscriptionId
+	 */
+	public void unsubscribe(String subscriptionId)
+	{
+		Subscription subscription = this.subscriptions.remove(subscriptionId);
+
+		if (subscription != null)
+			removeSubscription(subscription);
+	}
+
+	/**
+	 * 取消指定看板的所有订阅。
+	 *
+	 * @param dashboardId
+	 */
+	public void unsubscribeDashboard(String dashboardId)
+	{
+		for (Subscription subscription : this.subscriptions.values())
+		{
+			if (subscription.getDashboardId().equals(dashboardId))
+				unsubscribe(subscription.getId());
+		}
+	}
+
+	/**
+	 * 执行一次定时检查：执行到期主题的查询，移除失效订阅和空主题，发送连接保活。
+	 *
+	 * @param now
+	 */
+	protected void tick(long now)
+	{
+		for (Iterator<Subscription> it = this.subscriptions.values().iterator(); it.hasNext();)
+		{
+			Subscription subscription = it.next();
+
+			if (subscription.isExpired(now, this.detachedTimeout))
+			{
+				it.remove();
+				removeSubscription(subscription);
+			}
+			else
+				subscription.keepAliveIfNeed(now, this.keepAliveInterval);
+		}
+
+		for (Iterator<Topic> it = this.topics.values().iterator(); it.hasNext();)
+		{
+			Topic topic = it.next();
+
+			if (topic.isEmpty())
+			{
+				// 与subscribe()中的compute()互斥，避免移除刚添加订阅者的主题
+				this.topics.computeIfPresent(topic.getKey(), (k, t) -> (t.isEmpty() ? null : t));
+				continue;
+			}
+
+			if (topic.isDue(now) && topic.startRunning(now))
+			{
+				try
+				{
+					this._executor.execute(() -> runTopic(topic));
+				}
+				catch (RejectedExecutionException e)
+				{
+					topic.finishRunning();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 执行主题的图表查询，并推送给其所有订阅者。
+	 *
+	 * @param topic
+	 */
+	protected void runTopic(Topic topic)
+	{
+		try
+		{
+			String resultJson;
+			boolean error = false;
+
+			try
+			{
+				ChartResult result = topic.getChart().getResult(topic.getChartQuery());
+				resultJson = this.objectMapper.writeValueAsString(result);
+			}
+			catch (Throwable t)
+			{
+				ChartResultErrorMessage em = new ChartResultErrorMessage(new ChartResultError(t), true);
+				resultJson = this.objectMapper.writeValueAsString(em);
+				error = true;
+			}
+
+			for (Subscriber subscriber : topic.getSubscribers())
+				subscriber.getSubscription().send(toEventData(subscriber.getChartId(), resultJson, error));
+		}
+		catch (Throwable t)
+		{
+			LOGGER.error("push dashboard data error", t);
+		}
+		finally
+		{
+			topic.finishRunning();
+		}
+	}
+
+	/**
+	 * 构建SSE事件数据，格式与看板数据请求的响应保持一致：
+	 * <p>
+	 * <code>{"chartResults": {...}, "chartResultErrorMessages": {...}}</code>
+	 * </p>
+	 *
+	 * @param chartId
+	 * @param resultJson
+	 * @param error
+	 * @return
+	 * @throws IOException
+	 */
+	protected String toEventData(String chartId, String resultJson, boolean error) throws IOException
+	{
+		String chartIdJson = this.objectMapper.writeValueAsString(chartId);
+
+		StringBuilder sb = new StringBuilder(resultJson.length() + chartIdJson.length() + 64);
+
+		if (error)
+		{
+			sb.append("{\"chartResults\":{},\"chartResultErrorMessages\":{").append(chartIdJson).append(':')
+					.append(resultJson).append("}}");
+		}
+		else
+		{
+			sb.append("{\"chartResults\":{").append(chartIdJson).append(':').append(resultJson)
+					.append("},\"chartResultErrorMessages\":{}}");
+		}
+
+		return sb.toString();
+	}
+
+	protected String toTopicKey(ChartDefinition chart, ChartQuery chartQuery)
+	{
+		try
+		{
+			return chart.getId() + "\n" + this._keyObjectMapper.writeValueAsString(chartQuery);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	protected void removeSubscription(Subscription subscription)
+	{
+		for (Map.Entry<String, Subscriber> entry : subscription.getSubscribers())
+		{
+			Topic topic = this.topics.get(entry.getKey());
+
+			if (topic != null)
+				topic.removeSubscriber(entry.getValue());
+		}
+
+		subscription.complete();
+	}
+
+	/**
+	 * 订阅。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	public static class Subscription
+	{
+		private final String id;
+
+		private final String dashboardId;
+
+		/** 主题键-订阅者 */
+		private final List<Map.Entry<String, Subscriber>> subscribers = new ArrayList<>();
+
+		private volatile SseEmitter emitter = null;
+
+		/** 连接断开时间，已连接时为{@code -1} */
+		private volatile long detachTime = -1;
+
+		private volatile long lastSendTime = 0;
+
+		public Subscription(String id, String dashboardId)
+		{
+			super();
+			this.id = id;
+			this.dashboardId = dashboardId;
+		}
+
+		public String getId()
+		{
+			return id;
+		}
+
+		public String getDashboardId()
+		{
+			return dashboardId;
+		}
+
+		/**
+		 * 获取订阅的图表数。
+		 *
+		 * @return
+		 */
+		public int getChartCount()
+		{
+			return this.subscribers.size();
+		}
+
+		protected List<Map.Entry<String, Subscriber>> getSubscribers()
+		{
+			return Collections.unmodifiableList(this.subscribers);
+		}
+
+		protected void addSubscriber(String topicKey, Subscriber subscriber)
+		{
+			this.subscribers.add(new AbstractMap.SimpleImmutableEntry<>(topicKey, subscriber));
+		}
+
+		protected void setDetachTime(long detachTime)
+		{
+			this.detachTime = detachTime;
+		}
+
+		protected synchronized void attach(SseEmitter emitter)
+		{
+			SseEmitter prev = this.emitter;
+
+			this.emitter = emitter;
+			this.detachTime = -1;
+			this.lastSendTime = System.currentTimeMillis();
+
+			if (prev != null)
+				prev.complete();
+		}
+
+		protected synchronized void detach(SseEmitter emitter)
+		{
+			if (this.emitter == emitter)
+			{
+				this.emitter = null;
+				this.detachTime = System.currentTimeMillis();
+			}
+		}
+
+		protected boolean isExpired(long now, long detachedTimeout)
+		{
+			long myDetachTime = this.detachTime;
+			return (myDetachTime >= 0 && now - myDetachTime > detachedTimeout);
+		}
+
+		protected void send(String data)
+		{
+			SseEmitter myEmitter = this.emitter;
+
+			if (myEmitter == null)
+				return;
+
+			try
+			{
+				myEmitter.send(SseEmitter.event().name(EVENT_NAME_DATA).data(data, MediaType.TEXT_PLAIN));
+				this.lastSendTime = System.currentTimeMillis();
+			}
+			catch (Throwable t)
+			{
+				// 浏览器已断开
+				detach(myEmitter);
+				myEmitter.completeWithError(t);
+			}
+		}
+
+		protected void keepAliveIfNeed(long now, long keepAliveInterval)
+		{
+			SseEmitter myEmitter = this.emitter;
+
+			if (myEmitter == null || now - this.lastSendTime < keepAliveInterval)
+				return;
+
+			try
+			{
+				myEmitter.send(SseEmitter.event().comment("keepalive"));
+				this.lastSendTime = now;
+			}
+			catch (Throwable t)
+			{
+				detach(myEmitter);
+				myEmitter.completeWithError(t);
+			}
+		}
+
+		protected synchronized void complete()
+		{
+			SseEmitter myEmitter = this.emitter;
+
+			this.emitter = null;
+
+			if (myEmitter != null)
+				myEmitter.complete();
+		}
+	}
+
+	/**
+	 * 主题订阅者。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class Subscriber
+	{
+		private final Subscription subscription;
+
+		/** 订阅者看板中的图表ID */
+		private final String chartId;
+
+		public Subscriber(Subscription subscription, String chartId)
+		{
+			super();
+			this.subscription = subscription;
+			this.chartId = chartId;
+		}
+
+		public Subscription getSubscription()
+		{
+			return subscription;
+		}
+
+		public String getChartId()
+		{
+			return chartId;
+		}
+	}
+
+	/**
+	 * 主题：相同图表部件、相同图表查询的所有订阅者。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class Topic
+	{
+		private final String key;
+
+		private final ChartDefinition chart;
+
+		private final ChartQuery chartQuery;
+
+		private final long interval;
+
+		private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+		private final AtomicBoolean running = new AtomicBoolean(false);
+
+		private volatile long nextTime;
+
+		public Topic(String key, ChartDefinition chart, ChartQuery chartQuery, long interval, long nextTime)
+		{
+			super();
+			this.key = key;
+			this.chart = chart;
+			this.chartQuery = chartQuery;
+			this.interval = interval;
+			this.nextTime = nextTime;
+		}
+
+		public String getKey()
+		{
+			return key;
+		}
+
+		public ChartDefinition getChart()
+		{
+			return chart;
+		}
+
+		public ChartQuery getChartQuery()
+		{
+			return chartQuery;
+		}
+
+		public long getInterval()
+		{
+			return interval;
+		}
+
+		public Set<Subscriber> getSubscribers()
+		{
+			return subscribers;
+		}
+
+		public void addSubscriber(Subscriber subscriber)
+		{
+			this.subscribers.add(subscriber);
+		}
+
+		public void removeSubscriber(Subscriber subscriber)
+		{
+			this.subscribers.remove(subscriber);
+		}
+
+		public boolean isEmpty()
+		{
+			return this.subscribers.isEmpty();
+		}
+
+		public boolean isDue(long now)
+		{
+			return (now >= this.nextTime);
+		}
+
+		/**
+		 * 开始执行，如果上次执行还未完成，将返回{@code false}。
+		 *
+		 * @param now
+		 * @return
+		 */
+		public boolean startRunning(long now)
+		{
+			if (!this.running.compareAndSet(false, true))
+				return false;
+
+			this.nextTime = now + this.interval;
+			return true;
+		}
+
+		public void finishRunning()
+		{
+			this.running.set(false);
+		}
+	}
+
+	protected static class NamedThreadFactory implements ThreadFactory
+	{
+		private final String prefix;
+
+		private final AtomicInteger count = new AtomicInteger(0);
+
+		public NamedThreadFactory(String prefix)
+		{
+			super();
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new Thread(r, this.prefix + this.count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -17,10 +17,18 @@
 
 package org.datagear.web.util;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
@@ -31,13 +39,20 @@ import com.github.benmanes.caffeine.cache.LoadingCache;
  * <p>
  * 此类是线程安全的。
  * </p>
+ * <p>
+ * {@linkplain #poll(String, int, long, MessageReceiver)}的等待者将在{@linkplain #push(String, Object...)}时直接被通知，
+ * 超时由内部的单个守护线程处理，使用完后应调用{@linkplain #shutdown()}。
+ * 等待者未能接收的消息将被放回通道开头，不会丢失。
+ * </p>
  * 
  * @author datagear@163.com
  *
  */
 public class DefaultMessageChannel implements MessageChannel
 {
-	private LoadingCache<String, LinkedBlockingQueue<Object>> _cache;
+	private LoadingCache<String, Channel> _cache;
+
+	private volatile ScheduledExecutorService _timeoutScheduler = null;
 
 	public DefaultMessageChannel()
 	{
@@ -51,12 +66,12 @@ public class DefaultMessageChannel implements MessageChannel
 		// 消息通道只允许超时，不允许被其他情况移除
 		this._cache = Caffeine.newBuilder().maximumSize(Integer.MAX_VALUE)
 				.expireAfterAccess(channelExpireSeconds, TimeUnit.SECONDS)
-				.build(new CacheLoader<String, LinkedBlockingQueue<Object>>()
+				.build(new CacheLoader<String, Channel>()
 				{
 					@Override
-					public LinkedBlockingQueue<Object> load(String key) throws Exception
+					public Channel load(String key) throws Exception
 					{
-						return new LinkedBlockingQueue<Object>();
+						return new Channel();
 					}
 				});
 	}
@@ -64,52 +79,171 @@ public class DefaultMessageChannel implements MessageChannel
 	@Override
 	public void push(String name, Object... messages)
 	{
-		LinkedBlockingQueue<Object> queue = getChannelQueueNonNull(name);
+		Channel channel = getChannelNonNull(name);
 
-		for (int i = 0; i < messages.length; i++)
-			queue.add(messages[i]);
+		deliver(channel, channel.push(messages));
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> T poll(String name)
 	{
-		LinkedBlockingQueue<Object> queue = getChannelQueueNonNull(name);
+		Channel channel = getChannelNonNull(name);
 
-		return (T) queue.poll();
+		return (T) channel.poll();
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> List<T> poll(String name, int count)
 	{
-		LinkedBlockingQueue<Object> queue = getChannelQueueNonNull(name);
+		Channel channel = getChannelNonNull(name);
 
-		List<T> list = new LinkedList<T>();
-		
-		if(count < 0)
+		return (List<T>) channel.poll(count);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> List<T> poll(String name, int count, long timeout) throws MessageChannelException
+	{
+		Channel channel = getChannelNonNull(name);
+
+		try
 		{
-			Object msg = null;
-			while ((msg = queue.poll()) != null)
+			return (List<T>) channel.poll(count, timeout);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new MessageChannelException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> void poll(String name, int count, long timeout, MessageReceiver<T> receiver)
+	{
+		Channel channel = getChannelNonNull(name);
+
+		Waiter waiter = new Waiter(count, (MessageReceiver<Object>) receiver);
+		List<Object> messages = channel.pollOrWait(waiter);
+
+		if (messages != null)
+		{
+			if (!waiter.receive(messages))
+				deliver(channel, channel.pushBack(messages));
+
+			return;
+		}
+
+		try
+		{
+			waiter.setTimeoutFuture(getTimeoutScheduler().schedule(() ->
 			{
-				list.add((T) msg);
-			}
+				if (channel.removeWaiter(waiter))
+					waiter.receive(Collections.emptyList());
+			}, Math.max(timeout, 0), TimeUnit.MILLISECONDS));
 		}
-		else
+		catch (RejectedExecutionException e)
+		{
+			// 已关闭
+			if (channel.removeWaiter(waiter))
+				waiter.receive(Collections.emptyList());
+		}
+	}
+
+	@Override
+	public boolean removeWaiter(String name, MessageReceiver<?> receiver)
+	{
+		Channel channel = this._cache.getIfPresent(name);
+
+		if (channel == null)
+			return false;
+
+		Waiter waiter = channel.removeWaiter(receiver);
+
+		if (waiter == null)
+			return false;
+
+		waiter.cancelTimeout();
+		return true;
+	}
+
+	/**
+	 * 关闭。
+	 * <p>
+	 * 所有等待中的{@linkplain #poll(String, int, long, MessageReceiver)}将不再超时返回。
+	 * </p>
+	 */
+	public void shutdown()
+	{
+		ScheduledExecutorService scheduler = this._timeoutScheduler;
+
+		if (scheduler != null)
+			scheduler.shutdownNow();
+	}
+
+	protected ScheduledExecutorService getTimeoutScheduler()
+	{
+		ScheduledExecutorService scheduler = this._timeoutScheduler;
+
+		if (scheduler == null)
 		{
-			for (int i = 0; i < count; i++)
+			synchronized (this)
 			{
-				T msg = (T) queue.poll();
-	
-				if (msg != null)
-					list.add(msg);
+				scheduler = this._timeoutScheduler;
+
+				if (scheduler == null)
+				{
+					ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, (r) ->
+					{
+						Thread thread = new Thread(r, "message-channel-timeout");
+						thread.setDaemon(true);
+						return thread;
+					});
+					// 消息到达后超时任务即被取消，应立即移除，避免积压
+					executor.setRemoveOnCancelPolicy(true);
+
+					scheduler = executor;
+					this._timeoutScheduler = scheduler;
+				}
 			}
 		}
 
-		return list;
+		return scheduler;
+	}
+
+	/**
+	 * 将消息发送给等待者，等待者未能接收的消息将被放回通道开头，并尝试发送给其他等待者。
+	 * 
+	 * @param channel
+	 * @param deliveries
+	 */
+	protected void deliver(Channel channel, List<Delivery> deliveries)
+	{
+		while (!deliveries.isEmpty())
+		{
+			List<Object> rejected = null;
+
+			for (Delivery delivery : deliveries)
+			{
+				if (!delivery.deliver())
+				{
+					if (rejected == null)
+						rejected = new ArrayList<Object>();
+
+					rejected.addAll(delivery.getMessages());
+				}
+			}
+
+			if (rejected == null)
+				break;
+
+			deliveries = channel.pushBack(rejected);
+		}
 	}
 
-	protected LinkedBlockingQueue<Object> getChannelQueueNonNull(String name)
+	protected Channel getChannelNonNull(String name)
 	{
 		try
 		{
@@ -120,4 +254,251 @@ public class DefaultMessageChannel implements MessageChannel
 			throw new MessageChannelException(e);
 		}
 	}
+
+	/**
+	 * 消息通道：消息队列及其等待者。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class Channel
+	{
+		private final ArrayDeque<Object> messages = new ArrayDeque<Object>();
+
+		private final LinkedList<Waiter> waiters = new LinkedList<Waiter>();
+
+		public Channel()
+		{
+			super();
+		}
+
+		/**
+		 * 添加消息，并返回需通知的等待者，应在同步块外通知它们。
+		 * 
+		 * @param msgs
+		 * @return
+		 */
+		public synchronized List<Delivery> push(Object... msgs)
+		{
+			for (int i = 0; i < msgs.length; i++)
+			{
+				if (msgs[i] == null)
+					throw new NullPointerException();
+
+				this.messages.add(msgs[i]);
+			}
+
+			return pollDeliveries();
+		}
+
+		/**
+		 * 将消息按原顺序放回通道开头，并返回需通知的等待者，应在同步块外通知它们。
+		 * 
+		 * @param msgs
+		 * @return
+		 */
+		public synchronized List<Delivery> pushBack(List<Object> msgs)
+		{
+			for (int i = msgs.size() - 1; i >= 0; i--)
+				this.messages.addFirst(msgs.get(i));
+
+			return pollDeliveries();
+		}
+
+		public synchronized Object poll()
+		{
+			return this.messages.poll();
+		}
+
+		public synchronized List<Object> poll(int count)
+		{
+			return drain(count);
+		}
+
+		public synchronized List<Object> poll(int count, long timeout) throws InterruptedException
+		{
+			long deadline = System.currentTimeMillis() + timeout;
+			long remaining = timeout;
+
+			while (this.messages.isEmpty() && remaining > 0)
+			{
+				wait(remaining);
+				remaining = deadline - System.currentTimeMillis();
+			}
+
+			return drain(count);
+		}
+
+		/**
+		 * 有消息时直接返回，否则，将等待者加入等待队列并返回{@code null}。
+		 * 
+		 * @param waiter
+		 * @return
+		 */
+		public synchronized List<Object> pollOrWait(Waiter waiter)
+		{
+			if (!this.messages.isEmpty())
+				return drain(waiter.getCount());
+
+			this.waiters.add(waiter);
+			return null;
+		}
+
+		public synchronized boolean removeWaiter(Waiter waiter)
+		{
+			return this.waiters.remove(waiter);
+		}
+
+		/**
+		 * 移除指定{@linkplain MessageReceiver}的等待者。
+		 * 
+		 * @param receiver
+		 * @return 被移除的等待者，没有时返回{@code null}
+		 */
+		public synchronized Waiter removeWaiter(MessageReceiver<?> receiver)
+		{
+			for (Iterator<Waiter> it = this.waiters.iterator(); it.hasNext();)
+			{
+				Waiter waiter = it.next();
+
+				if (waiter.getReceiver() == receiver)
+				{
+					it.remove();
+					return waiter;
+				}
+			}
+
+			return null;
+		}
+
+		protected List<Delivery> pollDeliveries()
+		{
+			notifyAll();
+
+			if (this.waiters.isEmpty())
+				return Collections.emptyList();
+
+			List<Delivery> deliveries = new ArrayList<Delivery>(1);
+
+			while (!this.messages.isEmpty() && !this.waiters.isEmpty())
+			{
+				Waiter waiter = this.waiters.poll();
+				deliveries.add(new Delivery(waiter, drain(waiter.getCount())));
+			}
+
+			return deliveries;
+		}
+
+		protected List<Object> drain(int count)
+		{
+			int size = (count < 0 ? this.messages.size() : Math.min(count, this.messages.size()));
+			List<Object> list = new ArrayList<Object>(size);
+
+			for (int i = 0; i < size; i++)
+				list.add(this.messages.poll());
+
+			return list;
+		}
+	}
+
+	/**
+	 * {@linkplain MessageReceiver}等待者。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class Waiter
+	{
+		private final int count;
+
+		private final MessageReceiver<Object> receiver;
+
+		private final AtomicBoolean received = new AtomicBoolean(false);
+
+		private volatile ScheduledFuture<?> timeoutFuture = null;
+
+		public Waiter(int count, MessageReceiver<Object> receiver)
+		{
+			super();
+			this.count = count;
+			this.receiver = receiver;
+		}
+
+		public int getCount()
+		{
+			return count;
+		}
+
+		public MessageReceiver<Object> getReceiver()
+		{
+			return receiver;
+		}
+
+		public void setTimeoutFuture(ScheduledFuture<?> timeoutFuture)
+		{
+			this.timeoutFuture = timeoutFuture;
+
+			// 消息可能已在设置之前到达
+			if (this.received.get())
+				timeoutFuture.cancel(false);
+		}
+
+		/**
+		 * 接收消息，保证只接收一次。
+		 * 
+		 * @param messages
+		 * @return 是否接收成功，返回{@code false}时调用方应将消息放回通道
+		 */
+		public boolean receive(List<Object> messages)
+		{
+			if (!this.received.compareAndSet(false, true))
+				return false;
+
+			cancelTimeout();
+
+			return this.receiver.receive(messages);
+		}
+
+		/**
+		 * 不再等待，取消超时任务。
+		 */
+		public void cancelTimeout()
+		{
+			this.received.set(true);
+
+			ScheduledFuture<?> myTimeoutFuture = this.timeoutFuture;
+
+			if (myTimeoutFuture != null)
+				myTimeoutFuture.cancel(false);
+		}
+	}
+
+	protected static class Delivery
+	{
+		private final Waiter waiter;
+
+		private final List<Object> messages;
+
+		public Delivery(Waiter waiter, List<Object> messages)
+		{
+			super();
+			this.waiter = waiter;
+			this.messages = messages;
+		}
+
+		public List<Object> getMessages()
+		{
+			return messages;
+		}
+
+		/**
+		 * 发送消息。
+		 * 
+		 * @return 是否发送成功
+		 */
+		public boolean deliver()
+		{
+			return this.waiter.receive(this.messages);
+		}
+	}
 }
@@ -64,10 +64,34 @@ public class HtmlTplDashboardImportResolver
 	 */
 	public static final String MODE_EDIT = "EDIT";
 
+	private ChartPluginScriptBundleCache chartPluginScriptBundleCache = null;
+
 	public HtmlTplDashboardImportResolver()
 	{
 		super();
 	}
+
+	public HtmlTplDashboardImportResolver(ChartPluginScriptBundleCache chartPluginScriptBundleCache)
+	{
+		super();
+		this.chartPluginScriptBundleCache = chartPluginScriptBundleCache;
+	}
+
+	public ChartPluginScriptBundleCache getChartPluginScriptBundleCache()
+	{
+		return chartPluginScriptBundleCache;
+	}
+
+	/**
+	 * 设置{@linkplain ChartPluginScriptBundleCache}，设置后，{@code chartPluginManager.js}将以插件版本号引用，浏览器可长期缓存它。
+	 * 
+	 * @param chartPluginScriptBundleCache
+	 *            允许为{@code null}
+	 */
+	public void setChartPluginScriptBundleCache(ChartPluginScriptBundleCache chartPluginScriptBundleCache)
+	{
+		this.chartPluginScriptBundleCache = chartPluginScriptBundleCache;
+	}
 	
 	/**
 	 * 获取执行请求的{@linkplain HtmlTplDashboardImport}加载列表。
@@ -133,7 +157,7 @@ public class HtmlTplDashboardImportResolver
 		impts.add(HtmlTplDashboardImport.valueOfJavaScript(BUILTIN_DASHBOARD_IMPORT_NAME_CHARTSETTING,
 						scriptPrefix + "/chartSetting.js?v=" + Global.VERSION));
 		impts.add(HtmlTplDashboardImport.valueOfJavaScript(BUILTIN_DASHBOARD_IMPORT_NAME_CHARTPLUGINMANAGER,
-				contextPath + "/chartPlugin/chartPluginManager.js?v=" + Global.VERSION));
+				contextPath + "/chartPlugin/chartPluginManager.js?v=" + getChartPluginManagerVersion(request)));
 
 		if (isModelEdit(mode))
 		{
@@ -144,6 +168,14 @@ public class HtmlTplDashboardImportResolver
 		return impts;
 	}
 
+	protected String getChartPluginManagerVersion(HttpServletRequest request)
+	{
+		if (this.chartPluginScriptBundleCache == null)
+			return Global.VERSION;
+
+		return this.chartPluginScriptBundleCache.getVersion(WebUtils.getLocale(request));
+	}
+
 	protected boolean isModelEdit(String mode)
 	{
 		return MODE_EDIT.equals(mode);
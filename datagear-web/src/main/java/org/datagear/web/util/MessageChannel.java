@@ -60,4 +60,74 @@ public interface MessageChannel
 	 * @return 消息对象列表，返回空列表表示无消息
 	 */
 	public <T> List<T> poll(String name, int count);
+
+	/**
+	 * 从指定通道开头读取最多指定数量的消息并删除它们，如果通道内没有消息，将阻塞等待直到有消息、或者超时。
+	 * 
+	 * @param <T>
+	 * @param name
+	 *            消息通道名称
+	 * @param count
+	 *            最多数量，{@code -1}表示所有消息
+	 * @param timeout
+	 *            最多等待毫秒数
+	 * @return 消息对象列表，返回空列表表示超时仍无消息
+	 * @throws MessageChannelException
+	 *             等待时线程被中断
+	 */
+	public <T> List<T> poll(String name, int count, long timeout) throws MessageChannelException;
+
+	/**
+	 * 从指定通道开头读取最多指定数量的消息并删除它们，如果通道内没有消息，将等待直到有消息、或者超时。
+	 * <p>
+	 * 此方法不会阻塞调用线程，读取的消息将通过{@linkplain MessageReceiver}返回，可用于Servlet异步请求（长轮询）。
+	 * </p>
+	 * 
+	 * @param <T>
+	 * @param name
+	 *            消息通道名称
+	 * @param count
+	 *            最多数量，{@code -1}表示所有消息
+	 * @param timeout
+	 *            最多等待毫秒数
+	 * @param receiver
+	 *            消息接收器，有消息或者超时后将被调用且仅被调用一次，超时将接收空列表
+	 * @see #removeWaiter(String, MessageReceiver)
+	 */
+	public <T> void poll(String name, int count, long timeout, MessageReceiver<T> receiver);
+
+	/**
+	 * 移除{@linkplain #poll(String, int, long, MessageReceiver)}中还在等待的消息接收器。
+	 * <p>
+	 * 异步请求超时、完成或者出错（比如客户端断开）时应调用此方法，避免之后的消息被发送给已失效的接收器。
+	 * </p>
+	 * 
+	 * @param name
+	 *            消息通道名称
+	 * @param receiver
+	 * @return 是否移除，返回{@code false}表示它已接收消息或者不存在
+	 */
+	public boolean removeWaiter(String name, MessageReceiver<?> receiver);
+
+	/**
+	 * 消息接收器。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 * @param <T>
+	 */
+	public static interface MessageReceiver<T>
+	{
+		/**
+		 * 接收消息。
+		 * <p>
+		 * 此方法可能在发送消息的线程内被调用，应尽快返回。
+		 * </p>
+		 * 
+		 * @param messages
+		 *            消息对象列表，空列表表示超时仍无消息
+		 * @return 是否接收成功，返回{@code false}表示未能接收（比如异步请求已失效），此时消息将被放回通道开头
+		 */
+		boolean receive(List<T> messages);
+	}
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import java.util.List;
+
+import org.datagear.analysis.support.DataSetQueryCoalescer;
+import org.datagear.connection.ConnectionPoolMetrics;
+import org.datagear.connection.DefaultConnectionSource;
+import org.datagear.web.sqlpad.SqlpadExecutionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 运行指标日志记录器。
+ * <p>
+ * 将数据源连接池、SQL工作台执行线程池、数据集查询合并器的运行指标输出至{@code INFO}日志，
+ * 由计划任务定期调用{@linkplain #log()}，便于运维人员排查连接池耗尽、SQL执行线程耗尽等问题。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class RuntimeMetricsLogger
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(RuntimeMetricsLogger.class);
+
+	/** 允许为null */
+	private DefaultConnectionSource connectionSource = null;
+
+	/** 允许为null */
+	private SqlpadExecutionService sqlpadExecutionService = null;
+
+	/** 允许为null */
+	private DataSetQueryCoalescer dataSetQueryCoalescer = null;
+
+	public RuntimeMetricsLogger()
+	{
+		super();
+	}
+
+	public DefaultConnectionSource getConnectionSource()
+	{
+		return connectionSource;
+	}
+
+	public void setConnectionSource(DefaultConnectionSource connectionSource)
+	{
+		this.connectionSource = connectionSource;
+	}
+
+	public SqlpadExecutionService getSqlpadExecutionService()
+	{
+		return sqlpadExecutionService;
+	}
+
+	public void setSqlpadExecutionService(SqlpadExecutionService sqlpadExecutionService)
+	{
+		this.sqlpadExecutionService = sqlpadExecutionService;
+	}
+
+	public DataSetQueryCoalescer getDataSetQueryCoalescer()
+	{
+		return dataSetQueryCoalescer;
+	}
+
+	public void setDataSetQueryCoalescer(DataSetQueryCoalescer dataSetQueryCoalescer)
+	{
+		this.dataSetQueryCoalescer = dataSetQueryCoalescer;
+	}
+
+	/**
+	 * 输出运行指标日志。
+	 */
+	public void log()
+	{
+		if (!LOGGER.isInfoEnabled())
+			return;
+
+		if (this.connectionSource != null)
+		{
+			List<ConnectionPoolMetrics> metricses = this.connectionSource.getPoolMetrics();
+
+			LOGGER.info("connection pool count : {}", metricses.size());
+
+			for (ConnectionPoolMetrics metrics : metricses)
+				LOGGER.info("connection pool metrics : {}", metrics);
+		}
+
+		if (this.sqlpadExecutionService != null)
+		{
+			LOGGER.info("sqlpad execution metrics : activeCount={}, submittedCount={}",
+					this.sqlpadExecutionService.getActiveCount(), this.sqlpadExecutionService.getSubmittedCount());
+		}
+
+		if (this.dataSetQueryCoalescer != null)
+			LOGGER.info("data set query coalescer metrics : {}", this.dataSetQueryCoalescer);
+	}
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.datagear.util.IOUtil;
+import org.datagear.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * 静态资源文件发送器。
+ * <p>
+ * 此类为静态资源文件提供：
+ * </p>
+ * <ul>
+ * <li>基于文件内容摘要的强{@code ETag}；</li>
+ * <li>对于可压缩的资源，发送预压缩的{@code br}、{@code gzip}变体：{@code br}变体需由用户在资源文件旁提供同名的{@code .br}文件（JDK不支持生成），
+ * {@code gzip}变体则由此类按需生成并存储于{@linkplain #getCompressDirectory()}；</li>
+ * <li>设置为每次都需重新验证（{@code Cache-Control: no-cache}），资源未变化时由强{@code ETag}返回{@code 304}：
+ * 看板资源由用户编写的HTML以相对路径引用，无法带有版本参数，因此不能设置长期缓存；</li>
+ * <li>在Servlet容器支持时采用Tomcat sendfile零拷贝发送文件，否则采用{@linkplain FileChannel#transferTo(long, long, WritableByteChannel)}发送。</li>
+ * </ul>
+ * <p>
+ * 此类是线程安全的。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class StaticResourceSender
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(StaticResourceSender.class);
+
+	public static final String ENCODING_GZIP = "gzip";
+
+	public static final String ENCODING_BR = "br";
+
+	protected static final String TOMCAT_SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+	protected static final String TOMCAT_SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+	protected static final String TOMCAT_SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+	protected static final String TOMCAT_SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	/** 存储gzip变体的目录 */
+	private File compressDirectory;
+
+	/** 小于此字节数的资源不压缩 */
+	private long compressMinLength = 1024;
+
+	/** 不小于此字节数的资源才采用Tomcat sendfile发送，与Tomcat的DefaultServlet默认值一致 */
+	private long sendfileMinLength = 48 * 1024;
+
+	/** 最多缓存的内容摘要数 */
+	private int digestCacheMaxSize = 1000;
+
+	private Map<String, ResourceDigest> digestCache = null;
+
+	public StaticResourceSender()
+	{
+		super();
+		this.digestCache = createDigestCache(this.digestCacheMaxSize);
+	}
+
+	public StaticResourceSender(File compressDirectory)
+	{
+		super();
+		this.compressDirectory = compressDirectory;
+		this.digestCache = createDigestCache(this.digestCacheMaxSize);
+	}
+
+	public File getCompressDirectory()
+	{
+		return compressDirectory;
+	}
+
+	public void setCompressDirectory(File compressDirectory)
+	{
+		this.compressDirectory = compressDirectory;
+	}
+
+	public long getCompressMinLength()
+	{
+		return compressMinLength;
+	}
+
+	public void setCompressMinLength(long compressMinLength)
+	{
+		this.compressMinLength = compressMinLength;
+	}
+
+	public long getSendfileMinLength()
+	{
+		return sendfileMinLength;
+	}
+
+	public void setSendfileMinLength(long sendfileMinLength)
+	{
+		this.sendfileMinLength = sendfileMinLength;
+	}
+
+	public int getDigestCacheMaxSize()
+	{
+		return digestCacheMaxSize;
+	}
+
+	public void setDigestCacheMaxSize(int digestCacheMaxSize)
+	{
+		this.digestCacheMaxSize = digestCacheMaxSize;
+		this.digestCache = createDigestCache(digestCacheMaxSize);
+	}
+
+	/**
+	 * 发送资源文件。
+	 * <p>
+	 * 调用此方法前应已设置好响应的{@code Content-Type}，它将用于判断资源是否可压缩。
+	 * </p>
+	 *
+	 * @param request
+	 * @param response
+	 * @param webRequest
+	 * @param file
+	 * @throws IOException
+	 */
+	public void send(HttpServletRequest request, HttpServletResponse response, WebRequest webRequest, File file)
+			throws IOException
+	{
+		ResourceDigest digest = getDigest(file);
+
+		File sendFile = file;
+		String encoding = null;
+
+		if (isCompressible(response.getContentType(), digest))
+		{
+			response.addHeader("Vary", "Accept-Encoding");
+
+			String acceptEncoding = request.getHeader("Accept-Encoding");
+
+			if (isAcceptEncoding(acceptEncoding, ENCODING_BR))
+			{
+				File brFile = new File(file.getPath() + ".br");
+
+				if (brFile.isFile() && brFile.lastModified() >= digest.getLastModified())
+				{
+					sendFile = brFile;
+					encoding = ENCODING_BR;
+				}
+			}
+
+			if (encoding == null && isAcceptEncoding(acceptEncoding, ENCODING_GZIP))
+			{
+				File gzipFile = getGzipFile(file, digest);
+
+				if (gzipFile != null)
+				{
+					sendFile = gzipFile;
+					encoding = ENCODING_GZIP;
+				}
+			}
+		}
+
+		// 不同编码的变体应使用不同的强ETag
+		String etag = "\"" + digest.getHash() + (encoding == null ? "" : "-" + encoding) + "\"";
+
+		if (webRequest.checkNotModified(etag, digest.getLastModified()))
+			return;
+
+		response.setHeader("Cache-Control", "no-cache");
+
+		if (encoding != null)
+			response.setHeader("Content-Encoding", encoding);
+
+		sendFile(request, response, sendFile);
+	}
+
+	/**
+	 * 发送文件内容。
+	 *
+	 * @param request
+	 * @param response
+	 * @param file
+	 * @throws IOException
+	 */
+	protected void sendFile(HttpServletRequest request, HttpServletResponse response, File file) throws IOException
+	{
+		long length = file.length();
+		response.setContentLengthLong(length);
+
+		if (length >= this.sendfileMinLength && Boolean.TRUE.equals(request.getAttribute(TOMCAT_SENDFILE_SUPPORT)))
+		{
+			request.setAttribute(TOMCAT_SENDFILE_FILENAME, file.getCanonicalPath());
+			request.setAttribute(TOMCAT_SENDFILE_START, 0L);
+			request.setAttribute(TOMCAT_SENDFILE_END, length);
+
+			return;
+		}
+
+		FileChannel in = null;
+		OutputStream out = null;
+
+		try
+		{
+			in = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			out = response.getOutputStream();
+			WritableByteChannel outChannel = Channels.newChannel(out);
+
+			long position = 0;
+
+			while (position < length)
+			{
+				long count = in.transferTo(position, length - position, outChannel);
+
+				if (count <= 0)
+					break;
+
+				position += count;
+			}
+		}
+		finally
+		{
+			IOUtil.close(in);
+			IOUtil.close(out);
+		}
+	}
+
+	/**
+	 * 获取资源文件的gzip变体，没有则创建。
+	 *
+	 * @param file
+	 * @param digest
+	 * @return 返回{@code null}表示无法创建
+	 */
+	protected File getGzipFile(File file, ResourceDigest digest)
+	{
+		if (this.compressDirectory == null)
+			return null;
+
+		File gzipFile = new File(this.compressDirectory, digest.getHash() + ".gz");
+
+		if (gzipFile.isFile())
+			return gzipFile;
+
+		File tmpFile = null;
+
+		try
+		{
+			if (!this.compressDirectory.exists())
+				this.compressDirectory.mkdirs();
+
+			tmpFile = File.createTempFile(digest.getHash(), ".tmp", this.compressDirectory);
+
+			InputStream in = null;
+			OutputStream out = null;
+
+			try
+			{
+				in = IOUtil.getInputStream(file);
+				out = new GZIPOutputStream(IOUtil.getOutputStream(tmpFile));
+
+				IOUtil.write(in, out);
+			}
+			finally
+			{
+				IOUtil.close(in);
+				IOUtil.close(out);
+			}
+
+			// 先写入临时文件再移动，避免并发请求读取到未写完的文件
+			Files.move(tmpFile.toPath(), gzipFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+
+			return gzipFile;
+		}
+		catch (IOException e)
+		{
+			if (LOGGER.isWarnEnabled())
+				LOGGER.warn("Create gzip file for [" + file.getPath() + "] failed", e);
+
+			if (tmpFile != null)
+				tmpFile.delete();
+
+			return null;
+		}
+	}
+
+	/**
+	 * 获取资源文件的内容摘要。
+	 * <p>
+	 * 文件的最后修改时间、大小不变时，将直接使用缓存的摘要。
+	 * </p>
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	protected ResourceDigest getDigest(File file) throws IOException
+	{
+		String key = file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+
+		ResourceDigest digest = this.digestCache.get(key);
+
+		if (digest != null && digest.getLastModified() == lastModified && digest.getLength() == length)
+			return digest;
+
+		InputStream in = null;
+
+		try
+		{
+			in = IOUtil.getInputStream(file);
+			String hash = DigestUtils.md5DigestAsHex(in);
+
+			digest = new ResourceDigest(hash, lastModified, length);
+		}
+		finally
+		{
+			IOUtil.close(in);
+		}
+
+		this.digestCache.put(key, digest);
+
+		return digest;
+	}
+
+	/**
+	 * 是否可压缩。
+	 *
+	 * @param contentType
+	 *            允许为{@code null}
+	 * @param digest
+	 * @return
+	 */
+	protected boolean isCompressible(String contentType, ResourceDigest digest)
+	{
+		if (StringUtil.isEmpty(contentType) || digest.getLength() < this.compressMinLength)
+			return false;
+
+		contentType = contentType.toLowerCase();
+
+		return (contentType.startsWith("text/") || contentType.contains("javascript") || contentType.contains("json")
+				|| contentType.contains("xml") || contentType.contains("svg"));
+	}
+
+	protected boolean isAcceptEncoding(String acceptEncoding, String encoding)
+	{
+		if (StringUtil.isEmpty(acceptEncoding))
+			return false;
+
+		String[] encodings = StringUtil.split(acceptEncoding, ",", true);
+
+		for (String e : encodings)
+		{
+			// 忽略"q=0"之类的权重参数，仅排除明确不接受的
+			int paramIdx = e.indexOf(';');
+			String name = (paramIdx < 0 ? e : e.substring(0, paramIdx)).trim();
+
+			if (name.equalsIgnoreCase(encoding))
+				return (paramIdx < 0 || !e.substring(paramIdx + 1).replace(" ", "").matches("q=0(\\.0*)?"));
+		}
+
+		return false;
+	}
+
+	protected Map<String, ResourceDigest> createDigestCache(final int maxSize)
+	{
+		return Collections.synchronizedMap(new LinkedHashMap<String, ResourceDigest>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ResourceDigest> eldest)
+			{
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * 资源内容摘要。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ResourceDigest
+	{
+		private final String hash;
+
+		private final long lastModified;
+
+		private final long length;
+
+		public ResourceDigest(String hash, long lastModified, long length)
+		{
+			super();
+			this.hash = hash;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+
+		public String getHash()
+		{
+			return hash;
+		}
+
+		public long getLastModified()
+		{
+			return lastModified;
+		}
+
+		public long getLength()
+		{
+			return length;
+		}
+	}
+}
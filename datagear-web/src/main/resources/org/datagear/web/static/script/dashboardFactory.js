@@ -192,6 +192,23 @@
 				chartWidgetIdParamName: "chartWidgetId"
 			});
 	
+	/**
+	 * 数据推送配置，需与后台保持一致。
+	 */
+	dashboardFactory.dataStreamConfig = (dashboardFactory.dataStreamConfig ||
+			{
+				//org.datagear.web.controller.AbstractDataAnalysisController.DASHBOARD_SUBSCRIBE_DATA_URL_NAME
+				subscribeURLAttrName: "subscribeDataURL",
+				//org.datagear.web.controller.AbstractDataAnalysisController.DASHBOARD_DATA_STREAM_URL_NAME
+				streamURLAttrName: "dataStreamURL",
+				//org.datagear.web.controller.DashboardController.SUBSCRIBE_DATA_PARAM_REPLACE
+				replaceParamName: "replace",
+				//org.datagear.web.controller.DashboardController.DATA_STREAM_PARAM_SUBSCRIPTION_ID
+				subscriptionIdParamName: "subscriptionId",
+				//org.datagear.web.util.DashboardDataPushManager.EVENT_NAME_DATA
+				eventName: "data"
+			});
+	
 	/**
 	 * 心跳配置，需与后台保持一致。
 	 */
@@ -219,6 +236,11 @@
 	 */
 	dashboardFactory.UPDATE_AJAX_RETRY_SECONDS = 5;
 	
+	/**
+	 * 数据推送连接出错后的重试秒数，期间间隔更新的图表将恢复使用ajax请求更新数据。
+	 */
+	dashboardFactory.DATA_STREAM_RETRY_SECONDS = 60;
+	
 	/**
 	 * 循环监视处理图表状态间隔毫秒数。
 	 */
@@ -1635,28 +1657,7 @@
 				var chartResults = (dashboardResult.chartResults || {});
 				var chartResultErrorMessages = (dashboardResult.chartResultErrorMessages || {});
 				
-				// < @deprecated 用于兼容1.10.1版本的DataSetResult.datas结构，未来版本会移除
-				if(chartResults)
-				{
-					for(var chartId in chartResults)
-					{
-						var chartResult = (chartResults[chartId] || {});
-						var dataSetResults = (chartResult ? chartResult.dataSetResults : []);
-						
-						for(var i=0; i<dataSetResults.length; i++)
-						{
-							if(dataSetResults[i] && dataSetResults[i].data != null)
-							{
-								var resultDatas = dataSetResults[i].data;
-								if(resultDatas != null && !$.isArray(resultDatas))
-									resultDatas = [ resultDatas ];
-								
-								dataSetResults[i].datas = resultDatas;
-							}
-						}
-					}
-				}
-				//> @deprecated 用于兼容1.10.1版本的DataSetResult.datas结构，未来版本会移除
+				dashboard._compatChartResults(chartResults);
 				
 				var updateTime = chartFactory.currentDateMs();
 				
@@ -1666,6 +1667,8 @@
 				dashboard._setUpdateTime(preUpdateCharts, updateTime);				
 				dashboard._finishChartRefreshDataIfMatch(preUpdateCharts);
 				dashboard._setInUpdateAjax(preUpdateCharts, false);
+				
+				dashboard._subscribeDataStreamIfNeed();
 			},
 			error : function()
 			{
@@ -1679,6 +1682,246 @@
 		});
 	};
 	
+	// < @deprecated 用于兼容1.10.1版本的DataSetResult.datas结构，未来版本会移除
+	dashboardBase._compatChartResults = function(chartResults)
+	{
+		if(chartResults)
+		{
+			for(var chartId in chartResults)
+			{
+				var chartResult = (chartResults[chartId] || {});
+				var dataSetResults = (chartResult && chartResult.dataSetResults ? chartResult.dataSetResults : []);
+				
+				for(var i=0; i<dataSetResults.length; i++)
+				{
+					if(dataSetResults[i] && dataSetResults[i].data != null)
+					{
+						var resultDatas = dataSetResults[i].data;
+						if(resultDatas != null && !$.isArray(resultDatas))
+							resultDatas = [ resultDatas ];
+						
+						dataSetResults[i].datas = resultDatas;
+					}
+				}
+			}
+		}
+	};
+	//> @deprecated 用于兼容1.10.1版本的DataSetResult.datas结构，未来版本会移除
+	
+	/**
+	 * 如果需要，为间隔更新的图表订阅服务端数据推送，订阅后，这些图表将由服务端推送数据，不再定时发送ajax请求。
+	 * 浏览器不支持EventSource、或者后台未启用数据推送时，将不做任何操作。
+	 */
+	dashboardBase._subscribeDataStreamIfNeed = function()
+	{
+		if(typeof(EventSource) == "undefined" || !this.isAlive())
+			return;
+		
+		var dataStreamConfig = dashboardFactory.dataStreamConfig;
+		var webContext = chartFactory.renderContextAttrWebContext(this.renderContext);
+		var subscribeURL = webContext.attributes[dataStreamConfig.subscribeURLAttrName];
+		var streamURL = webContext.attributes[dataStreamConfig.streamURLAttrName];
+		
+		if(!subscribeURL || !streamURL)
+			return;
+		
+		if(this._dataStreamErrorTime != null
+				&& (chartFactory.currentDateMs() - this._dataStreamErrorTime) < dashboardFactory.DATA_STREAM_RETRY_SECONDS*1000)
+		{
+			return;
+		}
+		
+		var streamCharts = [];
+		var charts = (this.charts || []);
+		
+		for(var i=0; i<charts.length; i++)
+		{
+			var chart = charts[i];
+			
+			if(!this._isLocalChart(chart) && chart.updateInterval > -1 && chart.isActive()
+					&& (chart.statusUpdated() || chart.status() == chartStatusConst.UPDATE_ERROR)
+					&& !chart._inUpdateAjax() && !chart._isRequestRefreshData() && chart.isDataSetParamValueReady())
+			{
+				streamCharts.push(chart);
+			}
+		}
+		
+		if(streamCharts.length == 0)
+		{
+			this._closeDataStream(true);
+			return;
+		}
+		
+		var signature = JSON.stringify(this._buildUpdateDashboardAjaxData(streamCharts));
+		
+		if(signature == this._dataStreamSignature)
+			return;
+		
+		this._dataStreamSignature = signature;
+		
+		var url = this.contextURL(subscribeURL);
+		if(this._dataStreamSubscriptionId)
+			url = this._addURLParam(url, dataStreamConfig.replaceParamName, this._dataStreamSubscriptionId);
+		
+		var dashboard = this;
+		
+		$.ajax({
+			contentType : "application/json",
+			type : "POST",
+			url : url,
+			data : signature,
+			success : function(response)
+			{
+				//已有更新的订阅
+				if(signature != dashboard._dataStreamSignature || !dashboard.isAlive())
+					return;
+				
+				dashboard._openDataStream(dashboard.contextURL(streamURL), response.subscriptionId, streamCharts);
+			},
+			error : function()
+			{
+				if(signature == dashboard._dataStreamSignature)
+					dashboard._handleDataStreamError();
+			}
+		});
+	};
+	
+	dashboardBase._openDataStream = function(streamURL, subscriptionId, charts)
+	{
+		this._closeDataStream(false);
+		
+		if(!subscriptionId)
+			return;
+		
+		var dataStreamConfig = dashboardFactory.dataStreamConfig;
+		var url = this._addURLParam(streamURL, dataStreamConfig.subscriptionIdParamName, subscriptionId);
+		var eventSource = new EventSource(url);
+		
+		var chartIds = {};
+		for(var i=0; i<charts.length; i++)
+			chartIds[charts[i].id] = true;
+		
+		this._dataStream = eventSource;
+		this._dataStreamSubscriptionId = subscriptionId;
+		this._dataStreamChartIds = chartIds;
+		
+		var dashboard = this;
+		
+		eventSource.addEventListener(dataStreamConfig.eventName, function(event)
+		{
+			if(dashboard._dataStream != eventSource)
+				return;
+			
+			try
+			{
+				dashboard._handleDataStreamResult(JSON.parse(event.data));
+			}
+			catch(e)
+			{
+				chartFactory.logException(e);
+			}
+		});
+		
+		eventSource.onerror = function()
+		{
+			//连接中断时浏览器会自动重连，只有连接被关闭（比如：订阅已失效）时才恢复ajax更新
+			if(dashboard._dataStream == eventSource && eventSource.readyState == 2)
+				dashboard._handleDataStreamError();
+		};
+	};
+	
+	dashboardBase._handleDataStreamResult = function(dashboardResult)
+	{
+		var chartResults = (dashboardResult.chartResults || {});
+		var chartResultErrorMessages = (dashboardResult.chartResultErrorMessages || {});
+		
+		this._compatChartResults(chartResults);
+		
+		var myChartResults = {};
+		var myChartResultErrorMessages = {};
+		var updateCharts = [];
+		
+		for(var chartId in chartResults)
+		{
+			var chart = this._dataStreamChartOf(chartId);
+			
+			if(chart)
+			{
+				myChartResults[chartId] = chartResults[chartId];
+				updateCharts.push(chart);
+			}
+		}
+		
+		for(var chartId in chartResultErrorMessages)
+		{
+			var chart = this._dataStreamChartOf(chartId);
+			
+			if(chart)
+			{
+				myChartResultErrorMessages[chartId] = chartResultErrorMessages[chartId];
+				updateCharts.push(chart);
+			}
+		}
+		
+		var updateTime = chartFactory.currentDateMs();
+		
+		this._updateCharts(myChartResults);
+		this._handleChartResultErrors(myChartResultErrorMessages);
+		this._setUpdateTime(updateCharts, updateTime);
+	};
+	
+	/**
+	 * 获取由数据推送更新的图表，图表正在ajax请求更新、或者已请求刷新数据（比如参数已改变）时，将返回null。
+	 */
+	dashboardBase._dataStreamChartOf = function(chartId)
+	{
+		if(!this._dataStreamChartIds || !this._dataStreamChartIds[chartId])
+			return null;
+		
+		var chart = this.chartOf(chartId);
+		
+		if(!chart || chart._inUpdateAjax() || chart._isRequestRefreshData())
+			return null;
+		
+		return chart;
+	};
+	
+	dashboardBase._isInDataStream = function(chart)
+	{
+		return (this._dataStreamChartIds != null && this._dataStreamChartIds[chart.id] == true);
+	};
+	
+	dashboardBase._handleDataStreamError = function()
+	{
+		this._closeDataStream(true);
+		this._dataStreamErrorTime = chartFactory.currentDateMs();
+	};
+	
+	/**
+	 * 关闭数据推送连接，之后图表将恢复使用ajax请求更新数据。
+	 * 
+	 * @param clearSubscription 是否同时清除订阅信息
+	 */
+	dashboardBase._closeDataStream = function(clearSubscription)
+	{
+		if(this._dataStream)
+			this._dataStream.close();
+		
+		this._dataStream = null;
+		this._dataStreamChartIds = null;
+		
+		if(clearSubscription)
+		{
+			this._dataStreamSubscriptionId = null;
+			this._dataStreamSignature = null;
+		}
+	};
+	
+	dashboardBase._addURLParam = function(url, name, value)
+	{
+		return url + (url.indexOf("?") < 0 ? "?" : "&") + name + "=" + encodeURIComponent(value);
+	};
+	
 	dashboardBase._doHandleChartsLocal = function(preUpdateCharts)
 	{
 		if(!preUpdateCharts || preUpdateCharts.length == 0)
@@ -1732,7 +1975,8 @@
 		{
 			wait = true;
 		}
-		else if(chart.updateInterval > -1
+		//由服务端推送数据的图表不需定时更新
+		else if(chart.updateInterval > -1 && !this._isInDataStream(chart)
 					&& (chart.statusUpdated() || chart.status() == chartStatusConst.UPDATE_ERROR))
 		{
 			var updateInterval = chart.updateInterval;
@@ -2851,6 +3095,7 @@
 			throw new Error("dashboard is illegal state for doDestroy()");
 		
 		this.stopHandleCharts();
+		this._closeDataStream(true);
 		this._destroyCharts();
 		this._destroyForms();
 		
@@ -1656,6 +1656,9 @@
 					autoSuspendExpireSeconds: 10,
 					//自动挂起状态时的轮询间隔
 					autoSuspendInterval: 1500,
+					//长轮询等待毫秒数，大于0时，服务端将等待直到有消息或者超时才响应，响应后立即发起下一次请求（挂起状态除外），
+					//不再需要自动挂起；需服务端支持"timeout"请求参数
+					longPollTimeout: 0,
 					//ajax设置项
 					ajaxOptions: {}
 				},
@@ -1731,14 +1734,28 @@
 				return;
 			
 			var taskClient = this;
+			var longPoll = (this.options.longPollTimeout > 0);
+			
+			//长轮询请求未返回时（比如：stop()后立即start()），不应再发起请求，避免并发读取消息导致乱序，
+			//该请求返回后会继续轮询
+			if(longPoll && this._inLongPoll)
+				return;
+			
+			this._inLongPoll = longPoll;
+			
+			var data = this.options.data;
+			if(longPoll)
+				data = $.extend({}, data, { timeout: this.options.longPollTimeout });
 			
 			var ajaxOptions = $.extend({}, this.options.ajaxOptions,
 					{
 						type : "POST",
 						url : this.url,
-						data : this.options.data,
+						data : data,
 						success : function(messages)
 						{
+							taskClient._inLongPoll = false;
+							
 							if(messages == null)
 								messages = [];
 							else if(!$.isArray(messages))
@@ -1759,7 +1776,7 @@
 							
 							//处理自动挂起
 							var autoSuspend = false;
-							if(taskClient.options.autoSuspendExpireSeconds > -1)
+							if(!longPoll && taskClient.options.autoSuspendExpireSeconds > -1)
 							{
 								if(messages.length > 0)
 								{
@@ -1790,12 +1807,30 @@
 								if(autoSuspend)
 									interval = taskClient.options.autoSuspendInterval;
 								
+								//长轮询的空响应已在服务端等待过，可立即发起下一次请求
+								if(longPoll && !taskClient.isSuspend())
+									interval = 0;
+								
 								taskClient._timeoutId = setTimeout(function()
 										{
 											taskClient._receiveAndHandleMessage();
 										},
 										interval);
 							}
+						},
+						error : function()
+						{
+							taskClient._inLongPoll = false;
+							
+							//长轮询请求可能被网关等超时中断，应稍后重试
+							if(longPoll && taskClient.isActive())
+							{
+								taskClient._timeoutId = setTimeout(function()
+										{
+											taskClient._receiveAndHandleMessage();
+										},
+										taskClient.options.suspendInterval);
+							}
 						}
 					});
 			
@@ -509,7 +509,8 @@ page_format_time.ftl
 					return po.handleDataExchangeMessage(message);
 				},
 				{
-					data: { dataExchangeId: po.dataExchangeId }
+					data: { dataExchangeId: po.dataExchangeId },
+					longPollTimeout: 20000
 				}
 		);
 	};
@@ -158,7 +158,7 @@
 		});
 	};
 	
-	po.loadTableNodes = function(schemaNode, page)
+	po.loadTableNodes = function(schemaNode, page, reload)
 	{
 		page = (page == null ? 1 : page);
 		
@@ -169,7 +169,7 @@
 		var keyword = pm.searchForm.keyword;
 		
 		pm.loadingSchema = true;
-		po.ajaxJson("/schema/"+encodeURIComponent(schemaNode.schemaId)+"/pagingQueryTable",
+		po.ajaxJson("/schema/"+encodeURIComponent(schemaNode.schemaId)+"/pagingQueryTable" + (reload ? "?reload=true" : ""),
 		{
 			data: { keyword: keyword, pageSize: 100, page: page },
 			success: function(response)
@@ -564,7 +564,7 @@
 				{
 					po.executeOnFirstAwareSchemaNode(function(schemaNode)
 					{
-						po.loadTableNodes(schemaNode);
+						po.loadTableNodes(schemaNode, 1, true);
 					});
 				}
 			},
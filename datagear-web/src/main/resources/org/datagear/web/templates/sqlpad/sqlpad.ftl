@@ -1288,7 +1288,8 @@
 			return po.handleMessage(message);
 		},
 		{
-			data: { sqlpadId: po.sqlpadId }
+			data: { sqlpadId: po.sqlpadId },
+			longPollTimeout: 20000
 		});
 		
 		po.element(".sqlpad-tabs-wrapper").on("click", ".view-full-value", function(e)
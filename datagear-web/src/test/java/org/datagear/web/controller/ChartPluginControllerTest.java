@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.controller;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.datagear.analysis.support.html.HtmlChartPlugin;
+import org.datagear.analysis.support.html.JsChartRenderer;
+import org.datagear.analysis.support.html.StringJsChartRenderer;
+import org.datagear.util.i18n.Label;
+import org.datagear.web.util.ChartPluginScriptBundleCache;
+import org.datagear.web.util.ChartPluginScriptBundleCache.ScriptBundle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * {@linkplain ChartPluginController}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ChartPluginControllerTest
+{
+	private ChartPluginController controller;
+
+	private ChartPluginScriptBundleCache chartPluginScriptBundleCache;
+
+	@Before
+	public void init()
+	{
+		LocaleContextHolder.setLocale(Locale.CHINA);
+
+		List<HtmlChartPlugin> plugins = new ArrayList<>();
+		plugins.add(createHtmlChartPlugin("plugin0", 1000));
+		plugins.add(createHtmlChartPlugin("plugin1", 2000));
+
+		this.chartPluginScriptBundleCache = new TestChartPluginScriptBundleCache(plugins);
+
+		this.controller = new ChartPluginController();
+		this.controller.setChartPluginScriptBundleCache(this.chartPluginScriptBundleCache);
+	}
+
+	@After
+	public void destroy()
+	{
+		LocaleContextHolder.resetLocaleContext();
+	}
+
+	@Test
+	public void chartPluginManagerJsTest() throws Exception
+	{
+		ScriptBundle bundle = this.chartPluginScriptBundleCache.getBundle(Locale.CHINA);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/chartPlugin/chartPluginManager.js");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		this.controller.chartPluginManagerJs(request, response, new ServletWebRequest(request, response));
+
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		assertEquals("\"" + bundle.getVersion() + "\"", response.getHeader("ETag"));
+		assertEquals("no-cache", response.getHeader("Cache-Control"));
+		assertArrayEquals(bundle.getContent(), response.getContentAsByteArray());
+	}
+
+	@Test
+	public void chartPluginManagerJsTest_versioned() throws Exception
+	{
+		ScriptBundle bundle = this.chartPluginScriptBundleCache.getBundle(Locale.CHINA);
+
+		// 版本号匹配时可长期缓存
+		{
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/chartPlugin/chartPluginManager.js");
+			request.setParameter(ChartPluginController.CHART_PLUGIN_MANAGER_JS_VERSION_PARAM, bundle.getVersion());
+			MockHttpServletResponse response = new MockHttpServletResponse();
+
+			this.controller.chartPluginManagerJs(request, response, new ServletWebRequest(request, response));
+
+			assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+			assertEquals("public, max-age=" + ChartPluginController.CHART_PLUGIN_MANAGER_JS_MAX_AGE + ", immutable",
+					response.getHeader("Cache-Control"));
+			assertArrayEquals(bundle.getContent(), response.getContentAsByteArray());
+		}
+
+		// 版本号已过期时不可长期缓存
+		{
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/chartPlugin/chartPluginManager.js");
+			request.setParameter(ChartPluginController.CHART_PLUGIN_MANAGER_JS_VERSION_PARAM, "expired");
+			MockHttpServletResponse response = new MockHttpServletResponse();
+
+			this.controller.chartPluginManagerJs(request, response, new ServletWebRequest(request, response));
+
+			assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+			assertEquals("no-cache", response.getHeader("Cache-Control"));
+		}
+	}
+
+	@Test
+	public void chartPluginManagerJsTest_notModified() throws Exception
+	{
+		ScriptBundle bundle = this.chartPluginScriptBundleCache.getBundle(Locale.CHINA);
+
+		// 脚本未变化
+		{
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/chartPlugin/chartPluginManager.js");
+			request.addHeader("If-None-Match", "\"" + bundle.getVersion() + "\"");
+			MockHttpServletResponse response = new MockHttpServletResponse();
+
+			this.controller.chartPluginManagerJs(request, response, new ServletWebRequest(request, response));
+
+			assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+			assertEquals(0, response.getContentAsByteArray().length);
+		}
+
+		// Locale变化后版本号不同
+		{
+			LocaleContextHolder.setLocale(Locale.ENGLISH);
+
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/chartPlugin/chartPluginManager.js");
+			request.addHeader("If-None-Match", "\"" + bundle.getVersion() + "\"");
+			MockHttpServletResponse response = new MockHttpServletResponse();
+
+			this.controller.chartPluginManagerJs(request, response, new ServletWebRequest(request, response));
+
+			assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+			assertEquals("\"" + this.chartPluginScriptBundleCache.getVersion(Locale.ENGLISH) + "\"",
+					response.getHeader("ETag"));
+		}
+	}
+
+	protected HtmlChartPlugin createHtmlChartPlugin(String id, long lastModified)
+	{
+		HtmlChartPlugin plugin = new HtmlChartPlugin();
+		plugin.setId(id);
+		plugin.setNameLabel(new Label(id));
+		plugin.setRenderer(new StringJsChartRenderer(JsChartRenderer.CODE_TYPE_OBJECT, "{ render: function(){} }"));
+		plugin.setLastModified(lastModified);
+
+		return plugin;
+	}
+
+	protected static class TestChartPluginScriptBundleCache extends ChartPluginScriptBundleCache
+	{
+		private final List<HtmlChartPlugin> plugins;
+
+		public TestChartPluginScriptBundleCache(List<HtmlChartPlugin> plugins)
+		{
+			super();
+			this.plugins = plugins;
+		}
+
+		@Override
+		protected List<HtmlChartPlugin> getPlugins()
+		{
+			return new ArrayList<>(this.plugins);
+		}
+	}
+}
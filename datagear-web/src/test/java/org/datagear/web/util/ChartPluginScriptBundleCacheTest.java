@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.datagear.analysis.support.html.HtmlChartPlugin;
+import org.datagear.analysis.support.html.JsChartRenderer;
+import org.datagear.analysis.support.html.StringJsChartRenderer;
+import org.datagear.util.i18n.Label;
+import org.datagear.web.util.ChartPluginScriptBundleCache.ScriptBundle;
+import org.junit.Test;
+
+/**
+ * {@linkplain ChartPluginScriptBundleCache}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ChartPluginScriptBundleCacheTest
+{
+	@Test
+	public void getVersionTest()
+	{
+		HtmlChartPlugin plugin0 = createHtmlChartPlugin("plugin0", 1000);
+		HtmlChartPlugin plugin1 = createHtmlChartPlugin("plugin1", 2000);
+
+		TestChartPluginScriptBundleCache cache = new TestChartPluginScriptBundleCache(plugin0, plugin1);
+
+		String version = cache.getVersion(Locale.CHINA);
+
+		// 插件未变化时版本号不变
+		assertEquals(version, cache.getVersion(Locale.CHINA));
+
+		// Locale不同时版本号不同
+		assertNotEquals(version, cache.getVersion(Locale.ENGLISH));
+
+		// 插件修改后版本号变化
+		plugin1.setLastModified(3000);
+		String versionModified = cache.getVersion(Locale.CHINA);
+
+		assertNotEquals(version, versionModified);
+
+		// 插件增加后版本号变化
+		cache.getPluginList().add(createHtmlChartPlugin("plugin2", 1000));
+
+		assertNotEquals(versionModified, cache.getVersion(Locale.CHINA));
+	}
+
+	@Test
+	public void getBundleTest() throws Exception
+	{
+		HtmlChartPlugin plugin0 = createHtmlChartPlugin("plugin0", 1000);
+		HtmlChartPlugin plugin1 = createHtmlChartPlugin("plugin1", 2000);
+
+		TestChartPluginScriptBundleCache cache = new TestChartPluginScriptBundleCache(plugin0, plugin1);
+
+		ScriptBundle bundle = cache.getBundle(Locale.CHINA);
+		String content = new String(bundle.getContent(), StandardCharsets.UTF_8);
+
+		assertEquals(cache.getVersion(Locale.CHINA), bundle.getVersion());
+		assertEquals(2000, bundle.getLastModified());
+		assertTrue(content.contains("chartPluginManager.plugins[\"plugin0\"]"));
+		assertTrue(content.contains("chartPluginManager.plugins[\"plugin1\"]"));
+
+		// 插件未变化时使用缓存
+		assertSame(bundle, cache.getBundle(Locale.CHINA));
+
+		// 插件修改后重新编译
+		plugin0.setLastModified(3000);
+		ScriptBundle bundleModified = cache.getBundle(Locale.CHINA);
+
+		assertNotSame(bundle, bundleModified);
+		assertNotEquals(bundle.getVersion(), bundleModified.getVersion());
+		assertEquals(3000, bundleModified.getLastModified());
+
+		// Locale不同时使用不同的脚本
+		ScriptBundle bundleEnglish = cache.getBundle(Locale.ENGLISH);
+
+		assertNotSame(bundleModified, bundleEnglish);
+		assertNotEquals(bundleModified.getVersion(), bundleEnglish.getVersion());
+	}
+
+	protected static HtmlChartPlugin createHtmlChartPlugin(String id, long lastModified)
+	{
+		HtmlChartPlugin plugin = new HtmlChartPlugin();
+		plugin.setId(id);
+		plugin.setNameLabel(new Label(id));
+		plugin.setRenderer(new StringJsChartRenderer(JsChartRenderer.CODE_TYPE_OBJECT, "{ render: function(){} }"));
+		plugin.setLastModified(lastModified);
+
+		return plugin;
+	}
+
+	protected static class TestChartPluginScriptBundleCache extends ChartPluginScriptBundleCache
+	{
+		private final List<HtmlChartPlugin> pluginList = new ArrayList<>();
+
+		public TestChartPluginScriptBundleCache(HtmlChartPlugin... plugins)
+		{
+			super();
+
+			for (HtmlChartPlugin plugin : plugins)
+				this.pluginList.add(plugin);
+		}
+
+		public List<HtmlChartPlugin> getPluginList()
+		{
+			return pluginList;
+		}
+
+		@Override
+		protected List<HtmlChartPlugin> getPlugins()
+		{
+			return new ArrayList<>(this.pluginList);
+		}
+	}
+}
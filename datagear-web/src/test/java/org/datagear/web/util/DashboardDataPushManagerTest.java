@@ -0,0 +1,355 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.analysis.ChartDefinition;
+import org.datagear.analysis.ChartQuery;
+import org.datagear.analysis.ChartResult;
+import org.datagear.analysis.DashboardQuery;
+import org.datagear.analysis.DataSetBind;
+import org.datagear.analysis.DataSetException;
+import org.datagear.analysis.DataSetQuery;
+import org.datagear.web.util.DashboardDataPushManager.Subscription;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@linkplain DashboardDataPushManager}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class DashboardDataPushManagerTest
+{
+	private static final long MIN_UPDATE_INTERVAL = 1000;
+
+	private static final long DETACHED_TIMEOUT = 1000;
+
+	private DashboardDataPushManager manager;
+
+	@Before
+	public void init()
+	{
+		this.manager = new DashboardDataPushManager(new ObjectMapper());
+		this.manager.setThreads(2);
+		this.manager.setMinUpdateInterval(MIN_UPDATE_INTERVAL);
+		this.manager.setDetachedTimeout(DETACHED_TIMEOUT);
+		// 由测试用例显式调用tick()，避免定时任务干扰
+		this.manager.setTickInterval(1000 * 60 * 60);
+		this.manager.init();
+	}
+
+	@After
+	public void destroy()
+	{
+		this.manager.shutdown();
+	}
+
+	@Test
+	public void subscribeTest()
+	{
+		CountingChart chart0 = new CountingChart("chart0", 0);
+		CountingChart chart1 = new CountingChart("chart1", -1);
+
+		Map<String, ChartDefinition> charts = new HashMap<>();
+		charts.put("c0", chart0);
+		charts.put("c1", chart1);
+
+		Map<String, ChartQuery> chartQueries = new HashMap<>();
+		chartQueries.put("c0", createChartQuery("a"));
+		chartQueries.put("c1", createChartQuery("a"));
+
+		DashboardQuery query = new DashboardQuery(chartQueries);
+
+		Subscription subscription = this.manager.subscribe("dashboard0", charts, query);
+
+		// 不间隔更新的图表不订阅
+		assertEquals(1, subscription.getChartCount());
+		assertEquals("dashboard0", subscription.getDashboardId());
+		assertSame(subscription, this.manager.getSubscription(subscription.getId()));
+		assertEquals(1, this.manager.getTopicCount());
+	}
+
+	@Test
+	public void subscribeTest_shareTopic()
+	{
+		CountingChart chart = new CountingChart("chart0", 0);
+
+		this.manager.subscribe("dashboard0", toCharts("c0", chart), toDashboardQuery("c0", createChartQuery("a")));
+		this.manager.subscribe("dashboard1", toCharts("c1", chart), toDashboardQuery("c1", createChartQuery("a")));
+
+		// 相同图表部件、相同查询共用一个主题
+		assertEquals(2, this.manager.getSubscriptionCount());
+		assertEquals(1, this.manager.getTopicCount());
+
+		this.manager.subscribe("dashboard2", toCharts("c0", chart), toDashboardQuery("c0", createChartQuery("b")));
+
+		// 查询不同则为不同主题
+		assertEquals(3, this.manager.getSubscriptionCount());
+		assertEquals(2, this.manager.getTopicCount());
+	}
+
+	@Test
+	public void tickTest() throws Exception
+	{
+		CountingChart chart = new CountingChart("chart0", 0);
+
+		Subscription subscription0 = this.manager.subscribe("dashboard0", toCharts("c0", chart),
+				toDashboardQuery("c0", createChartQuery("a")));
+		Subscription subscription1 = this.manager.subscribe("dashboard1", toCharts("c1", chart),
+				toDashboardQuery("c1", createChartQuery("a")));
+
+		RecordingEmitter emitter0 = new RecordingEmitter();
+		RecordingEmitter emitter1 = new RecordingEmitter();
+		subscription0.attach(emitter0);
+		subscription1.attach(emitter1);
+
+		long now = System.currentTimeMillis();
+
+		// 新主题在一个间隔后才执行查询
+		this.manager.tick(now);
+		Thread.sleep(100);
+
+		assertEquals(0, chart.getCount());
+
+		// 到期后只执行一次查询，并推送给所有订阅者
+		now += MIN_UPDATE_INTERVAL * 2;
+		this.manager.tick(now);
+		waitForDataEvents(emitter0, 1);
+		waitForDataEvents(emitter1, 1);
+
+		assertEquals(1, chart.getCount());
+		assertTrue(emitter0.getDataEvents().get(0).contains("\"c0\""));
+		assertTrue(emitter1.getDataEvents().get(0).contains("\"c1\""));
+
+		// 未到下一间隔不执行
+		this.manager.tick(now + MIN_UPDATE_INTERVAL / 2);
+		Thread.sleep(100);
+
+		assertEquals(1, chart.getCount());
+
+		now += MIN_UPDATE_INTERVAL * 2;
+		this.manager.tick(now);
+		waitForDataEvents(emitter0, 2);
+		waitForDataEvents(emitter1, 2);
+
+		assertEquals(2, chart.getCount());
+	}
+
+	@Test
+	public void unsubscribeTest() throws Exception
+	{
+		CountingChart chart = new CountingChart("chart0", 0);
+
+		Subscription subscription0 = this.manager.subscribe("dashboard0", toCharts("c0", chart),
+				toDashboardQuery("c0", createChartQuery("a")));
+		Subscription subscription1 = this.manager.subscribe("dashboard1", toCharts("c1", chart),
+				toDashboardQuery("c1", createChartQuery("a")));
+
+		RecordingEmitter emitter0 = new RecordingEmitter();
+		RecordingEmitter emitter1 = new RecordingEmitter();
+		subscription0.attach(emitter0);
+		subscription1.attach(emitter1);
+
+		this.manager.unsubscribe(subscription0.getId());
+
+		assertNull(this.manager.getSubscription(subscription0.getId()));
+		assertTrue(emitter0.isCompleted());
+
+		// 主题仍有其他订阅者
+		long now = System.currentTimeMillis() + MIN_UPDATE_INTERVAL * 2;
+		this.manager.tick(now);
+		waitForDataEvents(emitter1, 1);
+
+		assertEquals(1, this.manager.getTopicCount());
+		assertEquals(0, emitter0.getDataEvents().size());
+
+		// 没有订阅者的主题将被移除，不再执行查询
+		this.manager.unsubscribeDashboard("dashboard1");
+
+		assertNull(this.manager.getSubscription(subscription1.getId()));
+		assertTrue(emitter1.isCompleted());
+
+		now += MIN_UPDATE_INTERVAL * 2;
+		this.manager.tick(now);
+		Thread.sleep(100);
+
+		assertEquals(0, this.manager.getTopicCount());
+		assertEquals(1, chart.getCount());
+	}
+
+	@Test
+	public void tickTest_detached() throws Exception
+	{
+		CountingChart chart = new CountingChart("chart0", 0);
+
+		Subscription subscription0 = this.manager.subscribe("dashboard0", toCharts("c0", chart),
+				toDashboardQuery("c0", createChartQuery("a")));
+		Subscription subscription1 = this.manager.subscribe("dashboard1", toCharts("c1", chart),
+				toDashboardQuery("c1", createChartQuery("b")));
+
+		// 订阅后未连接的视为已断开
+		RecordingEmitter emitter1 = new RecordingEmitter();
+		subscription1.attach(emitter1);
+
+		long now = System.currentTimeMillis();
+
+		this.manager.tick(now + DETACHED_TIMEOUT / 2);
+
+		assertSame(subscription0, this.manager.getSubscription(subscription0.getId()));
+
+		this.manager.tick(now + DETACHED_TIMEOUT * 2);
+
+		// 断开超时的订阅及其主题将被移除，已连接的订阅不受影响
+		assertNull(this.manager.getSubscription(subscription0.getId()));
+		assertSame(subscription1, this.manager.getSubscription(subscription1.getId()));
+		assertEquals(1, this.manager.getTopicCount());
+
+		// 连接断开后，在超时前可重新连接
+		subscription1.detach(emitter1);
+		assertFalse(subscription1.isExpired(System.currentTimeMillis(), DETACHED_TIMEOUT));
+
+		RecordingEmitter emitter2 = new RecordingEmitter();
+		subscription1.attach(emitter2);
+
+		this.manager.tick(System.currentTimeMillis() + DETACHED_TIMEOUT * 2);
+
+		assertSame(subscription1, this.manager.getSubscription(subscription1.getId()));
+		assertFalse(emitter2.isCompleted());
+	}
+
+	protected void waitForDataEvents(RecordingEmitter emitter, int count) throws InterruptedException
+	{
+		long start = System.currentTimeMillis();
+
+		while (emitter.getDataEvents().size() < count && System.currentTimeMillis() - start < 5000)
+			Thread.sleep(5);
+
+		assertEquals(count, emitter.getDataEvents().size());
+	}
+
+	protected Map<String, ChartDefinition> toCharts(String chartId, ChartDefinition chart)
+	{
+		Map<String, ChartDefinition> charts = new HashMap<>();
+		charts.put(chartId, chart);
+
+		return charts;
+	}
+
+	protected DashboardQuery toDashboardQuery(String chartId, ChartQuery chartQuery)
+	{
+		Map<String, ChartQuery> chartQueries = new HashMap<>();
+		chartQueries.put(chartId, chartQuery);
+
+		return new DashboardQuery(chartQueries);
+	}
+
+	protected ChartQuery createChartQuery(String paramValue)
+	{
+		Map<String, Object> paramValues = new HashMap<>();
+		paramValues.put("p", paramValue);
+
+		return new ChartQuery(Arrays.asList(DataSetQuery.valueOf(paramValues)));
+	}
+
+	protected static class CountingChart extends ChartDefinition
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final AtomicInteger count = new AtomicInteger(0);
+
+		public CountingChart(String id, int updateInterval)
+		{
+			super(id, id, new DataSetBind[0]);
+			setUpdateInterval(updateInterval);
+		}
+
+		public int getCount()
+		{
+			return this.count.get();
+		}
+
+		@Override
+		public ChartResult getResult(ChartQuery query) throws DataSetException
+		{
+			this.count.incrementAndGet();
+			return super.getResult(query);
+		}
+	}
+
+	protected static class RecordingEmitter extends SseEmitter
+	{
+		private final List<String> dataEvents = new CopyOnWriteArrayList<>();
+
+		private volatile boolean completed = false;
+
+		public RecordingEmitter()
+		{
+			super();
+		}
+
+		public List<String> getDataEvents()
+		{
+			return dataEvents;
+		}
+
+		public boolean isCompleted()
+		{
+			return completed;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException
+		{
+			StringBuilder sb = new StringBuilder();
+
+			for (DataWithMediaType data : builder.build())
+				sb.append(data.getData());
+
+			String event = sb.toString();
+
+			if (event.contains("event:" + DashboardDataPushManager.EVENT_NAME_DATA))
+				this.dataEvents.add(event);
+		}
+
+		@Override
+		public void complete()
+		{
+			this.completed = true;
+			super.complete();
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.datagear.web.util.MessageChannel.MessageReceiver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain DefaultMessageChannel}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DefaultMessageChannelTest
+{
+	private DefaultMessageChannel messageChannel;
+
+	@Before
+	public void init()
+	{
+		this.messageChannel = new DefaultMessageChannel();
+	}
+
+	@After
+	public void destroy()
+	{
+		this.messageChannel.shutdown();
+	}
+
+	@Test
+	public void pollTest_timeout() throws Exception
+	{
+		long start = System.currentTimeMillis();
+		List<Object> messages = this.messageChannel.poll("test", 10, 200);
+
+		assertTrue(messages.isEmpty());
+		assertTrue(System.currentTimeMillis() - start >= 200);
+	}
+
+	@Test
+	public void pollTest_waitForPush() throws Exception
+	{
+		new Thread(() ->
+		{
+			try
+			{
+				Thread.sleep(100);
+			}
+			catch (InterruptedException e)
+			{
+			}
+
+			this.messageChannel.push("test", "a", "b", "c");
+		}).start();
+
+		List<Object> messages = this.messageChannel.poll("test", 2, 5000);
+
+		assertEquals(Arrays.asList("a", "b"), messages);
+		assertEquals(Collections.singletonList("c"), this.messageChannel.poll("test", -1));
+	}
+
+	@Test
+	public void pollTest_receiver() throws Exception
+	{
+		// 已有消息
+		{
+			this.messageChannel.push("test", "a");
+
+			AtomicReference<List<Object>> received = new AtomicReference<>();
+			this.messageChannel.poll("test", 10, 5000, (List<Object> messages) ->
+			{
+				received.set(messages);
+				return true;
+			});
+
+			assertEquals(Collections.singletonList("a"), received.get());
+		}
+
+		// 等待消息
+		{
+			CountDownLatch latch = new CountDownLatch(1);
+			AtomicReference<List<Object>> received = new AtomicReference<>();
+			this.messageChannel.poll("test", 10, 5000, (List<Object> messages) ->
+			{
+				received.set(messages);
+				latch.countDown();
+				return true;
+			});
+
+			this.messageChannel.push("test", "b", "c");
+
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+			assertEquals(Arrays.asList("b", "c"), received.get());
+		}
+
+		// 超时
+		{
+			CountDownLatch latch = new CountDownLatch(1);
+			AtomicReference<List<Object>> received = new AtomicReference<>();
+			this.messageChannel.poll("test", 10, 100, (List<Object> messages) ->
+			{
+				received.set(messages);
+				latch.countDown();
+				return true;
+			});
+
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+			assertTrue(received.get().isEmpty());
+
+			// 超时后的消息不会丢失
+			this.messageChannel.push("test", "d");
+			assertEquals("d", this.messageChannel.poll("test"));
+		}
+	}
+
+	@Test
+	public void pollTest_receiverRemoved() throws Exception
+	{
+		// 被移除的等待者（比如请求超时、客户端断开）不应再接收消息
+		{
+			AtomicReference<List<Object>> received = new AtomicReference<>();
+			MessageReceiver<Object> receiver = (List<Object> messages) ->
+			{
+				received.set(messages);
+				return true;
+			};
+
+			this.messageChannel.poll("test", 10, 5000, receiver);
+
+			assertTrue(this.messageChannel.removeWaiter("test", receiver));
+			assertFalse(this.messageChannel.removeWaiter("test", receiver));
+
+			this.messageChannel.push("test", "a", "b");
+
+			assertNull(received.get());
+			assertEquals(Arrays.asList("a", "b"), this.messageChannel.poll("test", -1));
+		}
+
+		// 未能接收的消息应按原顺序放回通道开头，并发送给下一个等待者
+		{
+			MessageReceiver<Object> expired = (List<Object> messages) -> false;
+
+			CountDownLatch latch = new CountDownLatch(1);
+			AtomicReference<List<Object>> received = new AtomicReference<>();
+
+			this.messageChannel.poll("test", 10, 5000, expired);
+			this.messageChannel.poll("test", 10, 5000, (List<Object> messages) ->
+			{
+				received.set(messages);
+				latch.countDown();
+				return true;
+			});
+
+			this.messageChannel.push("test", "c", "d");
+
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+			assertEquals(Arrays.asList("c", "d"), received.get());
+		}
+
+		// 已有消息时未能接收
+		{
+			this.messageChannel.push("test", "e", "f");
+			this.messageChannel.poll("test", 1, 5000, (List<Object> messages) -> false);
+			this.messageChannel.push("test", "g");
+
+			assertEquals(Arrays.asList("e", "f", "g"), this.messageChannel.poll("test", -1));
+		}
+	}
+}
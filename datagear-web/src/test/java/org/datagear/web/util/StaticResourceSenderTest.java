@@ -0,0 +1,284 @@
+/*
+ * Copyright 2018-present datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.datagear.util.FileUtil;
+import org.datagear.util.IOUtil;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * {@linkplain StaticResourceSender}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class StaticResourceSenderTest
+{
+	private File directory;
+
+	private File compressDirectory;
+
+	@Before
+	public void init()
+	{
+		this.directory = FileUtil.getDirectory("target/test/StaticResourceSenderTest");
+		FileUtil.clearDirectory(this.directory);
+
+		this.compressDirectory = FileUtil.getDirectory(this.directory, "compress", false);
+	}
+
+	@Test
+	public void sendTest() throws Exception
+	{
+		StaticResourceSender sender = new StaticResourceSender(this.compressDirectory);
+
+		byte[] content = createContent(2048);
+		File file = writeFile("test.js", content);
+		String hash = sender.getDigest(file).getHash();
+
+		// 接受gzip
+		{
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test.js");
+			request.addHeader("Accept-Encoding", "gzip, deflate");
+			MockHttpServletResponse response = createResponse("application/javascript");
+
+			sender.send(request, response, new ServletWebRequest(request, response), file);
+
+			assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+			assertEquals("gzip", response.getHeader("Content-Encoding"));
+			assertEquals("Accept-Encoding", response.getHeader("Vary"));
+			assertEquals("\"" + hash + "-gzip\"", response.getHeader("ETag"));
+			assertEquals("no-cache", response.getHeader("Cache-Control"));
+			assertArrayEquals(content, gunzip(response.getContentAsByteArray()));
+		}
+
+		// 不接受压缩
+		{
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test.js");
+			MockHttpServletResponse response = createResponse("application/javascript");
+
+			sender.send(request, response, new ServletWebRequest(request, response), file);
+
+			assertNull(response.getHeader("Content-Encoding"));
+			assertEquals("\"" + hash + "\"", response.getHeader("ETag"));
+			assertEquals("no-cache", response.getHeader("Cache-Control"));
+			assertArrayEquals(content, response.getContentAsByteArray());
+		}
+
+		// 资源未变化
+		{
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test.js");
+			request.addHeader("Accept-Encoding", "gzip");
+			request.addHeader("If-None-Match", "\"" + hash + "-gzip\"");
+			MockHttpServletResponse response = createResponse("application/javascript");
+
+			sender.send(request, response, new ServletWebRequest(request, response), file);
+
+			assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+			assertEquals(0, response.getContentAsByteArray().length);
+		}
+
+		// 变体的ETag与原始资源不同
+		{
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test.js");
+			request.addHeader("If-None-Match", "\"" + hash + "-gzip\"");
+			MockHttpServletResponse response = createResponse("application/javascript");
+
+			sender.send(request, response, new ServletWebRequest(request, response), file);
+
+			assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+			assertArrayEquals(content, response.getContentAsByteArray());
+		}
+	}
+
+	@Test
+	public void sendTest_br() throws Exception
+	{
+		StaticResourceSender sender = new StaticResourceSender(this.compressDirectory);
+
+		byte[] content = createContent(2048);
+		File file = writeFile("test.css", content);
+		byte[] brContent = "br-content".getBytes(StandardCharsets.UTF_8);
+		File brFile = writeFile("test.css.br", brContent);
+		brFile.setLastModified(file.lastModified() + 1000);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test.css");
+		request.addHeader("Accept-Encoding", "gzip, br");
+		MockHttpServletResponse response = createResponse("text/css");
+
+		sender.send(request, response, new ServletWebRequest(request, response), file);
+
+		assertEquals("br", response.getHeader("Content-Encoding"));
+		assertEquals("\"" + sender.getDigest(file).getHash() + "-br\"", response.getHeader("ETag"));
+		assertArrayEquals(brContent, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void sendTest_notCompressible() throws Exception
+	{
+		StaticResourceSender sender = new StaticResourceSender(this.compressDirectory);
+
+		// 过小
+		{
+			byte[] content = createContent(100);
+			File file = writeFile("small.js", content);
+
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/small.js");
+			request.addHeader("Accept-Encoding", "gzip");
+			MockHttpServletResponse response = createResponse("application/javascript");
+
+			sender.send(request, response, new ServletWebRequest(request, response), file);
+
+			assertNull(response.getHeader("Content-Encoding"));
+			assertNull(response.getHeader("Vary"));
+			assertArrayEquals(content, response.getContentAsByteArray());
+		}
+
+		// 非文本类型
+		{
+			byte[] content = createContent(2048);
+			File file = writeFile("image.png", content);
+
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/image.png");
+			request.addHeader("Accept-Encoding", "gzip");
+			MockHttpServletResponse response = createResponse("image/png");
+
+			sender.send(request, response, new ServletWebRequest(request, response), file);
+
+			assertNull(response.getHeader("Content-Encoding"));
+			assertArrayEquals(content, response.getContentAsByteArray());
+		}
+	}
+
+	@Test
+	public void isAcceptEncodingTest()
+	{
+		StaticResourceSender sender = new StaticResourceSender();
+
+		assertFalse(sender.isAcceptEncoding(null, StaticResourceSender.ENCODING_GZIP));
+		assertFalse(sender.isAcceptEncoding("", StaticResourceSender.ENCODING_GZIP));
+
+		assertTrue(sender.isAcceptEncoding("gzip", StaticResourceSender.ENCODING_GZIP));
+		assertTrue(sender.isAcceptEncoding("GZIP", StaticResourceSender.ENCODING_GZIP));
+		assertTrue(sender.isAcceptEncoding("gzip, deflate, br", StaticResourceSender.ENCODING_GZIP));
+		assertTrue(sender.isAcceptEncoding("gzip, deflate, br", StaticResourceSender.ENCODING_BR));
+		assertTrue(sender.isAcceptEncoding("deflate, gzip;q=0.5", StaticResourceSender.ENCODING_GZIP));
+		assertTrue(sender.isAcceptEncoding("gzip;q=1.0", StaticResourceSender.ENCODING_GZIP));
+
+		assertFalse(sender.isAcceptEncoding("deflate", StaticResourceSender.ENCODING_GZIP));
+		assertFalse(sender.isAcceptEncoding("x-gzip", StaticResourceSender.ENCODING_GZIP));
+		assertFalse(sender.isAcceptEncoding("gzip;q=0", StaticResourceSender.ENCODING_GZIP));
+		assertFalse(sender.isAcceptEncoding("br, gzip; q=0.0", StaticResourceSender.ENCODING_GZIP));
+	}
+
+	@Test
+	public void getGzipFileTest() throws Exception
+	{
+		byte[] content = createContent(2048);
+		File file = writeFile("test.json", content);
+
+		// 未设置压缩目录
+		{
+			StaticResourceSender sender = new StaticResourceSender();
+			assertNull(sender.getGzipFile(file, sender.getDigest(file)));
+		}
+
+		StaticResourceSender sender = new StaticResourceSender(this.compressDirectory);
+		StaticResourceSender.ResourceDigest digest = sender.getDigest(file);
+
+		File gzipFile = sender.getGzipFile(file, digest);
+
+		assertTrue(gzipFile.isFile());
+		assertEquals(this.compressDirectory, gzipFile.getParentFile());
+		assertEquals(digest.getHash() + ".gz", gzipFile.getName());
+		assertArrayEquals(content, gunzip(IOUtil.getBytes(IOUtil.getInputStream(gzipFile), true)));
+
+		// 已存在时直接使用，不重新生成
+		long lastModified = gzipFile.lastModified() - 10000;
+		gzipFile.setLastModified(lastModified);
+
+		File gzipFile1 = sender.getGzipFile(file, digest);
+
+		assertEquals(gzipFile, gzipFile1);
+		assertEquals(lastModified, gzipFile1.lastModified());
+
+		// 没有遗留临时文件
+		assertEquals(1, this.compressDirectory.listFiles().length);
+	}
+
+	protected MockHttpServletResponse createResponse(String contentType)
+	{
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.setContentType(contentType);
+
+		return response;
+	}
+
+	protected byte[] createContent(int length)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; sb.length() < length; i++)
+			sb.append("var v").append(i).append(" = ").append(i).append(";\n");
+
+		return sb.substring(0, length).getBytes(StandardCharsets.UTF_8);
+	}
+
+	protected File writeFile(String name, byte[] content) throws IOException
+	{
+		File file = FileUtil.getFile(this.directory, name);
+		OutputStream out = null;
+
+		try
+		{
+			out = new FileOutputStream(file);
+			out.write(content);
+		}
+		finally
+		{
+			IOUtil.close(out);
+		}
+
+		return file;
+	}
+
+	protected byte[] gunzip(byte[] bytes) throws IOException
+	{
+		return IOUtil.getBytes(new GZIPInputStream(new ByteArrayInputStream(bytes)), true);
+	}
+}